@@ -0,0 +1,81 @@
+/// (CC) This work is licensed under a Creative Commons
+/// Attribution 4.0 International License.
+///
+/// You find a copy of the License on the following
+/// page: https://creativecommons.org/licenses/by/4.0/
+package simula.compiler;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/// Attribute File Cache.
+///
+/// A cache of the attribute files read from external .jar files, shared by several
+/// CompilationContexts, e.g. the workers of the CompileServer and the BuildDriver.
+/// The key is the .jar file's path, modification time and size, see AttributeFileIO.
+///
+/// The cache is bounded by the total size of the attribute files it holds. When it is
+/// full, the least recently used attribute files are evicted. When a .jar file is
+/// rewritten, the attribute file of its previous version is evicted at once.
+///
+/// All methods used by the compiler, get and put, are synchronized.
+///
+/// @author Øystein Myhre Andersen
+@SuppressWarnings("serial")
+public final class AttributeFileCache extends LinkedHashMap<String,byte[]> {
+
+	/// The maximum total size of the cached attribute files in bytes.
+	private final long maxBytes;
+
+	/// The total size of the cached attribute files in bytes.
+	private long bytes;
+
+	/// Create a new AttributeFileCache.
+	/// @param maxBytes the maximum total size of the cached attribute files in bytes
+	public AttributeFileCache(final long maxBytes) {
+		super(16, 0.75f, true);
+		this.maxBytes = maxBytes;
+	}
+
+	@Override
+	public synchronized byte[] get(final Object key) {
+		return (super.get(key));
+	}
+
+	@Override
+	public synchronized byte[] put(final String key, final byte[] value) {
+		// Evict the previous versions of the same .jar file
+		String jarPath = jarPath(key);
+		Iterator<Map.Entry<String,byte[]>> it = entrySet().iterator();
+		while (it.hasNext()) {
+			Map.Entry<String,byte[]> entry = it.next();
+			if (!entry.getKey().equals(key) && jarPath(entry.getKey()).equals(jarPath)) {
+				bytes -= entry.getValue().length;
+				it.remove();
+			}
+		}
+		byte[] prev = super.put(key, value);
+		if (prev != null) bytes -= prev.length;
+		bytes += value.length;
+
+		// Evict the least recently used attribute files
+		it = entrySet().iterator();
+		while (bytes > maxBytes && it.hasNext()) {
+			Map.Entry<String,byte[]> entry = it.next();
+			if (entry.getKey().equals(key)) continue;
+			bytes -= entry.getValue().length;
+			it.remove();
+		}
+		return (prev);
+	}
+
+	/// Returns the .jar file path part of a key.
+	/// @param key the key: path '@' modification time ':' size
+	/// @return the .jar file path
+	private static String jarPath(final String key) {
+		int i = key.lastIndexOf('@');
+		return ((i < 0) ? key : key.substring(0, i));
+	}
+
+}
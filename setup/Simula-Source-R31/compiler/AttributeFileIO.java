@@ -5,11 +5,11 @@
 /// page: https://creativecommons.org/licenses/by/4.0/
 package simula.compiler;
 
-import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.Map;
 import java.util.jar.Attributes;
 import java.util.jar.JarFile;
 import java.util.jar.Manifest;
@@ -26,6 +26,7 @@ import simula.compiler.utilities.ClassHierarchy;
 import simula.compiler.utilities.DeclarationList;
 import simula.compiler.utilities.Global;
 import simula.compiler.utilities.ObjectKind;
+import simula.compiler.utilities.CompilerTiming;
 import simula.compiler.utilities.Option;
 import simula.compiler.utilities.Util;
 
@@ -36,7 +37,15 @@ import simula.compiler.utilities.Util;
 /// @author Øystein Myhre Andersen
 public final class AttributeFileIO {
 	/// The Simula version.
-	private final static String version="SimulaAttributeFile: Version 2.0";
+	///
+	/// Version 3.1 is indexed: It has a string table, and the elements of each declaration
+	/// list are segments which are read when they are needed. Object sequence numbers are
+	/// written as int.
+	///
+	/// Version 3.2 is the first version compiled against the per-program runtime context,
+	/// see RTS_Context. The classes of older .jar files use the runtime API it replaced, and
+	/// their attribute files are rejected.
+	private final static String version="SimulaAttributeFile: Version 3.2";
 	
 	/// Default Constructor: NOT USED
 	private AttributeFileIO() {}
@@ -50,7 +59,9 @@ public final class AttributeFileIO {
 		File file = new File(Global.tempClassFileDir,relativeAttributeFileName);
 		if (Option.verbose)
 			Util.println("*** BEGIN Generate SimulaAttributeFile: \"" + file+"\"");
-		byte[] bytes = buildAttrFile(program);
+		// The interface is written first, the attribute file sets the objects' sequence numbers
+		byte[] interfaceBytes = buildAttrFile(program, true);
+		byte[] bytes = buildAttrFile(program, false);
 		String entryName = program.getRelativeAttributeFileName();
 
    		if(Option.compilerMode == Option.CompilerMode.simulaClassLoader) {
@@ -61,19 +72,21 @@ public final class AttributeFileIO {
 			
 		} else {
 			Global.jarFileBuilder.writeJarEntry(entryName, bytes);
+			Global.jarFileBuilder.writeJarEntry(BuildCache.interfaceEntryName(entryName),
+					BuildCache.hash(interfaceBytes).getBytes(Global._CHARSET));
 		}
 		if (Option.verbose)	Util.TRACE("*** ENDOF Generate SimulaAttributeFile: " + file);
 	}
 
-	/// Build a module's attribute file.
+	/// Build a module's attribute file, or its interface.
 	/// @param program the program module.
+	/// @param interfaceOnly true: build the interface, see AttributeOutputStream.
 	/// @return the attribute file's bytes.
 	/// @throws IOException if an io-error occurs.
-	private static byte[] buildAttrFile(final ProgramModule program) throws IOException {
+	private static byte[] buildAttrFile(final ProgramModule program, final boolean interfaceOnly) throws IOException {
 		ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
-		AttributeOutputStream oupt = new AttributeOutputStream(byteArrayOutputStream);
-		oupt.writeString(version);
-		ClassHierarchy.writeObject(oupt);
+		AttributeOutputStream oupt = new AttributeOutputStream(byteArrayOutputStream, version, interfaceOnly);
+		if(!interfaceOnly) ClassHierarchy.writeObject(oupt);
 		if(program.externalHead != null) {
 			for(ExternalDeclaration xdecl:program.externalHead) {
 				oupt.writeObj(xdecl);
@@ -97,22 +110,21 @@ public final class AttributeFileIO {
 			Util.error("Can't read attribute file: " + file);
 			return (null);
 		}
+		CompilerTiming.beginBooking("loading");
 		try {
 			JarFile jarFile = new JarFile(file);
 			Global.externalJarFiles.add(file);
-			Manifest manifest = jarFile.getManifest();
-			Attributes mainAttributes = manifest.getMainAttributes();
-			String simulaInfo = mainAttributes.getValue("SIMULA-INFO");
-			ZipEntry zipEntry = jarFile.getEntry(simulaInfo);
-			if(zipEntry == null)
-				Util.IERR("No Attribute File found in "+file);
 
 			DeclarationList declarationList=enclosure.declarationList;
 			Util.TRACE_INPUT("*** BEGIN Read SimulaAttributeFile: " + file);
 
-			InputStream inputStream = jarFile.getInputStream(zipEntry);
-			byte[] bytes = inputStream.readAllBytes(); inputStream.close();
+			byte[] bytes = getAttributeFileBytes(file, jarFile);
 			BlockDeclaration module = AttributeFileIO.readPrecompiled(file.toString(),bytes);
+			if(module == null) {
+				Util.warning("'" + identifier + "' must be recompiled with this version of the compiler");
+				jarFile.close();
+				return (null);
+			}
 			moduleType = module.type;
 
 			Declaration d=declarationList.find(module.identifier);
@@ -129,26 +141,63 @@ public final class AttributeFileIO {
 				JarFileBuilder.addToIncludeQueue(jarFile);
 			} else {
 				Global.jarFileBuilder.expandJarFile(jarFile);
+				BuildCache.addDependency(file, bytes, jarFile);
 			}
 
 		} catch (IOException e) {
 			Util.error("Unable to read Attribute File: " + file + " caused by: " + e);
 			Util.warning("It may be necessary to recompile '" + identifier + "'");
 			Util.IERR("Caused by:", e);
+		} finally {
+			CompilerTiming.endBooking();
 		}
 		return (moduleType);
 	}
 	
+	/// Returns the attribute file of an external .jar file.
+	/// 
+	/// When a CompilationContext has supplied an attribute file cache, the attribute file
+	/// is looked up by the .jar file's path, modification time and size, and only read
+	/// from the .jar file on a miss.
+	/// @param file the .jar file
+	/// @param jarFile the opened .jar file
+	/// @return the attribute file's bytes
+	/// @throws IOException if somthing went wrong.
+	private static byte[] getAttributeFileBytes(final File file, final JarFile jarFile) throws IOException {
+		Map<String,byte[]> cache = Global.attributeFileCache;
+		String key = null;
+		if(cache != null) {
+			key = file.getCanonicalPath() + '@' + file.lastModified() + ':' + file.length();
+			byte[] bytes = cache.get(key);
+			if(bytes != null) return(bytes);
+		}
+		Manifest manifest = jarFile.getManifest();
+		Attributes mainAttributes = manifest.getMainAttributes();
+		String simulaInfo = mainAttributes.getValue("SIMULA-INFO");
+		ZipEntry zipEntry = jarFile.getEntry(simulaInfo);
+		if(zipEntry == null)
+			Util.IERR("No Attribute File found in "+file);
+		InputStream inputStream = jarFile.getInputStream(zipEntry);
+		byte[] bytes = inputStream.readAllBytes(); inputStream.close();
+		if(cache != null) cache.put(key, bytes);
+		return(bytes);
+	}
+	
 	/// Read and return precompiled class or procedure.
 	/// @param fileID the file ident.
 	/// @param attrFile the attribute file.
-	/// @return the resulting class or procedure.
+	/// @return the resulting class or procedure, or null if the attribute file is obsolete.
 	/// @throws IOException if somthing went wrong.
 	private static BlockDeclaration readPrecompiled(String fileID,byte[] attrFile) throws IOException {
-		AttributeInputStream inpt = new AttributeInputStream(new ByteArrayInputStream(attrFile), fileID);
+		AttributeInputStream inpt = new AttributeInputStream(attrFile, fileID);
 
 		String vers = inpt.readString();
-		if(!(vers.equals(version))) Util.error("Malformed SimulaAttributeFile: " + fileID);
+		if(vers == null || !vers.startsWith("SimulaAttributeFile: ")) throw new IOException("Malformed SimulaAttributeFile: " + fileID);
+		if(!vers.equals(version)) {
+			Util.error("Obsolete SimulaAttributeFile: " + fileID + " is " + vers.substring(21) + ", expected " + version.substring(21));
+			return(null);
+		}
+		inpt.readStringTable();
 
 		ClassHierarchy.readObject(inpt);
 
@@ -6,10 +6,13 @@
 /// page: https://creativecommons.org/licenses/by/4.0/
 package simula.compiler;
 
+import java.io.ByteArrayInputStream;
 import java.io.DataInputStream;
 import java.io.File;
 import java.io.IOException;
-import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.TreeMap;
 
 import simula.compiler.syntaxClass.HiddenSpecification;
 import simula.compiler.syntaxClass.ProtectedSpecification;
@@ -18,6 +21,7 @@ import simula.compiler.syntaxClass.Type;
 import simula.compiler.syntaxClass.declaration.ArrayDeclaration;
 import simula.compiler.syntaxClass.declaration.ClassDeclaration;
 import simula.compiler.syntaxClass.declaration.ConnectionBlock;
+import simula.compiler.syntaxClass.declaration.DeclarationScope;
 import simula.compiler.syntaxClass.declaration.ExternalDeclaration;
 import simula.compiler.syntaxClass.declaration.InspectVariableDeclaration;
 import simula.compiler.syntaxClass.declaration.LabelDeclaration;
@@ -61,6 +65,9 @@ import simula.compiler.syntaxClass.statement.StandaloneExpression;
 import simula.compiler.syntaxClass.statement.StepUntilElement;
 import simula.compiler.syntaxClass.statement.SwitchStatement;
 import simula.compiler.syntaxClass.statement.WhileStatement;
+import simula.compiler.utilities.CompilerTiming;
+import simula.compiler.utilities.DeclarationList;
+import simula.compiler.utilities.Global;
 import simula.compiler.utilities.ObjectKind;
 import simula.compiler.utilities.ObjectList;
 import simula.compiler.utilities.ObjectReferenceMap;
@@ -68,6 +75,10 @@ import simula.compiler.utilities.Util;
 
 /// Attribute input stream.
 /// 
+/// The attribute file is held in a byte array. Declaration list elements written as
+/// segments are not read until they are needed, see readSegment and materialize.
+/// A segment is also read when an object reference refers to an object in it.
+/// 
 /// Link to GitHub: <a href="https://github.com/portablesimula/EclipseWorkSpaces/blob/main/SimulaCompiler2/Simula/src/simula/compiler/AttributeInputStream.java"><b>Source File</b></a>.
 /// 
 /// @author Øystein Myhre Andersen
@@ -75,8 +86,29 @@ public class AttributeInputStream {
 	/// The module ident.
 	String moduleID;
 	
+	/// The attribute file.
+	private final byte[] bytes;
+
+	/// The current ByteArrayInputStream: The attribute file, or a segment being read.
+	private ByteArrayInputStream bytesInpt;
+
+	/// The end position of the current ByteArrayInputStream.
+	private int bytesEnd;
+
 	/// The underlying DataInputStream.
 	DataInputStream inpt;
+
+	/// The string table, or null before it is read.
+	private String[] strings;
+
+	/// The segments not yet read, keyed by their first object sequence number.
+	private final TreeMap<Integer,Segment> pendingSegments = new TreeMap<Integer,Segment>();
+
+	/// The segments read by the current outermost call to materialize.
+	private final ArrayList<Segment> materialized = new ArrayList<Segment>();
+
+	/// The nesting depth of materialize.
+	private int materializeDepth;
 	
 	/// The jarFile being read.
 	public String jarFileName;
@@ -88,12 +120,15 @@ public class AttributeInputStream {
 	/// Debug utility.
 	private boolean TRACE = false; //true;
 
-	/// Creates a new AttributeInputStream to read data from the specified InputStream.
-	/// @param inpt the underlying InputStream.
+	/// Creates a new AttributeInputStream to read data from the specified attribute file.
+	/// @param bytes the attribute file.
 	/// @param jarFileName the name of the jarFile containing this Attribute file.
 	/// @throws IOException if an I/O error occurs.
-    public AttributeInputStream(InputStream inpt, String jarFileName) throws IOException {
-    	this.inpt = new DataInputStream(inpt);
+    public AttributeInputStream(byte[] bytes, String jarFileName) throws IOException {
+    	this.bytes = bytes;
+    	this.bytesInpt = new ByteArrayInputStream(bytes);
+    	this.bytesEnd = bytes.length;
+    	this.inpt = new DataInputStream(bytesInpt);
     	this.jarFileName = jarFileName;
 		objectReference = new ObjectReferenceMap();
 		
@@ -103,9 +138,26 @@ public class AttributeInputStream {
     }
 
     /// Closes this AttributeInputStream.
+    /// 
+    /// Segments not yet read remain readable.
     /// @throws IOException if an I/O error occurs.
 	public void close() throws IOException { inpt.close(); }
-    
+
+	/// Reads the string table, which follows the version string in an indexed attribute file.
+	/// @throws IOException if an I/O error occurs.
+	public void readStringTable() throws IOException {
+		int n = inpt.readInt();
+		strings = new String[n];
+		for(int i=0;i<n;i++) {
+			char[] chars = new char[inpt.readInt()];
+			for(int j=0;j<chars.length;j++) chars[j] = inpt.readChar();
+			strings[i] = new String(chars);
+		}
+		int bodyLength = inpt.readInt();
+		if(bodyLength != bytesInpt.available()) throw new IOException("Malformed SimulaAttributeFile: " + jarFileName);
+		if(TRACE) IO.println("AttributeInputStream.readStringTable: "+n+" strings, body="+bodyLength);
+	}
+
 	/// Reads and returns a kind code from the underlying DataInputStream.
 	/// @return the kind code read.
 	/// @throws IOException if an I/O error occurs.
@@ -173,6 +225,12 @@ public class AttributeInputStream {
     /// @return the String read.
     /// @throws IOException if an I/O error occurs.
     public String readString() throws IOException {
+    	if(strings != null) {
+    		int index = readIndex();
+    		String s = (index == 0) ? null : strings[index - 1];
+        	if(TRACE) IO.println("AttributeInputStream.readString: \""+s+'"');
+    		return s;
+    	}
     	int lng = inpt.readShort()-1;
     	if(lng < 0) {
         	if(TRACE) IO.println("AttributeInputStream.readString: null");
@@ -185,6 +243,18 @@ public class AttributeInputStream {
     	return s;
     }
 
+    /// Reads and returns a string table index from the underlying DataInputStream.
+    /// @return the string table index read, zero denotes null.
+    /// @throws IOException if an I/O error occurs.
+    private int readIndex() throws IOException {
+    	int index = 0;
+    	for(int shift = 0;; shift += 7) {
+    		int b = inpt.readUnsignedByte();
+    		index |= (b & 0x7F) << shift;
+    		if((b & 0x80) == 0) return index;
+    	}
+    }
+
     /// Reads and returns an Object list from the underlying DataInputStream.
     /// @return the Object list read.
     /// @throws IOException if an I/O error occurs.
@@ -197,12 +267,19 @@ public class AttributeInputStream {
 	/// @return the Object sequence number read.
 	/// @throws IOException if an I/O error occurs.
     public int readSEQU(SyntaxClass obj) throws IOException {
-    	int OBJECT_SEQU = inpt.readShort();
+    	int OBJECT_SEQU = readSequenceNumber();
     	if(TRACE) IO.println("AttributeInputStream.readSEQU: " + OBJECT_SEQU + "  ====>  " + obj.getClass().getSimpleName());
 		objectReference.put(OBJECT_SEQU, obj);
     	return OBJECT_SEQU;
 	}
     
+	/// Reads an Object sequence number.
+	/// @return the Object sequence number read.
+	/// @throws IOException if an I/O error occurs.
+	private int readSequenceNumber() throws IOException {
+		return(inpt.readInt());
+	}
+
     /// Reads and returns an Object from the underlying DataInputStream.
     /// @return the Object read.
     /// @throws IOException if an I/O error occurs.
@@ -213,9 +290,10 @@ public class AttributeInputStream {
 			if(TRACE) IO.println("AttributeInputStream.readObj: null");
 			return null;
 		case ObjectKind.ObjectReference:
-			int OBJECT_SEQU = inpt.readShort();
+			int OBJECT_SEQU = readSequenceNumber();
 			if(TRACE) IO.println("AttributeInputStream.readObj: OBJECT_SEQU="+OBJECT_SEQU);
 			SyntaxClass obj = objectReference.get(OBJECT_SEQU);
+			if(obj == null) obj = readPendingObject(OBJECT_SEQU);
 			Util.ASSERT(obj != null, "Invariant: OBJECT_SEQU="+moduleID+"#"+OBJECT_SEQU);
 			if(TRACE) IO.println("AttributeInputStream.readObj: "+obj);
 			return(obj);
@@ -230,6 +308,137 @@ public class AttributeInputStream {
 		}	
 	}
 
+	/// Read the segment holding an object which is referenced before the segment is read.
+	/// @param OBJECT_SEQU the object sequence number.
+	/// @return the object, or null if no segment holds it.
+	/// @throws IOException if an I/O error occurs.
+	private SyntaxClass readPendingObject(int OBJECT_SEQU) throws IOException {
+		SyntaxClass obj = null;
+		while(obj == null) {
+			Map.Entry<Integer,Segment> entry = pendingSegments.floorEntry(OBJECT_SEQU);
+			if(entry == null || entry.getValue().endSequ <= OBJECT_SEQU) break;
+			materialize(entry.getValue());
+			obj = objectReference.get(OBJECT_SEQU);
+		}
+		return(obj);
+	}
+
+	// ***************************************************************
+	// *** Segments
+	// ***************************************************************
+
+	/// A part of the attribute file, written by AttributeOutputStream.writeSegment,
+	/// which is read on demand.
+	public static final class Segment {
+		/// The position of the segment in the attribute file.
+		private final int offset;
+
+		/// The length of the segment.
+		private final int length;
+
+		/// The first object sequence number allocated within the segment.
+		private final int firstSequ;
+
+		/// The object sequence number following the last one allocated within the segment.
+		private final int endSequ;
+
+		/// The current scope when the segment was skipped.
+		private final DeclarationScope scope;
+
+		/// The declaration list to notify when the segment is read, or null.
+		private final DeclarationList owner;
+
+		/// The object read, or null.
+		private SyntaxClass result;
+
+		/// Set when the segment is read.
+		private boolean read;
+
+		/// Create a new Segment.
+		/// @param offset the position of the segment
+		/// @param length the length of the segment
+		/// @param firstSequ the first object sequence number
+		/// @param endSequ the object sequence number following the last one
+		/// @param owner the declaration list to notify, or null
+		private Segment(int offset, int length, int firstSequ, int endSequ, DeclarationList owner) {
+			this.offset = offset;
+			this.length = length;
+			this.firstSequ = firstSequ;
+			this.endSequ = endSequ;
+			this.scope = Global.getCurrentScope();
+			this.owner = owner;
+		}
+
+		/// Returns true if this segment is read.
+		/// @return true if this segment is read
+		public boolean isRead() {
+			return (read);
+		}
+
+		/// Returns the object read from this segment, or null if it is not read.
+		/// @return the object read, or null
+		public SyntaxClass getResult() {
+			return (result);
+		}
+	}
+
+	/// Reads a segment descriptor and skips the segment.
+	/// @param owner the declaration list to notify when the segment is read, or null
+	/// @return the segment
+	/// @throws IOException if an I/O error occurs.
+	public Segment readSegment(DeclarationList owner) throws IOException {
+		int firstSequ = inpt.readInt();
+		int endSequ = inpt.readInt();
+		int length = inpt.readInt();
+		Segment segment = new Segment(bytesEnd - bytesInpt.available(), length, firstSequ, endSequ, owner);
+		inpt.skipNBytes(length);
+		if(endSequ > firstSequ) pendingSegments.put(firstSequ, segment);
+		if(TRACE) IO.println("AttributeInputStream.readSegment: "+firstSequ+".."+endSequ+", "+length+" bytes");
+		return(segment);
+	}
+
+	/// Reads a segment, unless it is already read, and returns the object read.
+	/// 
+	/// The segment is read in the scope that was current when it was skipped. When the
+	/// outermost call to materialize returns, the owners of all segments read are notified.
+	/// @param segment the segment
+	/// @return the object read
+	/// @throws IOException if an I/O error occurs.
+	public SyntaxClass materialize(Segment segment) throws IOException {
+		if(segment.read) return(segment.result);
+		segment.read = true;
+		pendingSegments.remove(segment.firstSequ, segment);
+		ByteArrayInputStream enclosingBytesInpt = bytesInpt;
+		DataInputStream enclosingInpt = inpt;
+		int enclosingBytesEnd = bytesEnd;
+		DeclarationScope enclosingScope = Global.getCurrentScope();
+		bytesInpt = new ByteArrayInputStream(bytes, segment.offset, segment.length);
+		inpt = new DataInputStream(bytesInpt);
+		bytesEnd = segment.offset + segment.length;
+		Global.setScope(segment.scope);
+		materializeDepth++;
+		CompilerTiming.beginBooking("loading");
+		try {
+			if(TRACE) IO.println("AttributeInputStream.materialize: "+segment.firstSequ+".."+segment.endSequ);
+			segment.result = readObj();
+			materialized.add(segment);
+		} finally {
+			CompilerTiming.endBooking();
+			materializeDepth--;
+			Global.setScope(enclosingScope);
+			bytesInpt = enclosingBytesInpt;
+			inpt = enclosingInpt;
+			bytesEnd = enclosingBytesEnd;
+		}
+		if(materializeDepth == 0) {
+			Segment[] done = materialized.toArray(new Segment[materialized.size()]);
+			materialized.clear();
+			for(Segment seg:done)
+				if(seg.owner != null) seg.owner.segmentMaterialized(seg);
+		}
+		return(segment.result);
+	}
+
 	/// Read and return an object.
 	/// @param kind the object kind code.
 	/// @param inpt the AttributeInputStream to read from.
@@ -5,9 +5,13 @@
 /// page: https://creativecommons.org/licenses/by/4.0/
 package simula.compiler;
 
+import java.io.ByteArrayOutputStream;
 import java.io.DataOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 
 import simula.compiler.syntaxClass.SyntaxClass;
 import simula.compiler.syntaxClass.Type;
@@ -18,26 +22,82 @@ import simula.compiler.utilities.Util;
 
 /// Attribute output stream.
 /// 
+/// The attribute file starts with the version string. It is followed by a string table,
+/// and then by the body, in which every string is written as a string table index.
+/// Declaration list elements are written as segments, see writeSegment, which
+/// the AttributeInputStream is able to read lazily.
+/// 
+/// An AttributeOutputStream may instead write the interface of a module, which is only
+/// hashed, see BuildCache. The interface leaves out the statements, line numbers and
+/// sequence numbers, and the declarations made by statements, e.g. connection blocks.
+/// It changes when the declarations change, but not when only the statements change.
+/// Writing the interface doesn't set the objects' sequence numbers.
+/// 
 /// Link to GitHub: <a href="https://github.com/portablesimula/EclipseWorkSpaces/blob/main/SimulaCompiler2/Simula/src/simula/compiler/AttributeOutputStream.java"><b>Source File</b></a>.
 /// 
 /// @author Øystein Myhre Andersen
 public class AttributeOutputStream {
 	/// The underlying DataOutputStream.
+	private final DataOutputStream target;
+
+	/// The current DataOutputStream: The body, or a segment being written.
 	DataOutputStream oupt;
 
+	/// The body, which is written to the target when this stream is closed.
+	private final ByteArrayOutputStream body;
+
+	/// The string table.
+	private final ArrayList<String> strings = new ArrayList<String>();
+
+	/// The string table indexes.
+	private final HashMap<String,Integer> stringIndex = new HashMap<String,Integer>();
+
+	/// True if this stream writes the interface of a module.
+	private final boolean interfaceOnly;
+
+	/// The objects written so far, when the interface is written.
+	private final IdentityHashMap<SyntaxClass,Integer> written = new IdentityHashMap<SyntaxClass,Integer>();
+
 	/// Debug utility.
 	private boolean TRACE = false; //true;
 
 	/// Creates a new AttributeOutputStream to write data to the specified OutputStream.
 	/// @param oupt the underlying OutputStream.
+	/// @param version the attribute file version string.
 	/// @throws IOException if an I/O error occurs.
-    public AttributeOutputStream(OutputStream oupt) throws IOException {
-    	this.oupt = new DataOutputStream(oupt);
+    public AttributeOutputStream(OutputStream oupt, String version) throws IOException {
+    	this(oupt, version, false);
+    }
+
+	/// Creates a new AttributeOutputStream to write data to the specified OutputStream.
+	/// @param oupt the underlying OutputStream.
+	/// @param version the attribute file version string.
+	/// @param interfaceOnly true: write the interface of the module.
+	/// @throws IOException if an I/O error occurs.
+    public AttributeOutputStream(OutputStream oupt, String version, boolean interfaceOnly) throws IOException {
+    	this.interfaceOnly = interfaceOnly;
+    	this.target = new DataOutputStream(oupt);
+    	target.writeShort(version.length() + 1);
+    	target.writeChars(version);
+    	this.body = new ByteArrayOutputStream();
+    	this.oupt = new DataOutputStream(body);
     }
 
     /// Closes this AttributeOutputStream.
+    /// 
+    /// The string table and the body are written to the underlying OutputStream.
     /// @throws IOException if an I/O error occurs.
-	public void close() throws IOException { oupt.flush(); oupt.close(); }
+	public void close() throws IOException {
+		oupt.flush();
+		target.writeInt(strings.size());
+		for(String s:strings) {
+			target.writeInt(s.length());
+			target.writeChars(s);
+		}
+		target.writeInt(body.size());
+		body.writeTo(target);
+		target.flush(); target.close();
+	}
 
 	/// Writes a kind code to the underlying DataOutputStream.
 	/// @param i a kind code to be written.
@@ -78,6 +138,32 @@ public class AttributeOutputStream {
 		oupt.writeShort(i);			
 	}
 
+	/// Returns true if this stream writes the interface of a module.
+	/// @return true if this stream writes the interface of a module
+	public boolean isInterfaceOnly() {
+		return(interfaceOnly);
+	}
+
+    /// Writes a source line number to the underlying DataOutputStream.
+    /// Zero is written when the interface is written.
+    /// @param lineNumber a line number to be written.
+    /// @throws IOException if an I/O error occurs.
+    public void writeLINE(int lineNumber) throws IOException {
+		writeShort((interfaceOnly) ? 0 : lineNumber);
+	}
+
+    /// Writes an Object sequence number to the underlying DataOutputStream.
+    /// 
+    /// Sequence numbers are written as int: they start at 8001, and a large
+    /// module may use more than Short.MAX_VALUE of them.
+    /// @param OBJECT_SEQU an Object sequence number to be written.
+    /// @throws IOException if an I/O error occurs.
+    public void writeSEQU(int OBJECT_SEQU) throws IOException {
+		if(TRACE) IO.println("AttributeOutputStream.writeSEQU: "+OBJECT_SEQU);
+		if(interfaceOnly) return;
+		oupt.writeInt(OBJECT_SEQU);
+	}
+
     /// Writes a typed constant to the underlying DataOutputStream.
     /// @param c a typed constant to be written.
     /// @throws IOException if an I/O error occurs.
@@ -99,14 +185,29 @@ public class AttributeOutputStream {
     /// @throws IOException if an I/O error occurs.
     public void writeString(String s) throws IOException {
 		if(TRACE) IO.println("AttributeOutputStream.writeString: "+s);
-		if(s == null) oupt.writeShort(0);
+		if(s == null) writeIndex(0);
 		else {
-			int lng = s.length();
-			oupt.writeShort(lng+1);
-			for(int i=0;i<lng;i++) oupt.writeChar(s.charAt(i));
+			Integer index = stringIndex.get(s);
+			if(index == null) {
+				strings.add(s);
+				index = strings.size();
+				stringIndex.put(s, index);
+			}
+			writeIndex(index);
 		}
 	}
 
+    /// Writes a string table index, in one to five bytes, to the underlying DataOutputStream.
+    /// @param index a string table index, zero denotes null.
+    /// @throws IOException if an I/O error occurs.
+    private void writeIndex(int index) throws IOException {
+    	while((index & ~0x7F) != 0) {
+    		oupt.writeByte((index & 0x7F) | 0x80);
+    		index >>>= 7;
+    	}
+    	oupt.writeByte(index);
+    }
+
     /// Writes a Object list to the underlying DataOutputStream.
     /// @param list a Object list to be written.
     /// @throws IOException if an I/O error occurs.
@@ -114,6 +215,14 @@ public class AttributeOutputStream {
 		ObjectList.write(list, this);
 	}
 
+    /// Writes a statement list to the underlying DataOutputStream.
+    /// Nothing is written when the interface is written.
+    /// @param statements a statement list to be written.
+    /// @throws IOException if an I/O error occurs.
+	public void writeStatements(ObjectList<?> statements) throws IOException {
+		if(!interfaceOnly) ObjectList.write(statements, this);
+	}
+
 	/// Writes a Object to the underlying DataOutputStream.
 	/// @param obj a Object to be written.
 	/// @throws IOException if an I/O error occurs.
@@ -121,10 +230,20 @@ public class AttributeOutputStream {
 		if(obj == null) {
 			if(TRACE) IO.println("AttributeOutputStream.writeObj: null");
 			writeKind(ObjectKind.NULL);
+		} else if(interfaceOnly && obj.OBJECT_SEQU == 0) {
+			// Objects of this module are numbered in the order they are written
+			Integer index = written.get(obj);
+			if(index != null) {
+				writeKind(ObjectKind.ObjectReference);
+				oupt.writeInt(index);
+			} else {
+				written.put(obj, written.size() + 1);
+				obj.writeObject(this);
+			}
 		} else if(obj.OBJECT_SEQU != 0) {
 			if(TRACE) IO.println("AttributeOutputStream.writeObj: ObjectReference "+(obj.OBJECT_SEQU));
 			writeKind(ObjectKind.ObjectReference);
-			oupt.writeShort(obj.OBJECT_SEQU);
+			oupt.writeInt(obj.OBJECT_SEQU);
 		} else {
 			obj.OBJECT_SEQU = Global.Object_SEQU++;
 			if(TRACE) IO.println("AttributeOutputStream.writeObj: OBJECT_SEQU="+obj.OBJECT_SEQU+": "+obj.getClass().getSimpleName()+"  "+obj);
@@ -132,4 +251,33 @@ public class AttributeOutputStream {
 		}
     }
 
+	/// Writes an Object as a separately readable segment.
+	/// 
+	/// The segment is written as the range of object sequence numbers allocated while
+	/// writing it, the segment length, and the segment itself. This lets the
+	/// AttributeInputStream skip the segment, and read it later on demand.
+	/// @param obj a Object to be written.
+	/// @throws IOException if an I/O error occurs.
+    public void writeSegment(SyntaxClass obj) throws IOException {
+    	if(interfaceOnly) {
+    		writeObj(obj);
+    		return;
+    	}
+    	DataOutputStream enclosing = oupt;
+    	ByteArrayOutputStream segment = new ByteArrayOutputStream();
+    	int firstSequ = Global.Object_SEQU;
+    	oupt = new DataOutputStream(segment);
+    	try {
+    		writeObj(obj);
+    		oupt.flush();
+    	} finally {
+    		oupt = enclosing;
+    	}
+    	if(TRACE) IO.println("AttributeOutputStream.writeSegment: "+firstSequ+".."+Global.Object_SEQU+", "+segment.size()+" bytes");
+    	oupt.writeInt(firstSequ);
+    	oupt.writeInt(Global.Object_SEQU);
+    	oupt.writeInt(segment.size());
+    	segment.writeTo(oupt);
+    }
+
 }
\ No newline at end of file
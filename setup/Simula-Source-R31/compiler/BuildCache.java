@@ -0,0 +1,395 @@
+/// (CC) This work is licensed under a Creative Commons
+/// Attribution 4.0 International License.
+///
+/// You find a copy of the License on the following
+/// page: https://creativecommons.org/licenses/by/4.0/
+package simula.compiler;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.Vector;
+import java.util.function.Predicate;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.jar.Manifest;
+
+import simula.compiler.parsing.SimulaScanner;
+import simula.compiler.utilities.Global;
+import simula.compiler.utilities.Option;
+import simula.compiler.utilities.Util;
+
+/// Incremental Compilation Build Cache.
+///
+/// When Option.incremental is set, each compilation of a source file leaves a build
+/// record in the output directory: '.simulacache/sourceName.properties'. The record holds
+///
+/// 	- a fingerprint of the source file and the compiler options,
+/// 	- each file inserted by a %INSERT directive, with a hash of its contents,
+/// 	- the output .jar file and a hash of its contents,
+/// 	- each external .jar file whose attribute file was read, with a hash of its
+/// 	  interface, a hash of the attribute file and a hash of the .jar file (its contents).
+///
+/// The interface hash is written into the external .jar file by the compilation which
+/// made it, see AttributeOutputStream. It covers the declarations of the module, but
+/// not its statements.
+///
+/// The next compilation of the same source file is skipped, and the previous output
+/// .jar file reused, when the fingerprint and every inserted file are unchanged, and
+/// every external module has the same interface hash. If an external module is
+/// recompiled with an unchanged interface, only its classes are copied into the reused
+/// .jar file. If an interface hash has changed, the dependent module is recompiled.
+///
+/// A subclass of an external class includes the statements of its prefix classes in
+/// its own code. Such an external module is compared by the hash of its attribute file.
+///
+/// @author Øystein Myhre Andersen
+public final class BuildCache {
+	/// The build record version.
+	private final static String version = "SimulaBuildRecord: Version 2.0";
+
+	/// The build record of the current compilation, or null when the cache is not in use.
+	private static File recordFile;
+
+	/// The fingerprint of the current source file and compiler options.
+	private static String fingerprint;
+
+	/// The external modules read during the current compilation, in the order they were included.
+	private static Vector<Dependency> dependencies;
+
+	/// The files inserted during the current compilation.
+	private static Vector<File> insertedFiles;
+
+	/// The external .jar files whose class statements are included in the current compilation.
+	private static Set<File> inheritedFiles;
+
+	/// Default Constructor: NOT USED
+	private BuildCache() {}
+
+	/// An external module read during compilation.
+	/// @param jarFile the external .jar file
+	/// @param interfaceHash hash of the module's interface
+	/// @param attributeHash hash of the attribute file
+	/// @param contentHash hash of the .jar file
+	/// @param entries the class entries included from the .jar file
+	private record Dependency(File jarFile, String interfaceHash, String attributeHash, String contentHash, Set<String> entries) {}
+
+	/// Start the build cache for a new compilation.
+	/// The cache is only used when the source is read from file and the output is a .jar file.
+	/// @param sourceFile the source file, or null if the source is not read from file
+	/// @throws IOException if something went wrong
+	static void begin(final File sourceFile) throws IOException {
+		recordFile = null;
+		dependencies = null;
+		insertedFiles = null;
+		inheritedFiles = null;
+		if (!Option.incremental || sourceFile == null) return;
+		if (Option.compilerMode == Option.CompilerMode.simulaClassLoader) return;
+		recordFile = new File(Global.outputDir, ".simulacache/" + Global.sourceName + ".properties");
+		fingerprint = fingerprint(sourceFile);
+		dependencies = new Vector<Dependency>();
+		insertedFiles = new Vector<File>();
+		inheritedFiles = new HashSet<File>();
+	}
+
+	/// Returns the output .jar file of a previous compilation when it is up to date, otherwise null.
+	/// @return the reusable .jar file, or null
+	static File lookup() {
+		if (recordFile == null || !recordFile.exists()) return (null);
+		try {
+			Properties record = new Properties();
+			try (InputStream inpt = new FileInputStream(recordFile)) {
+				record.load(inpt);
+			}
+			if (!version.equals(record.getProperty("version"))) return (null);
+			if (!fingerprint.equals(record.getProperty("fingerprint"))) return (miss("source or options changed"));
+			File outputJarFile = new File(record.getProperty("output"));
+			if (!outputJarFile.exists() || !hash(outputJarFile).equals(record.getProperty("output.hash")))
+				return (miss("output " + outputJarFile + " changed"));
+			int m = Integer.parseInt(record.getProperty("inserts", "0"));
+			for (int i = 0; i < m; i++) {
+				File file = new File(record.getProperty("insert." + i + ".file"));
+				if (!file.exists() || !hash(file).equals(record.getProperty("insert." + i + ".hash")))
+					return (miss("inserted file " + file + " changed"));
+			}
+
+			// Compare the external modules read last time with their current state
+			boolean relink = false;
+			Vector<Dependency> current = new Vector<Dependency>();
+			int n = Integer.parseInt(record.getProperty("dependencies", "0"));
+			for (int i = 0; i < n; i++) {
+				File jarFile = new File(record.getProperty("dependency." + i + ".file"));
+				if (!jarFile.exists()) return (miss(jarFile + " is missing"));
+				Dependency dep = readDependency(jarFile);
+				if (!dep.interfaceHash().equals(record.getProperty("dependency." + i + ".interface")))
+					return (miss("the interface of " + jarFile + " changed"));
+				if (Boolean.parseBoolean(record.getProperty("dependency." + i + ".inherits"))
+						&& !dep.attributeHash().equals(record.getProperty("dependency." + i + ".attributes")))
+					return (miss("the class statements of " + jarFile + " changed"));
+				if (!dep.contentHash().equals(record.getProperty("dependency." + i + ".content"))) relink = true;
+				current.add(dep);
+			}
+			if (relink) {
+				Set<String> previousEntries = new HashSet<String>();
+				for (int i = 0; i < n; i++) {
+					String entries = record.getProperty("dependency." + i + ".entries", "");
+					for (String entry : entries.split(",")) if (!entry.isEmpty()) previousEntries.add(entry);
+				}
+				relink(outputJarFile, previousEntries, current);
+				dependencies = current;
+				insertedFiles = new Vector<File>();
+				for (int i = 0; i < m; i++) insertedFiles.add(new File(record.getProperty("insert." + i + ".file")));
+				inheritedFiles = new HashSet<File>();
+				for (int i = 0; i < n; i++)
+					if (Boolean.parseBoolean(record.getProperty("dependency." + i + ".inherits"))) inheritedFiles.add(current.get(i).jarFile());
+				store(outputJarFile);
+			}
+			if (Option.verbose) Util.println("BuildCache: " + Global.sourceName + " is up to date: " + outputJarFile);
+			return (outputJarFile);
+		} catch (IOException | RuntimeException e) {
+			return (miss("unreadable build record: " + e));
+		}
+	}
+
+	/// Trace a cache miss.
+	/// @param reason the reason
+	/// @return null
+	private static File miss(final String reason) {
+		if (Option.verbose) Util.println("BuildCache: Recompile " + Global.sourceName + ": " + reason);
+		return (null);
+	}
+
+	/// Register an external .jar file whose attribute file was read and whose classes are included.
+	/// @param file the external .jar file
+	/// @param attributeFile the attribute file's bytes
+	/// @param jarFile the opened .jar file
+	/// @throws IOException if something went wrong
+	static void addDependency(final File file, final byte[] attributeFile, final JarFile jarFile) throws IOException {
+		if (dependencies == null) return;
+		dependencies.add(new Dependency(file.getCanonicalFile(), interfaceHash(attributeFile, jarFile), hash(attributeFile), hash(file), classEntries(jarFile)));
+	}
+
+	/// Register a file inserted by a %INSERT directive.
+	/// @param file the inserted file
+	public static void addInsertedFile(final File file) {
+		if (insertedFiles == null) return;
+		try {
+			insertedFiles.add(file.getCanonicalFile());
+		} catch (IOException e) {
+			insertedFiles.add(file.getAbsoluteFile());
+		}
+	}
+
+	/// Register that the statements of an external class are included in the current compilation.
+	/// @param jarFileName the name of the external .jar file
+	public static void addInheritedStatements(final String jarFileName) {
+		if (inheritedFiles == null) return;
+		try {
+			inheritedFiles.add(new File(jarFileName).getCanonicalFile());
+		} catch (IOException e) {
+			inheritedFiles.add(new File(jarFileName).getAbsoluteFile());
+		}
+	}
+
+	/// Write the build record after a successful compilation.
+	/// @param outputJarFile the output .jar file
+	/// @throws IOException if something went wrong
+	static void store(final File outputJarFile) throws IOException {
+		if (recordFile == null || outputJarFile == null) return;
+		Properties record = new Properties();
+		record.setProperty("version", version);
+		record.setProperty("fingerprint", fingerprint);
+		record.setProperty("output", outputJarFile.getCanonicalPath());
+		record.setProperty("output.hash", hash(outputJarFile));
+		record.setProperty("inserts", "" + insertedFiles.size());
+		for (int i = 0; i < insertedFiles.size(); i++) {
+			File file = insertedFiles.get(i);
+			record.setProperty("insert." + i + ".file", file.toString());
+			record.setProperty("insert." + i + ".hash", hash(file));
+		}
+		record.setProperty("dependencies", "" + dependencies.size());
+		for (int i = 0; i < dependencies.size(); i++) {
+			Dependency dep = dependencies.get(i);
+			record.setProperty("dependency." + i + ".file", dep.jarFile().toString());
+			record.setProperty("dependency." + i + ".interface", dep.interfaceHash());
+			record.setProperty("dependency." + i + ".attributes", dep.attributeHash());
+			record.setProperty("dependency." + i + ".inherits", "" + inheritedFiles.contains(dep.jarFile()));
+			record.setProperty("dependency." + i + ".content", dep.contentHash());
+			record.setProperty("dependency." + i + ".entries", String.join(",", dep.entries()));
+		}
+		recordFile.getParentFile().mkdirs();
+		try (OutputStream oupt = new FileOutputStream(recordFile)) {
+			record.store(oupt, Global.simulaReleaseID + " build record of " + Global.sourceFileName);
+		}
+	}
+
+	// ***************************************************************
+	// *** Utilities
+	// ***************************************************************
+
+	/// Read the current state of an external .jar file.
+	/// @param file the external .jar file
+	/// @return the dependency
+	/// @throws IOException if something went wrong
+	private static Dependency readDependency(final File file) throws IOException {
+		try (JarFile jarFile = new JarFile(file)) {
+			String simulaInfo = jarFile.getManifest().getMainAttributes().getValue("SIMULA-INFO");
+			JarEntry entry = (simulaInfo == null) ? null : jarFile.getJarEntry(simulaInfo);
+			if (entry == null) throw new IOException("No Attribute File found in " + file);
+			byte[] attributeFile;
+			try (InputStream inpt = jarFile.getInputStream(entry)) {
+				attributeFile = inpt.readAllBytes();
+			}
+			return (new Dependency(file, interfaceHash(attributeFile, jarFile), hash(attributeFile), hash(file), classEntries(jarFile)));
+		}
+	}
+
+	/// Returns the name of the entry holding the interface hash of an attribute file.
+	/// @param attributeEntryName the attribute file's entry name
+	/// @return the entry name
+	static String interfaceEntryName(final String attributeEntryName) {
+		return (attributeEntryName + ".interface");
+	}
+
+	/// Returns the interface hash of an external module.
+	/// A .jar file without an interface hash is compared by its attribute file.
+	/// @param attributeFile the attribute file's bytes
+	/// @param jarFile the opened .jar file
+	/// @return the interface hash
+	/// @throws IOException if something went wrong
+	private static String interfaceHash(final byte[] attributeFile, final JarFile jarFile) throws IOException {
+		String simulaInfo = jarFile.getManifest().getMainAttributes().getValue("SIMULA-INFO");
+		JarEntry entry = (simulaInfo == null) ? null : jarFile.getJarEntry(interfaceEntryName(simulaInfo));
+		if (entry == null) return (hash(attributeFile));
+		try (InputStream inpt = jarFile.getInputStream(entry)) {
+			return (new String(inpt.readAllBytes(), Global._CHARSET));
+		}
+	}
+
+	/// Returns the names of the class entries JarFileBuilder.expandJarFile includes from a .jar file.
+	/// @param jarFile the .jar file
+	/// @return the entry names, sorted
+	private static Set<String> classEntries(final JarFile jarFile) {
+		Set<String> entries = new TreeSet<String>();
+		Enumeration<JarEntry> e = jarFile.entries();
+		while (e.hasMoreElements()) {
+			String name = e.nextElement().getName();
+			if (name.startsWith(Global.packetName) && name.endsWith(".class")) entries.add(name);
+		}
+		return (entries);
+	}
+
+	/// Replace the classes included from external modules in a previous output .jar file.
+	///
+	/// The external modules are applied in the order they were included by the compiler,
+	/// so that the result equals that of a new compilation. Like JarFileBuilder.expandJarFile,
+	/// the entries are copied without inflating them; entries which can't be copied raw
+	/// are compressed as given by Option.noCompress.
+	/// @param outputJarFile the previous output .jar file
+	/// @param previousEntries the entries included from external modules last time
+	/// @param current the external modules
+	/// @throws IOException if something went wrong
+	private static void relink(final File outputJarFile, final Set<String> previousEntries, final Vector<Dependency> current) throws IOException {
+		if (Option.verbose) Util.println("BuildCache: Relink " + outputJarFile);
+		TreeMap<String, JarFileWriter.Entry> entries = new TreeMap<String, JarFileWriter.Entry>();
+		File tempFile = new File(outputJarFile.getPath() + ".tmp");
+		Manifest manifest;
+		try (JarFile prev = new JarFile(outputJarFile)) {
+			manifest = prev.getManifest();
+			entries.putAll(readEntries(outputJarFile, prev,
+					(name) -> !previousEntries.contains(name) && !name.equalsIgnoreCase(JarFile.MANIFEST_NAME)));
+		}
+		for (Dependency dep : current) {
+			try (JarFile jarFile = new JarFile(dep.jarFile())) {
+				entries.putAll(readEntries(dep.jarFile(), jarFile, (name) -> dep.entries().contains(name)));
+			}
+		}
+		JarFileWriter oupt = new JarFileWriter(tempFile, manifest);
+		try {
+			for (Map.Entry<String, JarFileWriter.Entry> entry : entries.entrySet())
+				oupt.putEntry(entry.getKey(), entry.getValue());
+		} finally {
+			oupt.close();
+		}
+		Files.move(tempFile.toPath(), outputJarFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+	}
+
+	/// Read some entries of a .jar file, raw when possible.
+	/// @param file the .jar file
+	/// @param jarFile the opened .jar file
+	/// @param filter selects the entry names
+	/// @return the selected entries
+	/// @throws IOException if something went wrong
+	private static Map<String, JarFileWriter.Entry> readEntries(final File file, final JarFile jarFile, final Predicate<String> filter) throws IOException {
+		TreeMap<String, JarFileWriter.Entry> entries = JarFileWriter.readRawEntries(file, filter);
+		if (entries != null) return (entries);
+		entries = new TreeMap<String, JarFileWriter.Entry>();
+		Enumeration<JarEntry> e = jarFile.entries();
+		while (e.hasMoreElements()) {
+			JarEntry entry = e.nextElement();
+			if (!filter.test(entry.getName())) continue;
+			try (InputStream inpt = jarFile.getInputStream(entry)) {
+				entries.put(entry.getName(), JarFileWriter.compress(inpt.readAllBytes(), !Option.noCompress));
+			}
+		}
+		return (entries);
+	}
+
+	/// Returns the fingerprint of a source file and the compiler options which affect the output.
+	/// @param sourceFile the source file
+	/// @return the fingerprint
+	/// @throws IOException if something went wrong
+	private static String fingerprint(final File sourceFile) throws IOException {
+		StringBuilder sb = new StringBuilder();
+		sb.append(Global.simulaReleaseID).append('|').append(Option.compilerMode)
+		  .append("|CaseSensitive=").append(Option.CaseSensitive)
+		  .append("|EXTENSIONS=").append(Option.EXTENSIONS)
+		  .append("|noCompress=").append(Option.noCompress)
+		  .append("|TESTING_STACK_SIZE=").append(Option.internal.TESTING_STACK_SIZE)
+		  .append("|GNERATE_LINE_CALLS=").append(Option.internal.GNERATE_LINE_CALLS)
+		  .append("|packetName=").append(Global.packetName)
+		  .append("|outputDir=").append(Global.outputDir)
+		  .append("|extLib=").append(Global.extLib)
+		  .append("|select=");
+		for (int i = 0; i < SimulaScanner.selector.length; i++)
+			if (SimulaScanner.selector[i]) sb.append((char) i);
+		sb.append("|source=").append(hash(sourceFile));
+		return (hash(sb.toString().getBytes(Global._CHARSET)));
+	}
+
+	/// Returns the SHA-256 hash of a file's contents.
+	/// @param file the file
+	/// @return the hash as a hex string
+	/// @throws IOException if something went wrong
+	private static String hash(final File file) throws IOException {
+		return (hash(Files.readAllBytes(file.toPath())));
+	}
+
+	/// Returns the SHA-256 hash of some bytes.
+	/// @param bytes the bytes
+	/// @return the hash as a hex string
+	static String hash(final byte[] bytes) {
+		try {
+			return (HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes)));
+		} catch (NoSuchAlgorithmException e) {
+			Util.IERR("SHA-256 is not available", e);
+			return (null);
+		}
+	}
+
+}
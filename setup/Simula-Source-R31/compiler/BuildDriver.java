@@ -0,0 +1,532 @@
+/// (CC) This work is licensed under a Creative Commons
+/// Attribution 4.0 International License.
+///
+/// You find a copy of the License on the following
+/// page: https://creativecommons.org/licenses/by/4.0/
+package simula.compiler;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Vector;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import simula.compiler.utilities.Util;
+
+/// Simula Build Driver.
+///
+/// Compiles a set of Simula source files which refer to each other through external
+/// declarations. The dependencies are discovered from the sources, and the modules are
+/// compiled in-process, each in a CompilationContext, as soon as all the modules they
+/// depend on are compiled. Independent modules are compiled concurrently.
+///
+/// The Build Driver is started by a command-line of this form:
+///
+/// 		java -cp releaseHome\simula.jar simula.compiler.BuildDriver [-workers n] [simula-options] sourceFileOrDirectory ...
+///
+/// A directory stands for all .sim files in it. The simula-options are passed on to
+/// every compilation. The generated programs are never executed, i.e. -noexec is
+/// implied. All modules are written to the same output directory, where the compiler
+/// looks for the .jar files of external classes and procedures. Unless given by -output,
+/// it is the directory 'bin' next to the first source file.
+///
+/// When all modules are done, the critical path is reported: the chain of dependent
+/// modules with the longest total compile time, which bounds the build time.
+///
+/// @author Øystein Myhre Andersen
+public final class BuildDriver {
+
+	/// The modules to build, keyed by module identifier in upper case.
+	private final Map<String, Module> modules = new LinkedHashMap<String, Module>();
+
+	/// The simula-options passed on to every compilation.
+	private final Vector<String> options;
+
+	/// The number of concurrent compilations.
+	private final int nWorkers;
+
+	/// The maximum total size of the cached attribute files in bytes.
+	private static final long CACHE_SIZE = 64L << 20;
+
+	/// Attribute files shared by all workers.
+	private final Map<String,byte[]> attributeFileCache = new AttributeFileCache(CACHE_SIZE);
+
+	/// Count of modules not yet done.
+	private CountDownLatch remaining;
+
+	/// The start time of the build in nanoseconds.
+	private long buildStart;
+
+	/// A module to build.
+	private static final class Module {
+		/// The source file.
+		final File sourceFile;
+		/// The module identifier, or the source file's base name for a main program.
+		final String identifier;
+		/// The identifiers of the external classes and procedures.
+		final Vector<String> externals;
+		/// The modules this module depends on.
+		final Vector<Module> dependencies = new Vector<Module>();
+		/// The modules depending on this module.
+		final Vector<Module> dependents = new Vector<Module>();
+		/// The number of dependencies not yet compiled.
+		int pending;
+		/// Compile time in nanoseconds.
+		long time;
+		/// Completion time in nanoseconds after the build started.
+		long finished;
+		/// The number of errors, or -1 if not compiled.
+		int nError = -1;
+		/// The module on the critical path to this module, if any.
+		Module criticalDependency;
+		/// The length of the critical path ending with this module, in nanoseconds.
+		long criticalLength;
+
+		/// Create a new Module.
+		/// @param sourceFile the source file
+		/// @param identifier the module identifier
+		/// @param externals the external identifiers
+		Module(final File sourceFile, final String identifier, final Vector<String> externals) {
+			this.sourceFile = sourceFile;
+			this.identifier = identifier;
+			this.externals = externals;
+		}
+
+		@Override
+		public String toString() {
+			return (identifier + " (" + sourceFile.getName() + ')');
+		}
+	}
+
+	/// Create a new BuildDriver.
+	/// @param options the simula-options passed on to every compilation
+	/// @param nWorkers the number of concurrent compilations
+	public BuildDriver(final Vector<String> options, final int nWorkers) {
+		this.options = options;
+		this.nWorkers = nWorkers;
+	}
+
+	/// Main entry.
+	/// @param argv arguments
+	public static void main(final String[] argv) {
+		int nWorkers = Runtime.getRuntime().availableProcessors();
+		Vector<String> options = new Vector<String>();
+		Vector<File> sources = new Vector<File>();
+		for (int i = 0; i < argv.length; i++) {
+			String arg = argv[i];
+			if (arg.equalsIgnoreCase("-workers")) nWorkers = Math.max(1, Integer.parseInt(argv[++i]));
+			else if (arg.startsWith("-")) {
+				options.add(arg);
+				if (takesValue(arg)) options.add(argv[++i]);
+			} else {
+				File file = new File(arg);
+				if (file.isDirectory()) {
+					File[] files = file.listFiles((dir, name) -> name.toLowerCase().endsWith(".sim"));
+					if (files != null) for (File f : files) sources.add(f);
+				} else sources.add(file);
+			}
+		}
+		if (sources.isEmpty()) {
+			Util.printError("Usage: java -cp simula.jar simula.compiler.BuildDriver [-workers n] [simula-options] sourceFileOrDirectory ...");
+			System.exit(-1);
+		}
+		BuildDriver driver = new BuildDriver(options, nWorkers);
+		try {
+			for (File source : sources) driver.addSource(source);
+			System.exit(driver.build() ? 0 : 1);
+		} catch (IOException | IllegalStateException e) {
+			Util.printError("BuildDriver: " + e.getMessage());
+			System.exit(-1);
+		}
+	}
+
+	/// Returns true if the simula-option is followed by a value.
+	/// @param option the option
+	/// @return true if the option takes a value
+	private static boolean takesValue(final String option) {
+		for (String opt : new String[] { "-compilerMode", "-select", "-keepJava", "-output", "-extLib", "-parallel",
+				"-source", "-sourceFileDir", "-runtimeUserDir" })
+			if (opt.equalsIgnoreCase(option)) return (true);
+		return (false);
+	}
+
+	/// Add a source file to the build, discovering its module identifier and external declarations.
+	/// @param sourceFile the source file
+	/// @throws IOException if the source file can't be read
+	public void addSource(final File sourceFile) throws IOException {
+		String text = new String(Files.readAllBytes(sourceFile.toPath()), Charset.defaultCharset());
+		DependencyScanner scanner = new DependencyScanner(text);
+		String identifier = scanner.moduleIdentifier;
+		if (identifier == null) identifier = baseName(sourceFile.getName());
+		Module module = new Module(sourceFile, identifier, scanner.externals);
+		Module prev = modules.put(identifier.toUpperCase(Locale.ROOT), module);
+		if (prev != null) throw new IllegalStateException("Module " + identifier + " is defined by both " + prev.sourceFile + " and " + sourceFile);
+	}
+
+	/// Returns the file name without extension.
+	/// @param fileName a file name
+	/// @return the base name
+	private static String baseName(final String fileName) {
+		int i = fileName.lastIndexOf('.');
+		return ((i > 0) ? fileName.substring(0, i) : fileName);
+	}
+
+	/// Build all modules.
+	/// @return true if all modules compiled without errors
+	public boolean build() {
+		setOutputDir();
+		resolveDependencies();
+		checkCycles();
+		BlockingQueue<CompilationContext> workers = new ArrayBlockingQueue<CompilationContext>(nWorkers);
+		for (int i = 0; i < nWorkers; i++) workers.add(new CompilationContext(attributeFileCache));
+		ExecutorService executor = Executors.newFixedThreadPool(nWorkers);
+		remaining = new CountDownLatch(modules.size());
+		buildStart = System.nanoTime();
+		try {
+			synchronized (this) {
+				for (Module module : modules.values())
+					if (module.pending == 0) submit(executor, workers, module);
+			}
+			remaining.await();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return (false);
+		} finally {
+			executor.shutdownNow();
+		}
+		return (report(System.nanoTime() - buildStart));
+	}
+
+	/// Make sure all modules are compiled to the same output directory.
+	/// If no -output option is given, the directory 'bin' next to the first source file is used.
+	private void setOutputDir() {
+		for (int i = 0; i < options.size(); i++)
+			if (options.get(i).equalsIgnoreCase("-output")) return;
+		if (modules.isEmpty()) return;
+		File sourceDir = modules.values().iterator().next().sourceFile.getAbsoluteFile().getParentFile();
+		File outputDir = new File(sourceDir, "bin");
+		Util.println("BuildDriver: Output directory " + outputDir);
+		options.add("-output");
+		options.add(outputDir.getPath());
+	}
+
+	/// Connect each module to the modules in this build it declares external.
+	/// Externals not defined by this build must be found precompiled by the compiler.
+	private void resolveDependencies() {
+		for (Module module : modules.values()) {
+			for (String ext : module.externals) {
+				Module dep = modules.get(ext.toUpperCase(Locale.ROOT));
+				if (dep != null && dep != module && !module.dependencies.contains(dep)) {
+					module.dependencies.add(dep);
+					dep.dependents.add(module);
+				}
+			}
+			module.pending = module.dependencies.size();
+		}
+	}
+
+	/// Check that the dependency graph is acyclic.
+	private void checkCycles() {
+		Map<Module, Integer> state = new LinkedHashMap<Module, Integer>(); // 1: on path, 2: done
+		for (Module module : modules.values()) checkCycles(module, state, new Vector<Module>());
+	}
+
+	/// Depth first search for a cycle.
+	/// @param module the current module
+	/// @param state the visiting state of each module
+	/// @param path the current path
+	private void checkCycles(final Module module, final Map<Module, Integer> state, final Vector<Module> path) {
+		Integer s = state.get(module);
+		if (s != null && s == 2) return;
+		path.add(module);
+		if (s != null) throw new IllegalStateException("Cyclic external dependencies: " + path);
+		state.put(module, 1);
+		for (Module dep : module.dependencies) checkCycles(dep, state, path);
+		state.put(module, 2);
+		path.remove(path.size() - 1);
+	}
+
+	/// Submit the compilation of a module whose dependencies are all compiled.
+	/// @param executor the executor
+	/// @param workers the idle workers
+	/// @param module the module
+	private void submit(final ExecutorService executor, final BlockingQueue<CompilationContext> workers, final Module module) {
+		executor.execute(() -> {
+			ByteArrayOutputStream messages = new ByteArrayOutputStream();
+			long start = System.nanoTime();
+			CompilationContext worker = null;
+			try {
+				worker = workers.take();
+				Vector<String> argv = new Vector<String>();
+				argv.add("-noexec");
+				argv.addAll(options);
+				argv.add(module.sourceFile.getPath());
+				try (PrintStream diagnostics = new PrintStream(messages, true, StandardCharsets.UTF_8)) {
+					module.nError = worker.compile(diagnostics, null, argv.toArray(new String[0]));
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				module.nError = -1;
+			} catch (RuntimeException | Error e) {
+				messages.writeBytes(("Compiler terminated: " + e + '\n').getBytes(StandardCharsets.UTF_8));
+				worker = new CompilationContext(attributeFileCache); // Its state may be corrupt
+				module.nError = 1;
+			} finally {
+				if (worker != null) workers.add(worker);
+			}
+			module.time = System.nanoTime() - start;
+			completed(executor, workers, module, messages.toString(StandardCharsets.UTF_8));
+		});
+	}
+
+	/// Record a completed module and submit the dependents which became ready.
+	/// Dependents of a failed module are skipped.
+	/// @param executor the executor
+	/// @param workers the idle workers
+	/// @param module the module
+	/// @param messages the compiler messages
+	private synchronized void completed(final ExecutorService executor, final BlockingQueue<CompilationContext> workers,
+			final Module module, final String messages) {
+		module.finished = System.nanoTime() - buildStart;
+		String status = (module.nError == 0) ? "OK" : (module.nError < 0) ? "FAILED" : module.nError + " errors";
+		Util.println("Compiled " + module + " in " + millis(module.time) + " ms: " + status);
+		for (String msg : messages.split("\n"))
+			if (!msg.isBlank()) Util.println("    " + msg.stripTrailing());
+		remaining.countDown();
+		for (Module dependent : module.dependents) {
+			if (module.nError != 0) skip(dependent, module);
+			else if (--dependent.pending == 0 && dependent.nError == -1) submit(executor, workers, dependent);
+		}
+	}
+
+	/// Skip a module, and transitively its dependents, because a dependency failed.
+	/// @param module the module
+	/// @param failed the failed dependency
+	private void skip(final Module module, final Module failed) {
+		if (module.pending < 0) return; // Already skipped
+		module.pending = -1;
+		Util.println("Skipped " + module + ": " + failed + " failed");
+		remaining.countDown();
+		for (Module dependent : module.dependents) skip(dependent, failed);
+	}
+
+	/// Report the result and the critical path.
+	/// @param wallTime the build time in nanoseconds
+	/// @return true if all modules compiled without errors
+	private boolean report(final long wallTime) {
+		Module last = null;
+		long totalTime = 0;
+		int nFailed = 0;
+		for (Module module : topologicalOrder()) {
+			if (module.nError != 0) { nFailed++; continue; }
+			totalTime += module.time;
+			for (Module dep : module.dependencies) {
+				if (dep.criticalLength > module.criticalLength) {
+					module.criticalLength = dep.criticalLength;
+					module.criticalDependency = dep;
+				}
+			}
+			module.criticalLength += module.time;
+			if (last == null || module.criticalLength > last.criticalLength) last = module;
+		}
+		Util.println("Built " + (modules.size() - nFailed) + " of " + modules.size() + " modules in " + millis(wallTime)
+				+ " ms on " + nWorkers + " workers. Sum of compile times " + millis(totalTime) + " ms");
+		if (last != null) {
+			Vector<Module> path = new Vector<Module>();
+			for (Module m = last; m != null; m = m.criticalDependency) path.add(0, m);
+			Util.println("Critical path " + millis(last.criticalLength) + " ms:");
+			for (Module m : path)
+				Util.println("    " + m + "  " + millis(m.time) + " ms, done at " + millis(m.finished) + " ms");
+		}
+		return (nFailed == 0);
+	}
+
+	/// Returns the modules so that each module comes after its dependencies.
+	/// @return the modules in topological order
+	private Vector<Module> topologicalOrder() {
+		Vector<Module> order = new Vector<Module>();
+		for (Module module : modules.values()) visit(module, order);
+		return (order);
+	}
+
+	/// Depth first visit for topologicalOrder.
+	/// @param module the module
+	/// @param order the order so far
+	private void visit(final Module module, final Vector<Module> order) {
+		if (order.contains(module)) return;
+		for (Module dep : module.dependencies) visit(dep, order);
+		order.add(module);
+	}
+
+	/// Edit nanoseconds as milliseconds.
+	/// @param nanos nanoseconds
+	/// @return milliseconds
+	private static long millis(final long nanos) {
+		return (nanos / 1_000_000);
+	}
+
+	// ***************************************************************
+	// *** DependencyScanner
+	// ***************************************************************
+	/// A light-weight scanner which finds the module identifier and the external
+	/// declarations of a Simula source text, without involving the compiler.
+	///
+	/// Comments, strings and character constants are skipped. The files of %INSERT
+	/// directives are scanned in place, like the compiler does. All other compiler
+	/// directives, i.e. lines starting with %, are ignored.
+	private static final class DependencyScanner {
+		/// The source text, with the inserted files spliced in when they are met.
+		private String text;
+		/// The files inserted so far. A file is only inserted once, which stops a cycle of inserts.
+		private final HashSet<String> inserted = new HashSet<String>();
+		/// The current position.
+		private int pos;
+		/// The identifier of the class or procedure the source defines, or null for a program.
+		String moduleIdentifier;
+		/// The identifiers of the external classes and procedures.
+		final Vector<String> externals = new Vector<String>();
+
+		/// Scan a source text.
+		/// @param text the source text
+		DependencyScanner(final String text) {
+			this.text = text;
+			boolean beforeBody = true;
+			String word;
+			while ((word = nextWord()) != null) {
+				if (word.equalsIgnoreCase("EXTERNAL")) scanExternal();
+				else if (beforeBody && moduleIdentifier == null
+						&& (word.equalsIgnoreCase("CLASS") || word.equalsIgnoreCase("PROCEDURE"))) {
+					moduleIdentifier = nextWord();
+					beforeBody = false;
+				} else if (word.equalsIgnoreCase("BEGIN")) beforeBody = false;
+			}
+		}
+
+		/// Scan the rest of an external declaration:  [kind] [type] CLASS|PROCEDURE item { , item } ;
+		private void scanExternal() {
+			String word;
+			do { word = nextWord(); }
+			while (word != null && !word.equalsIgnoreCase("CLASS") && !word.equalsIgnoreCase("PROCEDURE"));
+			while (word != null) {
+				String identifier = nextWord();
+				if (identifier == null) return;
+				String extIdent = null;
+				skipSpace();
+				if (peek() == '=') {
+					pos++;
+					skipSpace();
+					if (peek() == '"') extIdent = nextString();
+				}
+				externals.add((extIdent != null) ? baseName(new File(extIdent).getName()) : identifier);
+				skipSpace();
+				if (peek() != ',') return;
+				pos++;
+			}
+		}
+
+		/// Returns the current character or 0 at end of text.
+		/// @return the current character
+		private char peek() {
+			return ((pos < text.length()) ? text.charAt(pos) : 0);
+		}
+
+		/// Skip white space, comments and compiler directives.
+		private void skipSpace() {
+			while (pos < text.length()) {
+				char c = text.charAt(pos);
+				if (Character.isWhitespace(c)) pos++;
+				else if (c == '!') skipTo(';');
+				else if (c == '%' && (pos == 0 || text.charAt(pos - 1) == '\n')) directive();
+				else if (startsWordIgnoreCase("COMMENT")) skipTo(';');
+				else return;
+			}
+		}
+
+		/// Skip a compiler directive line. The file of an %INSERT directive is inserted after it.
+		private void directive() {
+			int end = text.indexOf('\n', pos);
+			if (end < 0) end = text.length();
+			String line = text.substring(pos + 1, end).trim();
+			pos = Math.min(end + 1, text.length());
+			if (line.length() > 6 && line.regionMatches(true, 0, "INSERT", 0, 6) && Character.isWhitespace(line.charAt(6)))
+				insert(new File(line.substring(6).trim()));
+		}
+
+		/// Insert a file's text at the current position.
+		/// An unreadable file is left to the compiler to report.
+		/// @param file the file to insert
+		private void insert(final File file) {
+			if (!inserted.add(file.getAbsolutePath())) return;
+			try {
+				String insertedText = new String(Files.readAllBytes(file.toPath()), Charset.defaultCharset());
+				text = text.substring(0, pos) + insertedText + '\n' + text.substring(pos);
+			} catch (IOException e) {
+				// The compiler will report it
+			}
+		}
+
+		/// Returns true if the given keyword starts at the current position.
+		/// @param keyword the keyword
+		/// @return true if the keyword is at the current position
+		private boolean startsWordIgnoreCase(final String keyword) {
+			int end = pos + keyword.length();
+			if (!text.regionMatches(true, pos, keyword, 0, keyword.length())) return (false);
+			return (end >= text.length() || !Character.isJavaIdentifierPart(text.charAt(end)));
+		}
+
+		/// Skip to after the next occurrence of a character.
+		/// @param c the character
+		private void skipTo(final char c) {
+			int i = text.indexOf(c, pos);
+			pos = (i < 0) ? text.length() : i + 1;
+		}
+
+		/// Returns the next string constant's contents. The current character is the opening quote.
+		/// @return the string
+		private String nextString() {
+			StringBuilder sb = new StringBuilder();
+			pos++;
+			while (pos < text.length()) {
+				char c = text.charAt(pos++);
+				if (c == '"') {
+					if (peek() != '"') break;
+					pos++;
+				}
+				sb.append(c);
+			}
+			return (sb.toString());
+		}
+
+		/// Returns the next identifier or keyword, skipping all other tokens.
+		/// @return the next word, or null at end of text
+		private String nextWord() {
+			while (true) {
+				skipSpace();
+				if (pos >= text.length()) return (null);
+				char c = text.charAt(pos);
+				if (Character.isJavaIdentifierStart(c)) {
+					int start = pos;
+					while (pos < text.length() && Character.isJavaIdentifierPart(text.charAt(pos))) pos++;
+					return (text.substring(start, pos));
+				}
+				if (c == '"') nextString();
+				else if (c == '\'') pos = Math.min(text.length(), pos + 3);
+				else if (Character.isDigit(c)) { while (pos < text.length() && Character.isLetterOrDigit(text.charAt(pos))) pos++; }
+				else pos++;
+			}
+		}
+	}
+
+}
@@ -0,0 +1,125 @@
+/// (CC) This work is licensed under a Creative Commons
+/// Attribution 4.0 International License.
+///
+/// You find a copy of the License on the following
+/// page: https://creativecommons.org/licenses/by/4.0/
+package simula.compiler;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Vector;
+
+import simula.compiler.utilities.Option;
+import simula.compiler.utilities.Util;
+
+/// Class Data Sharing archives for executable .jar files.
+///
+/// When Option.cds is set, an AppCDS archive 'program.jsa' is created next to the
+/// executable 'program.jar'. It holds the Runtime System classes and the program's
+/// generated classes in their parsed and verified form, which removes most of the
+/// class loading from the start of each run.
+///
+/// The archive is a dynamic archive on top of the JDK's default archive. It is created
+/// by the main program simula.runtime.RTS_CDS, which loads every class in the .jar file
+/// without executing the Simula program.
+///
+/// In addition, a launcher argument file 'program.args' is written. The program is
+/// started with the archive by:
+///
+/// 		java @program.args [runtime options]
+///
+/// The archive is only valid for the .jar file it was created from, and for the same
+/// Java runtime. If either changes, the JVM ignores the archive and starts as usual.
+///
+/// @author Øystein Myhre Andersen
+public final class ClassDataSharing {
+
+	/// Default constructor: Not used.
+	private ClassDataSharing() {}
+
+	/// Returns the archive file of a .jar file.
+	/// @param jarFile the .jar file
+	/// @return the archive file
+	static File archiveFile(final File jarFile) {
+		return (siblingFile(jarFile, ".jsa"));
+	}
+
+	/// Returns the launcher argument file of a .jar file.
+	/// @param jarFile the .jar file
+	/// @return the launcher argument file
+	static File argumentFile(final File jarFile) {
+		return (siblingFile(jarFile, ".args"));
+	}
+
+	/// Utility: Returns a file in the same directory as a .jar file, with another extension.
+	/// @param jarFile the .jar file
+	/// @param extension the new extension
+	/// @return the file
+	private static File siblingFile(final File jarFile, final String extension) {
+		String name = jarFile.getName();
+		if (name.endsWith(".jar")) name = name.substring(0, name.length() - 4);
+		return (new File(jarFile.getAbsoluteFile().getParentFile(), name + extension));
+	}
+
+	/// Create the archive and the launcher argument file of an executable .jar file.
+	/// @param jarFile the .jar file
+	/// @return true if the archive was created
+	/// @throws IOException if the launcher argument file can't be written
+	static boolean create(final File jarFile) throws IOException {
+		File archive = archiveFile(jarFile);
+		archive.delete();
+		Vector<String> cmds = new Vector<String>();
+		cmds.add("java");
+		cmds.add("-XX:ArchiveClassesAtExit=" + archive);
+		cmds.add("-Xlog:cds=off");
+		cmds.add("-cp");
+		cmds.add(jarFile.getAbsolutePath());
+		cmds.add("simula.runtime.RTS_CDS");
+		int exitValue = Util.execute(cmds);
+		if (exitValue != 0 || !archive.exists()) {
+			Util.warning("Unable to create Class Data Sharing archive: " + archive + ", exit value=" + exitValue);
+			return (false);
+		}
+		try (Writer writer = new OutputStreamWriter(new FileOutputStream(argumentFile(jarFile)), StandardCharsets.UTF_8)) {
+			Vector<String> args = new Vector<String>();
+			addLaunchArguments(args, jarFile);
+			for (String arg : args) writer.write(quote(arg) + '\n');
+		}
+		if (Option.verbose)
+			Util.println("Class Data Sharing archive written to: \"" + archive + "\", launch with: java @" + argumentFile(jarFile));
+		return (true);
+	}
+
+	/// Returns true if the archive of a .jar file exists and is not older than the .jar file.
+	/// @param jarFile the .jar file
+	/// @return true if the archive can be used
+	static boolean isValid(final File jarFile) {
+		File archive = archiveFile(jarFile);
+		return (archive.exists() && archive.lastModified() >= jarFile.lastModified());
+	}
+
+	/// Add the arguments which launch a .jar file with its archive.
+	///
+	/// The .jar file is given by its absolute path, since the archive records the class path.
+	/// @param cmds the command to update
+	/// @param jarFile the .jar file
+	static void addLaunchArguments(final Vector<String> cmds, final File jarFile) {
+		cmds.add("-XX:SharedArchiveFile=" + archiveFile(jarFile));
+		cmds.add("-Xlog:cds=off");
+		cmds.add("-jar");
+		cmds.add(jarFile.getAbsolutePath());
+	}
+
+	/// Utility: Quote an argument in a launcher argument file.
+	/// @param arg the argument
+	/// @return the argument, quoted if necessary
+	private static String quote(final String arg) {
+		if (arg.indexOf(' ') < 0 && arg.indexOf('\\') < 0) return (arg);
+		return ('"' + arg.replace("\\", "\\\\") + '"');
+	}
+
+}
@@ -0,0 +1,174 @@
+/// (CC) This work is licensed under a Creative Commons
+/// Attribution 4.0 International License.
+///
+/// You find a copy of the License on the following
+/// page: https://creativecommons.org/licenses/by/4.0/
+package simula.compiler;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.security.ProtectionDomain;
+import java.util.List;
+import java.util.Map;
+
+/// Compilation Context.
+///
+/// The compiler keeps its state in static fields: Global, Option, Parse, ClassHierarchy,
+/// Util.nError, BlockDeclaration.currentBlock and so on. A CompilationContext gives
+/// compilations their own copy of all that state by loading the compiler classes
+/// through a private class loader.
+///
+/// Several contexts may compile concurrently in the same JVM. Each context runs one
+/// compilation at a time and may be reused, in which case its compiler classes stay
+/// loaded and JIT-compiled between compilations.
+/// <pre>
+///
+///     CompilationContext ctx = new CompilationContext();
+///     int nError = ctx.compile("-noexec", "-output", "bin", "prog.sim");
+///
+/// </pre>
+///
+/// @author Øystein Myhre Andersen
+public final class CompilationContext {
+
+	/// Utility to help make unique context identifiers.
+	private static int CONTEXT_SEQU = 0;
+
+	/// The identifier of this context.
+	private final String ident;
+
+	/// The class loader holding this context's copy of the compiler.
+	private final ContextClassLoader loader;
+
+	/// The method Simula.compile in this context's copy of the compiler.
+	private final Method compileEntry;
+
+	/// Attribute files read from external .jar files, possibly shared with other contexts.
+	private final Map<String,byte[]> attributeFileCache;
+
+	/// Create a new CompilationContext.
+	public CompilationContext() {
+		this(null);
+	}
+
+	/// Create a new CompilationContext.
+	/// @param attributeFileCache attribute file cache shared with other contexts, or null
+	public CompilationContext(final Map<String,byte[]> attributeFileCache) {
+		this.attributeFileCache = attributeFileCache;
+		synchronized (CompilationContext.class) {
+			this.ident = "ctx" + ProcessHandle.current().pid() + '_' + (CONTEXT_SEQU++);
+		}
+		this.loader = new ContextClassLoader(ident, CompilationContext.class.getClassLoader());
+		try {
+			Class<?> simula = Class.forName("simula.compiler.Simula", true, loader);
+			this.compileEntry = simula.getMethod("compile", String.class, String[].class, PrintStream.class, Map.class, List.class);
+		} catch (ReflectiveOperationException e) {
+			throw new IllegalStateException("Unable to load the Simula Compiler into " + ident, e);
+		}
+	}
+
+	/// Returns the identifier of this context.
+	/// @return the identifier of this context
+	public String getIdent() {
+		return (ident);
+	}
+
+	/// Returns the class loader holding this context's copy of the compiler.
+	/// @return the class loader of this context
+	public ClassLoader getClassLoader() {
+		return (loader);
+	}
+
+	/// Compile one or more Simula source files in this context.
+	///
+	/// The arguments are the same as the command-line arguments to Simula.main.
+	/// Each call starts from the default compiler options.
+	/// @param argv the command-line arguments
+	/// @return the number of errors, or -1 if the arguments were not accepted
+	public int compile(final String... argv) {
+		return (compile(null, null, argv));
+	}
+
+	/// Compile one or more Simula source files in this context.
+	///
+	/// The arguments are the same as the command-line arguments to Simula.main.
+	/// Each call starts from the default compiler options.
+	/// @param diagnostics where to print compiler messages, or null to use System.out and System.err
+	/// @param outputJars the list to update with the .jar files written, or null
+	/// @param argv the command-line arguments
+	/// @return the number of errors, or -1 if the arguments were not accepted
+	public synchronized int compile(final PrintStream diagnostics, final List<File> outputJars, final String... argv) {
+		Thread thread = Thread.currentThread();
+		ClassLoader prevLoader = thread.getContextClassLoader();
+		thread.setContextClassLoader(loader);
+		try {
+			return ((Integer) compileEntry.invoke(null, ident, argv, diagnostics, attributeFileCache, outputJars));
+		} catch (InvocationTargetException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException rte) throw rte;
+			if (cause instanceof Error err) throw err;
+			throw new IllegalStateException(cause);
+		} catch (IllegalAccessException e) {
+			throw new IllegalStateException(e);
+		} finally {
+			thread.setContextClassLoader(prevLoader);
+		}
+	}
+
+	@Override
+	public String toString() {
+		return ("CompilationContext[" + ident + ']');
+	}
+
+	// ***************************************************************
+	// *** ContextClassLoader
+	// ***************************************************************
+	/// The class loader of a CompilationContext.
+	///
+	/// Compiler and editor classes are defined again by this loader, giving the
+	/// context its own static state. All other classes are delegated to the parent.
+	private static final class ContextClassLoader extends ClassLoader {
+
+		/// The protection domain of the compiler classes.
+		private static final ProtectionDomain DOMAIN = CompilationContext.class.getProtectionDomain();
+
+		/// Create a new ContextClassLoader.
+		/// @param name the context identifier
+		/// @param parent the class loader of the compiler
+		ContextClassLoader(final String name, final ClassLoader parent) {
+			super(name, parent);
+		}
+
+		@Override
+		protected Class<?> loadClass(final String name, final boolean resolve) throws ClassNotFoundException {
+			if (!isContextLocal(name)) return (super.loadClass(name, resolve));
+			synchronized (getClassLoadingLock(name)) {
+				Class<?> c = findLoadedClass(name);
+				if (c == null) {
+					String resource = name.replace('.', '/') + ".class";
+					try (InputStream inpt = getParent().getResourceAsStream(resource)) {
+						if (inpt == null) throw new ClassNotFoundException(name);
+						byte[] bytes = inpt.readAllBytes();
+						c = defineClass(name, bytes, 0, bytes.length, DOMAIN);
+					} catch (IOException e) {
+						throw new ClassNotFoundException(name, e);
+					}
+				}
+				if (resolve) resolveClass(c);
+				return (c);
+			}
+		}
+
+		/// Returns true if the named class holds per-compilation state.
+		/// @param name a binary class name
+		/// @return true if the named class is defined by this loader
+		private static boolean isContextLocal(final String name) {
+			return (name.startsWith("simula.compiler.") || name.startsWith("simula.editor."));
+		}
+	}
+
+}
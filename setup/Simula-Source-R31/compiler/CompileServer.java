@@ -0,0 +1,170 @@
+/// (CC) This work is licensed under a Creative Commons
+/// Attribution 4.0 International License.
+///
+/// You find a copy of the License on the following
+/// page: https://creativecommons.org/licenses/by/4.0/
+package simula.compiler;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Vector;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+import simula.compiler.utilities.Util;
+
+/// Simula Compile Server.
+///
+/// A long-running compiler process which accepts compile requests on standard input,
+/// or on a local socket, and keeps its compilers loaded and JIT-compiled between
+/// requests. Each worker is a CompilationContext. Attribute files read from external
+/// .jar files are cached, keyed by the .jar file's path, modification time and size,
+/// and shared by all workers. The cache holds at most CACHE_SIZE bytes of attribute
+/// files, see AttributeFileCache.
+///
+/// The Compile Server is started by a command-line of this form:
+///
+/// 		java -cp releaseHome\simula.jar simula.compiler.CompileServer [-port n] [-workers n]
+///
+/// Without -port, requests are read from standard input and responses are written to
+/// standard output. With -port, the server listens on the loopback interface and
+/// serves each connection with the same protocol.
+/// <pre>
+///
+///   request  = simula-option-or-sourceFile { TAB simula-option-or-sourceFile } NEWLINE
+///
+///   response = { "DIAG " message NEWLINE }
+///              { "JAR " jarFile NEWLINE }
+///              "END " number-of-errors NEWLINE
+///
+/// </pre>
+/// The request arguments are those of Simula.main. The generated program is never
+/// executed, i.e. -noexec is implied. An empty request line or QUIT ends the session.
+///
+/// @author Øystein Myhre Andersen
+public final class CompileServer {
+
+	/// The idle workers.
+	private final BlockingQueue<CompilationContext> workers;
+
+	/// The maximum total size of the cached attribute files in bytes.
+	private static final long CACHE_SIZE = 64L << 20;
+
+	/// Attribute files shared by all workers.
+	private final Map<String,byte[]> attributeFileCache = new AttributeFileCache(CACHE_SIZE);
+
+	/// Create a new CompileServer.
+	/// @param nWorkers the number of workers, i.e. the number of concurrent compilations
+	public CompileServer(final int nWorkers) {
+		workers = new ArrayBlockingQueue<CompilationContext>(nWorkers);
+		for (int i = 0; i < nWorkers; i++)
+			workers.add(new CompilationContext(attributeFileCache));
+	}
+
+	/// Main entry.
+	/// @param argv arguments
+	/// @throws IOException if an I/O error occurs
+	public static void main(final String[] argv) throws IOException {
+		int port = -1;
+		int nWorkers = Runtime.getRuntime().availableProcessors();
+		for (int i = 0; i < argv.length; i++) {
+			String arg = argv[i];
+			if (arg.equalsIgnoreCase("-port")) port = Integer.parseInt(argv[++i]);
+			else if (arg.equalsIgnoreCase("-workers")) nWorkers = Math.max(1, Integer.parseInt(argv[++i]));
+			else {
+				Util.printError("Usage: java -cp simula.jar simula.compiler.CompileServer [-port n] [-workers n]");
+				System.exit(-1);
+			}
+		}
+		if (port < 0) {
+			// Messages printed directly by the compiler must not mix with the responses
+			PrintStream responses = System.out;
+			System.setOut(System.err);
+			new CompileServer(1).serve(System.in, responses);
+		} else {
+			new CompileServer(nWorkers).listen(port);
+		}
+	}
+
+	/// Accept connections on the loopback interface and serve each on its own thread.
+	/// @param port the port number
+	/// @throws IOException if an I/O error occurs
+	public void listen(final int port) throws IOException {
+		try (ServerSocket serverSocket = new ServerSocket(port, 50, InetAddress.getLoopbackAddress())) {
+			while (true) {
+				Socket socket = serverSocket.accept();
+				Thread.ofPlatform().daemon().start(() -> {
+					try (socket) {
+						serve(socket.getInputStream(), socket.getOutputStream());
+					} catch (IOException e) {
+						Util.printError("CompileServer: " + e);
+					}
+				});
+			}
+		}
+	}
+
+	/// Serve compile requests read from 'inpt' until end of input, an empty line or QUIT.
+	/// @param inpt the request stream
+	/// @param oupt the response stream
+	/// @throws IOException if an I/O error occurs
+	public void serve(final InputStream inpt, final OutputStream oupt) throws IOException {
+		BufferedReader reader = new BufferedReader(new InputStreamReader(inpt, StandardCharsets.UTF_8));
+		PrintWriter writer = new PrintWriter(new OutputStreamWriter(oupt, StandardCharsets.UTF_8));
+		String line;
+		while ((line = reader.readLine()) != null) {
+			if (line.isEmpty() || line.equalsIgnoreCase("QUIT")) break;
+			compile(line.split("\t"), writer);
+			writer.flush();
+		}
+		writer.flush();
+	}
+
+	/// Perform one compile request and write the response.
+	/// @param args the request arguments
+	/// @param writer the response writer
+	private void compile(final String[] args, final PrintWriter writer) {
+		String[] argv = new String[args.length + 1];
+		argv[0] = "-noexec";
+		System.arraycopy(args, 0, argv, 1, args.length);
+		ByteArrayOutputStream messages = new ByteArrayOutputStream();
+		Vector<File> outputJars = new Vector<File>();
+		int nError;
+		CompilationContext worker = null;
+		try {
+			worker = workers.take();
+			try (PrintStream diagnostics = new PrintStream(messages, true, StandardCharsets.UTF_8)) {
+				nError = worker.compile(diagnostics, outputJars, argv);
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			nError = -1;
+		} catch (RuntimeException | Error e) {
+			messages.writeBytes(("Compiler terminated: " + e).getBytes(StandardCharsets.UTF_8));
+			worker = new CompilationContext(attributeFileCache); // Its state may be corrupt
+			nError = 1;
+		} finally {
+			if (worker != null) workers.add(worker);
+		}
+		for (String msg : messages.toString(StandardCharsets.UTF_8).split("\n")) {
+			if (!msg.isBlank()) writer.println("DIAG " + msg.stripTrailing());
+		}
+		for (File jar : outputJars)
+			writer.println("JAR " + jar.getAbsolutePath());
+		writer.println("END " + nError);
+	}
+
+}
@@ -7,24 +7,28 @@ package simula.compiler;
 
 import java.io.File;
 import java.io.FileInputStream;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.lang.classfile.ClassFile;
+import java.lang.classfile.ClassTransform;
+import java.lang.classfile.CodeTransform;
 import java.nio.file.attribute.FileTime;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.util.Enumeration;
-import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
 import java.util.Vector;
 import java.util.Map.Entry;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
 import java.util.jar.Attributes;
 import java.util.jar.JarEntry;
 import java.util.jar.JarFile;
-import java.util.jar.JarOutputStream;
 import java.util.jar.Manifest;
 
 import simula.compiler.syntaxClass.declaration.ClassDeclaration;
@@ -52,11 +56,18 @@ public class JarFileBuilder {
 	/// Main entry name.
 	String mainEntry;
 
-	/// The intermediate classFileMap.
-	private final HashMap<String,byte[]> classFileMap;
+	/// The intermediate classFileMap. Sorted by entry name to give a deterministic .jar file.
+	private final TreeMap<String,byte[]> classFileMap;
 
-	/// The target JarOutputStream.
-	private JarOutputStream jarOutputStream;
+	/// Entries in the classFileMap still without stack maps.
+	private final Set<String> deferredEntries;
+
+	/// Entries copied raw, i.e. still compressed, from included .jar files. Sorted by entry name.
+	/// An entry name is either in the classFileMap or here; the last put wins.
+	private final TreeMap<String,JarFileWriter.Entry> rawEntries;
+
+	/// The target JarFileWriter.
+	private JarFileWriter jarWriter;
 
 	/// Debug utility.
 	private final static boolean TESTING = false;
@@ -64,7 +75,9 @@ public class JarFileBuilder {
 	/// Construct a new JarFileBuilder.
 	public JarFileBuilder() {
 		if(TESTING) IO.println("\nNEW JarFileBuilder");
-		this.classFileMap = new HashMap<String,byte[]>();
+		this.classFileMap = new TreeMap<String,byte[]>();
+		this.deferredEntries = new HashSet<String>();
+		this.rawEntries = new TreeMap<String,JarFileWriter.Entry>();
 	}
 	
 	/// Open the JarFileBuilder.
@@ -72,7 +85,7 @@ public class JarFileBuilder {
 	/// @throws IOException if something went wrong
 	public void open(final ProgramModule program) throws IOException {
 		if(TESTING) IO.println("JarFileBuilder.open: " + program);
-		if(jarOutputStream != null) Util.IERR();
+		if(jarWriter != null) Util.IERR();
 		this.programModule = program;
 		if (Option.internal.TRACING)
 			Util.println("BEGIN Create .jar File");
@@ -92,7 +105,7 @@ public class JarFileBuilder {
 			if (relativeAttributeFileName != null)
 				manifest.getMainAttributes().putValue("SIMULA-INFO", relativeAttributeFileName);
 		}
-		jarOutputStream = new JarOutputStream(new FileOutputStream(outputJarFile), manifest);
+		jarWriter = new JarFileWriter(outputJarFile, manifest);
 		
 		if(Option.compilerMode != Option.CompilerMode.viaJavaSource) {
 			// Add initial entry: 
@@ -104,25 +117,107 @@ public class JarFileBuilder {
 	/// Put a JarEntry to the intermediate classFileMap.
 	/// @param entryName the entry name
 	/// @param bytes the bytes, may be null
-	public void putMapEntry(String entryName, byte[] bytes) {
+	public synchronized void putMapEntry(String entryName, byte[] bytes) {
 		if(TESTING)	IO.println("JarOutputSet.putMapEntry: "+entryName);
 		byte[] prev = classFileMap.put(entryName,bytes);
-		if(prev != null) {
+		if(prev != null || rawEntries.remove(entryName) != null) {
 			if(Option.verbose)
 				Util.println("JarOutputSet.putMapEntry: "+entryName+" WAS REPLACED");
 		}
 	}
 	
-	/// Write a JarEntry to the JarOutputStream.
+	/// Put a generated ClassFile to the intermediate classFileMap.
+	/// If stack maps are deferred, they are generated when this JarFileBuilder is closed.
+	/// @param entryName the entry name
+	/// @param bytes the ClassFile bytes
+	public synchronized void putClassFileEntry(String entryName, byte[] bytes) {
+		putMapEntry(entryName, bytes);
+		if(ClassHierarchy.deferStackMaps()) deferredEntries.add(entryName);
+		else deferredEntries.remove(entryName);
+	}
+	
+	/// Generate the stack maps of the deferred class files.
+	///
+	/// The class files are independent of each other at this point, and the class
+	/// hierarchy is complete. The stack maps are therefore generated in parallel, on
+	/// Option.parallelism threads. The results are put back into the sorted classFileMap.
+	private synchronized void generateStackMaps() {
+		if(deferredEntries.isEmpty()) return;
+		if(Option.verbose) Util.println("JarFileBuilder: Generate stack maps for " + deferredEntries.size() + " class files");
+		ClassFile classFile = ClassFile.of(ClassFile.ClassHierarchyResolverOption.of(ClassHierarchy.getResolver()),
+				ClassFile.StackMapsOption.GENERATE_STACK_MAPS);
+		Vector<String> entryNames = new Vector<String>(deferredEntries);
+		ForkJoinPool pool = new ForkJoinPool(Option.parallelism);
+		try {
+			Map<String,byte[]> result = pool.submit(() -> entryNames.parallelStream()
+					.collect(Collectors.toMap(entryName -> entryName, entryName -> generateStackMaps(classFile, entryName))))
+					.join();
+			classFileMap.putAll(result);
+		} finally {
+			pool.shutdown();
+		}
+		deferredEntries.clear();
+	}
+	
+	/// Generate the stack maps of one class file by rebuilding all its method bodies.
+	/// @param classFile the ClassFile context
+	/// @param entryName the entry name
+	/// @return the ClassFile bytes with stack maps
+	private byte[] generateStackMaps(ClassFile classFile, String entryName) {
+		byte[] bytes = classFileMap.get(entryName);
+		try {
+			return classFile.transformClass(classFile.parse(bytes), ClassTransform.transformingMethodBodies(CodeTransform.ACCEPT_ALL));
+		} catch(IllegalArgumentException e) {
+			throw new IllegalArgumentException(entryName + ": " + e.getMessage(), e);
+		}
+	}
+	
+	/// Put a raw entry, copied from an included .jar file, to the intermediate rawEntries.
+	/// @param entryName the entry name
+	/// @param entry the compressed entry
+	private synchronized void putRawEntry(String entryName, JarFileWriter.Entry entry) {
+		if(TESTING)	IO.println("JarOutputSet.putRawEntry: "+entryName);
+		JarFileWriter.Entry prev = rawEntries.put(entryName,entry);
+		if(prev != null || classFileMap.containsKey(entryName)) {
+			classFileMap.remove(entryName);
+			deferredEntries.remove(entryName);
+			if(Option.verbose)
+				Util.println("JarOutputSet.putRawEntry: "+entryName+" WAS REPLACED");
+		}
+	}
+	
+	/// Write a JarEntry to the .jar file.
+	/// The entry is STORED if Option.noCompress is set, otherwise DEFLATED.
 	/// @param entryName the entry name
 	/// @param bytes the bytes, may be null
 	/// @throws IOException if something went wrong
 	public void writeJarEntry(String entryName, byte[] bytes) throws IOException {
 		if(TESTING) IO.println("JarFileBuilder.writeJarEntry: "+entryName);
-		JarEntry entry = new JarEntry(entryName);
-		jarOutputStream.putNextEntry(entry);
-		if(bytes != null) jarOutputStream.write(bytes);
-		jarOutputStream.closeEntry();
+		jarWriter.putEntry(entryName, JarFileWriter.compress(bytes, !Option.noCompress));
+	}
+	
+	/// Compress the entries of the classFileMap.
+	///
+	/// The entries are independent of each other, and are compressed in parallel on
+	/// Option.parallelism threads.
+	/// @return the compressed entries
+	private Map<String,JarFileWriter.Entry> compressClassFileMap() {
+		boolean deflate = !Option.noCompress;
+		if(Option.parallelism <= 1 || classFileMap.size() < 2) {
+			TreeMap<String,JarFileWriter.Entry> result = new TreeMap<String,JarFileWriter.Entry>();
+			for (Entry<String, byte[]> entry : classFileMap.entrySet())
+				result.put(entry.getKey(), JarFileWriter.compress(entry.getValue(), deflate));
+			return (result);
+		}
+		Vector<String> entryNames = new Vector<String>(classFileMap.keySet());
+		ForkJoinPool pool = new ForkJoinPool(Option.parallelism);
+		try {
+			return (pool.submit(() -> entryNames.parallelStream()
+					.collect(Collectors.toMap(entryName -> entryName, entryName -> JarFileWriter.compress(classFileMap.get(entryName), deflate))))
+					.join());
+		} finally {
+			pool.shutdown();
+		}
 	}
 	
 	/// Close the JarFileBuilder by writing the .jar file.
@@ -130,25 +225,23 @@ public class JarFileBuilder {
 	/// @throws IOException if something went wrong
 	public File close() throws IOException {
 		// Write the actual .jar file
+		generateStackMaps();
 		if(TESTING) printClassFileMap("END JarFileBuilder.close");
-        for (Entry<String, byte[]> entry : classFileMap.entrySet()) {
-            String entryName = entry.getKey();
-            byte[] bytes = entry.getValue();
-            writeJarEntry(entryName, bytes);
-        }
+		TreeMap<String,JarFileWriter.Entry> entries = new TreeMap<String,JarFileWriter.Entry>(rawEntries);
+		entries.putAll(compressClassFileMap());
+        for (Entry<String, JarFileWriter.Entry> entry : entries.entrySet())
+            jarWriter.putEntry(entry.getKey(), entry.getValue());
        
 		if (programModule.isExecutable()) {
 			if(TESTING) IO.println("JarFileBuilder.close: Executable "+programModule);
-			// Add the Runtime System
-			File rtsHome = new File(Global.simulaRtsLib, "simula/runtime");
-			add(false, rtsHome, Global.simulaRtsLib.toString().length());
+			addRuntimeSystem();
 		} else {
 			String id = programModule.getIdentifier();
 			String kind = (programModule.mainModule instanceof ClassDeclaration) ? "Class " : "Procedure ";
 			Util.warning("No execution - Separate Compiled " + kind + id + " is written to: \"" + outputJarFile + "\"");
 		}
         
-        jarOutputStream.close();
+        jarWriter.close();
 		if(Option.verbose) Util.println("JarFileBuilder.close: " + Global.sourceName + ": JarFile " + outputJarFile);
 		
 		if(TESTING) {
@@ -161,14 +254,33 @@ public class JarFileBuilder {
 		return (outputJarFile);
 	}
 	
-	/// Add temp .class files to jarOutputStream.
+	/// Add the Runtime System to the .jar file.
+	///
+	/// In a release, the entries are copied raw from RTS.jar. Otherwise, or if RTS.jar
+	/// can't be read raw, the class files are added from the directory Global.simulaRtsLib.
+	/// @throws IOException if something went wrong
+	private void addRuntimeSystem() throws IOException {
+		File rtsJar = new File(Global.simulaRtsLib.getParentFile(), "RTS.jar");
+		TreeMap<String,JarFileWriter.Entry> entries = null;
+		if(!Option.internal.INLINE_TESTING && rtsJar.exists())
+			entries = JarFileWriter.readRawEntries(rtsJar, name -> name.startsWith("simula/runtime/") && !name.endsWith(".jasm"));
+		if(entries != null) {
+			for (Entry<String, JarFileWriter.Entry> entry : entries.entrySet())
+				jarWriter.putEntry(entry.getKey(), entry.getValue());
+		} else {
+			File rtsHome = new File(Global.simulaRtsLib, "simula/runtime");
+			add(false, rtsHome, Global.simulaRtsLib.toString().length());
+		}
+	}
+	
+	/// Add temp .class files to the classFileMap.
 	/// @throws IOException if something went wrong
 	public void addTempClassFiles() throws IOException {
 		if(Option.compilerMode != Option.CompilerMode.viaJavaSource) Util.IERR();
 		add(true, new File(Global.tempClassFileDir, Global.packetName), Global.tempClassFileDir.toString().length());
 	}	
 	
-	/// Add directory or a file to a JarOutputStream, or
+	/// Add directory or a file to the .jar file, or
 	/// Put it into the intermediate classFileMap.
 	/// @param doPut true:put it, otherwise add it
 	/// @param source source file or directory
@@ -209,12 +321,23 @@ public class JarFileBuilder {
 	}
 	
 	/// Expand .jar file entries into the classFileMap.
+	///
+	/// The entries are normally copied raw, i.e. without being inflated and deflated again,
+	/// into the rawEntries. Only if the .jar file can't be read raw, they are inflated.
 	/// @param jarFile the .jar file to read
 	/// @throws IOException if something went wrong
 	public void expandJarFile(final JarFile jarFile) throws IOException {
 		if(TESTING) IO.println("JarFileBuilder.expandJarFile: JarFileName="+jarFile.getName());
 		if (Option.verbose)
 			Util.println("---------  INCLUDE .jar File: " + jarFile.getName() + "  ---------");
+		TreeMap<String,JarFileWriter.Entry> raw = JarFileWriter.readRawEntries(new File(jarFile.getName()),
+				entryName -> entryName.startsWith(Global.packetName) && entryName.endsWith(".class"));
+		if (raw != null) {
+			for (Entry<String, JarFileWriter.Entry> entry : raw.entrySet())
+				putRawEntry(entry.getKey(), entry.getValue());
+			if(TESTING) printClassFileMap("END JarFileBuilder.expandJarFile");
+			return;
+		}
 		Enumeration<JarEntry> entries = jarFile.entries();
 		LOOP: while (entries.hasMoreElements()) {
 			JarEntry inputEntry = entries.nextElement();
@@ -295,110 +418,26 @@ public class JarFileBuilder {
 		}
 	}
 
-	/// Load the jarFiles in the includeQueue using simulaClassLoader.
-	/// @throws IOException if something went wrong
-	public static void loadIncludeQueue() throws IOException {
+	/// Add the jarFiles in the includeQueue to the simulaClassLoader's index.
+	/// The classes are defined when they are first needed.
+	public static void loadIncludeQueue() {
 		if(Global.includeQueue != null) {
 			for(JarFile jarFile:Global.includeQueue) {
 				if(TESTING)
-					IO.println("JarFileBuilder.loadIncludeQueue: loadJarEntries: "+jarFile.getName());
-				loadJarEntries(jarFile, Global.packetName, Global.simulaClassLoader);	
+					IO.println("JarFileBuilder.loadIncludeQueue: addJarFile: "+jarFile.getName());
+				Global.simulaClassLoader.addJarFile(jarFile, Global.packetName);
 			}
 		}
 	}
 
-	/// Load the Runtime System using simulaClassLoader.
+	/// Returns the shared Runtime System loader over RTS.jar.
+	/// @return the Runtime System loader
 	/// @throws IOException if something went wrong
-	public static void loadRuntimeSystem() throws IOException {
+	public static SimulaClassLoader loadRuntimeSystem() throws IOException {
 		if(TESTING) IO.println("JarFileBuilder.loadRuntimeSystem: "+Global.simulaRtsLib);
 		File rtsLib = new File(Global.simulaRtsLib.getParentFile(), "RTS.jar");
 		if(TESTING) IO.println("JarFileBuilder.loadRuntimeSystem: rtsLib="+rtsLib);
-		JarFile jarFile = new JarFile(rtsLib);
-
-		loadJarEntries(jarFile, "simula/runtime/", Global.simulaClassLoader);
-	}
-	
-	/// Load jarFile entries.
-	/// @param jarFile the jarFile.
-	/// @param packetName the packet name.
-	/// @param loader the SimulaClassLoader to use.
-	/// @throws IOException if something went wrong.
-	private static void loadJarEntries(final JarFile jarFile, final String packetName, final SimulaClassLoader loader) throws IOException {
-		if(TESTING) IO.println("\nJarFileBuilder.loadJarEntries: JarFileName="+jarFile.getName());
-		if (Option.verbose)
-			Util.println("---------  INCLUDE .jar File: " + jarFile.getName() + "  ---------");
-		Enumeration<JarEntry> entries = jarFile.entries();
-		Map<String,byte[]> delayedLoadings = null;
-
-		LOOP: while (entries.hasMoreElements()) {
-			JarEntry inputEntry = entries.nextElement();
-
-			String entryName = inputEntry.getName();
-			if(TESTING) IO.println("JarFileBuilder.loadJarEntries: entryName="+entryName);
-			if (!entryName.startsWith(packetName))	continue LOOP;
-			if (!entryName.endsWith(".class"))		continue LOOP;
-
-			InputStream inputStream = jarFile.getInputStream(inputEntry);
-			String name = entryName.substring(0, entryName.length() - 6).replace('/', '.');
-			byte[] bytes = inputStream.readAllBytes(); inputStream.close();
-
-			String supClassName = ClassHierarchy.getRealPrefix(name);
-			boolean readyToLoad = true;
-			if(supClassName != null) {
-				boolean prefixLoaded = loader.isClassLoaded(supClassName);
-				if(TESTING) IO.println("JarFileBuilder.loadJarEntries: supClassName="+supClassName+", prefixLoaded="+prefixLoaded);
-				if(! prefixLoaded) {
-					readyToLoad = false;
-					if(delayedLoadings == null) delayedLoadings = new HashMap<String,byte[]>();
-					delayedLoadings.put(name, bytes);
-				}
-			}
-			if(readyToLoad) {
-				try { loader.loadClass(name, bytes); }
-				catch(NoClassDefFoundError e) {
-					if(delayedLoadings == null) delayedLoadings = new HashMap<String,byte[]>();
-					delayedLoadings.put(name, bytes);						
-				}
-			}
-
-		}
-
-		int NNN = 4000;
-		while(delayedLoadings != null) {
-			if(--NNN < 0) Util.IERR();
-			if(TESTING)
-				IO.println("\nJarFileBuilder.loadJarEntries: delayedLoadings +++++++++++++++++++");
-			Vector<String> loaded = new Vector<String>();
-
-			for (Entry<String, byte[]> entry : delayedLoadings.entrySet()) {
-				String name = entry.getKey();
-				byte[] bytes = entry.getValue();
-				String supClassName = ClassHierarchy.getRealPrefix(name);
-				if(TESTING)
-					IO.println("JarFileBuilder.loadJarEntries: Check Class: "+name+" extends "+supClassName);
-				boolean readyToLoad = true;
-				if(supClassName != null) {
-					boolean prefixLoaded = loader.isClassLoaded(supClassName);
-					if(! prefixLoaded) readyToLoad = false;
-				}
-				if(readyToLoad) {
-					if(TESTING)
-						IO.println("JarFileBuilder.loadJarEntries: Load Class: "+name);
-					try {	
-						loader.loadClass(name, bytes);
-						loaded.add(name);
-					} catch(NoClassDefFoundError e) { }
-				}
-			}
-
-			if(loaded.size() == 0) Util.IERR();
-			for(String name:loaded) {
-				if(TESTING)
-					IO.println("JarFileBuilder.loadJarEntries: Remove: "+name);
-				delayedLoadings.remove(name);
-				if(delayedLoadings.size() == 0) delayedLoadings = null;
-			}
-		}
+		return (SimulaClassLoader.runtimeLoader(rtsLib));
 	}
 
 	
@@ -0,0 +1,281 @@
+/// (CC) This work is licensed under a Creative Commons
+/// Attribution 4.0 International License.
+///
+/// You find a copy of the License on the following
+/// page: https://creativecommons.org/licenses/by/4.0/
+package simula.compiler;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.TreeMap;
+import java.util.function.Predicate;
+import java.util.jar.JarFile;
+import java.util.jar.Manifest;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/// Jar file writer.
+///
+/// A minimal writer of the .jar (zip) format, used by the JarFileBuilder instead of
+/// a JarOutputStream. In addition to ordinary entries, it can write an entry which is
+/// already compressed, e.g. an entry copied raw from another .jar file. Such entries
+/// are neither inflated nor deflated again.
+///
+/// New entries are compressed by the static method compress, which may be called on
+/// several threads, and then written by putEntry. Entries may also be STORED, i.e.
+/// written without compression, which is faster for development builds.
+///
+/// Zip64 is not supported, which is far beyond the size of any Simula program.
+///
+/// @author Øystein Myhre Andersen
+final class JarFileWriter {
+
+	/// Local file header signature.
+	private static final int LOCAL_HEADER = 0x04034b50;
+
+	/// Central directory header signature.
+	private static final int CENTRAL_HEADER = 0x02014b50;
+
+	/// End of central directory signature.
+	private static final int END_HEADER = 0x06054b50;
+
+	/// General purpose flag: The entry name is UTF-8.
+	private static final int UTF8_FLAG = 0x0800;
+
+	/// Compression method: Stored.
+	static final int STORED = 0;
+
+	/// Compression method: Deflated.
+	static final int DEFLATED = 8;
+
+	/// The output stream.
+	private final OutputStream out;
+
+	/// The number of bytes written.
+	private long offset;
+
+	/// The central directory, written by close.
+	private final ByteArrayOutputStream centralDirectory = new ByteArrayOutputStream();
+
+	/// The number of entries written.
+	private int nEntries;
+
+	/// The MS-DOS time of new entries.
+	private final int dosTime;
+
+	/// Create a new JarFileWriter.
+	/// @param outputFile the .jar file to write
+	/// @param manifest the manifest, written as the first entry
+	/// @throws IOException if something went wrong
+	JarFileWriter(final File outputFile, final Manifest manifest) throws IOException {
+		this.out = new BufferedOutputStream(new FileOutputStream(outputFile), 1 << 16);
+		this.dosTime = dosTime(LocalDateTime.now());
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		manifest.write(bytes);
+		putEntry(JarFile.MANIFEST_NAME, compress(bytes.toByteArray(), true));
+	}
+
+	// ***************************************************************
+	// *** Entries
+	// ***************************************************************
+
+	/// A compressed entry, ready to be written.
+	/// @param method the compression method, STORED or DEFLATED
+	/// @param crc the CRC-32 of the uncompressed data
+	/// @param size the uncompressed size
+	/// @param data the array holding the compressed data
+	/// @param off the offset of the compressed data
+	/// @param len the length of the compressed data
+	/// @param dosTime the MS-DOS date and time, or -1 to use the writer's time
+	record Entry(int method, int crc, int size, byte[] data, int off, int len, int dosTime) {}
+
+	/// Compress an entry. This method may be called on any thread.
+	/// @param bytes the uncompressed bytes, null for a directory entry
+	/// @param deflate true: DEFLATED, otherwise STORED
+	/// @return the compressed entry
+	static Entry compress(final byte[] bytes, final boolean deflate) {
+		if (bytes == null || bytes.length == 0) return (new Entry(STORED, 0, 0, new byte[0], 0, 0, -1));
+		CRC32 crc = new CRC32();
+		crc.update(bytes);
+		if (!deflate) return (new Entry(STORED, (int) crc.getValue(), bytes.length, bytes, 0, bytes.length, -1));
+		Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+		try {
+			deflater.setInput(bytes);
+			deflater.finish();
+			byte[] buf = new byte[bytes.length + (bytes.length >> 3) + 64];
+			int len = 0;
+			while (!deflater.finished()) {
+				if (len == buf.length) buf = Arrays.copyOf(buf, buf.length * 2);
+				len += deflater.deflate(buf, len, buf.length - len);
+			}
+			return (new Entry(DEFLATED, (int) crc.getValue(), bytes.length, buf, 0, len, -1));
+		} finally {
+			deflater.end();
+		}
+	}
+
+	/// Write an entry.
+	/// @param name the entry name
+	/// @param entry the compressed entry
+	/// @throws IOException if something went wrong
+	void putEntry(final String name, final Entry entry) throws IOException {
+		byte[] nameBytes = name.getBytes(StandardCharsets.UTF_8);
+		int version = (entry.method == DEFLATED) ? 20 : 10;
+		int time = (entry.dosTime == -1) ? dosTime : entry.dosTime;
+		long headerOffset = offset;
+		if (headerOffset > 0xFFFFFFFFL || nEntries == 0xFFFF)
+			throw new IOException("JarFileWriter: Zip64 is not supported: " + name);
+
+		ByteArrayOutputStream header = new ByteArrayOutputStream(30 + nameBytes.length);
+		writeInt(header, LOCAL_HEADER);
+		writeShort(header, version);
+		writeShort(header, UTF8_FLAG);
+		writeShort(header, entry.method);
+		writeInt(header, time);
+		writeInt(header, entry.crc);
+		writeInt(header, entry.len);
+		writeInt(header, entry.size);
+		writeShort(header, nameBytes.length);
+		writeShort(header, 0); // Extra field length
+		header.write(nameBytes);
+		header.writeTo(out);
+		out.write(entry.data, entry.off, entry.len);
+		offset += header.size() + entry.len;
+
+		writeInt(centralDirectory, CENTRAL_HEADER);
+		writeShort(centralDirectory, 20); // Version made by
+		writeShort(centralDirectory, version);
+		writeShort(centralDirectory, UTF8_FLAG);
+		writeShort(centralDirectory, entry.method);
+		writeInt(centralDirectory, time);
+		writeInt(centralDirectory, entry.crc);
+		writeInt(centralDirectory, entry.len);
+		writeInt(centralDirectory, entry.size);
+		writeShort(centralDirectory, nameBytes.length);
+		writeShort(centralDirectory, 0); // Extra field length
+		writeShort(centralDirectory, 0); // Comment length
+		writeShort(centralDirectory, 0); // Disk number
+		writeShort(centralDirectory, 0); // Internal attributes
+		writeInt(centralDirectory, 0);   // External attributes
+		writeInt(centralDirectory, (int) headerOffset);
+		centralDirectory.write(nameBytes);
+		nEntries++;
+	}
+
+	/// Write the central directory and close the .jar file.
+	/// @throws IOException if something went wrong
+	void close() throws IOException {
+		long centralOffset = offset;
+		centralDirectory.writeTo(out);
+		writeInt(out, END_HEADER);
+		writeShort(out, 0); // This disk
+		writeShort(out, 0); // Central directory disk
+		writeShort(out, nEntries);
+		writeShort(out, nEntries);
+		writeInt(out, centralDirectory.size());
+		writeInt(out, (int) centralOffset);
+		writeShort(out, 0); // Comment length
+		out.close();
+	}
+
+	// ***************************************************************
+	// *** Raw entries of an existing .jar file
+	// ***************************************************************
+
+	/// Read the entries of a .jar file without inflating them.
+	/// @param file the .jar file
+	/// @param filter selects the entry names
+	/// @return the selected entries, sorted by name, or null if the .jar file can't be read raw
+	/// @throws IOException if the .jar file can't be read
+	static TreeMap<String, Entry> readRawEntries(final File file, final Predicate<String> filter) throws IOException {
+		byte[] zip = Files.readAllBytes(file.toPath());
+		int end = zip.length - 22;
+		int stop = Math.max(0, end - 0xFFFF);
+		while (end >= stop && getInt(zip, end) != END_HEADER) end--;
+		if (end < stop) return (null);
+		int count = getShort(zip, end + 10);
+		long centralOffset = getInt(zip, end + 16) & 0xFFFFFFFFL;
+		if (count == 0xFFFF || centralOffset == 0xFFFFFFFFL) return (null); // Zip64
+		TreeMap<String, Entry> entries = new TreeMap<String, Entry>();
+		int pos = (int) centralOffset;
+		for (int i = 0; i < count; i++) {
+			if (getInt(zip, pos) != CENTRAL_HEADER) return (null);
+			int flags = getShort(zip, pos + 8);
+			int method = getShort(zip, pos + 10);
+			int time = getInt(zip, pos + 12);
+			int crc = getInt(zip, pos + 16);
+			long len = getInt(zip, pos + 20) & 0xFFFFFFFFL;
+			long size = getInt(zip, pos + 24) & 0xFFFFFFFFL;
+			int nameLength = getShort(zip, pos + 28);
+			int extraLength = getShort(zip, pos + 30);
+			int commentLength = getShort(zip, pos + 32);
+			long localOffset = getInt(zip, pos + 42) & 0xFFFFFFFFL;
+			String name = new String(zip, pos + 46, nameLength, ((flags & UTF8_FLAG) != 0) ? StandardCharsets.UTF_8 : StandardCharsets.ISO_8859_1);
+			pos += 46 + nameLength + extraLength + commentLength;
+			if (!filter.test(name)) continue;
+			if ((flags & 1) != 0 || (method != STORED && method != DEFLATED)) return (null); // Encrypted or not supported
+			if (len == 0xFFFFFFFFL || size == 0xFFFFFFFFL || localOffset == 0xFFFFFFFFL) return (null); // Zip64
+			int local = (int) localOffset;
+			if (getInt(zip, local) != LOCAL_HEADER) return (null);
+			int dataOffset = local + 30 + getShort(zip, local + 26) + getShort(zip, local + 28);
+			entries.put(name, new Entry(method, crc, (int) size, zip, dataOffset, (int) len, time));
+		}
+		return (entries);
+	}
+
+	// ***************************************************************
+	// *** Utilities
+	// ***************************************************************
+
+	/// Utility: Compute the MS-DOS date and time.
+	/// @param t the local date and time
+	/// @return the MS-DOS date in the high half and the time in the low half
+	private static int dosTime(final LocalDateTime t) {
+		int year = Math.max(1980, t.getYear());
+		return ((year - 1980) << 25 | t.getMonthValue() << 21 | t.getDayOfMonth() << 16
+				| t.getHour() << 11 | t.getMinute() << 5 | t.getSecond() >> 1);
+	}
+
+	/// Utility: Write a little-endian 16-bit value.
+	/// @param out the output stream
+	/// @param v the value
+	/// @throws IOException if something went wrong
+	private static void writeShort(final OutputStream out, final int v) throws IOException {
+		out.write(v & 0xFF);
+		out.write((v >>> 8) & 0xFF);
+	}
+
+	/// Utility: Write a little-endian 32-bit value.
+	/// @param out the output stream
+	/// @param v the value
+	/// @throws IOException if something went wrong
+	private static void writeInt(final OutputStream out, final int v) throws IOException {
+		writeShort(out, v);
+		writeShort(out, v >>> 16);
+	}
+
+	/// Utility: Read a little-endian 16-bit value.
+	/// @param b the bytes
+	/// @param pos the position
+	/// @return the value
+	private static int getShort(final byte[] b, final int pos) {
+		return ((b[pos] & 0xFF) | (b[pos + 1] & 0xFF) << 8);
+	}
+
+	/// Utility: Read a little-endian 32-bit value.
+	/// @param b the bytes
+	/// @param pos the position
+	/// @return the value
+	private static int getInt(final byte[] b, final int pos) {
+		return (getShort(b, pos) | getShort(b, pos + 2) << 16);
+	}
+
+}
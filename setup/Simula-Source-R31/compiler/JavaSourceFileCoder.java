@@ -9,10 +9,13 @@ import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStreamWriter;
+import java.io.StringWriter;
 import java.io.Writer;
 import java.util.Date;
 import java.util.Vector;
 
+import javax.tools.JavaFileObject;
+
 import simula.compiler.syntaxClass.declaration.BlockDeclaration;
 import simula.compiler.utilities.Global;
 import simula.compiler.utilities.Option;
@@ -31,11 +34,17 @@ public final class JavaSourceFileCoder {
 	
 	/// The underlying Java output writer.
 	private final Writer writer;
+
+	/// The in-memory Java source, or null when the source is written to javaOutputFile.
+	private final StringWriter sourceBuffer;
 	
 	/// The line number map
 	private final Vector<Integer> lineMap = new Vector<Integer>();
 	
 	/// The output file for generated Java code.
+	///
+	/// The file is only written when Option.internal.keepJava is set, or when the
+	/// command line compiler is used. Otherwise it just names the source in diagnostics.
 	final File javaOutputFile;
 
 	/// Given as argument. Class, Procedure, Prefixed Block or Sub-Block.
@@ -53,10 +62,16 @@ public final class JavaSourceFileCoder {
 		Global.currentJavaFileCoder = this;
 		javaOutputFile = new File(Global.tempJavaFileDir, blockDeclaration.getJavaIdentifier() + ".java");
 		try {
-			javaOutputFile.getParentFile().mkdirs();
-			if (Option.verbose)
-				Util.TRACE("Output: " + javaOutputFile.getCanonicalPath());
-			writer = new OutputStreamWriter(new FileOutputStream(javaOutputFile), Global._CHARSET);
+			if (Option.internal.keepJava == null) {
+				sourceBuffer = new StringWriter(4096);
+				writer = sourceBuffer;
+			} else {
+				sourceBuffer = null;
+				javaOutputFile.getParentFile().mkdirs();
+				if (Option.verbose)
+					Util.TRACE("Output: " + javaOutputFile.getCanonicalPath());
+				writer = new OutputStreamWriter(new FileOutputStream(javaOutputFile), Global._CHARSET);
+			}
 			JavaSourceFileCoder.code("package " + Global.packetName + ";");
 			JavaSourceFileCoder.code("// " + Global.simulaReleaseID + " Compiled at " + new Date());
 			JavaSourceFileCoder.code("import simula.runtime.*;");
@@ -78,6 +93,37 @@ public final class JavaSourceFileCoder {
 		return (Global.tempClassFileDir + "/" + Global.packetName + '/' + blockDeclaration.getJavaIdentifier() + ".class");
 	}
 
+	/// Returns the binary name of the generated class.
+	/// @return the binary class name
+	String getClassName() {
+		return (Global.packetName + '.' + blockDeclaration.getJavaIdentifier());
+	}
+
+	/// Returns true if the generated Java source is kept in memory.
+	/// @return true if the generated Java source is kept in memory
+	boolean isInMemory() {
+		return (sourceBuffer != null);
+	}
+
+	/// Returns the generated Java source as a source object for the Java compiler.
+	/// @return the source object
+	JavaFileObject getSourceObject() {
+		if (sourceBuffer == null) Util.IERR();
+		return (MemoryJavaFileManager.sourceObject(javaOutputFile, sourceBuffer.getBuffer()));
+	}
+
+	/// Write the in-memory Java source to javaOutputFile.
+	///
+	/// Used when the Java source must be compiled by the command line compiler.
+	/// @throws IOException if something went wrong
+	void writeJavaOutputFile() throws IOException {
+		if (sourceBuffer == null) return;
+		javaOutputFile.getParentFile().mkdirs();
+		try (Writer fileWriter = new OutputStreamWriter(new FileOutputStream(javaOutputFile), Global._CHARSET)) {
+			fileWriter.write(sourceBuffer.toString());
+		}
+	}
+
 	/// Close Java output file.
 	/// @throws RuntimeException if writing .java output failed
 	public void closeJavaOutput() {
@@ -0,0 +1,105 @@
+/// (CC) This work is licensed under a Creative Commons
+/// Attribution 4.0 International License.
+///
+/// You find a copy of the License on the following
+/// page: https://creativecommons.org/licenses/by/4.0/
+package simula.compiler;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.util.Map;
+import java.util.TreeMap;
+
+import javax.tools.FileObject;
+import javax.tools.ForwardingJavaFileManager;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.StandardLocation;
+
+/// In-memory Java file manager.
+///
+/// Used by the viaJavaSource compiler mode to run the Java system compiler without
+/// temporary files. The generated Java source is given to the compiler from the
+/// JavaSourceFileCoder's buffers, and the resulting class files are captured as byte
+/// arrays, ready for byte code engineering and the JarFileBuilder.
+///
+/// Everything else, e.g. the runtime system and precompiled libraries on the class
+/// path, is delegated to the standard file manager.
+///
+/// @author Øystein Myhre Andersen
+final class MemoryJavaFileManager extends ForwardingJavaFileManager<StandardJavaFileManager> {
+
+	/// The generated class files, indexed by binary class name.
+	private final TreeMap<String, byte[]> classFiles = new TreeMap<String, byte[]>();
+
+	/// Create a new MemoryJavaFileManager.
+	/// @param fileManager the standard file manager
+	MemoryJavaFileManager(final StandardJavaFileManager fileManager) {
+		super(fileManager);
+	}
+
+	/// Create a Java source object over an in-memory buffer.
+	/// @param javaFile the .java file name, used in diagnostics only
+	/// @param source the Java source text
+	/// @return the source object
+	static JavaFileObject sourceObject(final File javaFile, final CharSequence source) {
+		return (new SimpleJavaFileObject(javaFile.toURI(), JavaFileObject.Kind.SOURCE) {
+			@Override
+			public CharSequence getCharContent(final boolean ignoreEncodingErrors) {
+				return (source);
+			}
+		});
+	}
+
+	/// Returns the generated class files.
+	/// @return the class files, indexed by binary class name
+	Map<String, byte[]> getClassFiles() {
+		return (classFiles);
+	}
+
+	@Override
+	public JavaFileObject getJavaFileForOutput(final Location location, final String className,
+			final JavaFileObject.Kind kind, final FileObject sibling) throws IOException {
+		if (location != StandardLocation.CLASS_OUTPUT || kind != JavaFileObject.Kind.CLASS)
+			return (super.getJavaFileForOutput(location, className, kind, sibling));
+		return (new ClassObject(className));
+	}
+
+	@Override
+	public boolean isSameFile(final FileObject a, final FileObject b) {
+		if (a instanceof SimpleJavaFileObject || b instanceof SimpleJavaFileObject)
+			return (a == b);
+		return (super.isSameFile(a, b));
+	}
+
+	/// An in-memory class file.
+	private final class ClassObject extends SimpleJavaFileObject {
+		/// The binary class name.
+		private final String className;
+
+		/// Create a new ClassObject.
+		/// @param className the binary class name
+		ClassObject(final String className) {
+			super(URI.create("mem:///" + className.replace('.', '/') + ".class"), JavaFileObject.Kind.CLASS);
+			this.className = className;
+		}
+
+		@Override
+		public OutputStream openOutputStream() {
+			return (new ByteArrayOutputStream() {
+				@Override
+				public void close() throws IOException {
+					super.close();
+					synchronized (classFiles) {
+						classFiles.put(className, toByteArray());
+					}
+				}
+			});
+		}
+	}
+
+}
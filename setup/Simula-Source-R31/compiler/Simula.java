@@ -8,6 +8,9 @@ package simula.compiler;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.PrintStream;
+import java.util.List;
+import java.util.Map;
 import java.util.Vector;
 
 import simula.compiler.parsing.SimulaScanner;
@@ -55,6 +58,24 @@ import simula.editor.SimulaEditor;
 ///                              
 ///      -verbose                Output messages about what the compiler is doing
 ///      
+///      -incremental            Reuse the output of a previous compilation when neither
+///                              the source, the options nor any external interface changed
+///      
+///      -parallel n             Use n threads to compress .jar entries, and to generate
+///                              stack maps with -parallelStackMaps.
+///                              Default: The number of available processors
+///      
+///      -parallelStackMaps      Build class files without stack maps, and generate them
+///                              in parallel when the .jar file is written. Default: Off
+///      
+///      -timing                 Measure wall time, CPU time and allocation per compiler phase
+///                              and write a JSON report to the output directory
+///      
+///      -cds                    Create a Class Data Sharing archive next to an executable .jar file
+///                              to reduce its startup time. Launch it by: java @program.args
+///      
+///      -noCompress             Write new .jar file entries uncompressed, for faster development builds
+///      
 ///      -keepJava directory     Specify where to place generated .java files
 ///                              Default: Temp directory which is deleted upon exit
 ///                              
@@ -115,6 +136,18 @@ public final class Simula {
 		Util.println("  -nowarn                    Generate no warnings");
 		Util.println("  -noPopup                   Don't create popUps at runtime");
 		Util.println("  -verbose                   Output messages about what the compiler is doing");
+		Util.println("  -incremental               Reuse the output of a previous compilation when neither");
+		Util.println("                             the source, the options nor any external interface changed");
+		Util.println("  -parallel n                Use n threads to compress .jar entries, and to generate");
+		Util.println("                             stack maps with -parallelStackMaps.");
+		Util.println("                             Default: The number of available processors");
+		Util.println("  -parallelStackMaps         Build class files without stack maps, and generate them");
+		Util.println("                             in parallel when the .jar file is written. Default: Off");
+		Util.println("  -timing                    Measure wall time, CPU time and allocation per compiler phase");
+		Util.println("                             and write a JSON report to the output directory");
+		Util.println("  -cds                       Create a Class Data Sharing archive next to an executable .jar file");
+		Util.println("                             to reduce its startup time. Launch it by: java @program.args");
+		Util.println("  -noCompress                Write new .jar file entries uncompressed, for faster development builds");
 		Util.println("  -select characters         First, all selectors are reset.");
 		Util.println("                             Then, for each character, the corresponding selector is set");		
 		Util.println("  -keepJava <directory>      Specify where to place generated .java files");
@@ -149,13 +182,83 @@ public final class Simula {
 		Util.println("");
 		Util.println("   NOTE: In this mode, the editor will terminate after the first");
 		Util.println("         program execution");
-
-		System.exit(0);
 	}
 
 	/// Main entry.
 	/// @param argv arguments
 	public static void main(String[] argv) {
+		Vector<String> fileNames = parseArguments(argv);
+		if (fileNames == null) System.exit(0);
+		
+	    if(!Option.internal.INLINE_TESTING) Global.simulaRtsLib=new File(Global.releaseHome, "/rts");
+	    
+		if (fileNames.isEmpty()) {
+			// *** STARTING SIMULA EDITOR ***
+			Global.sampleSourceDir = new File(Global.releaseHome, "/samples");
+			RTOption.InitRuntimeOptions();
+			Option.InitCompilerOptions();
+			SimulaEditor editor = new SimulaEditor();
+			editor.setVisible(true);
+		} else {
+	        for(String fileName:fileNames) {
+				// *** STARTING SIMULA COMPILER ***
+				try {
+					new SimulaCompiler(fileName).doCompile();
+				} catch (IOException e) {
+					Util.IERR("Compiler Error: ", e);
+				}
+			}
+		}
+	}
+
+	/// Compile entry used by CompilationContext.
+	/// 
+	/// Compiles the source files given by the command-line arguments 'argv' without
+	/// starting the editor and without terminating the JVM. Each call starts from the
+	/// default compiler options.
+	/// @param contextIdent the identifier of the calling CompilationContext
+	/// @param argv arguments
+	/// @param diagnostics where to print messages, or null to use System.out and System.err
+	/// @param attributeFileCache attribute files shared between contexts, or null
+	/// @param outputJars the list to update with the .jar files written, or null
+	/// @return the number of errors, or -1 if the arguments were not accepted
+	public static int compile(String contextIdent, String[] argv, PrintStream diagnostics,
+			Map<String,byte[]> attributeFileCache, List<File> outputJars) {
+		Global.contextIdent = contextIdent;
+		Global.diagnostics = diagnostics;
+		Global.attributeFileCache = attributeFileCache;
+		Option.InitCompilerOptions();
+		Option.noPopup = false;
+		Option.internal.keepJava = null;
+		Option.internal.SOURCE_FILE = "";
+		Option.internal.RUNTIME_USER_DIR = "";
+		Global.outputDir = null;
+		Global.extLib = null;
+		setSelectors("");
+		Vector<String> fileNames = parseArguments(argv);
+		if (fileNames == null) return(-1);
+	    if(!Option.internal.INLINE_TESTING) Global.simulaRtsLib=new File(Global.releaseHome, "/rts");
+		int nError = 0;
+		for(String fileName:fileNames) {
+			try {
+				SimulaCompiler compiler = new SimulaCompiler(fileName);
+				compiler.doCompile();
+				nError = nError + Util.nError;
+				if(outputJars != null && compiler.getOutputJarFile() != null)
+					outputJars.add(compiler.getOutputJarFile());
+			} catch (IOException | RuntimeException e) {
+				Util.println("Compiler terminated " + fileName + ": " + e.getMessage());
+				nError = nError + Math.max(1, Util.nError);
+			}
+		}
+		Global.diagnostics = null;
+		return(nError);
+	}
+
+	/// Parse command line arguments and set the corresponding options.
+	/// @param argv arguments
+	/// @return the source file names, or null if the help synopsis was printed instead
+	private static Vector<String> parseArguments(String[] argv) {
 		String sourceFileDir = null;
 		Vector<String> fileNames = new Vector<String>();
 		Option.verbose=false;
@@ -167,7 +270,7 @@ public final class Simula {
 		for(int i=0;i<argv.length;i++) {
 			String arg=argv[i];
 			if (arg.charAt(0) == '-') { // command line option
-				if (arg.equalsIgnoreCase("-help")) help();
+				if (arg.equalsIgnoreCase("-help")) { help(); return(null); }
 				else if (arg.equalsIgnoreCase("-caseSensitive")) Option.CaseSensitive=true;
 				else if (arg.equalsIgnoreCase("-compilerMode")) Option.setCompilerMode(argv[++i]);
 				else if (arg.equalsIgnoreCase("-noexec")) Option.noExecution=true;
@@ -175,6 +278,12 @@ public final class Simula {
 				else if (arg.equalsIgnoreCase("-noPopup")) Option.noPopup = true;
 				else if (arg.equalsIgnoreCase("-nowarn")) Option.WARNINGS=false;
 				else if (arg.equalsIgnoreCase("-verbose")) Option.verbose=true;
+				else if (arg.equalsIgnoreCase("-incremental")) Option.incremental=true;
+				else if (arg.equalsIgnoreCase("-timing")) Option.timing=true;
+				else if (arg.equalsIgnoreCase("-cds")) Option.cds=true;
+				else if (arg.equalsIgnoreCase("-noCompress")) Option.noCompress=true;
+				else if (arg.equalsIgnoreCase("-parallel")) Option.parallelism=Math.max(1, Integer.parseInt(argv[++i]));
+				else if (arg.equalsIgnoreCase("-parallelStackMaps")) Option.parallelStackMaps=true;
 				else if (arg.equalsIgnoreCase("-select")) setSelectors(argv[++i]);				
 				else if (arg.equalsIgnoreCase("-keepJava")) setKeepJava(argv[++i]);
 				else if (arg.equalsIgnoreCase("-output")) setOutputDir(argv[++i]);
@@ -187,30 +296,15 @@ public final class Simula {
 				else {
 					IO.println("Simula ERROR: Unknown option " + arg);
 					help();
+					return(null);
 				}
 			} else fileNames.add(arg);
 		}
-		
-	    if(!Option.internal.INLINE_TESTING) Global.simulaRtsLib=new File(Global.releaseHome, "/rts");
-	    
-		if (fileNames.isEmpty()) {
-			// *** STARTING SIMULA EDITOR ***
-			Global.sampleSourceDir = new File(Global.releaseHome, "/samples");
-			RTOption.InitRuntimeOptions();
-			Option.InitCompilerOptions();
-			SimulaEditor editor = new SimulaEditor();
-			editor.setVisible(true);
-		} else {
-	        for(String fileName:fileNames) {
-				// *** STARTING SIMULA COMPILER ***
-				try {
-					if(sourceFileDir != null) fileName = sourceFileDir + '/' + fileName;
-					new SimulaCompiler(fileName).doCompile();
-				} catch (IOException e) {
-					Util.IERR("Compiler Error: ", e);
-				}
-			}
+		if(sourceFileDir != null) {
+			for(int i=0;i<fileNames.size();i++)
+				fileNames.set(i, sourceFileDir + '/' + fileNames.get(i));
 		}
+		return(fileNames);
 	}
 
 
@@ -7,17 +7,23 @@ package simula.compiler;
 
 import java.io.File;
 import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.Reader;
 import java.nio.charset.Charset;
+import java.util.Map;
 import java.util.Vector;
+import java.util.jar.Attributes;
+import java.util.jar.JarFile;
 import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
 import javax.tools.ToolProvider;
 
 import simula.compiler.parsing.Parse;
 import simula.compiler.syntaxClass.statement.ProgramModule;
 import simula.compiler.transform.ClassFileTransform;
+import simula.compiler.utilities.CompilerTiming;
 import simula.compiler.utilities.Global;
 import simula.compiler.utilities.ObjectKind;
 import simula.compiler.utilities.Option;
@@ -30,6 +36,7 @@ import simula.editor.RTOption;
 /// The compiler consists of the following steps:
 ///
 /// 	- Initiate global variables.
+/// 	- With -incremental: Reuse the previous output when it is up to date. See BuildCache.
 /// 	- Do Parsing: Read source file through the scanner building program syntax tree.
 /// 	- Do Checking: Traverse the syntax tree performing semantic checking.
 /// 	- Do Coding dependent on the CompilerMode:
@@ -62,6 +69,13 @@ public final class SimulaCompiler {
 	/// The output .jar file
 	private File outputJarFile;
 
+	/// The class files from an in-memory Java compilation, indexed by binary class name.
+	/// Null when the class files are in Global.tempClassFileDir.
+	private Map<String, byte[]> memoryClassFiles;
+
+	/// The source file, or null in case of SimulaEditor.
+	private final File sourceFile;
+
 	/// Create a new SimulaCompiler.
 	/// @param inputFileName the source file name
 	public SimulaCompiler(final String inputFileName) {
@@ -73,6 +87,7 @@ public final class SimulaCompiler {
 	/// @param reader        Reader in case of SimulaEditor
 	public SimulaCompiler(final String inputFileName, Reader reader) {
 		Global.initiate();
+		this.sourceFile = (reader == null) ? new File(inputFileName) : null;
 		if (reader == null) {
 			try {
 				File file = new File(inputFileName);
@@ -99,8 +114,10 @@ public final class SimulaCompiler {
 			Global.trySetOutputDir(new File(Global.sourceFileDir, "bin"));
 		}
 
-		// Get Temp Directory:
-		Global.simulaTempDir = Global.getTempFileDir("simula/");
+		// Get Temp Directory: Private to each CompilationContext
+		if (Global.contextIdent != null)
+			 Global.simulaTempDir = Global.getTempFileDir("simulaContext/" + Global.contextIdent + '/');
+		else Global.simulaTempDir = Global.getTempFileDir("simula/");
 		deleteTempFiles(Global.simulaTempDir);
 
 		// Create Temp .java-Files Directory:
@@ -145,6 +162,12 @@ public final class SimulaCompiler {
 		}
 	}
 
+	/// Returns the .jar file written by doCompile, or null.
+	/// @return the output .jar file or null
+	public File getOutputJarFile() {
+		return (outputJarFile);
+	}
+
 	/// List temp class file directory tree
 	/// @param dir tempClassFileDir
 	private void list(final File dir) {
@@ -213,6 +236,23 @@ public final class SimulaCompiler {
 					+ Global.sourceName);
 		}
 		
+		CompilerTiming.begin();
+		CompilerTiming.beginPhase("buildCache");
+		BuildCache.begin(sourceFile);
+		File cachedJarFile = BuildCache.lookup();
+		if (cachedJarFile != null) {
+			Util.println("Up to date: " + cachedJarFile);
+			outputJarFile = cachedJarFile;
+			boolean executable = isExecutable(cachedJarFile);
+			if (Option.cds && executable && !ClassDataSharing.isValid(cachedJarFile)) {
+				CompilerTiming.beginPhase("sharedArchive");
+				ClassDataSharing.create(cachedJarFile);
+			}
+			CompilerTiming.end(Global.outputDir);
+			doExecute(cachedJarFile.toString(), executable);
+			return;
+		}
+		
    		if(Option.compilerMode != Option.CompilerMode.simulaClassLoader) {
 			Global.jarFileBuilder = new JarFileBuilder();
 		}
@@ -220,6 +260,7 @@ public final class SimulaCompiler {
 		// ***************************************************************
 		// *** Scanning and Parsing
 		// ***************************************************************
+		CompilerTiming.beginPhase("parsing");
 		Global.javaSourceFileCoders = new Vector<JavaSourceFileCoder>();
 		Parse.initiate(reader);
 		programModule = new ProgramModule();
@@ -245,15 +286,16 @@ public final class SimulaCompiler {
 		// ***************************************************************
 		// *** Generate .java files or ClassFileBuilder -> jarFile
 		// ***************************************************************
+		CompilerTiming.beginPhase("loading");
    		if(Option.compilerMode == Option.CompilerMode.simulaClassLoader) {
 			if (!programModule.isExecutable()) {
 				// Separate Compilation
 				Global.jarFileBuilder = new JarFileBuilder();
 				Global.jarFileBuilder.open(programModule);
 			} else {
-				Global.simulaClassLoader = new SimulaClassLoader();
-				if(! Option.internal.INLINE_TESTING)
-					JarFileBuilder.loadRuntimeSystem();
+				if(Option.internal.INLINE_TESTING)
+					 Global.simulaClassLoader = new SimulaClassLoader();
+				else Global.simulaClassLoader = new SimulaClassLoader(JarFileBuilder.loadRuntimeSystem());
 				JarFileBuilder.loadIncludeQueue();
 			}
 		} else {
@@ -269,6 +311,7 @@ public final class SimulaCompiler {
 		// ***************************************************************
 		if (Option.internal.TRACING)
 			Util.println("BEGIN Semantic Checker");
+		CompilerTiming.beginPhase("checking");
 		Global.duringChecking = true;
 		programModule.doChecking();
 		if (Option.internal.TRACING) {
@@ -294,12 +337,14 @@ public final class SimulaCompiler {
 			if (Option.internal.TRACING)
 				Util.println("BEGIN Generate .class Output Code");
 			// *** Generate .class files
+			CompilerTiming.beginPhase("classFileGeneration");
 			programModule.createJavaClassFile();
 			if(Option.verbose) Util.println(Global.sourceName + ": Class Files Generated - Directly");
 		} else {
 			if (Option.internal.TRACING)
 				Util.println("BEGIN Generate .java Output Code");
 			// *** Generate .java intermediate code
+			CompilerTiming.beginPhase("javaCoding");
 			programModule.doJavaCoding();
 			if(Option.verbose) Util.println("SimulaCompiler.doCompile: " + Global.sourceName + ": Java Source Files Generated");
 			if (Option.internal.TRACING) {
@@ -328,43 +373,74 @@ public final class SimulaCompiler {
 			// *** POSSIBLE -- DO BYTE_CODE_ENGINEERING
 			// *** POSSIBLE - LIST GENERATED .class FILES
 			// ***************************************************************
+			CompilerTiming.beginPhase("javaCompiler");
 			doCallJavaCompiler();
+			CompilerTiming.beginPhase("byteCodeEngineering");
 			doByteCodeEngineering();
 			if(Option.internal.LIST_GENERATED_CLASS_FILES)
 				listGeneratedClassFiles();
 		}
+		CompilerTiming.beginPhase("attributeFile");
 		AttributeFileIO.writeAttributeFile(programModule);
 
 		// ***************************************************************
 		// *** CRERATE .jar FILE INLINE
 		// ***************************************************************
 		String jarFile = null;
+		CompilerTiming.beginPhase("jarFile");
    		if(Option.compilerMode == Option.CompilerMode.simulaClassLoader) {
 			if(Global.jarFileBuilder != null) {
 				if(Option.compilerMode == Option.CompilerMode.viaJavaSource) {
-					Global.jarFileBuilder.addTempClassFiles();
+					addClassFiles();
 				}
 				outputJarFile = Global.jarFileBuilder.close();
 				jarFile = outputJarFile.toString(); 				
 			}
 		} else {
 			if(Option.compilerMode == Option.CompilerMode.viaJavaSource) {
-				Global.jarFileBuilder.addTempClassFiles();
+				addClassFiles();
 			}
 			outputJarFile = Global.jarFileBuilder.close();
 			jarFile = outputJarFile.toString();
 		}
+		BuildCache.store(outputJarFile);
+		if (Option.cds && outputJarFile != null && programModule.isExecutable()) {
+			CompilerTiming.beginPhase("sharedArchive");
+			ClassDataSharing.create(outputJarFile);
+		}
+		CompilerTiming.end(Global.outputDir);
 		
 		if (Option.verbose) printSummary();
+		doExecute(jarFile, programModule.isExecutable());
+	}
 
+	/// Returns true if a .jar file written by a previous compilation is executable.
+	/// @param jarFile the .jar file
+	/// @return true if the .jar file has a Main-Class
+	/// @throws IOException if something went wrong.
+	private static boolean isExecutable(final File jarFile) throws IOException {
+		try (JarFile jar = new JarFile(jarFile)) {
+			return (jar.getManifest().getMainAttributes().getValue(Attributes.Name.MAIN_CLASS) != null);
+		}
+	}
+
+	/// Execute the program, unless it is a separate compiled module or -noexec is set.
+	/// @param jarFile the .jar file, or null
+	/// @param executable true if the program is executable
+	/// @throws IOException if something went wrong.
+	private void doExecute(final String jarFile, final boolean executable) throws IOException {
 		// ***************************************************************
 		// *** EXECUTE .jar FILE
 		// ***************************************************************
 		Vector<String> cmds = new Vector<String>();
 		cmds.add("java");
    		if(Option.compilerMode != Option.CompilerMode.simulaClassLoader) {
-			cmds.add("-jar");
-			cmds.add(jarFile);
+			if (Option.cds && ClassDataSharing.isValid(new File(jarFile))) {
+				ClassDataSharing.addLaunchArguments(cmds, new File(jarFile));
+			} else {
+				cmds.add("-jar");
+				cmds.add(jarFile);
+			}
 		}
 		if (Option.internal.RUNTIME_USER_DIR.length() > 0) {
 			cmds.add("-userDir");
@@ -383,15 +459,19 @@ public final class SimulaCompiler {
    		if(Option.compilerMode == Option.CompilerMode.simulaClassLoader) {
 			if(Global.simulaClassLoader != null) {
 				String name = Global.packetName + '.' + programModule.getIdentifier();
-				Global.simulaClassLoader.runClass(name, cmds);
+				try {
+					Global.simulaClassLoader.runClass(name, cmds);
+				} finally {
+					Global.simulaClassLoader.close();
+				}
 			} else {
 				if(Global.jarFileBuilder != null) {
-	    			doExecuteJarFile(jarFile,cmds);    					
+	    			doExecuteJarFile(jarFile,cmds,executable);
 				} else
 				Util.IERR();
 			}
 		} else {
-			doExecuteJarFile(jarFile,cmds);
+			doExecuteJarFile(jarFile,cmds,executable);
 		}
 		
 		if (Option.internal.DEBUGGING)
@@ -403,9 +483,10 @@ public final class SimulaCompiler {
 	/// Execute JarFile.
 	/// @param jarFile a jarFile
 	/// @param arg the arguments
+	/// @param executable true if the program is executable
 	/// @throws IOException if something went wrong.
-	private void doExecuteJarFile(String jarFile,Vector<String> arg) throws IOException {
-		if (!programModule.isExecutable()) {
+	private void doExecuteJarFile(String jarFile,Vector<String> arg,boolean executable) throws IOException {
+		if (!executable) {
 			if (Option.verbose)
 				Util.println("Separate Compilation - No Execution of .jar File: " + jarFile);
 		} else if (Option.noExecution) {
@@ -464,7 +545,9 @@ public final class SimulaCompiler {
 		String msg = "Commandline";
 		JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
 		if (compiler != null) {
-			exitValue = callJavaSystemCompiler(compiler, classPath);
+			if (Option.internal.keepJava == null)
+				 exitValue = callJavaMemoryCompiler(compiler, classPath);
+			else exitValue = callJavaSystemCompiler(compiler, classPath);
 			msg = "System";
 			if (exitValue != 0) {
 				Util.error("Java " + msg + " Compiler returns exit=" + exitValue + "\n");
@@ -475,9 +558,14 @@ public final class SimulaCompiler {
 			exitValue = callJavacCompiler(classPath);
 		if (Option.internal.DEBUGGING) {
 			Util.println("Java " + msg + " Compiler returns exit=" + exitValue + "\n");
-			for (JavaSourceFileCoder javaClass : Global.javaSourceFileCoders)
-				Util.println(javaClass.getClassOutputFileName());
-			list(Global.tempClassFileDir);
+			if (memoryClassFiles != null) {
+				for (String className : memoryClassFiles.keySet())
+					Util.println(className + " (in memory)");
+			} else {
+				for (JavaSourceFileCoder javaClass : Global.javaSourceFileCoders)
+					Util.println(javaClass.getClassOutputFileName());
+				list(Global.tempClassFileDir);
+			}
 		}
 		if(Option.verbose) Util.println("SimulaCompiler.doCompile: " + Global.sourceName + ": Class Files Generated - From Java Source");
 		if (exitValue != 0) {
@@ -487,6 +575,40 @@ public final class SimulaCompiler {
 		}
 	}
 
+	/// Call Java system compiler in memory.
+	///
+	/// The Java source is taken from the JavaSourceFileCoders' buffers, and the resulting
+	/// class files are kept in memoryClassFiles. No temporary files are written.
+	/// @param compiler the Java compiler
+	/// @param classPath the classPath
+	/// @return return value from the Java compiler
+	/// @throws IOException if something went wrong
+	private int callJavaMemoryCompiler(final JavaCompiler compiler, final String classPath) throws IOException {
+		Vector<String> options = new Vector<String>();
+		if (Option.internal.TRACING)
+			Util.println("SimulaCompiler.callJavaMemoryCompiler: classPath=\"" + classPath + "\"");
+		options.add("-classpath");
+		options.add(classPath);
+		if (!Option.WARNINGS)
+			options.add("-nowarn");
+		Vector<JavaFileObject> sources = new Vector<JavaFileObject>();
+		for (JavaSourceFileCoder javaClass : Global.javaSourceFileCoders)
+			sources.add(javaClass.getSourceObject());
+
+		if (Option.internal.DEBUGGING) {
+			Util.println("------------  Call Java System Compiler in Memory  ------------");
+			Util.println("System Compiler supports " + compiler.getSourceVersions());
+			for (int i = 0; i < options.size(); i++)
+				Util.println("Compiler'options[" + i + "]=" + options.get(i));
+		}
+		try (MemoryJavaFileManager fileManager = new MemoryJavaFileManager(compiler.getStandardFileManager(null, null, null))) {
+			boolean success = compiler.getTask(null, fileManager, null, options, null, sources).call();
+			if (!success) return (1);
+			memoryClassFiles = fileManager.getClassFiles();
+			return (0);
+		}
+	}
+
 	/// Call Java system compiler
 	/// @param compiler the Java compiler
 	/// @param classPath the classPath
@@ -524,7 +646,11 @@ public final class SimulaCompiler {
 	/// Call Java command line compiler.
 	/// @param classPath the classPath
 	/// @return return value from the Java compiler
-	private int callJavacCompiler(final String classPath) {
+	/// @throws IOException if something went wrong
+	private int callJavacCompiler(final String classPath) throws IOException {
+		memoryClassFiles = null;
+		for (JavaSourceFileCoder javaClass : Global.javaSourceFileCoders)
+			javaClass.writeJavaOutputFile();
 		Vector<String> cmds = new Vector<String>();
 		cmds.add("javac");
 		if (Option.internal.DEBUGGING) {
@@ -556,32 +682,82 @@ public final class SimulaCompiler {
 		if (Option.internal.keepJava == null) {
 			if (Option.internal.TRACE_BYTECODE_OUTPUT) {
 				Util.println("------------  LIST ByteCode Before Engineering  ------------");
-				for (JavaSourceFileCoder javaClass : Global.javaSourceFileCoders) {
-					String classFile = javaClass.getClassOutputFileName();
-					Util.doListClassFile(classFile);
-				}
+				for (JavaSourceFileCoder javaClass : Global.javaSourceFileCoders)
+					listClassFile(javaClass);
 			}
 			for (JavaSourceFileCoder javaClass : Global.javaSourceFileCoders) {
 				if (javaClass.mustDoByteCodeEngineering) {
-					String classFileName = javaClass.getClassOutputFileName();
-					ClassFileTransform.doRepairSingleByteCode(classFileName,classFileName);
-					if(Option.verbose) Util.println("SimulaCompiler.doByteCodeEngineering: " + Global.sourceName + ": Class File " + classFileName + " is repaired");
+					if (memoryClassFiles != null) {
+						String className = javaClass.getClassName();
+						byte[] bytes = memoryClassFiles.get(className);
+						if (bytes == null) Util.IERR("SimulaCompiler.doByteCodeEngineering: Missing Class File " + className);
+						memoryClassFiles.put(className, ClassFileTransform.doRepairSingleByteCode(bytes));
+						if(Option.verbose) Util.println("SimulaCompiler.doByteCodeEngineering: " + Global.sourceName + ": Class " + className + " is repaired in memory");
+					} else {
+						String classFileName = javaClass.getClassOutputFileName();
+						ClassFileTransform.doRepairSingleByteCode(classFileName,classFileName);
+						if(Option.verbose) Util.println("SimulaCompiler.doByteCodeEngineering: " + Global.sourceName + ": Class File " + classFileName + " is repaired");
+					}
 				}
 			}
 			if (Option.internal.TRACE_BYTECODE_OUTPUT) {
 				Util.println("------------  LIST ByteCode After Engineering  ------------");
-				for (JavaSourceFileCoder javaClass : Global.javaSourceFileCoders) {
-					String classFile = javaClass.getClassOutputFileName();
-					Util.doListClassFile(classFile);
-				}
+				for (JavaSourceFileCoder javaClass : Global.javaSourceFileCoders)
+					listClassFile(javaClass);
 			}
 		} else {
 			Util.warning("Option.internal.keepJava set: No ByteCode Engineering is performed");
 		}
 	}
 
+	/// Add the class files generated via Java source to the JarFileBuilder.
+	///
+	/// Class files compiled in memory are handed directly to the JarFileBuilder's
+	/// classFileMap. Otherwise they are read from Global.tempClassFileDir.
+	/// @throws IOException if something went wrong.
+	private void addClassFiles() throws IOException {
+		if (memoryClassFiles == null) {
+			Global.jarFileBuilder.addTempClassFiles();
+			return;
+		}
+		Global.jarFileBuilder.putMapEntry(Global.packetName + '/', null);
+		for (Map.Entry<String, byte[]> entry : memoryClassFiles.entrySet())
+			Global.jarFileBuilder.putMapEntry(entry.getKey().replace('.', '/') + ".class", entry.getValue());
+		memoryClassFiles = null;
+	}
+
+	/// Debug utility: List a generated .class file.
+	/// @param javaClass the JavaSourceFileCoder
+	/// @throws IOException if something went wrong.
+	private void listClassFile(final JavaSourceFileCoder javaClass) throws IOException {
+		if (memoryClassFiles != null)
+			 listClassFile(javaClass.getClassName(), memoryClassFiles.get(javaClass.getClassName()));
+		else Util.doListClassFile(javaClass.getClassOutputFileName());
+	}
+
+	/// Debug utility: List an in-memory .class file.
+	///
+	/// The class file is written to Global.tempClassFileDir, since javap reads files.
+	/// @param className the binary class name
+	/// @param bytes the class file bytes
+	/// @throws IOException if something went wrong.
+	private void listClassFile(final String className, final byte[] bytes) throws IOException {
+		File classFile = new File(Global.tempClassFileDir, className.replace('.', '/') + ".class");
+		classFile.getParentFile().mkdirs();
+		try (FileOutputStream oupt = new FileOutputStream(classFile)) {
+			oupt.write(bytes);
+		}
+		Util.doListClassFile(classFile.toString());
+	}
+
 	/// Debug utility: listGeneratedClassFiles.
-	private void listGeneratedClassFiles() {
+	/// @throws IOException if something went wrong.
+	private void listGeneratedClassFiles() throws IOException {
+		if (memoryClassFiles != null) {
+			for (Map.Entry<String, byte[]> entry : memoryClassFiles.entrySet())
+				listClassFile(entry.getKey(), entry.getValue());
+			return;
+		}
 		File classFiles = new File(Global.tempClassFileDir, Global.packetName);
 		for (File classFile : classFiles.listFiles()) {
 			if(classFile.getName().endsWith(".class"))
@@ -0,0 +1,193 @@
+/// (CC) This work is licensed under a Creative Commons
+/// Attribution 4.0 International License.
+///
+/// You find a copy of the License on the following
+/// page: https://creativecommons.org/licenses/by/4.0/
+package simula.compiler.parsing;
+
+import simula.compiler.utilities.KeyWord;
+
+/// Name Table for the Simula Scanner.
+///
+/// The reserved words are kept in a static perfect hash table, i.e. a keyword is
+/// recognized with one hash computation and at most one comparison.
+///
+/// Identifiers are interned in an open hash table owned by a scanner. An identifier
+/// is looked up directly in the scanner's name buffer, so a String is only created the
+/// first time each identifier is seen.
+///
+/// @author Øystein Myhre Andersen
+final class NameTable {
+
+	/// Keyword code used for names which are Java keywords but not Simula keywords.
+	static final int JAVA_KEYWORD = KeyWord.IDENTIFIER;
+
+	/// The reserved words and their keyword codes.
+	private static final Object[] RESERVED = {
+		"abstract", JAVA_KEYWORD, "activate", KeyWord.ACTIVATE, "after", KeyWord.AFTER, "and", KeyWord.AND,
+		"and_then", KeyWord.AND_THEN, "array", KeyWord.ARRAY, "assert", JAVA_KEYWORD, "at", KeyWord.AT,
+		"before", KeyWord.BEFORE, "begin", KeyWord.BEGIN, "boolean", KeyWord.BOOLEAN, "break", JAVA_KEYWORD,
+		"byte", JAVA_KEYWORD, "case", JAVA_KEYWORD, "catch", JAVA_KEYWORD, "char", JAVA_KEYWORD,
+		"character", KeyWord.CHARACTER, "class", KeyWord.CLASS, "comment", KeyWord.COMMENT, "const", JAVA_KEYWORD,
+		"continue", JAVA_KEYWORD, "default", JAVA_KEYWORD, "delay", KeyWord.DELAY, "do", KeyWord.DO,
+		"double", JAVA_KEYWORD, "else", KeyWord.ELSE, "end", KeyWord.END, "enum", JAVA_KEYWORD,
+		"eq", KeyWord.EQ, "eqv", KeyWord.EQV, "extends", JAVA_KEYWORD, "external", KeyWord.EXTERNAL,
+		"false", KeyWord.FALSE, "final", JAVA_KEYWORD, "finally", JAVA_KEYWORD, "float", JAVA_KEYWORD,
+		"for", KeyWord.FOR, "ge", KeyWord.GE, "go", KeyWord.GO, "goto", KeyWord.GOTO, "gt", KeyWord.GT,
+		"hidden", KeyWord.HIDDEN, "if", KeyWord.IF, "imp", KeyWord.IMP, "implements", JAVA_KEYWORD,
+		"import", JAVA_KEYWORD, "in", KeyWord.IN, "inner", KeyWord.INNER, "inspect", KeyWord.INSPECT,
+		"instanceOf", JAVA_KEYWORD, "int", JAVA_KEYWORD, "integer", KeyWord.INTEGER, "interface", JAVA_KEYWORD,
+		"is", KeyWord.IS, "label", KeyWord.LABEL, "le", KeyWord.LE, "long", KeyWord.LONG, "lt", KeyWord.LT,
+		"name", KeyWord.NAME, "native", JAVA_KEYWORD, "ne", KeyWord.NE, "new", KeyWord.NEW,
+		"none", KeyWord.NONE, "not", KeyWord.NOT, "notext", KeyWord.NOTEXT, "null", JAVA_KEYWORD,
+		"or", KeyWord.OR, "or_else", KeyWord.OR_ELSE, "otherwise", KeyWord.OTHERWISE, "package", JAVA_KEYWORD,
+		"prior", KeyWord.PRIOR, "private", JAVA_KEYWORD, "procedure", KeyWord.PROCEDURE,
+		"protected", KeyWord.PROTECTED, "public", JAVA_KEYWORD, "qua", KeyWord.QUA,
+		"reactivate", KeyWord.REACTIVATE, "real", KeyWord.REAL, "ref", KeyWord.REF, "return", JAVA_KEYWORD,
+		"short", KeyWord.SHORT, "static", JAVA_KEYWORD, "step", KeyWord.STEP, "strictfp", JAVA_KEYWORD,
+		"super", JAVA_KEYWORD, "switch", KeyWord.SWITCH, "synchronized", JAVA_KEYWORD, "text", KeyWord.TEXT,
+		"then", KeyWord.THEN, "this", KeyWord.THIS, "throw", JAVA_KEYWORD, "throws", JAVA_KEYWORD,
+		"to", KeyWord.TO, "transient", JAVA_KEYWORD, "true", KeyWord.TRUE, "try", JAVA_KEYWORD,
+		"until", KeyWord.UNTIL, "value", KeyWord.VALUE, "virtual", KeyWord.VIRTUAL, "void", JAVA_KEYWORD,
+		"volatile", JAVA_KEYWORD, "when", KeyWord.WHEN, "while", KeyWord.WHILE
+	};
+
+	/// The keyword slots. Each reserved word has a slot of its own.
+	private static final char[][] KEYS;
+
+	/// The keyword codes, indexed as KEYS.
+	private static final int[] CODES;
+
+	/// The multiplier of the perfect hash function.
+	private static final int MULTIPLIER;
+
+	/// The shift of the perfect hash function.
+	private static final int SHIFT;
+
+	static {
+		long hashFunction = findPerfectHash();
+		MULTIPLIER = (int) hashFunction;
+		SHIFT = (int) (hashFunction >>> 32);
+		KEYS = new char[1 << (32 - SHIFT)][];
+		CODES = new int[KEYS.length];
+		for (int i = 0; i < RESERVED.length; i += 2) {
+			char[] key = ((String) RESERVED[i]).toCharArray();
+			int slot = (hash(key, key.length, false) * MULTIPLIER) >>> SHIFT;
+			KEYS[slot] = key;
+			CODES[slot] = (Integer) RESERVED[i + 1];
+		}
+	}
+
+	/// Utility: Find a multiplier and a table size which give each reserved word a slot of its own.
+	/// @return the shift in the high word and the multiplier in the low word
+	private static long findPerfectHash() {
+		for (int bits = 8;; bits++) {
+			int multiplier = 0x9E3779B1;
+			for (int attempt = 0; attempt < 1000; attempt++, multiplier += 0x632BE5AB) {
+				boolean[] used = new boolean[1 << bits];
+				boolean perfect = true;
+				for (int i = 0; perfect && i < RESERVED.length; i += 2) {
+					String key = (String) RESERVED[i];
+					int slot = (key.hashCode() * multiplier) >>> (32 - bits);
+					perfect = !used[slot];
+					used[slot] = true;
+				}
+				if (perfect) return (((long) (32 - bits) << 32) | (multiplier & 0xFFFFFFFFL));
+			}
+		}
+	}
+
+	/// Lookup a reserved word.
+	/// @param buf the name buffer
+	/// @param n the length of the name
+	/// @param fold true: the lookup is case-insensitive
+	/// @return the keyword code, JAVA_KEYWORD or zero if the name is not a reserved word
+	static int lookupKeyword(final char[] buf, final int n, final boolean fold) {
+		int slot = (hash(buf, n, fold) * MULTIPLIER) >>> SHIFT;
+		char[] key = KEYS[slot];
+		if (key == null || key.length != n) return (0);
+		for (int i = 0; i < n; i++) {
+			char c = buf[i];
+			if (fold) c = fold(c);
+			if (c != key[i]) return (0);
+		}
+		return (CODES[slot]);
+	}
+
+	/// Utility: Compute the hash of a name.
+	/// 
+	/// Without folding, this is the same as String.hashCode.
+	/// @param buf the name buffer
+	/// @param n the length of the name
+	/// @param fold true: fold the name to lower case
+	/// @return the hash value
+	private static int hash(final char[] buf, final int n, final boolean fold) {
+		int h = 0;
+		for (int i = 0; i < n; i++) h = 31 * h + (fold ? fold(buf[i]) : buf[i]);
+		return (h);
+	}
+
+	/// Utility: Fold a character to lower case.
+	/// @param c the character
+	/// @return the lower case character
+	private static char fold(final char c) {
+		if (c < 128) return ((c >= 'A' && c <= 'Z') ? (char) (c + 32) : c);
+		return (Character.toLowerCase(c));
+	}
+
+	// ***************************************************************
+	// *** Identifier Table
+	// ***************************************************************
+
+	/// The interned identifiers. The length is a power of two.
+	private String[] names = new String[1024];
+
+	/// The number of interned identifiers.
+	private int count;
+
+	/// Create a new identifier table.
+	NameTable() {}
+
+	/// Intern an identifier.
+	/// @param buf the name buffer
+	/// @param n the length of the name
+	/// @return the unique String with the same characters
+	String intern(final char[] buf, final int n) {
+		int mask = names.length - 1;
+		int slot = hash(buf, n, false) & mask;
+		String name;
+		while ((name = names[slot]) != null) {
+			if (name.length() == n && equals(name, buf, n)) return (name);
+			slot = (slot + 1) & mask;
+		}
+		name = new String(buf, 0, n);
+		names[slot] = name;
+		if (++count * 2 > names.length) rehash();
+		return (name);
+	}
+
+	/// Utility: Compare a String with the characters in a name buffer.
+	/// @param name the String
+	/// @param buf the name buffer
+	/// @param n the length of the name
+	/// @return true if equal
+	private static boolean equals(final String name, final char[] buf, final int n) {
+		for (int i = 0; i < n; i++)
+			if (name.charAt(i) != buf[i]) return (false);
+		return (true);
+	}
+
+	/// Double the size of the identifier table.
+	private void rehash() {
+		String[] old = names;
+		names = new String[old.length * 2];
+		int mask = names.length - 1;
+		for (String name : old) {
+			if (name == null) continue;
+			int slot = name.hashCode() & mask;
+			while (names[slot] != null) slot = (slot + 1) & mask;
+			names[slot] = name;
+		}
+	}
+
+}
@@ -0,0 +1,88 @@
+/// (CC) This work is licensed under a Creative Commons
+/// Attribution 4.0 International License.
+///
+/// You find a copy of the License on the following
+/// page: https://creativecommons.org/licenses/by/4.0/
+package simula.compiler.parsing;
+
+import java.io.CharArrayReader;
+
+import simula.compiler.utilities.Util;
+
+/// Scanner Benchmark.
+///
+/// Measures the throughput of the SimulaScanner, in source lines per second, on a
+/// generated corpus. The corpus mixes declarations, expressions, text and character
+/// constants, comments and end-comments in roughly the proportions of ordinary
+/// Simula programs.
+///
+/// The benchmark is started by a command-line of this form:
+///
+/// 		java -cp releaseHome\simula.jar simula.compiler.parsing.ScannerBenchmark [lines] [iterations]
+///
+/// @author Øystein Myhre Andersen
+public final class ScannerBenchmark {
+
+	/// Default constructor: Not used
+	private ScannerBenchmark() {}
+
+	/// Main entry.
+	/// @param argv arguments: number of lines (default 1000000), and number of iterations (default 10)
+	public static void main(final String[] argv) {
+		int nLines = (argv.length > 0) ? Integer.parseInt(argv[0]) : 1000000;
+		int nIterations = (argv.length > 1) ? Integer.parseInt(argv[1]) : 10;
+		char[] corpus = generateCorpus(nLines);
+		Util.println("ScannerBenchmark: " + nLines + " lines, " + corpus.length + " characters");
+		double best = 0;
+		for (int i = 1; i <= nIterations; i++) {
+			long t0 = System.nanoTime();
+			int nTokens = scan(corpus);
+			long t1 = System.nanoTime();
+			double linesPerSecond = nLines * 1.0e9 / (t1 - t0);
+			best = Math.max(best, linesPerSecond);
+			Util.println(String.format("Iteration %2d: %9d tokens in %6d ms, %12.0f lines/s", i, nTokens, (t1 - t0) / 1000000, linesPerSecond));
+		}
+		Util.println(String.format("Best: %.0f lines/s", best));
+	}
+
+	/// Scan the corpus.
+	/// @param corpus the source text
+	/// @return the number of tokens
+	private static int scan(final char[] corpus) {
+		SimulaScanner scanner = new SimulaScanner(new CharArrayReader(corpus), false);
+		int nTokens = 0;
+		while (scanner.nextToken() != null) nTokens++;
+		return (nTokens);
+	}
+
+	/// Generate the corpus.
+	/// @param nLines the number of lines
+	/// @return the source text
+	private static char[] generateCorpus(final int nLines) {
+		StringBuilder sb = new StringBuilder(nLines * 40);
+		sb.append("begin\n");
+		int line = 1;
+		for (int k = 0; line < nLines - 1; k++) {
+			switch (k % 12) {
+				case 0 -> sb.append("   integer count").append(k).append(", limit").append(k).append(";\n");
+				case 1 -> sb.append("   real sum").append(k).append(" := 3.1415&-2 + 16R7FFF / 2;\n");
+				case 2 -> sb.append("   text name").append(k).append(";  name").append(k).append(" :- Copy(\"Hello \"\"World\"\"!10!\");\n");
+				case 3 -> sb.append("   character ch").append(k).append(" := '!';\n");
+				case 4 -> sb.append("   comment This is line ").append(line).append(" of the generated corpus;\n");
+				case 5 -> sb.append("   procedure p").append(k).append("(x); integer x; begin\n");
+				case 6 -> sb.append("      if x >= 10 and then x <= 100 or else x = 0 then outint(x, 8)\n");
+				case 7 -> sb.append("      else OutText(\"Value is out of range\");\n");
+				case 8 -> sb.append("   end p").append(k).append(" has an end-comment;\n");
+				case 9 -> sb.append("   for count").append(k - 9).append(" := 1 step 1 until limit").append(k - 9).append(" do inspect new Head do Into(this Head);\n");
+				case 10 -> sb.append("   -- a comment to end of line\n");
+				default -> sb.append("   while sum").append(k - 10).append(" < 1.0&3 do sum").append(k - 10).append(" := sum").append(k - 10).append(" ** 2;\n");
+			}
+			line++;
+		}
+		sb.append("end\n");
+		char[] corpus = new char[sb.length()];
+		sb.getChars(0, sb.length(), corpus, 0);
+		return (corpus);
+	}
+
+}
@@ -7,9 +7,10 @@ package simula.compiler.parsing;
 
 import java.io.File;
 import java.io.Reader;
-import java.util.LinkedList;
-import java.util.Stack;
+import java.util.ArrayDeque;
+import java.util.Arrays;
 
+import simula.compiler.BuildCache;
 import simula.compiler.utilities.Global;
 import simula.compiler.utilities.Token;
 import simula.compiler.utilities.KeyWord;
@@ -30,8 +31,17 @@ public final class SimulaScanner extends DefaultScanner {
     /// Set 'true' when EOF-character ( -1 ) was read.
     private boolean EOF_SEEN=false;
     
-    /// The pushBack stack
-    private Stack<Character> puchBackStack=new Stack<Character>();
+    /// The pushBack stack. Characters are popped from index pushBackCount-1.
+    private int[] pushBackStack=new int[64];
+
+    /// The number of characters in the pushBack stack.
+    private int pushBackCount;
+
+    /// The name buffer used by scanName.
+    private char[] nameBuffer=new char[64];
+
+    /// The interned identifiers.
+    private final NameTable nameTable=new NameTable();
     
     /// StringBuilder used to accumulate input strings for Simula Editor.
     private StringBuilder accum;
@@ -40,7 +50,7 @@ public final class SimulaScanner extends DefaultScanner {
     private final boolean editorMode;
 
     /// The Token queue. The method nextToken will pick Tokens from the queue first.
-    private LinkedList<Token> tokenQueue=new LinkedList<Token>();
+    private ArrayDeque<Token> tokenQueue=new ArrayDeque<Token>();
 
     /// The current source file reader;
     SourceFileReader sourceFileReader;
@@ -70,6 +80,7 @@ public final class SimulaScanner extends DefaultScanner {
 	/// Insert a file.
 	/// @param file the file to be inserted
 	void insert(File file) {
+		BuildCache.addInsertedFile(file);
 		this.sourceFileReader.insert(file);
 	}
 
@@ -249,155 +260,18 @@ public final class SimulaScanner extends DefaultScanner {
     /// </pre>
     /// @return next Token
 	private Token scanIdentifier() {
-		String name=scanName();
-	    if(Option.internal.TRACE_SCAN) Util.TRACE("scanIdentifier: name=\""+name+"\"");
-	    String ident=(Option.CaseSensitive)?name:name.toLowerCase();
-	    switch(Character.toLowerCase(ident.charAt(0))) {
-	        case 'a':
-		        if(ident.equals("abstract"))	 return(javaKeyword(name)); // Java KeyWord
-		        if(ident.equals("activate"))     return(newToken(KeyWord.ACTIVATE));
-		        if(ident.equals("after"))	     return(newToken(KeyWord.AFTER));
-		        if(ident.equals("and"))			 return(newToken(KeyWord.AND));
-		        if(ident.equals("and_then"))	 return(newToken(KeyWord.AND_THEN));
-		        if(ident.equals("array"))	     return(newToken(KeyWord.ARRAY));
-		        if(ident.equals("assert"))	     return(javaKeyword(name)); // Java KeyWord
-		        if(ident.equals("at"))		     return(newToken(KeyWord.AT));
-		        break;
-	        case 'b':
-	        	if(ident.equals("before"))       return(newToken(KeyWord.BEFORE));
-	        	if(ident.equals("begin"))        return(newToken(KeyWord.BEGIN));
-	        	if(ident.equals("boolean"))      return(newToken(KeyWord.BOOLEAN));
-	        	if(ident.equals("break"))	     return(javaKeyword(name)); // Java KeyWord
-	        	if(ident.equals("byte"))	     return(javaKeyword(name)); // Java KeyWord
-	        	break;
-	        case 'c':
-	        	if(ident.equals("case"))		 return(javaKeyword(name)); // Java KeyWord
-	        	if(ident.equals("catch"))	     return(javaKeyword(name)); // Java KeyWord
-	        	if(ident.equals("char"))  	     return(javaKeyword(name)); // Java KeyWord
-	        	if(ident.equals("character"))	 return(newToken(KeyWord.CHARACTER));
-	        	if(ident.equals("class"))        return(newToken(KeyWord.CLASS));
-	        	if(ident.equals("comment"))      return(scanComment());
-	        	if(ident.equals("const"))	     return(javaKeyword(name)); // Java KeyWord
-	        	if(ident.equals("continue"))	 return(javaKeyword(name)); // Java KeyWord
-	        	break;
-	        case 'd':
-	        	if(ident.equals("default"))		 return(javaKeyword(name)); // Java KeyWord
-	        	if(ident.equals("delay"))   	 return(newToken(KeyWord.DELAY));
-	        	if(ident.equals("do")) 	    	 return(newToken(KeyWord.DO));
-	        	if(ident.equals("double"))	     return(javaKeyword(name)); // Java KeyWord
-	        	break;
-	        case 'e':
-	        	if(ident.equals("else"))         return(newToken(KeyWord.ELSE));
-	        	if(ident.equals("end"))   	     return(scanEndComment());
-	        	if(ident.equals("enum"))		 return(javaKeyword(name)); // Java KeyWord
-	        	if(ident.equals("eq"))	         return(newToken(KeyWord.EQ));
-	        	if(ident.equals("eqv"))	         return(newToken(KeyWord.EQV));
-	        	if(ident.equals("extends"))	     return(javaKeyword(name)); // Java KeyWord
-	        	if(ident.equals("external"))     return(newToken(KeyWord.EXTERNAL));
-	        	break;
-	        case 'f':
-	        	if(ident.equals("false"))  	     return(newToken(KeyWord.BOOLEANKONST,false));
-	        	if(ident.equals("final"))  	     return(javaKeyword(name)); // Java KeyWord
-	        	if(ident.equals("finally"))	     return(javaKeyword(name)); // Java KeyWord
-	        	if(ident.equals("float"))	     return(javaKeyword(name)); // Java KeyWord
-	        	if(ident.equals("for"))    	     return(newToken(KeyWord.FOR));
-	        	break;
-	        case 'g':
-	        	if(ident.equals("ge"))           return(newToken(KeyWord.GE));
-	        	if(ident.equals("go"))           return(newToken(KeyWord.GO));
-	        	if(ident.equals("goto"))         return(newToken(KeyWord.GOTO));
-	        	if(ident.equals("gt"))           return(newToken(KeyWord.GT));
-	        	break;
-	        case 'h':
-	        	if(ident.equals("hidden"))       return(newToken(KeyWord.HIDDEN));
-	        	break;
-	        case 'i':
-	        	if(ident.equals("if"))	         return(newToken(KeyWord.IF));
-	        	if(ident.equals("imp"))   	     return(newToken(KeyWord.IMP));
-	        	if(ident.equals("implements"))   return(javaKeyword(name)); // Java KeyWord
-	        	if(ident.equals("import"))	     return(javaKeyword(name)); // Java KeyWord
-	        	if(ident.equals("in"))   	     return(newToken(KeyWord.IN));
-	        	if(ident.equals("inner"))	     return(newToken(KeyWord.INNER));
-	        	if(ident.equals("inspect")) 	 return(newToken(KeyWord.INSPECT));
-	        	if(ident.equals("instanceOf"))   return(javaKeyword(name)); // Java KeyWord
-	        	if(ident.equals("int"))		     return(javaKeyword(name)); // Java KeyWord
-	        	if(ident.equals("integer"))	     return(newToken(KeyWord.INTEGER));
-	        	if(ident.equals("interface"))    return(javaKeyword(name)); // Java KeyWord
-	        	if(ident.equals("is"))           return(newToken(KeyWord.IS));
-	        	break;
-	        case 'l':
-	        	if(ident.equals("label"))        return(newToken(KeyWord.LABEL));
-	        	if(ident.equals("le"))           return(newToken(KeyWord.LE));
-	        	if(ident.equals("long"))         return(newToken(KeyWord.LONG));
-	        	if(ident.equals("lt"))           return(newToken(KeyWord.LT));
-	        	break;
-	        case 'n':
-	        	if(ident.equals("name"))         return(newToken(KeyWord.NAME));
-	        	if(ident.equals("native"))       return(javaKeyword(name)); // Java KeyWord
-	        	if(ident.equals("ne"))           return(newToken(KeyWord.NE));
-	        	if(ident.equals("new"))          return(newToken(KeyWord.NEW));
-	        	if(ident.equals("none"))         return(newToken(KeyWord.NONE));
-	        	if(ident.equals("not"))          return(newToken(KeyWord.NOT));
-	        	if(ident.equals("notext"))       return(newToken(KeyWord.NOTEXT));
-	        	if(ident.equals("null"))         return(javaKeyword(name)); // Java NullLiteral
-	        	break;
-	        case 'o':
-	        	if(ident.equals("or"))           return(newToken(KeyWord.OR));
-	        	if(ident.equals("or_else"))      return(newToken(KeyWord.OR_ELSE));
-	        	if(ident.equals("otherwise"))    return(newToken(KeyWord.OTHERWISE));
-	        	break;
-	        case 'p':
-	        	if(ident.equals("package"))      return(javaKeyword(name)); // Java KeyWord
-	        	if(ident.equals("prior"))        return(newToken(KeyWord.PRIOR));
-	        	if(ident.equals("private"))	     return(javaKeyword(name)); // Java KeyWord
-	        	if(ident.equals("procedure"))    return(newToken(KeyWord.PROCEDURE));
-	        	if(ident.equals("protected"))    return(newToken(KeyWord.PROTECTED));
-	        	if(ident.equals("public"))	     return(javaKeyword(name)); // Java KeyWord
-	        	break;
-	        case 'q':
-	        	if(ident.equals("qua"))          return(newToken(KeyWord.QUA));
-	        	break;
-	        case 'r':
-	        	if(ident.equals("reactivate"))   return(newToken(KeyWord.REACTIVATE));
-	        	if(ident.equals("real"))         return(newToken(KeyWord.REAL));
-	        	if(ident.equals("ref"))          return(newToken(KeyWord.REF));
-	        	if(ident.equals("return"))	     return(javaKeyword(name)); // Java KeyWord
-	        	break;
-	        case 's':
-	        	if(ident.equals("short"))  		 return(newToken(KeyWord.SHORT));
-	        	if(ident.equals("static"))	     return(javaKeyword(name)); // Java KeyWord
-	        	if(ident.equals("step"))   		 return(newToken(KeyWord.STEP));
-	        	if(ident.equals("strictfp"))	 return(javaKeyword(name)); // Java KeyWord
-	        	if(ident.equals("super"))	     return(javaKeyword(name)); // Java KeyWord
-	        	if(ident.equals("switch")) 		 return(newToken(KeyWord.SWITCH));
-	        	if(ident.equals("synchronized")) return(javaKeyword(name)); // Java KeyWord
-	        	break;
-	        case 't':
-	        	if(ident.equals("text"))  	     return(newToken(KeyWord.TEXT));
-	        	if(ident.equals("then"))  	     return(newToken(KeyWord.THEN));
-	        	if(ident.equals("this"))   	     return(newToken(KeyWord.THIS));
-	        	if(ident.equals("throw"))	     return(javaKeyword(name)); // Java KeyWord
-	        	if(ident.equals("throws"))	     return(javaKeyword(name)); // Java KeyWord
-	        	if(ident.equals("to"))           return(newToken(KeyWord.TO));
-	        	if(ident.equals("transient"))    return(javaKeyword(name)); // Java KeyWord
-	        	if(ident.equals("true"))   	     return(newToken(KeyWord.BOOLEANKONST,true));
-	        	if(ident.equals("try"))	  	     return(javaKeyword(name)); // Java KeyWord
-	        	break;
-	        case 'u':
-	        	if(ident.equals("until"))        return(newToken(KeyWord.UNTIL));
-	        	break;
-	        case 'v':
-	        	if(ident.equals("value"))        return(newToken(KeyWord.VALUE));
-	        	if(ident.equals("virtual"))      return(newToken(KeyWord.VIRTUAL));
-	        	if(ident.equals("void"))	     return(javaKeyword(name)); // Java KeyWord
-	        	if(ident.equals("volatile"))     return(javaKeyword(name)); // Java KeyWord
-	        	break;
-	        case 'w':
-	        	if(ident.equals("when"))         return(newToken(KeyWord.WHEN));
-	        	if(ident.equals("while"))        return(newToken(KeyWord.WHILE));
-	        	break;
+		int n=scanNameChars();
+	    if(Option.internal.TRACE_SCAN) Util.TRACE("scanIdentifier: name=\""+new String(nameBuffer,0,n)+"\"");
+		int keyWord=NameTable.lookupKeyword(nameBuffer,n,!Option.CaseSensitive);
+		if(keyWord==0) return(identifierToken(nameTable.intern(nameBuffer,n)));
+	    switch(keyWord) {
+	        case NameTable.JAVA_KEYWORD: return(javaKeyword(nameTable.intern(nameBuffer,n)));
+	        case KeyWord.COMMENT:        return(scanComment());
+	        case KeyWord.END:            return(scanEndComment());
+	        case KeyWord.FALSE:          return(newToken(KeyWord.BOOLEANKONST,false));
+	        case KeyWord.TRUE:           return(newToken(KeyWord.BOOLEANKONST,true));
+	        default:                     return(newToken(keyWord));
 	    }
-	    return(identifierToken(name));
 	}
 	
 	//********************************************************************************
@@ -564,15 +438,26 @@ public final class SimulaScanner extends DefaultScanner {
     /// </pre>
     /// @return the resulting identifier
     private String scanName() {
-    	StringBuilder name=new StringBuilder();
+    	int n=scanNameChars();
+    	return(nameTable.intern(nameBuffer,n));
+    }
+
+    /// Scan identifier or reserved name into the name buffer.
+    /// 
+    /// End-Condition: As for scanName.
+    /// @return the length of the name
+    private int scanNameChars() {
     	if(Option.internal.TRACE_SCAN) Util.TRACE("scanName, "+edcurrent());
     	Util.ASSERT(Character.isLetter((char)(current)),"Expecting a Letter");
-    	name.append((char)current);
-    	while ((Character.isLetter(getNext()) || Character.isDigit(current) || current == '_'))
-    		name.append((char)current);
+    	int n=0;
+    	nameBuffer[n++]=(char)current;
+    	while ((Character.isLetter(getNext()) || Character.isDigit(current) || current == '_')) {
+    		if(n==nameBuffer.length) nameBuffer=Arrays.copyOf(nameBuffer,n*2);
+    		nameBuffer[n++]=(char)current;
+    	}
     	pushBack(current);
-    	if(Option.internal.TRACE_SCAN) Util.TRACE("scanName, name="+name+",current="+edcurrent());
-    	return(name.toString());
+    	if(Option.internal.TRACE_SCAN) Util.TRACE("scanName, name="+new String(nameBuffer,0,n)+",current="+edcurrent());
+    	return(n);
     }
 	
     
@@ -1034,13 +919,13 @@ public final class SimulaScanner extends DefaultScanner {
     /// @return next input character
     private int getNext() {
     	prevChar=current;
-    	if(puchBackStack.empty()) {
+    	if(pushBackCount==0) {
     		int c=sourceFileReader.read();
     		if(c=='\n') Global.sourceLineNumber++;
     		else if(c<0) { EOF_SEEN=true; c=EOF_MARK; }
     		else if(c<32) c=' '; // Whitespace
     		current=c;
-    	} else current=puchBackStack.pop();
+    	} else current=pushBackStack[--pushBackCount];
 
     	if(editorMode) {
     		if(accum==null) accum=new StringBuilder();
@@ -1051,7 +936,7 @@ public final class SimulaScanner extends DefaultScanner {
     	return(current);
     }
 
-    /// Push a character onto the puchBackStack.
+    /// Push a character onto the pushBack stack.
     /// @param chr character to be pushed
     private void pushBack(final int chr) {
 	    // push given value back into the input stream
@@ -1059,12 +944,13 @@ public final class SimulaScanner extends DefaultScanner {
     		if(current!=EOF_MARK && accum.length()>0)
     		accum.deleteCharAt(accum.length()-1);
     	}
-	    puchBackStack.push((char)chr);
+	    if(pushBackCount==pushBackStack.length) pushBackStack=Arrays.copyOf(pushBackStack,pushBackCount*2);
+	    pushBackStack[pushBackCount++]=(char)chr;
 	    current=' ';
     }
   
 
-    /// Push a string onto the puchBackStack.
+    /// Push a string onto the pushBack stack.
     /// @param s string to be pushed
     private void pushBack(final String s) {
 	    // put given value back into the input stream
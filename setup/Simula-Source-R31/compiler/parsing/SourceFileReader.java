@@ -10,6 +10,7 @@ import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.Reader;
+import java.util.Arrays;
 import java.util.Stack;
 
 import simula.compiler.utilities.Global;
@@ -19,17 +20,26 @@ import simula.compiler.utilities.Util;
 /// 
 /// Input Utilities for the Simula Scanner.
 /// 
+/// Each source file is read in full into a character buffer, which the scanner
+/// then reads by index.
+/// 
 /// Link to GitHub: <a href=
 /// "https://github.com/portablesimula/EclipseWorkSpaces/blob/main/SimulaCompiler2/Simula/src/simula/compiler/parsing/SourceFileReader.java"><b>Source File</b></a>.
 /// 
 /// @author Øystein Myhre Andersen
 public final class SourceFileReader {
 	
-	/// The stack of readers
-	private final Stack<Reader> stack = new Stack<Reader>();
+	/// The stack of suspended source buffers
+	private final Stack<char[]> stack = new Stack<char[]>();
+	
+	/// The stack of read positions in the suspended source buffers
+	private final Stack<Integer> posStack = new Stack<Integer>();
+	
+	/// The current source buffer, i.e. the entire current source file.
+	private char[] current;
 	
-	/// The current Reader
-	private Reader current; // current source file reader;
+	/// The read position in the current source buffer.
+	private int pos;
 	
 	/// The stack of file names
 	private final Stack<String> nameStack = new Stack<String>();
@@ -38,27 +48,22 @@ public final class SourceFileReader {
 	private final Stack<Integer> lineStack = new Stack<Integer>();
 
 	/// Create a new SourceFileReader.
+	/// 
+	/// The underlying reader is read to the end and closed.
 	/// @param reader the initial underlying Reader
 	SourceFileReader(final Reader reader) {
-		current = reader;
+		current = readAll(reader);
 	}
 
 	/// Read next character.
 	/// @return next character
 	int read() {
-		int c = -1;
-		try {
-			c = current.read();
-			while (c == -1) {
-				close();
-				if (stack.isEmpty())
-					return (-1);
-				forceEOF();
-				c = current.read();
-			}
-		} catch (IOException e) {
+		while (pos >= current.length) {
+			if (stack.isEmpty())
+				return (-1);
+			forceEOF();
 		}
-		return (c);
+		return (current[pos++]);
 	}
 
 	/// Insert a file.
@@ -67,11 +72,13 @@ public final class SourceFileReader {
 		lineStack.push(Global.sourceLineNumber);
 		Global.sourceLineNumber = 1;
 		try {
-			Reader reader = new InputStreamReader(new FileInputStream(file), Global._CHARSET);
+			char[] buffer = readAll(new InputStreamReader(new FileInputStream(file), Global._CHARSET));
 			nameStack.push(Global.insertName);
 			Global.insertName = file.getName();
 			stack.push(current);
-			current = reader;
+			posStack.push(pos);
+			current = buffer;
+			pos = 0;
 		} catch (IOException e) {
 			Util.IERR("Impossible", e);
 		}
@@ -82,14 +89,31 @@ public final class SourceFileReader {
 		Global.insertName = nameStack.pop();
 		Global.sourceLineNumber = lineStack.pop();
 		current = stack.pop();
+		pos = posStack.pop();
 	}
 
 	/// Close this source file reader
 	void close() {
-		try {
-			current.close();
+		current = new char[0];
+		pos = 0;
+	}
+
+	/// Utility: Read the entire content of a Reader into a new source buffer.
+	/// 
+	/// @param reader the Reader, which is closed when done
+	/// @return the source buffer
+	private char[] readAll(final Reader reader) {
+		char[] buffer = new char[8192];
+		int n = 0;
+		try (reader) {
+			int k;
+			while ((k = reader.read(buffer, n, buffer.length - n)) >= 0) {
+				n += k;
+				if (n == buffer.length) buffer = Arrays.copyOf(buffer, buffer.length * 2);
+			}
 		} catch (IOException e) {
 		}
+		return (Arrays.copyOf(buffer, n));
 	}
 
 }
@@ -138,9 +138,9 @@ public final class HiddenSpecification extends SyntaxClass {
 	public void writeObject(AttributeOutputStream oupt) throws IOException {
 		Util.TRACE_OUTPUT("writeHiddenSpecification: " + identifier);
 		oupt.writeKind(ObjectKind.HiddenSpecification);
-		oupt.writeShort(OBJECT_SEQU);
+		oupt.writeSEQU(OBJECT_SEQU);
 		// *** SyntaxClass
-		oupt.writeShort(lineNumber);
+		oupt.writeLINE(lineNumber);
 		// *** HiddenSpecification
 		oupt.writeString(identifier);
 		oupt.writeObj(definedIn);
@@ -111,9 +111,9 @@ public final class ProtectedSpecification extends SyntaxClass {
 	public void writeObject(AttributeOutputStream oupt) throws IOException {
 		Util.TRACE_OUTPUT("writeProtectedSpecification: " + identifier);
 		oupt.writeKind(ObjectKind.ProtectedSpecification);
-		oupt.writeShort(OBJECT_SEQU);
+		oupt.writeSEQU(OBJECT_SEQU);
 		// *** SyntaxClass
-		oupt.writeShort(lineNumber);
+		oupt.writeLINE(lineNumber);
 		// *** ProtectedSpecification
 		oupt.writeString(identifier);
 		oupt.writeObj(definedIn);
@@ -548,10 +548,10 @@ public final class ArrayDeclaration extends Declaration {
 	public void writeObject(AttributeOutputStream oupt) throws IOException {
 		Util.TRACE_OUTPUT("Array: " + type + ' ' + identifier + ", nDim=" + nDim);
 		oupt.writeKind(declarationKind);
-		oupt.writeShort(OBJECT_SEQU);
+		oupt.writeSEQU(OBJECT_SEQU);
 
 		// *** SyntaxClass
-		oupt.writeShort(lineNumber);
+		oupt.writeLINE(lineNumber);
 
 		// *** Declaration
 		oupt.writeString(identifier);
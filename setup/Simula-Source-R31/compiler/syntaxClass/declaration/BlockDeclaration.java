@@ -213,7 +213,7 @@ public abstract class BlockDeclaration extends DeclarationScope {
 	/// ClassFile coding utility: Code STM body
 	protected void codeSTMBody() {
 		if (hasAccumLabel()) {
-			JavaSourceFileCoder.code(externalIdent + " _THIS=(" + externalIdent + ")_CUR;");
+			JavaSourceFileCoder.code(externalIdent + " _THIS=(" + externalIdent + ")_RTX._CUR;");
 			JavaSourceFileCoder.code("_LOOP:while(_JTX>=0) {");
 			JavaSourceFileCoder.code("try {");
 			JavaSourceFileCoder.code("_JUMPTABLE(_JTX,"+labelList.accumLabelSize()+");","For ByteCode Engineering");			
@@ -254,17 +254,16 @@ public abstract class BlockDeclaration extends DeclarationScope {
     	//
     	// public static void main(String[] args) {
     	//	 // System.setProperty("file.encoding","UTF-8");
-    	//	 RTS_UTIL.BPRG("adHoc04", args);
-    	//	 RTS_UTIL.RUN_STM(new adHoc04(_CTX));
+    	//	 RTS_UTIL.RUN_STM(new adHoc04(RTS_UTIL.BPRG("adHoc04", args)));
     	// } // End of main
     	String progid = this.externalIdent;
 		JavaSourceFileCoder.code("");
 		JavaSourceFileCoder.code("public static void main(String[] args) {");
 		JavaSourceFileCoder.debug("//System.setProperty(\"file.encoding\",\"UTF-8\");");
-		JavaSourceFileCoder.code("RTS_UTIL.BPRG(\""+progid+"\", args);");
+		String bprg = "RTS_UTIL.BPRG(\""+progid+"\", args)";
 		if(this instanceof PrefixedBlockDeclaration pblk) {
 			StringBuilder sb = new StringBuilder();
-			sb.append("new " + getJavaIdentifier() + "(_CTX");
+			sb.append("new " + getJavaIdentifier() + "(" + bprg);
 			if (pblk.blockPrefix != null && pblk.blockPrefix.hasArguments()) {
 				for (Expression par : pblk.blockPrefix.checkedParams) {
 					sb.append(',').append(par.toJavaCode());
@@ -272,7 +271,7 @@ public abstract class BlockDeclaration extends DeclarationScope {
 			} sb.append(")");
 			JavaSourceFileCoder.code("RTS_UTIL.RUN_STM(" + sb + ");");
 		} else {
-			JavaSourceFileCoder.code("RTS_UTIL.RUN_STM(new " + getJavaIdentifier() + "(_CTX));");			
+			JavaSourceFileCoder.code("RTS_UTIL.RUN_STM(new " + getJavaIdentifier() + "(" + bprg + "));");			
 		}
 		JavaSourceFileCoder.code("}", "End of main");
     }
@@ -466,8 +465,7 @@ public abstract class BlockDeclaration extends DeclarationScope {
     /// Generate byteCode for the 'main' method.
     /// <pre>
     ///     public static void main(String[] argv) {
-    ///         RTS_UTIL.BPRG(progid, argv);
-    ///         RTS_UTIL_RUN_STM(new userProg(_CTX, ...));
+    ///         RTS_UTIL_RUN_STM(new userProg(RTS_UTIL.BPRG(progid, argv), ...));
     ///     }
     /// </pre>
     /// @param codeBuilder the CodeBuilder
@@ -480,20 +478,16 @@ public abstract class BlockDeclaration extends DeclarationScope {
 			.localVariable(0,"argv",ConstantDescs.CD_String.arrayType(),begScope,endScope)
 			.labelBinding(begScope);
 
-		// RTS_UTIL.BPRG(progid, argv);
 		codeBuilder
+			// new adHoc06(RTS_UTIL.BPRG(progid, argv))._STM();
+			.new_(currentClassDesc())
+			.dup()
 			.ldc(pool.stringEntry(this.externalIdent))
 			.aload(0); // argv
 		RTS.invokestatic_UTIL_BPRG(codeBuilder);
-		
-		codeBuilder
-			// new adHoc06(_CTX)._STM();
-			.new_(currentClassDesc())
-			.dup()
-			.getstatic(RTS.FRE.RTObject_CTX(pool));
 
 		if(this instanceof PrefixedBlockDeclaration pblk) {
-			//  new adHoc05_PBLK14(_CUR,p1,...)._STM();
+			//  new adHoc05_PBLK14(RTS_UTIL.BPRG(progid, argv),p1,...)._STM();
 			// Push parameters
 			if(pblk.blockPrefix.checkedParams != null)
 				for(Expression expr:pblk.blockPrefix.checkedParams)
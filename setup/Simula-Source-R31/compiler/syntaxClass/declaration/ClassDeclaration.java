@@ -19,6 +19,7 @@ import java.lang.constant.MethodTypeDesc;
 import java.util.Iterator;
 import java.util.Vector;
 
+import simula.compiler.BuildCache;
 import simula.compiler.AttributeInputStream;
 import simula.compiler.AttributeOutputStream;
 import simula.compiler.JavaSourceFileCoder;
@@ -172,6 +173,7 @@ public class ClassDeclaration extends BlockDeclaration {
 		cls.lineNumber = Parse.prevToken.lineNumber;
 		cls.prefix = prefix;
 		cls.declaredIn.hasLocalClasses = true;
+		ProcedureDeclaration.markEscaping(cls.declaredIn);
 		if (cls.prefix == null)
 			cls.prefix = StandardClass.CLASS.identifier;
 		cls.modifyIdentifier(Parse.expectIdentifier());
@@ -437,8 +439,7 @@ public class ClassDeclaration extends BlockDeclaration {
 			par.doChecking();
 		for (VirtualSpecification vrt : virtualSpecList)
 			vrt.doChecking();
-		for (Declaration dcl : declarationList)
-			dcl.doChecking();
+		declarationList.doChecking(this);
 		if(statements1 != null) 
 			for (Statement stm : statements1) 
 				stm.doChecking();  		
@@ -515,12 +516,9 @@ public class ClassDeclaration extends BlockDeclaration {
 			if (Util.equals(ident, parameter.identifier))
 				return (parameter);
 		}
-		for (Declaration declaration : declarationList) {
-			if (Option.internal.TRACE_FIND_MEANING > 1)
-				Util.println("Checking Local " + declaration);
-			if (Util.equals(ident, declaration.identifier))
-				return (declaration);
-		}
+		Declaration declaration = declarationList.find(ident);
+		if (declaration != null)
+			return (declaration);
 		if(labelList != null) for (LabelDeclaration label : labelList.getDeclaredLabels()) {
 			if (Option.internal.TRACE_FIND_MEANING > 1)
 				Util.println("Checking Label " + label);
@@ -551,12 +549,8 @@ public class ClassDeclaration extends BlockDeclaration {
 	/// @param ident argument
 	/// @return a ProcedureDeclaration when it was found, otherwise null
 	ProcedureDeclaration findLocalProcedure(final String ident) {
-		for (Declaration decl : declarationList)
-			if (Util.equals(ident, decl.identifier)) {
-				if (decl instanceof ProcedureDeclaration proc)
-					 return (proc);
-				else return (null);
-			}
+		if (declarationList.find(ident) instanceof ProcedureDeclaration proc)
+			return (proc);
 		return (null);
 	}
 
@@ -1053,7 +1047,7 @@ public class ClassDeclaration extends BlockDeclaration {
 	 * @return class file bytes
 	 */
 	private byte[] tryBuildClassFile(ClassDesc CD_ThisClass, ClassDesc CD_SuperClass) {
-		byte[] bytes = ClassFile.of(ClassFile.ClassHierarchyResolverOption.of(ClassHierarchy.getResolver())).build(CD_ThisClass,
+		byte[] bytes = ClassHierarchy.getClassFile().build(CD_ThisClass,
 				classBuilder -> {
 					classBuilder
 						.with(SourceFileAttribute.of(Global.sourceFileName))
@@ -1291,7 +1285,9 @@ public class ClassDeclaration extends BlockDeclaration {
 						.localVariable(local_EXEPTN,"exception",RTS.CD.JAVA_LANG_RUNTIME_EXCEPTION,begScope,endScope)
 						.astore(local_EXEPTN)  // The caught exception will be on top of the operand stack when the catch block is entered.
 						.aload(0)
-						.putstatic(RTS.FRE.RTObject_CUR(pool))
+						.getfield(RTS.FRE.RTObject_RTX(pool))
+						.aload(0)
+						.putfield(RTS.FRE.Context_CUR(pool))
 						.aload(0)
 						.aload(local_EXEPTN)
 						.aload(0)
@@ -1306,6 +1302,7 @@ public class ClassDeclaration extends BlockDeclaration {
 	/// ClassFile coding utility: buildStatementsBeforeInner
 	/// @param codeBuilder the codeBuilder to use.
 	private void buildStatementsBeforeInner(CodeBuilder codeBuilder) {
+		if (isPreCompiledFromFile != null) BuildCache.addInheritedStatements(isPreCompiledFromFile);
 		if (hasRealPrefix()) {
 			ClassDeclaration prfx = this.getPrefixClass();
 			if (prfx != null) prfx.buildStatementsBeforeInner(codeBuilder);
@@ -1401,10 +1398,10 @@ public class ClassDeclaration extends BlockDeclaration {
 		Util.TRACE_OUTPUT("BEGIN Write ClassDeclaration: " + identifier + ", Declared in: " + declaredIn);
 		oupt.writeKind(declarationKind); // Mark: This is a ClassDeclaration
 		oupt.writeString(identifier);
-		oupt.writeShort(OBJECT_SEQU);
+		oupt.writeSEQU(OBJECT_SEQU);
 		
 		// *** SyntaxClass
-		oupt.writeShort(lineNumber);
+		oupt.writeLINE(lineNumber);
 		
 		// *** Declaration
 		//oupt.writeString(identifier);
@@ -1420,7 +1417,7 @@ public class ClassDeclaration extends BlockDeclaration {
 
 		// *** BlockDeclaration
 		oupt.writeBoolean(isMainModule);
-		oupt.writeObjectList(statements);
+		oupt.writeStatements(statements);
 		
 		// *** ClassDeclaration
 		oupt.writeString(prefix);
@@ -1429,7 +1426,7 @@ public class ClassDeclaration extends BlockDeclaration {
 		oupt.writeObjectList(virtualSpecList);
 		oupt.writeObjectList(hiddenList);
 		oupt.writeObjectList(protectedList);
-		oupt.writeObjectList(statements1);
+		oupt.writeStatements(statements1);
 		Util.TRACE_OUTPUT("END Write ClassDeclaration: " + identifier);
 	}
 
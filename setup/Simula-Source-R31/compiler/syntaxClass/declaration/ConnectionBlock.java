@@ -93,6 +93,7 @@ public final class ConnectionBlock extends DeclarationScope {
 	/// @param classDeclaration the Connected ClassDeclaration.
 	public void setClassDeclaration(final ClassDeclaration classDeclaration) {
 		this.classDeclaration = classDeclaration;
+		DeclarationScope.invalidateMeanings();
 	}
 
 	/// Set the Connection Statement.
@@ -128,12 +129,9 @@ public final class ConnectionBlock extends DeclarationScope {
 	public Meaning findVisibleAttributeMeaning(final String ident) {
 		if(Option.internal.TRACE_FIND_MEANING>0)
 			Util.println("BEGIN Checking ConnectionBlock for "+ident+" ================================== "+identifier+" ==================================");
-		for (Declaration declaration : declarationList) {
-			if(Option.internal.TRACE_FIND_MEANING>1)
-				Util.println("Checking Local "+declaration);
-			if (Util.equals(ident, declaration.identifier))
-				return (new Meaning(declaration, this, this, false));
-		}
+		Declaration declaration = declarationList.find(ident);
+		if (declaration != null)
+			return (new Meaning(declaration, this, this, false));
 		if(labelList != null) for (LabelDeclaration label : labelList.getDeclaredLabels()) {
 			if(Option.internal.TRACE_FIND_MEANING>1) Util.println("Checking Label "+label);
 			if (Util.equals(ident, label.identifier))
@@ -255,10 +253,10 @@ public final class ConnectionBlock extends DeclarationScope {
 		Util.TRACE_OUTPUT("BEGIN Write ConnectionBlock: "+identifier);
 		oupt.writeKind(declarationKind); // Mark: This is a ConnectionBlock
 		oupt.writeString(identifier);
-		oupt.writeShort(OBJECT_SEQU);
+		oupt.writeSEQU(OBJECT_SEQU);
 		
 		// *** SyntaxClass
-		oupt.writeShort(lineNumber);
+		oupt.writeLINE(lineNumber);
 		
 		// *** Declaration
 		//oupt.writeString(identifier);
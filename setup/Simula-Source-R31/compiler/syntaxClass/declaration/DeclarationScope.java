@@ -11,7 +11,10 @@ import java.io.IOException;
 import java.lang.classfile.CodeBuilder;
 import java.lang.classfile.constantpool.ConstantPoolBuilder;
 import java.lang.constant.ClassDesc;
+import java.util.HashMap;
 
+
+import simula.compiler.utilities.CompilerTiming;
 import simula.compiler.utilities.DeclarationList;
 import simula.compiler.utilities.RTS;
 import simula.compiler.utilities.Global;
@@ -51,6 +54,16 @@ public abstract class DeclarationScope extends Declaration  {
 	/// The label list.
 	public LabelList labelList; // = new LabelList();
 
+	/// Incremented whenever a declaration, label or virtual match is added or renamed.
+	/// Meanings memorized before that are no longer valid.
+	private static int MEANING_EPOCH = 0;
+
+	/// Meanings found by findMeaning, keyed by Util.lookupKey. Only used after parsing.
+	private HashMap<String,Meaning> meaningMemo;
+
+	/// The MEANING_EPOCH when meaningMemo was started.
+	private int meaningMemoEpoch;
+
 	// ***********************************************************************************************
 	// *** Constructor
 	// ***********************************************************************************************
@@ -69,7 +82,10 @@ public abstract class DeclarationScope extends Declaration  {
 	/// Modify the identifier of this class, procedure, ...
 	/// @param newIdentifier the new identifier
 	protected void modifyIdentifier(final String newIdentifier) {
+		String oldIdentifier = this.identifier;
 		this.identifier = newIdentifier;
+		if (declaredIn != null && oldIdentifier != null)
+			declaredIn.declarationList.identifierModified(this, oldIdentifier);
 		checkAlreadyDefined();
 		if (declarationKind == ObjectKind.ContextFreeMethod) externalIdent = this.identifier;
 		else if (declarationKind == ObjectKind.MemberMethod) externalIdent = this.identifier;
@@ -149,6 +165,17 @@ public abstract class DeclarationScope extends Declaration  {
 	/// @param identifier declared identifier
 	/// @return the resulting Meaning
 	public Meaning findMeaning(final String identifier) {
+		String key = null;
+		if (!Global.duringParsing && Option.internal.TRACE_FIND_MEANING == 0 && !isWithinConnectionBlock()) {
+			if (meaningMemo == null || meaningMemoEpoch != MEANING_EPOCH) {
+				meaningMemo = new HashMap<String,Meaning>();
+				meaningMemoEpoch = MEANING_EPOCH;
+			}
+			key = Util.lookupKey(identifier);
+			Meaning memo = meaningMemo.get(key);
+			if (memo != null) // Meaning may be modified by the caller, return a copy
+				return (new Meaning(memo.declaredAs, memo.declaredIn, memo.foundIn, memo.foundBehindInvisible));
+		}
 		Meaning meaning = findVisibleAttributeMeaning(identifier);
 		if (meaning == null && declaredIn != null)
 			meaning = declaredIn.findMeaning(identifier);
@@ -159,10 +186,28 @@ public abstract class DeclarationScope extends Declaration  {
 			}
 			UndefinedDeclaration undef = new UndefinedDeclaration(identifier);
 			meaning = new Meaning(undef, this); // Error Recovery
+		} else if (key != null && meaningMemoEpoch == MEANING_EPOCH && !(meaning.declaredAs instanceof UndefinedDeclaration)) {
+			meaningMemo.put(key, new Meaning(meaning.declaredAs, meaning.declaredIn, meaning.foundIn, meaning.foundBehindInvisible));
 		}
 		return (meaning);
 	}
 
+	/// Returns true if this scope is, or is enclosed by, a ConnectionBlock.
+	/// Lookups through a connection block depend on the current scope, and are not memorized.
+	/// @return true if this scope is, or is enclosed by, a ConnectionBlock
+	private boolean isWithinConnectionBlock() {
+		for (DeclarationScope scope = this; scope != null; scope = scope.declaredIn)
+			if (scope instanceof ConnectionBlock) return (true);
+		return (false);
+	}
+
+	/// Invalidate all Meanings memorized by findMeaning.
+	/// Called when a declaration, label or virtual match is added or renamed,
+	/// or when a connection block is connected to its class.
+	public static void invalidateMeanings() {
+		MEANING_EPOCH++;
+	}
+
 	// ***********************************************************************************************
 	// *** Utility: findLabelMeaning
 	// ***********************************************************************************************
@@ -208,7 +253,7 @@ public abstract class DeclarationScope extends Declaration  {
 	/// ClassFile coding utility: Edit current context chain.
 	/// @return edited context chain
 	public String edCTX() {
-		if (getRTBlockLevel() == 0)	return ("_USR");			
+		if (getRTBlockLevel() == 0)	return ("_RTX._USR");			
 		int curLevel = Global.getCurrentScope().getRTBlockLevel();
 		int ctxDiff = curLevel - getRTBlockLevel();
 		return (edCTX(ctxDiff));
@@ -222,7 +267,8 @@ public abstract class DeclarationScope extends Declaration  {
 	/// @param ctxDiff block level difference.
 	/// @return edited context chain
 	public static String edCTX(int ctxDiff) {
-		String ret = "_CUR";
+		// Within a Thunk, _CUR denotes the Thunk environment RTS_NAME._CUR
+		String ret = (Global.duringThunk_Coding > 0) ? "_CUR" : "_RTX._CUR";
 		while ((ctxDiff--) > 0)
 			ret = ret + "._SL";
 		return ("(" + ret + ')');
@@ -253,8 +299,12 @@ public abstract class DeclarationScope extends Declaration  {
 		int ctxDiff = curLevel - endLevel - corr;
 
 		if(endLevel == 0 && ctxDiff > 3) {
-			// Access outmost block directly
-			codeBuilder.getstatic(RTS.FRE.RTObject_USR(pool));
+			// Access outmost block directly via the runtime context
+			codeBuilder.aload(0); // Current Object
+			if(curScope instanceof Thunk) codeBuilder.getfield(RTS.FRE.NAME_CUR(pool));
+			codeBuilder
+				.getfield(RTS.FRE.RTObject_RTX(pool))
+				.getfield(RTS.FRE.Context_USR(pool));
 			return(true);
 		}
 
@@ -395,14 +445,19 @@ public abstract class DeclarationScope extends Declaration  {
     /// Build ClassFile.
     /// @return ClassFile bytes.
     protected byte[] doBuildClassFile() {
-    	byte[] bytes;
-    	if(this instanceof BlockDeclaration blk) {
-    		blk.prevBlock = BlockDeclaration.currentBlock;
-    		BlockDeclaration.currentBlock = blk;
+    	byte[] bytes = null;
+    	CompilerTiming.beginClassFile();
+    	try {
+    		if(this instanceof BlockDeclaration blk) {
+    			blk.prevBlock = BlockDeclaration.currentBlock;
+    			BlockDeclaration.currentBlock = blk;
+    				bytes = buildClassFile();
+    			BlockDeclaration.currentBlock = blk.prevBlock;
+    		} else {
     			bytes = buildClassFile();
-    		BlockDeclaration.currentBlock = blk.prevBlock;
-    	} else {
-    		bytes = buildClassFile();
+    		}
+    	} finally {
+    		CompilerTiming.endClassFile(externalIdent, bytes);
     	}
     	return bytes;
     }
@@ -432,7 +487,7 @@ public abstract class DeclarationScope extends Declaration  {
     			}
     		} else {
     			String entryName = Global.packetName + "/" + externalIdent + ".class";
-    			Global.jarFileBuilder.putMapEntry(entryName, bytes);    				
+    			Global.jarFileBuilder.putClassFileEntry(entryName, bytes);
     		}
  			if(Option.internal.LIST_GENERATED_CLASS_FILES)
    				listGeneratedClassFile(bytes);
@@ -206,10 +206,10 @@ public final class ExternalDeclaration extends Declaration {
 	public void writeObject(AttributeOutputStream oupt) throws IOException {
 		Util.TRACE_OUTPUT("writeExternalDeclaration: " + this);
 		oupt.writeKind(declarationKind);
-		oupt.writeShort(OBJECT_SEQU);
+		oupt.writeSEQU(OBJECT_SEQU);
 
 		// *** SyntaxClass
-		oupt.writeShort(lineNumber);
+		oupt.writeLINE(lineNumber);
 
 		// *** Declaration
 		oupt.writeString(identifier);
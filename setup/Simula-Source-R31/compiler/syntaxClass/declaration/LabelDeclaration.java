@@ -9,6 +9,7 @@ import java.io.IOException;
 import java.lang.classfile.ClassBuilder;
 import java.lang.classfile.ClassFile;
 import java.lang.classfile.CodeBuilder;
+import java.lang.classfile.Label;
 import java.lang.classfile.constantpool.ConstantPoolBuilder;
 import java.lang.classfile.constantpool.FieldRefEntry;
 import java.lang.constant.ClassDesc;
@@ -192,6 +193,17 @@ public final class LabelDeclaration extends SimpleVariableDeclaration {
 		labelContext.labelList.labelBinding(this,codeBuilder);
 		isBinded = true;
 	}
+
+	/// ClassFile coding utility: Returns the JVM label this Label is bound to in the
+	/// _STM method of the current labelContext, or null if a goto must throw the label.
+	/// @param codeBuilder the codeBuilder to use.
+	/// @return the jump target or null.
+	public Label getLocalJumpTarget(CodeBuilder codeBuilder) {
+		if(VirtualSpecification.getVirtualSpecification(this) != null) return(null);
+		BlockDeclaration labelContext = BlockDeclaration.labelContext;
+		if(labelContext == null || labelContext.labelList == null) return(null);
+		return(labelContext.labelList.getJumpTarget(this,codeBuilder));
+	}
 	
 	/// Build Label Quantity
 	/// @param codeBuilder the codeBuilder to use
@@ -232,10 +244,10 @@ public final class LabelDeclaration extends SimpleVariableDeclaration {
 		Util.TRACE_OUTPUT("writeLabelDeclaration: " + identifier);
 		oupt.writeKind(declarationKind);
 		oupt.writeString(identifier);
-		oupt.writeShort(OBJECT_SEQU);
+		oupt.writeSEQU(OBJECT_SEQU);
 
 		// *** SyntaxClass
-		oupt.writeShort(lineNumber);
+		oupt.writeLINE(lineNumber);
 
 		// *** Declaration
 		oupt.writeString(identifier);
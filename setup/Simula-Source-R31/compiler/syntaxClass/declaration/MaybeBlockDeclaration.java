@@ -185,11 +185,9 @@ public final class MaybeBlockDeclaration extends BlockDeclaration {
 	@Override
 	public Meaning findVisibleAttributeMeaning(final String ident) {
 		if(Option.internal.TRACE_FIND_MEANING>0) Util.println("BEGIN Checking MayBeBlock for "+ident+" ================================== "+identifier+" ==================================");
-		for (Declaration declaration : declarationList) {
-			if(Option.internal.TRACE_FIND_MEANING>1) Util.println("Checking Local "+declaration);
-			if (Util.equals(ident, declaration.identifier))
-				return (new Meaning(declaration, this, this, false));
-		}
+		Declaration declaration = declarationList.find(ident);
+		if (declaration != null)
+			return (new Meaning(declaration, this, this, false));
 		if(labelList != null) for (LabelDeclaration label : labelList.getDeclaredLabels()) {
 			if(Option.internal.TRACE_FIND_MEANING>1) Util.println("Checking Label "+label);
 			if (Util.equals(ident, label.identifier))
@@ -318,7 +316,7 @@ public final class MaybeBlockDeclaration extends BlockDeclaration {
 		if(Option.verbose) Util.println("SubBlock.buildClassFile: "+CD_ThisClass); 
 		ClassHierarchy.addClassToSuperClass(CD_ThisClass, RTS.CD.RTS_BASICIO);
 		
-		byte[] bytes = ClassFile.of(ClassFile.ClassHierarchyResolverOption.of(ClassHierarchy.getResolver())).build(CD_ThisClass,
+		byte[] bytes = ClassHierarchy.getClassFile().build(CD_ThisClass,
 				classBuilder -> {
 					classBuilder
 						.with(SourceFileAttribute.of(Global.sourceFileName))
@@ -429,7 +427,9 @@ public final class MaybeBlockDeclaration extends BlockDeclaration {
 		codeBuilder
 			.new_(CD_cls)
 			.dup()
-			.getstatic(RTS.FRE.RTObject_CUR(pool));
+			.aload(0)
+			.getfield(RTS.FRE.RTObject_RTX(pool))
+			.getfield(RTS.FRE.Context_CUR(pool));
 
 		codeBuilder.invokespecial(CD_cls, "<init>", this.getConstructorMethodTypeDesc());
 
@@ -513,10 +513,10 @@ public final class MaybeBlockDeclaration extends BlockDeclaration {
 	public void writeObject(AttributeOutputStream oupt) throws IOException {
 		Util.TRACE_OUTPUT("BEGIN Write "+this.getClass().getSimpleName());
 		oupt.writeKind(declarationKind);
-		oupt.writeShort(OBJECT_SEQU);
+		oupt.writeSEQU(OBJECT_SEQU);
 
 		// *** SyntaxClass
-		oupt.writeShort(lineNumber);
+		oupt.writeLINE(lineNumber);
 		
 		// *** Declaration
 		oupt.writeString(identifier);
@@ -534,7 +534,7 @@ public final class MaybeBlockDeclaration extends BlockDeclaration {
 		// *** BlockDeclaration
 		if (declarationKind == ObjectKind.CompoundStatement) {
 			oupt.writeBoolean(isMainModule);
-			oupt.writeObjectList(statements);
+			oupt.writeStatements(statements);
 		}
 	}
 	
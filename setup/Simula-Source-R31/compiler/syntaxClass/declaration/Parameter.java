@@ -494,7 +494,7 @@ public final class Parameter extends Declaration {
 	public void writeObject(AttributeOutputStream oupt) throws IOException {
 		Util.TRACE_OUTPUT("Parameter: " + type + ' ' + identifier + ' ' + kind + ' ' + mode);
 		oupt.writeKind(declarationKind);
-		oupt.writeShort(OBJECT_SEQU);
+		oupt.writeSEQU(OBJECT_SEQU);
 		// *** Parameter
 		oupt.writeString(identifier);
 		oupt.writeString(externalIdent);
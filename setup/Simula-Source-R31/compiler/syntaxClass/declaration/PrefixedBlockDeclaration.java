@@ -95,6 +95,7 @@ public final class PrefixedBlockDeclaration extends ClassDeclaration {
 		block.blockPrefix = blockPrefix;
 		block.prefix = blockPrefix.identifier;
 		block.isMainModule=isMainModule;
+		ProcedureDeclaration.markEscaping(block.declaredIn);
 		if (Option.internal.TRACE_PARSE)	Parse.TRACE("Parse PrefixedBlock");
 		while (Declaration.acceptDeclaration(block)) Parse.accept(KeyWord.SEMICOLON);
 		while (!Parse.accept(KeyWord.END)) {
@@ -228,7 +229,9 @@ public final class PrefixedBlockDeclaration extends ClassDeclaration {
 		codeBuilder
 			.new_(CD_pblk)
 			.dup()
-			.getstatic(RTS.FRE.RTObject_CUR(pool));
+			.aload(0)
+			.getfield(RTS.FRE.RTObject_RTX(pool))
+			.getfield(RTS.FRE.Context_CUR(pool));
 
 		// Push parameters
 		if(blockPrefix.checkedParams != null)
@@ -259,7 +262,7 @@ public final class PrefixedBlockDeclaration extends ClassDeclaration {
 		
 		ClassHierarchy.addClassToSuperClass(CD_ThisClass, this.superClassDesc());
 		
-		byte[] bytes = ClassFile.of(ClassFile.ClassHierarchyResolverOption.of(ClassHierarchy.getResolver())).build(CD_ThisClass,
+		byte[] bytes = ClassHierarchy.getClassFile().build(CD_ThisClass,
 				classBuilder -> {
 					classBuilder
 						.with(SourceFileAttribute.of(Global.sourceFileName))
@@ -359,9 +362,9 @@ public final class PrefixedBlockDeclaration extends ClassDeclaration {
 		Util.TRACE_OUTPUT("PrefixedBlockDeclaration: " + identifier + ", Declared in: " + declaredIn);
 		oupt.writeKind(declarationKind); // Mark: This is a PrefixedBlockDeclaration
 		oupt.writeString(identifier);
-		oupt.writeShort(OBJECT_SEQU);
+		oupt.writeSEQU(OBJECT_SEQU);
 		// *** SyntaxClass
-		oupt.writeShort(lineNumber);
+		oupt.writeLINE(lineNumber);
 		
 		// *** Declaration
 		//oupt.writeString(identifier);
@@ -377,7 +380,7 @@ public final class PrefixedBlockDeclaration extends ClassDeclaration {
 
 		// *** BlockDeclaration
 		oupt.writeBoolean(isMainModule);
-		oupt.writeObjectList(statements);
+		oupt.writeStatements(statements);
 		
 		// *** ClassDeclaration
 		oupt.writeString(prefix);
@@ -386,7 +389,7 @@ public final class PrefixedBlockDeclaration extends ClassDeclaration {
 		oupt.writeObjectList(virtualSpecList);
 		oupt.writeObjectList(hiddenList);
 		oupt.writeObjectList(protectedList);
-		oupt.writeObjectList(statements1);
+		oupt.writeStatements(statements1);
 		
 		// *** PrefixedBlockDeclaration
 		oupt.writeObj(blockPrefix);
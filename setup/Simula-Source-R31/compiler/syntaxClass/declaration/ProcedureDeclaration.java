@@ -21,6 +21,7 @@ import java.lang.classfile.constantpool.ConstantPoolBuilder;
 import java.lang.classfile.constantpool.FieldRefEntry;
 import java.lang.classfile.instruction.SwitchCase;
 import java.lang.constant.ClassDesc;
+import java.lang.constant.ConstantDescs;
 import java.lang.constant.MethodTypeDesc;
 import java.util.List;
 import java.util.Vector;
@@ -102,6 +103,13 @@ public class ProcedureDeclaration extends BlockDeclaration {
 	/// Set during doChecking.
 	public VirtualMatch myVirtual; // Set during doChecking
 
+	/// Escape indicator. Set during Parsing.
+	/// 
+	/// True if a class declaration or a prefixed block occur somewhere inside this procedure.
+	/// Objects created there have a static link chain leading to the instance of this
+	/// procedure, which may therefore outlive the procedure call.
+	public boolean mayEscape;
+
 	// ***********************************************************************************************
 	// *** CONSTRUCTORS
 	// ***********************************************************************************************
@@ -285,6 +293,30 @@ public class ProcedureDeclaration extends BlockDeclaration {
 		else proc.statements.add(Statement.expectStatement());
 	}
 
+	/// Utility: Mark all procedures enclosing the given scope as escaping.
+	/// 
+	/// Called when a class declaration or a prefixed block is parsed, and when a call
+	/// is checked which transmits an actual parameter by name, or a procedure, switch or
+	/// label. The thunk, procedure quantity or label refers to the current block instance,
+	/// and the called procedure may hand it on to an object which outlives the call.
+	/// @param scope the scope in which the class declaration, prefixed block or call occur
+	public static void markEscaping(DeclarationScope scope) {
+		for (DeclarationScope encl = scope; encl != null; encl = encl.declaredIn)
+			if (encl instanceof ProcedureDeclaration proc) proc.mayEscape = true;
+	}
+
+	/// Returns true if terminated instances of this procedure may be reused.
+	/// 
+	/// An instance of a procedure without local classes and prefixed blocks, and which
+	/// transmits no thunks, procedure quantities or labels, can't be referenced after the
+	/// procedure call is completed. Such instances are kept in a
+	/// per-class free list of the runtime context and reinitialized by the static method
+	/// '_NEW' when the procedure is called again.
+	/// @return true if terminated instances of this procedure may be reused
+	public boolean isReusable() {
+		return (declarationKind == ObjectKind.Procedure && !mayEscape && isPreCompiledFromFile == null);
+	}
+
 	// ***********************************************************************************************
 	// *** Checking
 	// ***********************************************************************************************
@@ -324,6 +356,7 @@ public class ProcedureDeclaration extends BlockDeclaration {
 				myVirtual = new VirtualMatch(virtualSpec, this);
 				ClassDeclaration decl = (ClassDeclaration) declaredIn;
 				decl.virtualMatchList.add(myVirtual);
+				DeclarationScope.invalidateMeanings();
 				if (decl == virtualSpec.declaredIn) virtualSpec.hasDefaultMatch = true;
 			}
 		Global.exitScope();
@@ -336,11 +369,9 @@ public class ProcedureDeclaration extends BlockDeclaration {
 	@Override
 	public Meaning findVisibleAttributeMeaning(final String ident) {
 		if(Option.internal.TRACE_FIND_MEANING>0) Util.println("BEGIN Checking Procedure for "+ident+" ================================== "+identifier+" ==================================");
-		for (Declaration declaration : declarationList) {
-			if(Option.internal.TRACE_FIND_MEANING>1) Util.println("Checking Local "+declaration);
-			if (Util.equals(ident, declaration.identifier))
-				return (new Meaning(declaration, this, this, false));
-		}
+		Declaration declaration = declarationList.find(ident);
+		if (declaration != null)
+			return (new Meaning(declaration, this, this, false));
 		for (Parameter parameter : parameterList) {
 			if(Option.internal.TRACE_FIND_MEANING>1) Util.println("Checking Parameter "+parameter);
 			if (Util.equals(ident, parameter.identifier))
@@ -575,7 +606,7 @@ public class ProcedureDeclaration extends BlockDeclaration {
 	 * @return class file bytes
 	 */
 	private byte[] tryBuildClassFile(ClassDesc CD_ThisClass) {
-		byte[] bytes = ClassFile.of(ClassFile.ClassHierarchyResolverOption.of(ClassHierarchy.getResolver())).build(CD_ThisClass,
+		byte[] bytes = ClassHierarchy.getClassFile().build(CD_ThisClass,
 				classBuilder -> {
 					classBuilder
 						.with(SourceFileAttribute.of(Global.sourceFileName))
@@ -611,6 +642,16 @@ public class ProcedureDeclaration extends BlockDeclaration {
 							codeBuilder -> buildConstructor(codeBuilder))
 						.withMethodBody("_STM", MethodTypeDesc.ofDescriptor("()Lsimula/runtime/RTS_RTObject;"), ClassFile.ACC_PUBLIC,
 							codeBuilder -> buildMethod_STM(codeBuilder));
+
+					if(isReusable())
+						classBuilder
+							.withField("_FREEX", ConstantDescs.CD_int, ClassFile.ACC_PRIVATE | ClassFile.ACC_STATIC | ClassFile.ACC_FINAL)
+							.withMethodBody("<clinit>", MethodTypeDesc.ofDescriptor("()V"), ClassFile.ACC_STATIC,
+								codeBuilder -> buildStaticInitializer(codeBuilder))
+							.withMethodBody("_NEW", getNewMethodTypeDesc(), ClassFile.ACC_PUBLIC | ClassFile.ACC_STATIC,
+								codeBuilder -> buildMethod_NEW(codeBuilder))
+							.withMethod("_REINIT", MTD_Constructor(true), ClassFile.ACC_PRIVATE,
+								codeBuilder -> buildMethod_REINIT(codeBuilder));
 				}
 		);
 		return(bytes);
@@ -635,6 +676,14 @@ public class ProcedureDeclaration extends BlockDeclaration {
 		return(MethodTypeDesc.ofDescriptor(sb.toString()));
 	}
 
+	/// Create the MethodTypeDesc for the static method '_NEW'.
+	/// 
+	/// Example: (Lsimula/runtime/RTS_RTObject;IID)LsimulaTestPrograms/adHoc00_P;
+	/// @return the MethodTypeDesc for the static method '_NEW'
+	public MethodTypeDesc getNewMethodTypeDesc() {
+		return(MTD_Constructor(true).changeReturnType(getClassDesc()));
+	}
+
 	/// ClassFile coding utility: getResultFieldRefEntry
 	/// @param pool the ConstantPoolBuilder to use
 	/// @return a FieldRefEntry
@@ -684,7 +733,6 @@ public class ProcedureDeclaration extends BlockDeclaration {
 			.withCode(codeBuilder -> {
 				ASSERT_SEMANTICS_CHECKED();
 				Global.enterScope(this);
-					ConstantPoolBuilder pool=codeBuilder.constantPool();
 					Label begScope = codeBuilder.newLabel();
 					Label endScope = codeBuilder.newLabel();
 					codeBuilder
@@ -705,40 +753,7 @@ public class ProcedureDeclaration extends BlockDeclaration {
 						.aload(1)
 						.invokespecial(RTS.CD.RTS_PROCEDURE,"<init>", MethodTypeDesc.ofDescriptor("(Lsimula/runtime/RTS_RTObject;)V"));
 		
-					if (this.hasDeclaredLabel()) {
-						// Declare local labels
-						for (LabelDeclaration lab : labelList.getDeclaredLabels())
-							lab.buildInitAttribute(codeBuilder);
-					}
-					// Add and Initialize attributes
-					for (Declaration decl : declarationList) {
-						decl.buildInitAttribute(codeBuilder);
-					}
-		
-		
-					// Parameter assignment to locals
-					int parOfst=2;
-					for(Parameter par:parameterList) {
-						codeBuilder.aload(0);
-						par.loadParameter(codeBuilder, parOfst++);
-						if(par.type!=null && par.type.keyWord == Type.T_LONG_REAL && (par.mode != Parameter.Mode.name)) parOfst++;
-						codeBuilder.putfield(par.getFieldRefEntry(pool));
-					}
-		
-					// BBLK();
-					codeBuilder.aload(0);
-					RTS.invokevirtual_RTObject_BBLK(codeBuilder);
-						
-					// Add Declaration Code to Constructor
-					for (Declaration decl : declarationList) {
-						decl.buildDeclarationCode(codeBuilder);
-					}
-		
-					// _STM();
-					codeBuilder
-						.aload(0)
-						.invokevirtual(currentClassDesc(),"_STM", MethodTypeDesc.ofDescriptor("()Lsimula/runtime/RTS_RTObject;"))
-						.pop();
+					buildInitialization(codeBuilder);
 		
 					codeBuilder
 						.return_()
@@ -747,6 +762,190 @@ public class ProcedureDeclaration extends BlockDeclaration {
 		}	);
 	}
 
+	/// ClassFile coding utility: Build the part of the constructor which follows the super call.
+	/// 
+	/// Also used by the '_REINIT' method of a reusable procedure.
+	/// <pre>
+	/// 		   // Initialize attributes
+	/// 		   // Parameter assignment to locals
+	/// 		   BBLK();
+	/// 		   // Declaration Code
+	/// 		   _STM();
+	/// </pre>
+	/// @param codeBuilder the codeBuilder to use
+	private void buildInitialization(CodeBuilder codeBuilder) {
+		ConstantPoolBuilder pool=codeBuilder.constantPool();
+		if (this.hasDeclaredLabel()) {
+			// Declare local labels
+			for (LabelDeclaration lab : labelList.getDeclaredLabels())
+				lab.buildInitAttribute(codeBuilder);
+		}
+		// Add and Initialize attributes
+		for (Declaration decl : declarationList) {
+			decl.buildInitAttribute(codeBuilder);
+		}
+
+		// Parameter assignment to locals
+		int parOfst=2;
+		for(Parameter par:parameterList) {
+			codeBuilder.aload(0);
+			par.loadParameter(codeBuilder, parOfst++);
+			if(par.type!=null && par.type.keyWord == Type.T_LONG_REAL && (par.mode != Parameter.Mode.name)) parOfst++;
+			codeBuilder.putfield(par.getFieldRefEntry(pool));
+		}
+
+		// BBLK();
+		codeBuilder.aload(0);
+		RTS.invokevirtual_RTObject_BBLK(codeBuilder);
+			
+		// Add Declaration Code to Constructor
+		for (Declaration decl : declarationList) {
+			decl.buildDeclarationCode(codeBuilder);
+		}
+
+		// _STM();
+		codeBuilder
+			.aload(0)
+			.invokevirtual(currentClassDesc(),"_STM", MethodTypeDesc.ofDescriptor("()Lsimula/runtime/RTS_RTObject;"))
+			.pop();
+	}
+
+	// ***********************************************************************************************
+	// *** ByteCoding: buildMethod_NEW
+	// ***********************************************************************************************
+	/// Generate byteCode for the static method '_NEW' of a reusable procedure.
+	/// 
+	/// The free lists are kept in the runtime context of the static link, so that
+	/// programs running concurrently in one JVM never share an instance.
+	/// 
+	/// When the constructor or '_REINIT' returns, the procedure instance has passed
+	/// through its final end. Its reference valued parameters and local variables are
+	/// cleared, and it is linked into the free list before it is returned. The caller may
+	/// still fetch the result since nothing is allocated in between. A reference valued
+	/// result is cleared by the caller, see BuildCP.
+	/// <pre>
+	///     public static Program'name _NEW(RTS_RTObject staticLink, par, par ...) {
+	///         Program'name ins = (Program'name) RTS_PROCEDURE._POPFREE(staticLink, _FREEX);
+	///         if(ins == null) ins = new Program'name(staticLink, par, par ...);
+	///         else ins._REINIT(staticLink, par, par ...);
+	///         ins.par = null; ... ins.local = null; ...
+	///         ins._PUSHFREE(_FREEX);
+	///         return(ins);
+	///     }
+	/// </pre>
+	/// @param codeBuilder the codeBuilder to use
+	private void buildMethod_NEW(CodeBuilder codeBuilder) {
+		ClassDesc CD_ThisClass = currentClassDesc();
+		Label reuse = codeBuilder.newLabel();
+		Label release = codeBuilder.newLabel();
+		codeBuilder
+			.aload(0)
+			.getstatic(CD_ThisClass, "_FREEX", ConstantDescs.CD_int)
+			.invokestatic(RTS.CD.RTS_PROCEDURE, "_POPFREE", MethodTypeDesc.ofDescriptor("(Lsimula/runtime/RTS_RTObject;I)Lsimula/runtime/RTS_PROCEDURE;"))
+			.dup()
+			.ifnonnull(reuse)
+			.pop()
+			.new_(CD_ThisClass)
+			.dup();
+		loadArguments(codeBuilder);
+		codeBuilder
+			.invokespecial(CD_ThisClass, "<init>", MTD_Constructor(true))
+			.goto_(release)
+			.labelBinding(reuse)
+			.checkcast(CD_ThisClass)
+			.dup();
+		loadArguments(codeBuilder);
+		codeBuilder
+			.invokevirtual(CD_ThisClass, "_REINIT", MTD_Constructor(true))
+			.labelBinding(release);
+		for(FieldRefEntry field:getReferenceFields(codeBuilder.constantPool()))
+			codeBuilder
+				.dup()
+				.aconst_null()
+				.putfield(field);
+		codeBuilder
+			.dup()
+			.getstatic(CD_ThisClass, "_FREEX", ConstantDescs.CD_int)
+			.invokevirtual(RTS.CD.RTS_PROCEDURE, "_PUSHFREE", MethodTypeDesc.ofDescriptor("(I)V"))
+			.areturn();
+	}
+
+	/// Generate byteCode for the static initializer of a reusable procedure.
+	/// <pre>
+	///     private static final int _FREEX = RTS_PROCEDURE._FREEINDEX();
+	/// </pre>
+	/// @param codeBuilder the codeBuilder to use
+	private void buildStaticInitializer(CodeBuilder codeBuilder) {
+		codeBuilder
+			.invokestatic(RTS.CD.RTS_PROCEDURE, "_FREEINDEX", MethodTypeDesc.ofDescriptor("()I"))
+			.putstatic(currentClassDesc(), "_FREEX", ConstantDescs.CD_int)
+			.return_();
+	}
+
+	/// ClassFile coding utility: Returns the reference valued parameters and local variables,
+	/// except the result, which are cleared before an instance is linked into the free list.
+	/// @param pool the ConstantPoolBuilder to use
+	/// @return the FieldRefEntries of the fields to clear
+	private Vector<FieldRefEntry> getReferenceFields(ConstantPoolBuilder pool) {
+		Vector<FieldRefEntry> fields=new Vector<FieldRefEntry>();
+		for(Parameter par:parameterList) {
+			FieldRefEntry field=par.getFieldRefEntry(pool);
+			if(!field.typeSymbol().isPrimitive()) fields.add(field);
+		}
+		for(Declaration decl:declarationList) {
+			if(decl == result) continue;
+			if(decl instanceof SimpleVariableDeclaration var && var.type.isReferenceType())
+				fields.add(var.getFieldRefEntry(pool));
+			else if(decl instanceof InspectVariableDeclaration var)
+				fields.add(var.getFieldRefEntry(pool));
+			else if(decl instanceof ArrayDeclaration array)
+				fields.add(pool.fieldRefEntry(getClassDesc(), array.getFieldIdentifier(), RTS.CD.RTS_ARRAY(array.type)));
+		}
+		return(fields);
+	}
+
+	/// ClassFile coding utility: Load the arguments of the static method '_NEW'.
+	/// @param codeBuilder the codeBuilder to use
+	private void loadArguments(CodeBuilder codeBuilder) {
+		codeBuilder.aload(0); // staticLink
+		int parOfst=1;
+		for(Parameter par:parameterList) {
+			par.loadParameter(codeBuilder, parOfst++);
+			if(par.type!=null && par.type.keyWord == Type.T_LONG_REAL && (par.mode != Parameter.Mode.name)) parOfst++;
+		}
+	}
+
+	// ***********************************************************************************************
+	// *** ByteCoding: buildMethod_REINIT
+	// ***********************************************************************************************
+	/// Generate byteCode for the '_REINIT' method of a reusable procedure.
+	/// <pre>
+	///     private void _REINIT(RTS_RTObject staticLink, par, par ...) {
+	///         _REUSE(staticLink);
+	/// 		   // Initialize attributes
+	/// 		   // Parameter assignment to locals
+	/// 		   BBLK();
+	/// 		   // Declaration Code
+	/// 		   _STM();
+	/// 	   }
+	/// </pre>
+	/// @param methodBuilder the MethodBuilder to use.
+	private void buildMethod_REINIT(MethodBuilder methodBuilder) {
+		methodBuilder
+			.withFlags(ClassFile.ACC_PRIVATE)
+			.withCode(codeBuilder -> {
+				ASSERT_SEMANTICS_CHECKED();
+				Global.enterScope(this);
+					codeBuilder
+						.aload(0)
+						.aload(1)
+						.invokevirtual(RTS.CD.RTS_PROCEDURE, "_REUSE", MethodTypeDesc.ofDescriptor("(Lsimula/runtime/RTS_RTObject;)V"));
+					buildInitialization(codeBuilder);
+					codeBuilder.return_();
+				Global.exitScope();
+		}	);
+	}
+
 	
 	// ***********************************************************************************************
 	// *** ByteCoding: buildConstructor
@@ -1064,10 +1263,10 @@ public class ProcedureDeclaration extends BlockDeclaration {
 		Util.TRACE_OUTPUT("BEGIN Write ProcedureDeclaration: "+identifier);
 		oupt.writeKind(declarationKind); // Mark: This is a ProcedureDeclaration
 		oupt.writeString(identifier);
-		oupt.writeShort(OBJECT_SEQU);
+		oupt.writeSEQU(OBJECT_SEQU);
 		
 		// *** SyntaxClass
-		oupt.writeShort(lineNumber);
+		oupt.writeLINE(lineNumber);
 
 		// *** Declaration
 		oupt.writeString(externalIdent);
@@ -1140,12 +1140,8 @@ public final class StandardClass extends ClassDeclaration {
 	@Override
 	public Meaning findVisibleAttributeMeaning(String ident) {
 		if(Option.internal.TRACE_FIND_MEANING>0) Util.println("BEGIN Checking Standard Class "+identifier+" for "+ident+" ================================== "+identifier+" ==================================");
-		for(Declaration declaration:declarationList) {
-			if(Option.internal.TRACE_FIND_MEANING>1) Util.println("Checking Local "+declaration.identifier);
-			if(Util.equals(ident, declaration.identifier)) {
-				return(new Meaning(declaration,this));
-			}
-		}
+		Declaration declaration=declarationList.find(ident);
+		if(declaration!=null) return(new Meaning(declaration,this));
 		if(Option.internal.TRACE_FIND_MEANING>0) Util.println("ENDOF Checking Standard Class "+identifier+" for "+ident+" ================================== "+identifier+" ==================================");
 		if(prefix != null) {
 			ClassDeclaration prfx=getPrefixClass();
@@ -1156,9 +1152,8 @@ public final class StandardClass extends ClassDeclaration {
 
 	@Override
 	public Meaning findRemoteAttributeMeaning(String ident) {
-		for(Declaration declaration:declarationList)
-			if(Util.equals(ident, declaration.identifier))
-				return(new Meaning(declaration,this));
+		Declaration declaration=declarationList.find(ident);
+		if(declaration!=null) return(new Meaning(declaration,this));
 		ClassDeclaration prfx=getPrefixClass();
 		if(prfx!=null) return(prfx.findRemoteAttributeMeaning(ident));
 		return(null);
@@ -18,6 +18,7 @@ import simula.compiler.parsing.Parse;
 import simula.compiler.syntaxClass.ProtectedSpecification;
 import simula.compiler.syntaxClass.Type;
 import simula.compiler.syntaxClass.expression.Expression;
+import simula.compiler.syntaxClass.expression.VariableExpression;
 import simula.compiler.utilities.Global;
 import simula.compiler.utilities.KeyWord;
 import simula.compiler.utilities.ObjectKind;
@@ -147,6 +148,32 @@ public final class SwitchDeclaration extends ProcedureDeclaration {
 
 	}
 
+	/// ClassFile coding utility: Build a direct jump to the element selected by 'index'.
+	///
+	/// This is only done when every element of the switch list is a label of the
+	/// current labelContext. The element is then selected by a tableswitch on the
+	/// index, and no call to the switch procedure or RTS_LABEL is needed.
+	/// @param index the switch index expression
+	/// @param codeBuilder the codeBuilder to use
+	/// @return true if the jump was built, false if nothing was generated
+	public boolean buildLocalJump(Expression index, CodeBuilder codeBuilder) {
+		if(switchList.isEmpty() || VirtualSpecification.getVirtualSpecification(this) != null) return(false);
+		List<SwitchCase> tableSwitchCases = new Vector<SwitchCase>();
+		int n = 1;
+		for (Expression expr : switchList) {
+			Label target = (expr instanceof VariableExpression var) ? var.getLocalJumpTarget(codeBuilder) : null;
+			if(target == null) return(false);
+			tableSwitchCases.add(SwitchCase.of(n++, target));
+		}
+		Label defaultTarget = codeBuilder.newLabel();
+		index.buildEvaluation(null,codeBuilder);
+		codeBuilder
+			.tableswitch(1, switchList.size(), defaultTarget, tableSwitchCases)
+			.labelBinding(defaultTarget);
+		Util.buildSimulaRuntimeError("Illegal switch index: ", codeBuilder);
+		return(true);
+	}
+
 	@Override
 	public String toString() {
 		return ("SWITCH " + identifier + " := " + switchList);
@@ -284,7 +284,7 @@ public final class VirtualSpecification extends Declaration {
 	public void writeObject(AttributeOutputStream oupt) throws IOException {
 		Util.TRACE_OUTPUT("VirtualSpec: " + type + ' ' + identifier + ' ' + kind);
 		oupt.writeKind(declarationKind);
-		oupt.writeShort(OBJECT_SEQU);
+		oupt.writeSEQU(OBJECT_SEQU);
 		// *** VirtualSpecification
 		oupt.writeString(identifier);
 		oupt.writeString(externalIdent);
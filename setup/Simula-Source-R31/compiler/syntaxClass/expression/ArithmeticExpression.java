@@ -7,12 +7,14 @@ package simula.compiler.syntaxClass.expression;
 
 import java.io.IOException;
 import java.lang.classfile.CodeBuilder;
+import java.lang.classfile.Label;
 import java.lang.constant.MethodTypeDesc;
 
 import simula.compiler.AttributeInputStream;
 import simula.compiler.AttributeOutputStream;
 import simula.compiler.syntaxClass.SyntaxClass;
 import simula.compiler.syntaxClass.Type;
+import simula.compiler.syntaxClass.declaration.BlockDeclaration;
 import simula.compiler.utilities.Global;
 import simula.compiler.utilities.KeyWord;
 import simula.compiler.utilities.ObjectKind;
@@ -146,6 +148,15 @@ public final class ArithmeticExpression extends Expression {
 	@Override
 	public Expression evaluate() {
 		// Try to Compile-time Evaluate this expression
+		if (IS_SEMANTICS_CHECKED()) {
+			if (lhs.evaluate() instanceof Constant lhc && lhc.value instanceof Number lhn
+			 && rhs.evaluate() instanceof Constant rhc && rhc.value instanceof Number rhn) {
+				Constant result = Constant.fold(type, lhn, opr, rhn);
+				if (result != null)
+					return (result);
+			}
+			return (this);
+		}
 		Number lhn = lhs.getNumber();
 		if (lhn != null) {
 			Number rhn = rhs.getNumber();
@@ -228,14 +239,20 @@ public final class ArithmeticExpression extends Expression {
 	@Override
 	public void buildEvaluation(Expression rightPart,CodeBuilder codeBuilder) {	setLineNumber();
 		ASSERT_SEMANTICS_CHECKED();
+		if(buildFoldedEvaluation(codeBuilder)) return;
 		if(opr == KeyWord.EXP) {
 			// Real:     r2=((float)(Math.pow(((double)(r1)),((double)(e)))));
 			// LongReal: r2=Math.pow(r1,e);
 			// Integer:  k=_IPOW(i,j);
+			//     or:  k=i*i  etc. when j is a small constant, see buildRepeatedMultiplication
 			lhs.buildEvaluation(null,codeBuilder);
 			if(type.keyWord == Type.T_INTEGER) {
-				rhs.buildEvaluation(null,codeBuilder);
-				RTS.invokestatic_UTIL_IPOW(codeBuilder);
+				int n = getSmallConstantExponent();
+				if(n > 0) buildRepeatedMultiplication(n,codeBuilder);
+				else {
+					rhs.buildEvaluation(null,codeBuilder);
+					RTS.invokestatic_UTIL_IPOW(codeBuilder);
+				}
 			} else {
 				if(type.keyWord == Type.T_REAL) codeBuilder.f2d();
 				rhs.buildEvaluation(null,codeBuilder);
@@ -286,6 +303,57 @@ public final class ArithmeticExpression extends Expression {
 		}
 	}
 
+	/// Returns the exponent if the right operand of an integer exponentiation is a constant 1..4.
+	/// @return the exponent, or 0 if it is not a small positive constant
+	private int getSmallConstantExponent() {
+		if(rhs instanceof Constant cnst && cnst.value instanceof Number num) {
+			long n = num.longValue();
+			if(n >= 1 && n <= 4) return((int) n);
+		}
+		return(0);
+	}
+
+	/// ClassFile coding utility: Build integer exponentiation with a small constant exponent
+	/// as repeated multiplication of the base already on the stack.
+	///
+	/// Each product is computed as a long and checked to be within integer range.
+	/// On overflow _IPOW is called, which raises its own overflow error.
+	/// <pre>
+	///		istore base
+	///		iload base
+	///	    repeat n-1 times:
+	///		i2l; iload base; i2l; lmul
+	///		dup2; dup2; l2i; i2l; lcmp; ifne OVF
+	///		l2i
+	///		goto END
+	///	OVF: pop2; iload base; iconst_n; invokestatic _IPOW
+	///	END:
+	/// </pre>
+	/// @param n the exponent 1..4
+	/// @param codeBuilder the codeBuilder to use
+	private void buildRepeatedMultiplication(int n,CodeBuilder codeBuilder) {
+		if(n == 1) return; // b ** 1 = b
+		if(n < 1 || n > 4) Util.IERR();
+		int base = BlockDeclaration.currentBlock.allocateLocalVariable(Type.Integer);
+		Label OVF = codeBuilder.newLabel();
+		Label END = codeBuilder.newLabel();
+		codeBuilder.istore(base).iload(base);
+		for(int i = 1; i < n; i++) {
+			codeBuilder
+				.i2l().iload(base).i2l().lmul()
+				.dup2().dup2().l2i().i2l().lcmp().ifne(OVF)
+				.l2i();
+		}
+		codeBuilder
+			.goto_(END)
+			.labelBinding(OVF)
+			.pop2()
+			.iload(base);
+		Constant.buildIntConst(codeBuilder, n);
+		RTS.invokestatic_UTIL_IPOW(codeBuilder);
+		codeBuilder.labelBinding(END);
+	}
+
 	@Override
 	public String toJavaCode() {
 		ASSERT_SEMANTICS_CHECKED();
@@ -335,9 +403,9 @@ public final class ArithmeticExpression extends Expression {
 	public void writeObject(AttributeOutputStream oupt) throws IOException {
 		Util.TRACE_OUTPUT("writeArithmeticExpression: " + this);
 		oupt.writeKind(ObjectKind.ArithmeticExpression);
-		oupt.writeShort(OBJECT_SEQU);
+		oupt.writeSEQU(OBJECT_SEQU);
 		// *** SyntaxClass
-		oupt.writeShort(lineNumber);
+		oupt.writeLINE(lineNumber);
 		// *** Expression
 		oupt.writeType(type);
 		oupt.writeObj(backLink);
@@ -133,6 +133,29 @@ public final class BooleanExpression extends Expression {
 		this.lhs.backLink = this.rhs.backLink = this;
 	}
 
+	@Override
+	public Expression evaluate() {
+		// Try to Compile-time Evaluate this expression
+		if (!IS_SEMANTICS_CHECKED()) return (this);
+		Boolean lhb = lhs.getBooleanConstant();
+		if (lhb == null) return (this);
+		if (opr == KeyWord.AND_THEN) return ((lhb) ? rhs.evaluate() : lhs.evaluate());
+		if (opr == KeyWord.OR_ELSE)  return ((lhb) ? lhs.evaluate() : rhs.evaluate());
+		Boolean rhb = rhs.getBooleanConstant();
+		if (rhb == null) return (this);
+		boolean result = false;
+		switch (opr) {
+			case KeyWord.AND -> result = lhb & rhb;
+			case KeyWord.OR  -> result = lhb | rhb;
+			case KeyWord.IMP -> result = !lhb | rhb;
+			case KeyWord.EQV -> result = lhb == rhb;
+			default -> Util.IERR();
+		}
+		Constant constant = new Constant(Type.Boolean, result);
+		constant.SET_SEMANTICS_CHECKED();
+		return (constant);
+	}
+
 	@Override
 	public void doChecking() {
 		if (IS_SEMANTICS_CHECKED())	return;
@@ -184,6 +207,7 @@ public final class BooleanExpression extends Expression {
 	@Override
 	public void buildEvaluation(Expression rightPart,CodeBuilder codeBuilder) {	setLineNumber();
 		ASSERT_SEMANTICS_CHECKED();
+		if(buildFoldedEvaluation(codeBuilder)) return;
 		switch(opr) {
 			case KeyWord.AND:
 				lhs.buildEvaluation(null,codeBuilder);
@@ -262,9 +286,9 @@ public final class BooleanExpression extends Expression {
 	public void writeObject(AttributeOutputStream oupt) throws IOException {
 		Util.TRACE_OUTPUT("writeBooleanExpression: " + this);
 		oupt.writeKind(ObjectKind.BooleanExpression);
-		oupt.writeShort(OBJECT_SEQU);
+		oupt.writeSEQU(OBJECT_SEQU);
 		// *** SyntaxClass
-		oupt.writeShort(lineNumber);
+		oupt.writeLINE(lineNumber);
 		// *** Expression
 		oupt.writeType(type);
 		oupt.writeObj(backLink);
@@ -9,11 +9,13 @@ import java.lang.constant.ClassDesc;
 import java.lang.constant.MethodTypeDesc;
 import java.util.Vector;
 import java.lang.classfile.CodeBuilder;
+import java.lang.classfile.constantpool.FieldRefEntry;
 import simula.compiler.syntaxClass.SyntaxClass;
 import simula.compiler.syntaxClass.Type;
 import simula.compiler.syntaxClass.declaration.*;
 import simula.compiler.utilities.Meaning;
 import simula.compiler.utilities.ObjectKind;
+import simula.compiler.utilities.RTS;
 import simula.compiler.utilities.Util;
 
 /// Coding Utilities: Build Call Procedure (CP)
@@ -46,8 +48,11 @@ public class BuildCP {
 		///// 14: pop
 		// or
 		///// 14: getfield      #54                 // Field simulaTestPrograms/adHoc00_P._RESULT:I
+		// or, when the procedure instance is reusable:
+		//     kkk=adHoc00_P._NEW((_CUR),444)._RESULT;
 		ClassDesc CD_prc=prc.getClassDesc();
-		codeBuilder
+		boolean reuse=prc.isReusable();
+		if(!reuse) codeBuilder
 			.new_(CD_prc)
 			.dup();
 		variable.meaning.buildQualifiedStaticLink(codeBuilder); // SL
@@ -59,15 +64,41 @@ public class BuildCP {
 				p.buildParamCode(codeBuilder, variable.checkedParams.get(i));
 			}
 		}
-		codeBuilder.invokespecial(CD_prc, "<init>", prc.getConstructorMethodTypeDesc());
+		if(reuse) codeBuilder.invokestatic(CD_prc, "_NEW", prc.getNewMethodTypeDesc());
+		else codeBuilder.invokespecial(CD_prc, "<init>", prc.getConstructorMethodTypeDesc());
 		// Note: TOS points to the Procedure object.
 		SyntaxClass backLink = variable.backLink;
-		if(prc.type != null && backLink != null) {
-			// Using TOS to access TOS._RESULT
-			codeBuilder.getfield(prc.getResultFieldRefEntry(codeBuilder.constantPool()));
-		} else {
-			codeBuilder.pop(); // Pop off TOS
+		buildResult(prc,reuse,prc.type != null && backLink != null,codeBuilder);
+	}
+
+	/// Fetch the result of a procedure call, or pop off the procedure object.
+	/// 
+	/// A reference valued result of a reusable procedure is cleared after it is fetched,
+	/// so that the instance in the free list doesn't keep it alive.
+	/// <pre>
+	///     getfield _RESULT                                 // Normal
+	///     dup; getfield _RESULT; swap; aconst_null; putfield _RESULT   // Reusable, ref result
+	///     aconst_null; putfield _RESULT                    // Reusable, ref result not used
+	///     pop                                              // Otherwise
+	/// </pre>
+	/// @param prc Procedure Declaration
+	/// @param reuse true if the procedure instance is reusable
+	/// @param fetch true if the result is used
+	/// @param codeBuilder the CodeBuilder
+	private static void buildResult(final ProcedureDeclaration prc,final boolean reuse,final boolean fetch,final CodeBuilder codeBuilder) {
+		boolean clear = reuse && prc.type != null && prc.type.isReferenceType();
+		if(clear) {
+			FieldRefEntry RESULT = prc.getResultFieldRefEntry(codeBuilder.constantPool());
+			if(fetch) codeBuilder
+				.dup()
+				.getfield(RESULT)
+				.swap();
+			codeBuilder
+				.aconst_null()
+				.putfield(RESULT);
 		}
+		else if(fetch) codeBuilder.getfield(prc.getResultFieldRefEntry(codeBuilder.constantPool()));
+		else codeBuilder.pop(); // Pop off TOS
 	}
 
 	// ********************************************************************
@@ -97,7 +128,8 @@ public class BuildCP {
 			}
 		} else {
 			ClassDesc CD_prc=procedure.getClassDesc();
-			codeBuilder
+			boolean reuse=procedure.isReusable();
+			if(!reuse) codeBuilder
 				.new_(CD_prc)
 				.dup();
 			obj.buildEvaluation(null,codeBuilder);
@@ -110,10 +142,9 @@ public class BuildCP {
 				}
 			}
 			RemoteVariable remVar=(RemoteVariable)func.backLink;
-			codeBuilder.invokespecial(CD_prc, "<init>", procedure.getConstructorMethodTypeDesc());
-			if(remVar.backLink != null && procedure.type != null)
-				 codeBuilder.getfield(procedure.getResultFieldRefEntry(codeBuilder.constantPool()));
-			else codeBuilder.pop();
+			if(reuse) codeBuilder.invokestatic(CD_prc, "_NEW", procedure.getNewMethodTypeDesc());
+			else codeBuilder.invokespecial(CD_prc, "<init>", procedure.getConstructorMethodTypeDesc());
+			buildResult(procedure,reuse,remVar.backLink != null && procedure.type != null,codeBuilder);
 		}
 	}
 
@@ -204,6 +235,7 @@ public class BuildCP {
 	static void staticStandardProcedure(final VariableExpression variable,CodeBuilder codeBuilder) {
 		Meaning meaning=variable.meaning;
 		StandardProcedure pro = (StandardProcedure) meaning.declaredAs;
+		if(variable.backLink != null && intrinsicStandardProcedure(pro,variable.checkedParams,codeBuilder)) return;
 		// PUSH Parameter values onto the stack
 		if (variable.checkedParams != null) {
 			int n=variable.checkedParams.size();
@@ -230,6 +262,92 @@ public class BuildCP {
 		}
 	}
 	
+	// ********************************************************************
+	// *** BuildCP.intrinsicStandardProcedure
+	// ********************************************************************
+	/// ClassFile coding utility: Try to expand a call on a basic ENVIRONMENT procedure inline.
+	/// 
+	/// The expansion is either a few plain byte code instructions or a call on the
+	/// corresponding java.lang.Math method, which HotSpot treats as an intrinsic.
+	/// This way calls on RTS_ENVIRONMENT do not consume the inlining budget of the caller.
+	/// <pre>
+	///      rem(i,j)          ==>  i % j
+	///      mod(i,j)          ==>  Math.floorMod(i,j)
+	///      abs(e)            ==>  Math.abs(e)
+	///      entier(e)         ==>  (int) Math.floor(e)
+	///      addepsilon(e)     ==>  Math.nextUp(e)
+	///      subepsilon(e)     ==>  Math.nextDown(e)
+	///      rank(c)           ==>  (int) c
+	///      char(i)           ==>  (char) i
+	///      max(x,y)          ==>  Math.max(x,y)    when x and y are of the same arithmetic or character type
+	///      min(x,y)          ==>  Math.min(x,y)    when x and y are of the same arithmetic or character type
+	/// </pre>
+	/// @param pro the StandardProcedure.
+	/// @param params the checked parameters.
+	/// @param codeBuilder the codeBuilder to use.
+	/// @return true: if the call was expanded inline, otherwise nothing is generated.
+	private static boolean intrinsicStandardProcedure(StandardProcedure pro,Vector<Expression> params,CodeBuilder codeBuilder) {
+		if(pro.declaredIn != StandardClass.ENVIRONMENT || params == null) return(false);
+		ClassDesc owner = RTS.CD.JAVA_LANG_MATH;
+		switch(pro.identifier.toLowerCase()) {
+			case "rem" -> {
+				params.get(0).buildEvaluation(null,codeBuilder);
+				params.get(1).buildEvaluation(null,codeBuilder);
+				codeBuilder.irem();
+			}
+			case "mod" -> {
+				params.get(0).buildEvaluation(null,codeBuilder);
+				params.get(1).buildEvaluation(null,codeBuilder);
+				codeBuilder.invokestatic(owner, "floorMod", MethodTypeDesc.ofDescriptor("(II)I"));
+			}
+			case "abs" -> {
+				params.get(0).buildEvaluation(null,codeBuilder);
+				codeBuilder.invokestatic(owner, "abs", MethodTypeDesc.ofDescriptor("(D)D"));
+			}
+			case "entier" -> {
+				params.get(0).buildEvaluation(null,codeBuilder);
+				codeBuilder
+					.invokestatic(owner, "floor", MethodTypeDesc.ofDescriptor("(D)D"))
+					.d2i();
+			}
+			case "addepsilon", "subepsilon" -> {
+				Type type = params.get(0).type;
+				String mtd;
+				switch(type.keyWord) {
+					case Type.T_REAL ->      mtd = "(F)F";
+					case Type.T_LONG_REAL -> mtd = "(D)D";
+					default -> { return(false); }
+				}
+				String ident = (pro.identifier.equalsIgnoreCase("addepsilon")) ? "nextUp" : "nextDown";
+				params.get(0).buildEvaluation(null,codeBuilder);
+				codeBuilder.invokestatic(owner, ident, MethodTypeDesc.ofDescriptor(mtd));
+			}
+			case "rank", "isorank" -> {
+				params.get(0).buildEvaluation(null,codeBuilder);
+			}
+			case "char", "_char", "isochar" -> {
+				params.get(0).buildEvaluation(null,codeBuilder);
+				codeBuilder.i2c();
+			}
+			case "max", "min" -> {
+				Type type = params.get(0).type;
+				if(!type.equals(params.get(1).type)) return(false);
+				String mtd;
+				switch(type.keyWord) {
+					case Type.T_INTEGER, Type.T_CHARACTER -> mtd = "(II)I";
+					case Type.T_REAL ->                      mtd = "(FF)F";
+					case Type.T_LONG_REAL ->                 mtd = "(DD)D";
+					default -> { return(false); }
+				}
+				params.get(0).buildEvaluation(null,codeBuilder);
+				params.get(1).buildEvaluation(null,codeBuilder);
+				codeBuilder.invokestatic(owner, pro.identifier.toLowerCase(), MethodTypeDesc.ofDescriptor(mtd));
+			}
+			default -> { return(false); }
+		}
+		return(true);
+	}
+	
 	// ********************************************************************
 	// *** checkForExtraParameter
 	// ********************************************************************
@@ -399,7 +399,9 @@ public final class CallProcedure {
     /// @return the resulting Java source code
  	private static String doParameterTransmition(final Type formalType,final int kind,final int mode,final Expression apar) {
 		StringBuilder s = new StringBuilder();
-		switch(kind) {
+		// By name: The actual parameter is coded within an anonymous RTS_NAME class (Thunk)
+		if(mode==Parameter.Mode.name) Global.duringThunk_Coding++;
+		try { switch(kind) {
 		    case Parameter.Kind.Simple -> doSimpleParameter(s,formalType,mode,apar);
 		    case Parameter.Kind.Procedure -> doProcedureParameter(s,formalType,mode,apar);
 		    case Parameter.Kind.Array -> doArrayParameter(s,formalType,mode,apar);
@@ -412,7 +414,7 @@ public final class CallProcedure {
 		    		}
 		    		else s.append(labQuant);
 		    	}
-		}
+		}} finally { if(mode==Parameter.Mode.name) Global.duringThunk_Coding--; }
 		return(s.toString());
 	}
 
@@ -77,6 +77,16 @@ public final class ConditionalExpression extends Expression {
 		SET_SEMANTICS_CHECKED();
 	}
 
+	@Override
+	public Expression evaluate() {
+		// Try to Compile-time Evaluate this expression
+		if (IS_SEMANTICS_CHECKED()) {
+			Boolean cond = condition.getBooleanConstant();
+			if (cond != null) return ((cond) ? thenExpression.evaluate() : elseExpression.evaluate());
+		}
+		return (this);
+	}
+
 	// Returns true if this expression may be used as a statement.
 	@Override
 	public boolean maybeStatement() {
@@ -95,6 +105,7 @@ public final class ConditionalExpression extends Expression {
 	@Override
 	public void buildEvaluation(Expression rightPart,CodeBuilder codeBuilder) {	setLineNumber();
 		ASSERT_SEMANTICS_CHECKED();
+		if(buildFoldedEvaluation(codeBuilder)) return;
 		condition.buildEvaluation(null,codeBuilder);
 		Label elseLabel = codeBuilder.newLabel();
 		codeBuilder.ifeq(elseLabel);
@@ -108,6 +119,28 @@ public final class ConditionalExpression extends Expression {
 		} else codeBuilder.labelBinding(elseLabel);
 	}
 
+	/// ClassFile coding utility: Build a goto to the designational expression
+	/// 'if condition then thenExpression else elseExpression'.
+	///
+	/// The condition is tested here and each branch builds its own goto,
+	/// i.e. a direct jump when the branch designates a local label.
+	@Override
+	public void buildGoto(CodeBuilder codeBuilder) {
+		ASSERT_SEMANTICS_CHECKED();
+		Expression folded = evaluate();
+		if(folded != this) {
+			folded.buildGoto(codeBuilder);
+			return;
+		}
+		setLineNumber();
+		condition.buildEvaluation(null,codeBuilder);
+		Label elseLabel = codeBuilder.newLabel();
+		codeBuilder.ifeq(elseLabel);
+		thenExpression.buildGoto(codeBuilder);
+		codeBuilder.labelBinding(elseLabel);
+		elseExpression.buildGoto(codeBuilder);
+	}
+
 	@Override
 	public String toString() {
 		return ("(IF " + condition + " THEN " + thenExpression + " ELSE "
@@ -125,9 +158,9 @@ public final class ConditionalExpression extends Expression {
 	public void writeObject(AttributeOutputStream oupt) throws IOException {
 		Util.TRACE_OUTPUT("writeConditionalExpression: " + this);
 		oupt.writeKind(ObjectKind.ConditionalExpression);
-		oupt.writeShort(OBJECT_SEQU);
+		oupt.writeSEQU(OBJECT_SEQU);
 		// *** SyntaxClass
-		oupt.writeShort(lineNumber);
+		oupt.writeLINE(lineNumber);
 		// *** Expression
 		oupt.writeType(type);
 		oupt.writeObj(backLink);
@@ -143,6 +143,64 @@ public final class Constant extends Expression {
 		}
 		if(result==null) Util.IERR();
 		return(new Constant(type,result));
+    }    
+    /// Fold a semantically checked binary arithmetic operation.
+    /// 
+    /// Unlike evaluate this method never reports errors. If the operation would
+    /// raise a run-time error (integer overflow, integer division by zero or an
+    /// illegal integer power) it is left for the generated code to detect.
+    /// @param type the checked type of the operation
+    /// @param lhn a left hand Number
+    /// @param opr an binary operation
+    /// @param rhn a right hand Number
+    /// @return the resulting Constant, or null if it can't be folded
+    static Constant fold(final Type type,final Number lhn,final int opr,final Number rhn) { 
+		Number result=null;
+		switch(type.keyWord) {
+			case Type.T_INTEGER -> {
+				long x=lhn.intValue();
+				long y=rhn.intValue();
+				long res;
+				switch(opr) {
+	        		case KeyWord.PLUS   -> res=x + y;
+	        		case KeyWord.MINUS  -> res=x - y;
+	        		case KeyWord.MUL    -> res=x * y;
+	        		case KeyWord.INTDIV -> {
+	        			if(y == 0) return(null);
+	        			res=(int)x / (int)y;
+	        		}
+	        		case KeyWord.EXP    -> {
+	        			if(y < 0 || (x == 0 && y == 0)) return(null);
+	        			res=(long) Math.pow(x,y);
+	        		}
+	        		default     -> { return(null); }
+				}
+				if(res > Integer.MAX_VALUE || res < Integer.MIN_VALUE) return(null);
+				result=(int) res;
+			}
+			case Type.T_REAL -> {
+			switch(opr) {
+        		case KeyWord.PLUS  -> result=lhn.floatValue() + rhn.floatValue();
+        		case KeyWord.MINUS -> result=lhn.floatValue() - rhn.floatValue();
+        		case KeyWord.MUL   -> result=lhn.floatValue() * rhn.floatValue();
+        		case KeyWord.DIV   -> result=lhn.floatValue() / rhn.floatValue();
+        		case KeyWord.EXP   -> result=(float) Math.pow(lhn.floatValue(),rhn.floatValue());
+        		default    -> { return(null); }
+			} }
+			case Type.T_LONG_REAL -> {
+			switch(opr) {
+				case KeyWord.PLUS  -> result=lhn.doubleValue() + rhn.doubleValue();
+				case KeyWord.MINUS -> result=lhn.doubleValue() - rhn.doubleValue();
+				case KeyWord.MUL   -> result=lhn.doubleValue() * rhn.doubleValue();
+				case KeyWord.DIV   -> result=lhn.doubleValue() / rhn.doubleValue();
+				case KeyWord.EXP   -> result=Math.pow(lhn.doubleValue(),rhn.doubleValue());
+        		default    -> { return(null); }
+			} }
+			default -> { return(null); }
+		}
+		Constant constant=new Constant(type,result);
+		constant.SET_SEMANTICS_CHECKED();
+		return(constant);
     }
     
 	@Override
@@ -312,9 +370,9 @@ public final class Constant extends Expression {
 	public void writeObject(AttributeOutputStream oupt) throws IOException {
 		Util.TRACE_OUTPUT("Constant: "+type+' '+value);
 		oupt.writeKind(ObjectKind.Constant);
-		oupt.writeShort(OBJECT_SEQU);
+		oupt.writeSEQU(OBJECT_SEQU);
 		// *** SyntaxClass
-		oupt.writeShort(lineNumber);
+		oupt.writeLINE(lineNumber);
 		// *** Expression
 		oupt.writeType(type);
 		oupt.writeObj(backLink);
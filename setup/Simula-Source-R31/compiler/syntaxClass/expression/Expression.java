@@ -17,6 +17,7 @@ import simula.compiler.utilities.Global;
 import simula.compiler.utilities.KeyWord;
 import simula.compiler.utilities.Meaning;
 import simula.compiler.utilities.Option;
+import simula.compiler.utilities.RTS;
 import simula.compiler.utilities.Util;
 
 /// Expression.
@@ -421,6 +422,31 @@ public abstract class Expression extends SyntaxClass {
 	/// @return the resulting evaluated expression
 	public Expression evaluate() { return(this); }
 
+	/// ClassFile coding utility: Build the evaluation of this expression in its folded form
+	/// when evaluate has simplified the semantically checked expression at compile-time.
+	/// @param codeBuilder the codeBuilder used.
+	/// @return true if the folded expression was built, otherwise false
+	protected boolean buildFoldedEvaluation(CodeBuilder codeBuilder) {
+		Expression folded = evaluate();
+		if(folded != this) {
+			folded.buildEvaluation(null,codeBuilder);
+			return(true);
+		}
+		return(false);
+	}
+
+	/// ClassFile coding utility: Build a goto to the label designated by this expression.
+	///
+	/// The default is to evaluate the label quantity and throw it by calling _GOTO.
+	/// Designators which can be resolved to a label in the current labelContext
+	/// override this and jump directly to the label's entry in the _STM jump table.
+	/// @param codeBuilder the codeBuilder used.
+	public void buildGoto(CodeBuilder codeBuilder) {
+		codeBuilder.aload(0);
+		buildEvaluation(null,codeBuilder);
+		RTS.invokevirtual_RTS_GOTO(codeBuilder);
+	}
+
 	/// Returns true if this expression may be used as a statement.
 	/// @return true if this expression may be used as a statement
 	public abstract boolean maybeStatement();
@@ -456,6 +482,13 @@ public abstract class Expression extends SyntaxClass {
 	    return(null);
     }
 	
+	/// Try to evaluate this semantically checked expression to a boolean constant.
+	/// @return the resulting Boolean or null
+	public Boolean getBooleanConstant() {
+		if(evaluate() instanceof Constant cnst && cnst.value instanceof Boolean bool) return(bool);
+		return(null);
+	}
+	
 	/// Try to evaluate this expression to an integer.
 	/// @return the resulting int or 0
 	public int getInt() {
@@ -75,6 +75,51 @@ public final class RelationalOperation extends Expression {
 		this.lhs.backLink = this.rhs.backLink = this;
 	}
 
+	@Override
+	public Expression evaluate() {
+		// Try to Compile-time Evaluate this expression
+		if (!IS_SEMANTICS_CHECKED()) return (this);
+		if (lhs.evaluate() instanceof Constant lhc && lhc.value != null
+		 && rhs.evaluate() instanceof Constant rhc && rhc.value != null) {
+			int cmp; // Same result as if_icmp<cond>, fcmpl and dcmpl
+			switch(lhs.type.keyWord) {
+				case Type.T_INTEGER, Type.T_CHARACTER, Type.T_BOOLEAN -> cmp = Integer.compare(intValue(lhc), intValue(rhc));
+				case Type.T_REAL -> {
+					float x = ((Number) lhc.value).floatValue(), y = ((Number) rhc.value).floatValue();
+					cmp = (x > y) ? 1 : (x == y) ? 0 : -1;
+				}
+				case Type.T_LONG_REAL -> {
+					double x = ((Number) lhc.value).doubleValue(), y = ((Number) rhc.value).doubleValue();
+					cmp = (x > y) ? 1 : (x == y) ? 0 : -1;
+				}
+				default -> { return (this); }
+			}
+			boolean result = false;
+			switch (opr) {
+				case KeyWord.GE -> result = cmp >= 0;
+				case KeyWord.NE -> result = cmp != 0;
+				case KeyWord.GT -> result = cmp > 0;
+				case KeyWord.LE -> result = cmp <= 0;
+				case KeyWord.EQ -> result = cmp == 0;
+				case KeyWord.LT -> result = cmp < 0;
+				default -> { return (this); }
+			}
+			Constant constant = new Constant(Type.Boolean, result);
+			constant.SET_SEMANTICS_CHECKED();
+			return (constant);
+		}
+		return (this);
+	}
+
+	/// Returns the int value of an integer, character or boolean constant.
+	/// @param constant the constant
+	/// @return the int value
+	private static int intValue(final Constant constant) {
+		if (constant.value instanceof Boolean bool) return ((bool) ? 1 : 0);
+		if (constant.value instanceof Character chr) return (chr.charValue());
+		return (((Number) constant.value).intValue());
+	}
+
 	@Override
 	public void doChecking() {
 		if (IS_SEMANTICS_CHECKED())	return;
@@ -180,6 +225,7 @@ public final class RelationalOperation extends Expression {
 	@Override
 	public void buildEvaluation(Expression rightPart,CodeBuilder codeBuilder) {	setLineNumber();
 		ASSERT_SEMANTICS_CHECKED();
+		if(buildFoldedEvaluation(codeBuilder)) return;
 		if(lhs.type.keyWord == Type.T_TEXT) {
 			buildTextRelation(codeBuilder);
 			return;
@@ -265,9 +311,9 @@ public final class RelationalOperation extends Expression {
 	public void writeObject(AttributeOutputStream oupt) throws IOException {
 		Util.TRACE_OUTPUT("writeRelationalOperation: " + this);
 		oupt.writeKind(ObjectKind.RelationalOperation);
-		oupt.writeShort(OBJECT_SEQU);
+		oupt.writeSEQU(OBJECT_SEQU);
 		// *** SyntaxClass
-		oupt.writeShort(lineNumber);
+		oupt.writeLINE(lineNumber);
 		// *** Expression
 		oupt.writeType(type);
 		oupt.writeObj(backLink);
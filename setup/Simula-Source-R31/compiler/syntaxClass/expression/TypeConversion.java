@@ -165,6 +165,31 @@ public final class TypeConversion extends Expression {
 		return(writeableVariable);
 	}
 
+	@Override
+	public Expression evaluate() {
+		// Try to Compile-time Evaluate this expression
+		if (IS_SEMANTICS_CHECKED() && expression.evaluate() instanceof Constant constant
+				&& constant.value instanceof Number val) {
+			Number result = null;
+			switch(type.keyWord) {
+				case Type.T_INTEGER -> {
+					switch(constant.type.keyWord) {
+						case Type.T_INTEGER   -> result = val.intValue();
+						case Type.T_REAL      -> result = Math.round(val.floatValue());
+						case Type.T_LONG_REAL -> result = (int) Math.round(val.doubleValue());
+					} }
+				case Type.T_REAL      -> result = val.floatValue();
+				case Type.T_LONG_REAL -> result = val.doubleValue();
+			}
+			if (result != null) {
+				Constant c = new Constant(type, result);
+				c.SET_SEMANTICS_CHECKED();
+				return (c);
+			}
+		}
+		return (this);
+	}
+
 	@Override
 	public void doChecking() {
 		if (IS_SEMANTICS_CHECKED())	return;
@@ -198,6 +223,7 @@ public final class TypeConversion extends Expression {
 	@Override
 	public void buildEvaluation(Expression rightPart,CodeBuilder codeBuilder) {	setLineNumber();
 		ASSERT_SEMANTICS_CHECKED();
+		if(buildFoldedEvaluation(codeBuilder)) return;
 		expression.buildEvaluation(null,codeBuilder);
 		Type fromType = expression.type;
 		switch(type.keyWord) {
@@ -256,9 +282,9 @@ public final class TypeConversion extends Expression {
 	public void writeObject(AttributeOutputStream oupt) throws IOException {
 		Util.TRACE_OUTPUT("writeTypeConversion: " + this);
 		oupt.writeKind(ObjectKind.TypeConversion);
-		oupt.writeShort(OBJECT_SEQU);
+		oupt.writeSEQU(OBJECT_SEQU);
 		// *** SyntaxClass
-		oupt.writeShort(lineNumber);
+		oupt.writeLINE(lineNumber);
 		// *** Expression
 		oupt.writeType(type);
 		oupt.writeObj(backLink);
@@ -73,6 +73,28 @@ public final class UnaryOperation extends Expression {
 	@Override
 	public Expression evaluate() {
 		// Try to Compile-time Evaluate this expression
+		if (IS_SEMANTICS_CHECKED()) {
+			if (operand.evaluate() instanceof Constant constant && constant.value != null) {
+				Object value = null;
+				if (oprator == KeyWord.NOT) {
+					if (constant.value instanceof Boolean bool) value = !bool;
+				} else if (constant.value instanceof Number num) {
+					boolean neg = (oprator == KeyWord.MINUS);
+					switch(type.keyWord) {
+						case Type.T_INTEGER   -> value = (neg) ? - num.intValue() : num.intValue();
+						case Type.T_REAL      -> value = (neg) ? - num.floatValue() : num.floatValue();
+						case Type.T_LONG_REAL -> value = (neg) ? - num.doubleValue() : num.doubleValue();
+						default -> {}
+					}
+				}
+				if (value != null) {
+					Constant result = new Constant(type, value);
+					result.SET_SEMANTICS_CHECKED();
+					return (result);
+				}
+			}
+			return (this);
+		}
 		if (oprator == KeyWord.PLUS || oprator == KeyWord.MINUS) {
 			Number rhn=operand.getNumber();
 			if(rhn!=null) {
@@ -108,6 +130,7 @@ public final class UnaryOperation extends Expression {
 	@Override
 	public void buildEvaluation(Expression rightPart,CodeBuilder codeBuilder) {	setLineNumber();
 		ASSERT_SEMANTICS_CHECKED();
+		if(buildFoldedEvaluation(codeBuilder)) return;
 		operand.buildEvaluation(null,codeBuilder);
 		if (oprator == KeyWord.PLUS) ; // NOTHING
 		else if (oprator == KeyWord.NOT) {
@@ -162,9 +185,9 @@ public final class UnaryOperation extends Expression {
 	public void writeObject(AttributeOutputStream oupt) throws IOException {
 		Util.TRACE_OUTPUT("writeUnaryOperation: " + this);
 		oupt.writeKind(ObjectKind.UnaryOperation);
-		oupt.writeShort(OBJECT_SEQU);
+		oupt.writeSEQU(OBJECT_SEQU);
 		// *** SyntaxClass
-		oupt.writeShort(lineNumber);
+		oupt.writeLINE(lineNumber);
 		// *** Expression
 		oupt.writeType(type);
 		oupt.writeObj(backLink);
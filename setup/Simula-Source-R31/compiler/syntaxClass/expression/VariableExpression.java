@@ -7,6 +7,7 @@ package simula.compiler.syntaxClass.expression;
 
 import java.io.IOException;
 import java.lang.classfile.CodeBuilder;
+import java.lang.classfile.Label;
 import java.lang.classfile.constantpool.ConstantPoolBuilder;
 import java.lang.classfile.constantpool.FieldRefEntry;
 import java.lang.constant.ClassDesc;
@@ -203,6 +204,16 @@ public final class VariableExpression extends Expression {
 		return (this);
 	}
 
+	@Override
+	public Expression evaluate() {
+		// Try to Compile-time Evaluate this expression
+		if (IS_SEMANTICS_CHECKED() && meaning != null && checkedParams == null) {
+			Expression constantElement = meaning.getConstant();
+			if (constantElement instanceof Constant constant) return (constant);
+		}
+		return (this);
+	}
+
 	@Override
 	public void doChecking() {
 		if (IS_SEMANTICS_CHECKED())
@@ -299,6 +310,10 @@ public final class VariableExpression extends Expression {
 						Type formalType = formalParameter.type;
 						Expression actualParameter = actualIterator.next();
 						actualParameter.doChecking();
+						if (!(decl instanceof StandardProcedure) && (formalParameter.mode == Parameter.Mode.name
+								|| formalParameter.kind == Parameter.Kind.Procedure || formalParameter.kind == Parameter.Kind.Label))
+							// A thunk, procedure quantity or label refers to the current block instance
+							ProcedureDeclaration.markEscaping(Global.getCurrentScope());
 						if (formalType instanceof OverLoad) {
 							if(identifier.equalsIgnoreCase("addepsilon") || identifier.equalsIgnoreCase("subepsilon")) {
 								formalType = actualParameter.type; // AD'HOC for add/subepsilon
@@ -329,6 +344,8 @@ public final class VariableExpression extends Expression {
 				if(params != null) {
 					if (kind == Parameter.Kind.Array)
 						spec.nDim = params.size();
+					else // Formal procedure: all actual parameters are transmitted by name
+						ProcedureDeclaration.markEscaping(Global.getCurrentScope());
 					Iterator<Expression> actualIterator = params.iterator();
 					checkedParams = new Vector<Expression>();
 					while (actualIterator.hasNext()) {
@@ -349,6 +366,8 @@ public final class VariableExpression extends Expression {
 				VirtualSpecification vspec = (VirtualSpecification) decl;
 				this.type = vspec.type;
 				if(params != null) {
+					if (vspec.kind == VirtualSpecification.Kind.Procedure) // All actual parameters are transmitted by name
+						ProcedureDeclaration.markEscaping(Global.getCurrentScope());
 					Iterator<Expression> pactualIterator = params.iterator();
 					checkedParams = new Vector<Expression>();
 					while (pactualIterator.hasNext()) {
@@ -823,6 +842,45 @@ public final class VariableExpression extends Expression {
 		}
 	}
 
+	// ******************************************************************
+	// *** Coding: buildGoto
+	// ******************************************************************
+	/// ClassFile Coding Utility: Build a goto to the label designated by this Variable.
+	///
+	/// A local label or a switch designator S[i] whose elements are all local labels
+	/// is compiled to a direct jump without allocating or throwing any RTS_LABEL.
+	/// @param codeBuilder the CodeBuilder
+	@Override
+	public void buildGoto(CodeBuilder codeBuilder) {
+		ASSERT_SEMANTICS_CHECKED();
+		Declaration decl=meaning.declaredAs;
+		Label target = getLocalJumpTarget(codeBuilder);
+		if(target != null) {
+			setLineNumber();
+			codeBuilder.goto_(target);
+			return;
+		}
+		if(decl instanceof SwitchDeclaration swt && !remotelyAccessed && !meaning.isConnected()
+				&& checkedParams != null && checkedParams.size() == 1) {
+			setLineNumber();
+			if(swt.buildLocalJump(checkedParams.get(0), codeBuilder)) return;
+		}
+		if(decl instanceof Parameter par && par.kind == Parameter.Kind.Procedure) {
+			buildEvaluation(null,codeBuilder);
+			RTS.invokevirtual_RTS_GOTO(codeBuilder);
+		} else super.buildGoto(codeBuilder);
+	}
+
+	/// ClassFile Coding Utility: Returns the jump target when this Variable denotes
+	/// a Label of the current labelContext, otherwise null.
+	/// @param codeBuilder the CodeBuilder
+	/// @return the jump target or null
+	public Label getLocalJumpTarget(CodeBuilder codeBuilder) {
+		if(remotelyAccessed || meaning.isConnected() || checkedParams != null) return(null);
+		if(meaning.declaredAs instanceof LabelDeclaration lab) return(lab.getLocalJumpTarget(codeBuilder));
+		return(null);
+	}
+
 
 	// ***************************************************************************************
 	// *** JVM CODING: getFieldRefEntry
@@ -923,9 +981,9 @@ public final class VariableExpression extends Expression {
 	public void writeObject(AttributeOutputStream oupt) throws IOException {
 		Util.TRACE_OUTPUT("BEGIN Write VariableExpression: "+this);
 		oupt.writeKind(ObjectKind.VariableExpression);
-		oupt.writeShort(OBJECT_SEQU);
+		oupt.writeSEQU(OBJECT_SEQU);
 		// *** SyntaxClass
-		oupt.writeShort(lineNumber);
+		oupt.writeLINE(lineNumber);
 		// *** Expression
 		oupt.writeType(type);
 		oupt.writeObj(backLink);
@@ -50,6 +50,12 @@ public final class ConditionalStatement extends Statement {
 	/// The else-statement
 	private Statement elseStatement;
 
+	/// True if the then-statement is known to contain no labels
+	private boolean thenIsLabelFree;
+
+	/// True if the else-statement is known to contain no labels
+	private boolean elseIsLabelFree;
+
 	/// Create a new ConditionalStatement.
 	/// @param line the source line number
 	ConditionalStatement(final int line) {
@@ -57,15 +63,20 @@ public final class ConditionalStatement extends Statement {
 		condition = Expression.expectExpression();
 		Parse.expect(KeyWord.THEN);
 		Statement elseStatement = null;
+		int nLabels = labelCount;
 		if (Parse.accept(KeyWord.ELSE)) {
 			thenStatement = new DummyStatement(Parse.currentToken.lineNumber);
+			thenIsLabelFree = true;
 			elseStatement = Statement.expectStatement();
 		} else {
 		    thenStatement = Statement.expectStatement();
+		    thenIsLabelFree = (labelCount == nLabels);
+		    nLabels = labelCount;
 		    if (Parse.accept(KeyWord.ELSE)) {
 			    elseStatement = Statement.expectStatement();
 		    }
 		}
+		elseIsLabelFree = (labelCount == nLabels);
 		this.elseStatement=elseStatement;
 		if (Option.internal.TRACE_PARSE) Util.TRACE("Line "+lineNumber+": IfStatement: "+this);
 	}
@@ -116,6 +127,20 @@ public final class ConditionalStatement extends Statement {
 	@Override
 	public void buildByteCode(CodeBuilder codeBuilder) {
 		ASSERT_SEMANTICS_CHECKED();
+		Boolean value = condition.getBooleanConstant();
+		if(value != null) {
+			// Dead branch elimination. A branch containing labels is always built
+			// since its labels may be the target of a goto from outside.
+			if(value) {
+				if(elseStatement == null || elseIsLabelFree) {
+					thenStatement.buildByteCode(codeBuilder);
+					return;
+				}
+			} else if(thenIsLabelFree) {
+				if(elseStatement != null) elseStatement.buildByteCode(codeBuilder);
+				return;
+			}
+		}
 		condition.buildEvaluation(null,codeBuilder);
 		Label elseLabel = codeBuilder.newLabel();
 		codeBuilder.ifeq(elseLabel);
@@ -158,9 +183,9 @@ public final class ConditionalStatement extends Statement {
 	public void writeObject(AttributeOutputStream oupt) throws IOException {
 		Util.TRACE_OUTPUT("writeConditionalStatement: " + this);
 		oupt.writeKind(ObjectKind.ConditionalStatement);
-		oupt.writeShort(OBJECT_SEQU);
+		oupt.writeSEQU(OBJECT_SEQU);
 		// *** SyntaxClass
-		oupt.writeShort(lineNumber);
+		oupt.writeLINE(lineNumber);
 		// *** ConditionalStatement
 		oupt.writeObj(condition);
 		oupt.writeObj(thenStatement);
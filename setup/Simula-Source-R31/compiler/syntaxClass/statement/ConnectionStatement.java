@@ -10,7 +10,10 @@ import java.lang.classfile.CodeBuilder;
 import java.lang.classfile.Label;
 import java.lang.classfile.constantpool.ConstantPoolBuilder;
 import java.lang.classfile.constantpool.FieldRefEntry;
+import java.lang.classfile.instruction.SwitchCase;
 import java.lang.constant.ClassDesc;
+import java.util.Vector;
+
 import simula.compiler.AttributeInputStream;
 import simula.compiler.AttributeOutputStream;
 import simula.compiler.JavaSourceFileCoder;
@@ -29,6 +32,7 @@ import simula.compiler.utilities.KeyWord;
 import simula.compiler.utilities.ObjectKind;
 import simula.compiler.utilities.ObjectList;
 import simula.compiler.utilities.Option;
+import simula.compiler.utilities.RTS;
 import simula.compiler.utilities.Util;
 
 /// Connection Statement.
@@ -79,6 +83,20 @@ import simula.compiler.utilities.Util;
 ///         <b>else</b> <b>if</b>(x <b>instanceof</b> RTS_Outfile) ((RTS_Outfile)x).outtext(t);
 ///         <b>else</b> t=null;
 /// 
+/// When compiling directly to ClassFiles, an inspect statement with many possible when-parts
+/// (see TYPE_SWITCH_THRESHOLD) is instead compiled to a type switch, i.e. an invokedynamic
+/// SwitchBootstraps.typeSwitch followed by a tableswitch on the resulting label index:
+/// 
+///      4) <b>switch</b>(typeSwitch(x, 0)) {   <b>// labels: RTS_Infile, RTS_Outfile, ...</b>
+///            <b>case</b> 0: t=((RTS_Infile)x).intext(12); <b>break</b>;
+///            <b>case</b> 1: ((RTS_Outfile)x).outtext(t); <b>break</b>;
+///            ...
+///            <b>default</b>: t=null;
+///         }
+/// 
+/// The typeSwitch bootstrap returns the index of the first label the object is an instance of,
+/// thus the Simula rule that the first matching when-clause is selected is preserved.
+/// 
 /// </pre>
 /// Link to GitHub: <a href=
 /// "https://github.com/portablesimula/EclipseWorkSpaces/blob/main/SimulaCompiler2/Simula/src/simula/compiler/syntaxClass/statement/ConnectionStatement.java">
@@ -106,6 +124,10 @@ public final class ConnectionStatement extends Statement {
 	/// True if this connection statement contains ConnectionWhenPart(s).
 	private boolean hasWhenPart;
 	
+	/// The minimum number of possible when-parts for which a type switch is generated
+	/// instead of a chain of instanceof tests.
+	private static final int TYPE_SWITCH_THRESHOLD = 4;
+	
 	/// Utility to help generate unique identifiers to the inspected variable.
 	private static int SEQUX = 1;
 	
@@ -188,7 +210,9 @@ public final class ConnectionStatement extends Statement {
 		if (otherwise != null) otherwise.doChecking();
 		
 		inspectedVariable.identifier = inspectVariableDeclaration.getFieldIdentifier();
+		String oldIdentifier = inspectVariableDeclaration.identifier;
 		inspectVariableDeclaration.identifier = inspectedVariable.identifier;
+		inspectVariableDeclaration.declaredIn.declarationList.identifierModified(inspectVariableDeclaration, oldIdentifier);
 		SET_SEMANTICS_CHECKED();
 	}
 
@@ -235,8 +259,14 @@ public final class ConnectionStatement extends Statement {
 			} else codeBuilder.ifnull(endLabel);
 		}
 		
-		for(ConnectionDoPart part:connectionPart) 
-			part.buildByteCode(codeBuilder);
+		Vector<ConnectionWhenPart> whenParts = getPossibleWhenParts();
+		if (whenParts.size() >= TYPE_SWITCH_THRESHOLD) {
+			otwLabel = (otherwise != null) ? codeBuilder.newLabel() : endLabel;
+			buildTypeSwitch(whenParts, otwLabel, codeBuilder);
+		} else {
+			for(ConnectionDoPart part:connectionPart) 
+				part.buildByteCode(codeBuilder);
+		}
 		
 		if (otherwise != null) {
 			if(otwLabel != null) {
@@ -248,6 +278,46 @@ public final class ConnectionStatement extends Statement {
 		codeBuilder.labelBinding(endLabel);
 	}
 
+
+	/// Returns the when-parts that are not removed as impossible.
+	/// @return the possible when-parts in source order
+	private Vector<ConnectionWhenPart> getPossibleWhenParts() {
+		Vector<ConnectionWhenPart> whenParts = new Vector<ConnectionWhenPart>();
+		if (hasWhenPart) {
+			for(ConnectionDoPart part:connectionPart) {
+				ConnectionWhenPart whenPart = (ConnectionWhenPart) part;
+				if (!whenPart.impossibleWhenPart) whenParts.add(whenPart);
+			}
+		}
+		return whenParts;
+	}
+
+	/// Build a type switch selecting one of the when-parts.
+	/// 
+	/// The case labels are the when-part classes in source order. Since typeSwitch returns
+	/// the first matching label, a when-part for a subclass following a when-part for one of
+	/// its prefixes is never selected; exactly as with the instanceof chain.
+	/// @param whenParts the possible when-parts
+	/// @param defaultLabel target when no when-part matches or the inspected object is none
+	/// @param codeBuilder the codeBuilder to use
+	private void buildTypeSwitch(Vector<ConnectionWhenPart> whenParts, Label defaultLabel, CodeBuilder codeBuilder) {
+		int n = whenParts.size();
+		ClassDesc[] labels = new ClassDesc[n];
+		Vector<SwitchCase> switchCases = new Vector<SwitchCase>();
+		for(int i=0;i<n;i++) {
+			labels[i] = whenParts.get(i).classDeclaration.getClassDesc();
+			switchCases.add(SwitchCase.of(i, codeBuilder.newLabel()));
+		}
+		inspectedVariable.buildEvaluation(null, codeBuilder);
+		codeBuilder.iconst_0();
+		RTS.invokedynamic_typeSwitch(labels, codeBuilder);
+		codeBuilder.tableswitch(0, n-1, defaultLabel, switchCases);
+		for(int i=0;i<n;i++) {
+			codeBuilder.labelBinding(switchCases.get(i).target());
+			whenParts.get(i).connectionBlock.buildByteCode(codeBuilder);
+			codeBuilder.goto_(endLabel);
+		}
+	}
 	
 	@Override
 	public void printTree(final int indent, final Object head) {
@@ -289,9 +359,9 @@ public final class ConnectionStatement extends Statement {
 	public void writeObject(AttributeOutputStream oupt) throws IOException {
 		Util.TRACE_OUTPUT("writeConnectionStatement: " + this);
 		oupt.writeKind(ObjectKind.ConnectionStatement);
-		oupt.writeShort(OBJECT_SEQU);
+		oupt.writeSEQU(OBJECT_SEQU);
 		// *** SyntaxClass
-		oupt.writeShort(lineNumber);
+		oupt.writeLINE(lineNumber);
 		// *** ConnectionStatement
 		oupt.writeObj(objectExpression);
 		oupt.writeObj(inspectedVariable);
@@ -119,9 +119,9 @@ public final class ConnectionWhenPart extends ConnectionDoPart {
 	public void writeObject(AttributeOutputStream oupt) throws IOException {
 		Util.TRACE_OUTPUT("writeWhenPart: " + this);
 		oupt.writeKind(ObjectKind.ConnectionWhenPart);
-		oupt.writeShort(OBJECT_SEQU);
+		oupt.writeSEQU(OBJECT_SEQU);
 		// *** SyntaxClass
-		oupt.writeShort(lineNumber);
+		oupt.writeLINE(lineNumber);
 		// *** ConnectionWhenPart
 		oupt.writeString(classIdentifier);
 		oupt.writeObj(connectionStatement);
@@ -11,14 +11,10 @@ import simula.compiler.AttributeInputStream;
 import simula.compiler.AttributeOutputStream;
 import simula.compiler.JavaSourceFileCoder;
 import simula.compiler.syntaxClass.Type;
-import simula.compiler.syntaxClass.declaration.Parameter;
 import simula.compiler.syntaxClass.expression.Expression;
-import simula.compiler.syntaxClass.expression.VariableExpression;
 import simula.compiler.utilities.Global;
-import simula.compiler.utilities.Meaning;
 import simula.compiler.utilities.ObjectKind;
 import simula.compiler.utilities.Option;
-import simula.compiler.utilities.RTS;
 import simula.compiler.utilities.Util;
 
 /// Goto Statement.
@@ -36,6 +32,11 @@ import simula.compiler.utilities.Util;
 /// exception handling together with byte code engineering to re-introduce goto in the Java Language.
 /// This is done by generating Java-code which is prepared for Byte Code Engineering.
 /// 
+/// When generating ClassFiles directly, a goto whose designational expression resolves to labels
+/// of the current '_STM' method (a local label, 'if b then L1 else L2', or a switch designator
+/// S[i] over local labels) is compiled to a plain JVM goto or tableswitch. Only non-local
+/// jumps throw the RTS_LABEL.
+/// 
 /// See <a href="https://portablesimula.github.io/github.io/doc/SimulaRTS.pdf">Mapping Simula to Java (runtime design)</a> 
 /// Sect. 6.1 Goto Statement
 /// 
@@ -78,22 +79,7 @@ public final class GotoStatement extends Statement {
 	
 	@Override
 	public void buildByteCode(CodeBuilder codeBuilder) {
-		if(! labelIsParameterProcedure()) codeBuilder.aload(0);
-		label.buildEvaluation(null,codeBuilder);
-		RTS.invokevirtual_RTS_GOTO(codeBuilder);
-	}
-	
-	/// Check if label is a parameter procedure.
-	/// @return true: if label is a parameter procedure.
-	private boolean labelIsParameterProcedure() {
-		if(label instanceof VariableExpression var) {
-			Meaning meaning = var.meaning;
-			if(meaning.declaredAs instanceof Parameter par) {
-				if(par.kind == Parameter.Kind.Procedure)
-					return true;
-			}
-		}
-		return false;
+		label.buildGoto(codeBuilder);
 	}
 
 	@Override
@@ -119,9 +105,9 @@ public final class GotoStatement extends Statement {
 	public void writeObject(AttributeOutputStream oupt) throws IOException {
 		Util.TRACE_OUTPUT("writeGotoStatement: " + this);
 		oupt.writeKind(ObjectKind.GotoStatement);
-		oupt.writeShort(OBJECT_SEQU);
+		oupt.writeSEQU(OBJECT_SEQU);
 		// *** SyntaxClass
-		oupt.writeShort(lineNumber);
+		oupt.writeLINE(lineNumber);
 		// *** GotoStatement
 		oupt.writeObj(label);
 	}
@@ -51,7 +51,7 @@ public final class InlineStatement extends Statement {
 		if(kind.equalsIgnoreCase("detach")) JavaSourceFileCoder.code("detach();","Process'detach");
 		else if(kind.equalsIgnoreCase("terminate")) JavaSourceFileCoder.code("terminate();","Process'terminate");
 		else if(kind.equals("try")) JavaSourceFileCoder.code("try {");
-		else if(kind.equals("catch")) JavaSourceFileCoder.code("} catch(RuntimeException e) { _CUR=this; _onError(e,onError_0()); }");
+		else if(kind.equals("catch")) JavaSourceFileCoder.code("} catch(RuntimeException e) { _RTX._CUR=this; _onError(e,onError_0()); }");
 		else Util.IERR();
 	}
 
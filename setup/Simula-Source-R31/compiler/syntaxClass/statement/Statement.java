@@ -55,6 +55,10 @@ import simula.compiler.utilities.Util;
 /// @author Øystein Myhre Andersen
 public abstract class Statement extends SyntaxClass {
 	
+	/// The number of labels parsed so far.
+	/// Used to decide whether a parsed statement is free of labels.
+	static int labelCount;
+	
 	/// Create a new Statement.
 	/// @param line the source line number
 	protected Statement(int line) {
@@ -73,7 +77,7 @@ public abstract class Statement extends SyntaxClass {
 			if (ident != null) {
 				if (labels == null)	labels = new ObjectList<LabelDeclaration>();
 				LabelDeclaration label = new LabelDeclaration(ident);
-				labels.add(label);
+				labels.add(label); labelCount++;
 				DeclarationScope scope = Global.getCurrentScope();
 				if(scope.labelList == null) scope.labelList = new LabelList(scope); 
 				scope.labelList.add(label);
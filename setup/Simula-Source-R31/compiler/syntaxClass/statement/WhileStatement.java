@@ -73,7 +73,7 @@ public final class WhileStatement extends Statement {
 		JavaSourceFileCoder.code("while(" + condition.toJavaCode() + ") {");
 		doStatement.doJavaCoding();
 		if(isWhileTrueDo())
-			JavaSourceFileCoder.code("if(_CTX==null) break; // Ad'Hoc to prevent JAVAC error: 'dead code' and terminate");
+			JavaSourceFileCoder.code("if(_RTX==null) break; // Ad'Hoc to prevent JAVAC error: 'dead code' and terminate");
 		JavaSourceFileCoder.code("}");
 	}
 	
@@ -121,9 +121,9 @@ public final class WhileStatement extends Statement {
 	public void writeObject(AttributeOutputStream oupt) throws IOException {
 		Util.TRACE_OUTPUT("writeWhileStatement: " + this);
 		oupt.writeKind(ObjectKind.WhileStatement);
-		oupt.writeShort(OBJECT_SEQU);
+		oupt.writeSEQU(OBJECT_SEQU);
 		// *** SyntaxClass
-		oupt.writeShort(lineNumber);
+		oupt.writeLINE(lineNumber);
 		// *** WhileStatement
 		oupt.writeObj(condition);
 		oupt.writeObj(doStatement);
@@ -45,23 +45,34 @@ public abstract class ClassFileTransform {
 		inpt.close();
 		if (Option.internal.TRACE_REPAIRING_INPUT)
 			Util.TRACE("ClassFileTransform.doRepairSingleByteCode: Input=" + inputFileName);
+		byte[] bytes2 = doRepairSingleByteCode(bytes);
+		if (Option.internal.TRACE_REPAIRING_OUTPUT)
+			Util.TRACE("ClassFileTransform.doRepairSingleByteCode: Output=" + outputFileName);
+		FileOutputStream oupt = new FileOutputStream(outputFileName);
+		oupt.write(bytes2);
+		oupt.flush();
+		oupt.close();
+		if (Option.internal.LIST_REPAIRED_INSTRUCTION_LIST)
+			Util.doListClassFile(outputFileName);
+	}
+
+	/// Repair a single class file held in memory.
+	/// 
+	/// The bytes are parsed into a [ClassModel], and the method '_STM' is transformed
+	/// using the [SimulaCodeTransform].
+	/// @param bytes the class file bytes
+	/// @return the repaired class file bytes
+	public static byte[] doRepairSingleByteCode(final byte[] bytes) {
 		ClassFile cf = ClassFile.of();
 		ClassModel classModel = cf.parse(bytes);
 		
 		Predicate<MethodModel> filter = model -> (model.methodName().equalsString("_STM"));
 		ClassTransform transform = ClassTransform.transformingMethodBodies(filter, new SimulaCodeTransform());
-		if (transform != null) {
-			byte[] bytes2 = cf.transformClass(classModel, transform);
-			if (Option.internal.TRACE_REPAIRING_OUTPUT)
-				Util.TRACE("ClassFileTransform.doRepairSingleByteCode: Output=" + outputFileName);
-			FileOutputStream oupt = new FileOutputStream(outputFileName);
-			oupt.write(bytes2);
-			oupt.flush();
-			oupt.close();
-		} else
+		if (transform == null) {
 			Util.IERR("ClassFileTransform.doRepairSingleByteCode: _STM Method not found");
-		if (Option.internal.LIST_REPAIRED_INSTRUCTION_LIST)
-			Util.doListClassFile(outputFileName);
+			return (bytes);
+		}
+		return (cf.transformClass(classModel, transform));
 	}
 
 }
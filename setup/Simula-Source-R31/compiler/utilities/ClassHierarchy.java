@@ -1,6 +1,7 @@
 package simula.compiler.utilities;
 
 import java.io.IOException;
+import java.lang.classfile.ClassFile;
 import java.lang.classfile.ClassHierarchyResolver;
 import java.lang.constant.ClassDesc;
 import java.lang.constant.ConstantDescs;
@@ -91,6 +92,30 @@ public abstract class ClassHierarchy {
 		return res;
 	}
 
+	/// Returns the ClassFile context used by the class file builders of Simula classes,
+	/// procedures, blocks, prefixed blocks and thunks.
+	///
+	/// When stack maps are deferred, the class files are built without stack maps.
+	/// The stack maps are then generated in parallel by JarFileBuilder.close, when all
+	/// generated classes are in the classToSuperClass map.
+	/// @return the ClassFile context.
+	public static ClassFile getClassFile() {
+		if(deferStackMaps())
+			return ClassFile.of(ClassFile.ClassHierarchyResolverOption.of(getResolver()), ClassFile.StackMapsOption.DROP_STACK_MAPS);
+		return ClassFile.of(ClassFile.ClassHierarchyResolverOption.of(getResolver()));
+	}
+
+	/// Returns true if stack map generation is deferred until all class files are built.
+	/// This is only done with the option -parallelStackMaps, when the class files are
+	/// collected in a .jar file.
+	/// @return true if stack map generation is deferred.
+	public static boolean deferStackMaps() {
+		return Option.parallelStackMaps
+			&& Option.compilerMode == Option.CompilerMode.directClassFiles
+			&& Option.parallelism > 1
+			&& !Option.internal.LIST_GENERATED_CLASS_FILES;
+	}
+
 	/// Add a class to the classToSuperClass map.
 	/// @param cld a class
 	/// @param sup a super class
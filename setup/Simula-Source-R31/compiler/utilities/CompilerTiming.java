@@ -0,0 +1,427 @@
+/// (CC) This work is licensed under a Creative Commons
+/// Attribution 4.0 International License.
+///
+/// You find a copy of the License on the following
+/// page: https://creativecommons.org/licenses/by/4.0/
+package simula.compiler.utilities;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Vector;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/// Compiler Timing.
+///
+/// Measures the phases of a compilation: scanning and parsing, semantic checking,
+/// code generation, the Java compiler and byte code engineering in viaJavaSource mode,
+/// the attribute file and the .jar file. For each phase the wall time, the CPU time
+/// and the number of bytes allocated are recorded. In addition, the time spent in each
+/// buildClassFile is recorded, exclusive of nested class files.
+///
+/// CPU time and allocation are those of the compiling thread. Work done on other
+/// threads, e.g. the parallel stack map generation, is only visible in the wall time.
+/// The thread bean's CPU time and allocation measurement is only enabled when
+/// Option.timing is set.
+///
+/// Some work is done on demand within other phases, e.g. attribute files are read
+/// while parsing the external declarations, and their segments while checking. Such
+/// work is bracketed by beginBooking and endBooking, and is booked under its own phase,
+/// e.g. 'loading', instead of the phase in which it happens.
+///
+/// When Option.timing is set, the measurements are written as a JSON report
+/// to the output directory, named 'sourceName-timing.json'.
+///
+/// The phases and class files are also emitted as the JFR events 'simula.compiler.Phase'
+/// and 'simula.compiler.ClassFile', whether Option.timing is set or not. The event classes
+/// are not touched until the Flight Recorder is initialized, since their first use
+/// initializes the JVM's event infrastructure. They cost next to nothing unless a flight
+/// recording is running. E.g.
+///
+/// 		java -XX:StartFlightRecording:filename=compile.jfr -jar simula.jar ...
+///
+/// @author Øystein Myhre Andersen
+public final class CompilerTiming {
+
+	/// The number of class files listed in the report.
+	private static final int TOP_N = 20;
+
+	/// Holder of the thread bean, used to read CPU time and allocated bytes.
+	/// Initialized when first used, i.e. when Option.timing is set.
+	private static final class Bean {
+		/// The thread bean or null.
+		static final com.sun.management.ThreadMXBean THREAD_BEAN = threadBean();
+	}
+
+	/// The completed phases of the current compilation.
+	private static final Vector<Phase> phases = new Vector<Phase>();
+
+	/// The built class files of the current compilation.
+	private static final Vector<ClassFileTime> classFiles = new Vector<ClassFileTime>();
+
+	/// The current phase, or null.
+	private static Phase currentPhase;
+
+	/// The JFR event of the current phase, or null.
+	private static PhaseEvent currentEvent;
+
+	/// The class files being built.
+	private static final ArrayDeque<ClassFileFrame> classFileStack = new ArrayDeque<ClassFileFrame>();
+
+	/// The wall time at the start of the compilation.
+	private static long startNanos;
+
+	/// The work being booked under another phase, or null. See beginBooking.
+	private static Phase booking;
+
+	/// The nesting depth of beginBooking.
+	private static int bookingDepth;
+
+	/// The work booked under other phases, by phase name.
+	private static final HashMap<String, Phase> booked = new HashMap<String, Phase>();
+
+	/// Default constructor: Not used.
+	private CompilerTiming() {}
+
+	/// Utility: Get the thread bean, if it can measure CPU time and allocation.
+	/// @return the thread bean or null
+	private static com.sun.management.ThreadMXBean threadBean() {
+		try {
+			if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean bean) {
+				if (bean.isCurrentThreadCpuTimeSupported() && bean.isThreadAllocatedMemorySupported()) {
+					bean.setThreadCpuTimeEnabled(true);
+					bean.setThreadAllocatedMemoryEnabled(true);
+					return (bean);
+				}
+			}
+		} catch (UnsupportedOperationException e) {}
+		return (null);
+	}
+
+	/// The current thread's CPU time.
+	/// @return the CPU time in nanoseconds, or 0 if not supported
+	private static long cpuNanos() {
+		com.sun.management.ThreadMXBean threadBean = Bean.THREAD_BEAN;
+		return ((threadBean == null) ? 0 : threadBean.getCurrentThreadCpuTime());
+	}
+
+	/// The number of bytes allocated by the current thread.
+	/// @return the allocated bytes, or 0 if not supported
+	private static long allocatedBytes() {
+		com.sun.management.ThreadMXBean threadBean = Bean.THREAD_BEAN;
+		return ((threadBean == null) ? 0 : threadBean.getCurrentThreadAllocatedBytes());
+	}
+
+	/// Begin the timing of a compilation.
+	public static void begin() {
+		phases.clear();
+		classFiles.clear();
+		classFileStack.clear();
+		currentPhase = null;
+		currentEvent = null;
+		booking = null;
+		bookingDepth = 0;
+		booked.clear();
+		if (Option.timing) cpuNanos(); // Initialize the thread bean outside the phases
+		startNanos = System.nanoTime();
+	}
+
+	/// Begin a phase. The current phase, if any, is ended.
+	/// @param name the phase name
+	public static void beginPhase(final String name) {
+		endPhase();
+		if (FlightRecorder.isInitialized()) {
+			PhaseEvent event = new PhaseEvent();
+			if (event.isEnabled()) {
+				event.source = Global.sourceName;
+				event.phase = name;
+				event.begin();
+				currentEvent = event;
+			}
+		}
+		if (Option.timing)
+			currentPhase = new Phase(name, System.nanoTime(), cpuNanos(), allocatedBytes());
+	}
+
+	/// End the current phase, if any.
+	public static void endPhase() {
+		if (currentPhase != null) {
+			currentPhase.end(System.nanoTime(), cpuNanos(), allocatedBytes());
+			phases.add(currentPhase);
+		}
+		if (currentEvent != null) {
+			currentEvent.end();
+			currentEvent.commit();
+		}
+		currentPhase = null;
+		currentEvent = null;
+	}
+
+	/// Begin work which is booked under the given phase instead of the current phase.
+	/// 
+	/// Nested calls are booked under the outermost.
+	/// @param name the phase name
+	public static void beginBooking(final String name) {
+		if (bookingDepth++ == 0 && Option.timing)
+			booking = new Phase(name, System.nanoTime(), cpuNanos(), allocatedBytes());
+	}
+
+	/// End work begun by beginBooking.
+	/// 
+	/// The work is subtracted from the current phase and added to the phase it is booked under.
+	public static void endBooking() {
+		if (--bookingDepth > 0 || booking == null)
+			return;
+		Phase work = booking;
+		booking = null;
+		work.end(System.nanoTime(), cpuNanos(), allocatedBytes());
+		if (currentPhase != null)
+			currentPhase.add(work);
+		Phase total = booked.get(work.name);
+		if (total == null) booked.put(work.name, work);
+		else total.add(work);
+	}
+
+	/// Begin the timing of a buildClassFile.
+	public static void beginClassFile() {
+		ClassFileEvent event = null;
+		if (FlightRecorder.isInitialized()) {
+			event = new ClassFileEvent();
+			event.begin();
+		}
+		classFileStack.push(new ClassFileFrame(event, System.nanoTime()));
+	}
+
+	/// End the timing of a buildClassFile.
+	/// @param className the class name
+	/// @param bytes the class file bytes, may be null
+	public static void endClassFile(final String className, final byte[] bytes) {
+		ClassFileFrame frame = classFileStack.pop();
+		long nanos = System.nanoTime() - frame.startNanos;
+		long selfNanos = nanos - frame.nestedNanos;
+		if (!classFileStack.isEmpty()) classFileStack.peek().nestedNanos += nanos;
+		int size = (bytes == null) ? 0 : bytes.length;
+		ClassFileEvent event = frame.event;
+		if (event != null) {
+			event.end();
+			if (event.shouldCommit()) {
+				event.className = className;
+				event.selfTime = selfNanos;
+				event.size = size;
+				event.commit();
+			}
+		}
+		if (Option.timing)
+			classFiles.add(new ClassFileTime(className, selfNanos, size));
+	}
+
+	/// End the timing of a compilation and write the report if Option.timing is set.
+	/// @param outputDir the directory to write the report to
+	public static void end(final File outputDir) {
+		endPhase();
+		if (!Option.timing) return;
+		for (Phase work : booked.values()) {
+			Phase phase = null;
+			for (Phase p : phases)
+				if (p.name.equals(work.name)) phase = p;
+			if (phase == null) phases.add(work);
+			else phase.add(work);
+		}
+		booked.clear();
+		long totalNanos = System.nanoTime() - startNanos;
+		File reportFile = new File(outputDir, Global.sourceName + "-timing.json");
+		reportFile.getParentFile().mkdirs();
+		try (Writer writer = new OutputStreamWriter(new FileOutputStream(reportFile), StandardCharsets.UTF_8)) {
+			writer.write(edReport(totalNanos));
+		} catch (IOException e) {
+			Util.warning("Unable to write timing report " + reportFile + ": " + e);
+			return;
+		}
+		Util.println("Compiler timing: " + (totalNanos / 1000000) + " ms, report written to: \"" + reportFile + "\"");
+	}
+
+	/// Edit the JSON report.
+	/// @param totalNanos the total wall time
+	/// @return the report
+	private static String edReport(final long totalNanos) {
+		StringBuilder sb = new StringBuilder();
+		sb.append("{\n");
+		sb.append("  \"source\": ").append(quote(Global.sourceName)).append(",\n");
+		sb.append("  \"release\": ").append(quote(Global.simulaReleaseID)).append(",\n");
+		sb.append("  \"compilerMode\": ").append(quote("" + Option.compilerMode)).append(",\n");
+		sb.append("  \"wallNanos\": ").append(totalNanos).append(",\n");
+		sb.append("  \"phases\": [");
+		for (int i = 0; i < phases.size(); i++) {
+			Phase phase = phases.get(i);
+			sb.append((i == 0) ? "\n" : ",\n");
+			sb.append("    { \"phase\": ").append(quote(phase.name));
+			sb.append(", \"wallNanos\": ").append(phase.wallNanos);
+			sb.append(", \"cpuNanos\": ").append(phase.cpuNanos);
+			sb.append(", \"allocatedBytes\": ").append(phase.allocatedBytes).append(" }");
+		}
+		sb.append("\n  ],\n");
+		Vector<ClassFileTime> slowest = new Vector<ClassFileTime>(classFiles);
+		slowest.sort((a, b) -> Long.compare(b.selfNanos, a.selfNanos));
+		sb.append("  \"classFiles\": ").append(classFiles.size()).append(",\n");
+		sb.append("  \"slowestClassFiles\": [");
+		for (int i = 0; i < slowest.size() && i < TOP_N; i++) {
+			ClassFileTime classFile = slowest.get(i);
+			sb.append((i == 0) ? "\n" : ",\n");
+			sb.append("    { \"class\": ").append(quote(classFile.className));
+			sb.append(", \"selfNanos\": ").append(classFile.selfNanos);
+			sb.append(", \"size\": ").append(classFile.size).append(" }");
+		}
+		sb.append("\n  ]\n");
+		sb.append("}\n");
+		return (sb.toString());
+	}
+
+	/// Utility: Edit a JSON string literal.
+	/// @param s the string
+	/// @return the quoted string
+	private static String quote(final String s) {
+		if (s == null) return ("null");
+		StringBuilder sb = new StringBuilder("\"");
+		for (int i = 0; i < s.length(); i++) {
+			char c = s.charAt(i);
+			switch (c) {
+				case '"' -> sb.append("\\\"");
+				case '\\' -> sb.append("\\\\");
+				case '\n' -> sb.append("\\n");
+				default -> {
+					if (c < ' ') sb.append(String.format("\\u%04x", (int) c));
+					else sb.append(c);
+				}
+			}
+		}
+		return (sb.append('"').toString());
+	}
+
+	// ***************************************************************
+	// *** Measurements
+	// ***************************************************************
+
+	/// A measured phase.
+	private static final class Phase {
+		/// The phase name.
+		final String name;
+		/// The wall time, at first the start time.
+		long wallNanos;
+		/// The CPU time, at first the start time.
+		long cpuNanos;
+		/// The allocated bytes, at first the start count.
+		long allocatedBytes;
+
+		/// Create a new Phase.
+		/// @param name the phase name
+		/// @param wallNanos the start wall time
+		/// @param cpuNanos the start CPU time
+		/// @param allocatedBytes the start allocation count
+		Phase(final String name, final long wallNanos, final long cpuNanos, final long allocatedBytes) {
+			this.name = name;
+			this.wallNanos = wallNanos;
+			this.cpuNanos = cpuNanos;
+			this.allocatedBytes = allocatedBytes;
+		}
+
+		/// End this phase.
+		/// @param wallNanos the end wall time
+		/// @param cpuNanos the end CPU time
+		/// @param allocatedBytes the end allocation count
+		void end(final long wallNanos, final long cpuNanos, final long allocatedBytes) {
+			this.wallNanos = wallNanos - this.wallNanos;
+			this.cpuNanos = cpuNanos - this.cpuNanos;
+			this.allocatedBytes = allocatedBytes - this.allocatedBytes;
+		}
+
+		/// Add ended work to this phase.
+		/// 
+		/// If this phase is ended, the work is included in it. If not, its fields hold the
+		/// start values, and the work is excluded from it.
+		/// @param work the ended work
+		void add(final Phase work) {
+			this.wallNanos += work.wallNanos;
+			this.cpuNanos += work.cpuNanos;
+			this.allocatedBytes += work.allocatedBytes;
+		}
+	}
+
+	/// A buildClassFile in progress.
+	private static final class ClassFileFrame {
+		/// The JFR event, or null.
+		final ClassFileEvent event;
+		/// The start wall time.
+		final long startNanos;
+		/// The wall time of nested class files.
+		long nestedNanos;
+
+		/// Create a new ClassFileFrame.
+		/// @param event the JFR event, or null
+		/// @param startNanos the start wall time
+		ClassFileFrame(final ClassFileEvent event, final long startNanos) {
+			this.event = event;
+			this.startNanos = startNanos;
+		}
+	}
+
+	/// A measured buildClassFile.
+	/// @param className the class name
+	/// @param selfNanos the wall time, exclusive of nested class files
+	/// @param size the class file size
+	private record ClassFileTime(String className, long selfNanos, int size) {}
+
+	// ***************************************************************
+	// *** JFR Events
+	// ***************************************************************
+
+	/// JFR event: A compiler phase.
+	@Name("simula.compiler.Phase")
+	@Label("Simula Compiler Phase")
+	@Category({ "Simula", "Compiler" })
+	@Description("A phase of the Simula compiler")
+	static final class PhaseEvent extends Event {
+		/// The source name.
+		@Label("Source")
+		String source;
+
+		/// The phase name.
+		@Label("Phase")
+		String phase;
+	}
+
+	/// JFR event: A class file is built.
+	@Name("simula.compiler.ClassFile")
+	@Label("Simula Compiler Class File")
+	@Category({ "Simula", "Compiler" })
+	@Description("A class file built by the Simula compiler")
+	static final class ClassFileEvent extends Event {
+		/// The class name.
+		@Label("Class Name")
+		String className;
+
+		/// The time spent, exclusive of nested class files.
+		@Label("Self Time")
+		@Timespan(Timespan.NANOSECONDS)
+		long selfTime;
+
+		/// The class file size.
+		@Label("Size")
+		@DataAmount
+		int size;
+	}
+
+}
@@ -6,16 +6,32 @@
 package simula.compiler.utilities;
 
 import java.io.IOException;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.ListIterator;
+import java.util.Spliterator;
 import java.util.Vector;
+import java.util.function.Consumer;
 
 import simula.compiler.AttributeInputStream;
 import simula.compiler.AttributeOutputStream;
+import simula.compiler.syntaxClass.declaration.ConnectionBlock;
 import simula.compiler.syntaxClass.declaration.Declaration;
+import simula.compiler.syntaxClass.declaration.DeclarationScope;
+import simula.compiler.syntaxClass.declaration.InspectVariableDeclaration;
 
 /// Declaration List.
 /// 
 /// This is a utility class to hold local declaration lists in declaration scopes.
 /// 
+/// The declarations are also held in a hash table, keyed by Util.lookupKey, which is
+/// rebuilt on demand after the list is modified.
+/// 
+/// A DeclarationList read from an indexed attribute file is lazy: Its declarations are
+/// not read until they are needed. The method find reads only the declaration found,
+/// while all other access to the list reads all its declarations.
+/// 
 /// Link to GitHub: <a href=
 /// "https://github.com/portablesimula/EclipseWorkSpaces/blob/main/SimulaCompiler2/Simula/src/simula/compiler/utilities/DeclarationList.java"><b>Source File</b></a>.
 /// 
@@ -26,6 +42,30 @@ public final class DeclarationList extends Vector<Declaration> {
 	/// Identifier.
 	public final String identifier;
 
+	/// The hash table, or null when it must be rebuilt.
+	private HashMap<String,Declaration> index;
+
+	/// The modCount when the hash table was built.
+	private int indexModCount;
+
+	/// The value of Option.CaseSensitive when the hash table was built.
+	private boolean indexCaseSensitive;
+
+	/// The attribute input stream of a lazy list, otherwise null.
+	private AttributeInputStream lazyInput;
+
+	/// The declaration identifiers of a lazy list.
+	private String[] lazyNames;
+
+	/// The declaration segments of a lazy list.
+	private AttributeInputStream.Segment[] lazySegments;
+
+	/// The hash table of a lazy list, mapping Util.lookupKey to declaration number, or null when it must be built.
+	private HashMap<String,Integer> lazyIndex;
+
+	/// The scope in which declarations are checked when they are read, or null.
+	private DeclarationScope checkingScope;
+
 	/// Create a new DeclarationList.
 	/// @param identifier the given identifier
 	public DeclarationList(String identifier) {
@@ -33,26 +73,156 @@ public final class DeclarationList extends Vector<Declaration> {
 	}
 	
 	/// Find a declaration in this DeclarationList
-	/// @param identifier declaration identifier
+	/// @param identifier declaration identifier, case folded unless Option.CaseSensitive
 	/// @return the resulting Declaration
 	public Declaration find(String identifier) {
-		for(Declaration d:this)
-			if(d.identifier.equals(identifier)) return(d);
+		if(lazySegments != null) {
+			if(lazyIndex == null || indexCaseSensitive != Option.CaseSensitive) {
+				lazyIndex = new HashMap<String,Integer>();
+				for(int i=0;i<lazyNames.length;i++) lazyIndex.putIfAbsent(Util.lookupKey(lazyNames[i]), i);
+				indexCaseSensitive = Option.CaseSensitive;
+			}
+			Integer i = lazyIndex.get(Util.lookupKey(identifier));
+			return((i == null) ? null : materialize(i));
+		}
+		return(getIndex().get(Util.lookupKey(identifier)));
+	}
+
+	/// Returns the declaration whose identifier is exactly equal to the given identifier.
+	/// @param identifier the identifier
+	/// @return the declaration, or null if none
+	private Declaration findExact(String identifier) {
+		Declaration d = getIndex().get(Util.lookupKey(identifier));
+		if(d == null) return(null);
+		if(d.identifier.equals(identifier)) return(d);
+		// Another declaration differs only in case
+		for(Declaration e:this)
+			if(e.identifier.equals(identifier)) return(e);
 		return(null);
 	}
+
+	/// Returns the hash table, rebuilt if the list is modified since it was built.
+	/// @return the hash table
+	private HashMap<String,Declaration> getIndex() {
+		if(index == null || indexModCount != modCount || indexCaseSensitive != Option.CaseSensitive) {
+			index = new HashMap<String,Declaration>();
+			for(Declaration d:this) index.putIfAbsent(Util.lookupKey(d.identifier), d);
+			indexModCount = modCount;
+			indexCaseSensitive = Option.CaseSensitive;
+		}
+		return(index);
+	}
 	
 	/// Add a declaration to this list.
+	/// 
+	/// A declaration is a duplicate if its identifier is exactly equal to that of a declaration
+	/// in the list. The hash table is keyed by Util.lookupKey, so it only finds a candidate.
 	@Override
 	public boolean add(Declaration dcl) {
-		Declaration d=find(dcl.identifier);
-		if(d!=null) {
+		materializeAll();
+		if(findExact(dcl.identifier) != null) {
 			Util.warning("Multiple declarations with the same name: "+dcl.identifier);
 			return(false);			
 		}
 		super.addElement(dcl);
+		index.putIfAbsent(Util.lookupKey(dcl.identifier), dcl);
+		indexModCount = modCount;
+		DeclarationScope.invalidateMeanings();
 		return(true);
 	}
 
+	@Override
+	public synchronized Declaration set(int i, Declaration dcl) {
+		materializeAll();
+		index = null;
+		DeclarationScope.invalidateMeanings();
+		return(super.set(i, dcl));
+	}
+
+	/// Must be called when the identifier of a declaration is modified.
+	/// @param dcl the declaration
+	/// @param oldIdentifier the previous identifier
+	public void identifierModified(Declaration dcl, String oldIdentifier) {
+		materializeAll();
+		if(index != null && index.get(Util.lookupKey(oldIdentifier)) == dcl) index = null;
+		DeclarationScope.invalidateMeanings();
+	}
+
+	/// Perform semantic checking of the declarations in this list.
+	/// 
+	/// The declarations of a lazy list are checked when they are read. Those already read are checked now.
+	/// @param scope the scope the declarations are declared in, which must be the current scope
+	public void doChecking(DeclarationScope scope) {
+		if(lazySegments == null) {
+			for(Declaration dcl:this) dcl.doChecking();
+			return;
+		}
+		checkingScope = scope;
+		for(AttributeInputStream.Segment segment:lazySegments.clone())
+			if(segment.isRead()) ((Declaration) segment.getResult()).doChecking();
+	}
+
+	// ***********************************************************************************************
+	// *** Lazy DeclarationList
+	// ***********************************************************************************************
+
+	/// Returns the i'th declaration of a lazy list, reading it if necessary.
+	/// @param i the declaration number
+	/// @return the declaration
+	private Declaration materialize(int i) {
+		try {
+			return((Declaration) lazyInput.materialize(lazySegments[i]));
+		} catch (IOException e) {
+			Util.IERR("Unable to read Attribute File: " + lazyInput.jarFileName, e);
+			return(null);
+		}
+	}
+
+	/// Read all declarations of a lazy list, and make it an ordinary list.
+	private void materializeAll() {
+		for(int i=0; lazySegments!=null && i<lazySegments.length; i++) materialize(i);
+		if(lazySegments != null) {
+			AttributeInputStream.Segment[] segments = lazySegments;
+			lazyInput = null; lazyNames = null; lazySegments = null; lazyIndex = null;
+			for(AttributeInputStream.Segment segment:segments) super.addElement((Declaration) segment.getResult());
+		}
+	}
+
+	/// Called by the AttributeInputStream when one of this list's segments is read.
+	/// 
+	/// If the declarations of this list are being checked, the declaration read is checked in the list's scope.
+	/// @param segment the segment read
+	public void segmentMaterialized(AttributeInputStream.Segment segment) {
+		if(checkingScope == null) return;
+		int lineNumber = Global.sourceLineNumber;
+		Global.enterScope(checkingScope);
+		((Declaration) segment.getResult()).doChecking();
+		Global.exitScope();
+		Global.sourceLineNumber = lineNumber;
+	}
+
+	// Any other access to a lazy list reads all its declarations first.
+	@Override public synchronized int size() { return((lazySegments != null) ? lazySegments.length : super.size()); }
+	@Override public synchronized boolean isEmpty() { return(size() == 0); }
+	@Override public synchronized Iterator<Declaration> iterator() { materializeAll(); return(super.iterator()); }
+	@Override public synchronized ListIterator<Declaration> listIterator() { materializeAll(); return(super.listIterator()); }
+	@Override public synchronized ListIterator<Declaration> listIterator(int i) { materializeAll(); return(super.listIterator(i)); }
+	@Override public synchronized Spliterator<Declaration> spliterator() { materializeAll(); return(super.spliterator()); }
+	@Override public synchronized void forEach(Consumer<? super Declaration> action) { materializeAll(); super.forEach(action); }
+	@Override public synchronized Enumeration<Declaration> elements() { materializeAll(); return(super.elements()); }
+	@Override public synchronized Declaration get(int i) { materializeAll(); return(super.get(i)); }
+	@Override public synchronized Declaration elementAt(int i) { materializeAll(); return(super.elementAt(i)); }
+	@Override public synchronized Declaration firstElement() { materializeAll(); return(super.firstElement()); }
+	@Override public synchronized Declaration lastElement() { materializeAll(); return(super.lastElement()); }
+	@Override public synchronized int indexOf(Object o, int i) { materializeAll(); return(super.indexOf(o, i)); }
+	@Override public synchronized int lastIndexOf(Object o, int i) { materializeAll(); return(super.lastIndexOf(o, i)); }
+	@Override public synchronized Object[] toArray() { materializeAll(); return(super.toArray()); }
+	@Override public synchronized <T> T[] toArray(T[] a) { materializeAll(); return(super.toArray(a)); }
+	@Override public synchronized void addElement(Declaration dcl) { materializeAll(); super.addElement(dcl); }
+	@Override public synchronized void insertElementAt(Declaration dcl, int i) { materializeAll(); super.insertElementAt(dcl, i); }
+	@Override public synchronized Declaration remove(int i) { materializeAll(); return(super.remove(i)); }
+	@Override public synchronized String toString() { materializeAll(); return(super.toString()); }
+
 	/// Utility print method.
 	/// @param title the title
 	public void print(String title) {
@@ -67,10 +237,23 @@ public final class DeclarationList extends Vector<Declaration> {
 	/// Write a DeclarationList object to a AttributeOutputStream.
 	/// @param oupt the AttributeOutputStream to write to.
 	/// @throws IOException if something went wrong.
+	/// 
+	/// The interface of a module leaves out the declarations made by statements.
 	public void writeObject(AttributeOutputStream oupt) throws IOException {
 		oupt.writeString(identifier);
+		if(oupt.isInterfaceOnly()) {
+			for(Declaration dcl:this) {
+				if(dcl instanceof ConnectionBlock || dcl instanceof InspectVariableDeclaration) continue;
+				oupt.writeString(dcl.identifier);
+				oupt.writeSegment(dcl);
+			}
+			return;
+		}
 		oupt.writeShort(this.size());
-		for(Declaration dcl:this) oupt.writeObj(dcl);
+		for(Declaration dcl:this) {
+			oupt.writeString(dcl.identifier);
+			oupt.writeSegment(dcl);
+		}
 	}
 
 	/// Read and return a DeclarationList object.
@@ -82,9 +265,12 @@ public final class DeclarationList extends Vector<Declaration> {
 		DeclarationList list = new DeclarationList(identifier);
 		int n = inpt.readShort();
 		if(n > 0) {
+			list.lazyInput = inpt;
+			list.lazyNames = new String[n];
+			list.lazySegments = new AttributeInputStream.Segment[n];
 			for (int i = 0; i < n; i++) {
-				Declaration dcl = (Declaration) inpt.readObj();
-				list.add(dcl);
+				list.lazyNames[i] = inpt.readString();
+				list.lazySegments[i] = inpt.readSegment(list);
 			}
 		}
 		return list;
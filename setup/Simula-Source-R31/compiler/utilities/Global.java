@@ -8,9 +8,11 @@ package simula.compiler.utilities;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
+import java.io.PrintStream;
 import java.nio.charset.Charset;
 import java.util.ArrayDeque;
 import java.util.LinkedList;
+import java.util.Map;
 import java.util.Properties;
 import java.util.Stack;
 import java.util.Vector;
@@ -108,6 +110,10 @@ public final class Global {
 	/// Compiler state: True while generating STM code
 	public static boolean duringSTM_Coding;
 
+	/// Compiler state: Thunk nesting level while generating Java source code.
+	/// Within a Thunk, '_CUR' denotes the Thunk environment RTS_NAME._CUR
+	public static int duringThunk_Coding;
+
 	/// The .jar File Builder
 	public static JarFileBuilder jarFileBuilder;
 
@@ -139,6 +145,18 @@ public final class Global {
 	/// The console
 	public static ConsolePanel console;
 
+	/// The identifier of the CompilationContext running this compiler, or null when
+	/// the compiler is started from the command line or the editor.
+	public static String contextIdent;
+
+	/// Diagnostics output of a CompilationContext, or null when messages go to
+	/// the editor console or System.out and System.err.
+	public static PrintStream diagnostics;
+
+	/// Attribute files shared between CompilationContexts, or null.
+	/// See: AttributeFileIO.readAttributeFile.
+	public static Map<String,byte[]> attributeFileCache;
+
 	/// The Jar files queued for later inclusion.
 	/// See: JarFileBuilder for details.
 	public static LinkedList<JarFile> includeQueue;
@@ -156,6 +174,7 @@ public final class Global {
 		duringParsing = true;
 		duringChecking = false;
 		duringSTM_Coding = false;
+		duringThunk_Coding = 0;
 		externalJarFiles = new Vector<File>();
 		StandardClass.INITIATE();
 		String SIMULA_HOME = getSimulaProperty("simula.home", null);
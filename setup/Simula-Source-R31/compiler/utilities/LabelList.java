@@ -123,6 +123,7 @@ public class LabelList {
 		if(TRACING) IO.println(ident()+".add: "+lab.identifier+'['+lab.externalIdent+']');
 		if(READY_FOR_CODING) Util.IERR("Can't add a new Label when LabelLisit is marked READY_FOR_CODING");
 		declaredLabels.add(lab);
+		DeclarationScope.invalidateMeanings();
 		if(TRACING) IO.println(ident()+".add: DONE: LabelList = "+this);
 	}
 	
@@ -217,6 +218,19 @@ public class LabelList {
 			.labelBinding(defaultTarget);
 	}
 	
+	/// ClassFile coding utility: Returns the jump target of the given label, i.e. the
+	/// target of its case in the tableswitch built by build_JUMPTABLE.
+	/// @param label the label
+	/// @param codeBuilder the codeBuilder to use
+	/// @return the jump target, or null if the label is not in this list
+	public Label getJumpTarget(LabelDeclaration label,CodeBuilder codeBuilder) {
+		if(accumLabels == null) return(null);
+		for(LabelDeclaration lab:accumLabels) {
+			if(lab == label) return(getTableSwitchCases(codeBuilder).get(label.index-1).target());
+		}
+		return(null);
+	}
+	
 	/// ClassFile coding utility: Build a labelBinding.
 	/// @param label the label to bind
 	/// @param codeBuilder the codeBuilder to use
@@ -5,8 +5,7 @@
 /// page: https://creativecommons.org/licenses/by/4.0/
 package simula.compiler.utilities;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.Arrays;
 
 import simula.compiler.syntaxClass.SyntaxClass;
 
@@ -21,35 +20,39 @@ import simula.compiler.syntaxClass.SyntaxClass;
 /// @author Øystein Myhre Andersen
 public class ObjectReferenceMap {
 	
-	/// The underlying ObjectReference Map
-	Map<Integer,SyntaxClass> objectReference;
+	/// The objects, indexed by object sequence number.
+	private SyntaxClass[] objectReference;
 	
-	/// Construct a ObjectReferenceMap with an underlying HashMap.
+	/// Construct an empty ObjectReferenceMap.
 	public ObjectReferenceMap() {
-		objectReference = new HashMap<Integer,SyntaxClass>();
+		objectReference = new SyntaxClass[1024];
 	}
 	
-	/// Associates the specified value with the specified key in this map using the underlying HashMap.
+	/// Associates the specified value with the specified key in this map.
 	/// @param key with which the specified value is to be associated
 	/// @param value to be associated with the specified key
-	public void put(Integer key, SyntaxClass value) {
-		if(key == null) Util.IERR();
+	public void put(int key, SyntaxClass value) {
+		if(key < 0) Util.IERR();
 		if(value == null) Util.IERR();
-		objectReference.put(key, value);
+		if(key >= objectReference.length)
+			objectReference = Arrays.copyOf(objectReference, Math.max(key + 1, objectReference.length * 2));
+		objectReference[key] = value;
 	}
 	
 	/// Returns the value to which the specified key is mapped, or null if this map contains no mapping for the key.
 	/// @param key the key whose associated value is to be returned
 	/// @return the value to which the specified key is mapped, or null if this map contains no mapping for the key
 	public SyntaxClass get(int key) {
-		return(objectReference.get(key));
+		return((key >= 0 && key < objectReference.length) ? objectReference[key] : null);
 	}
 	
 	/// Utility method: print
 	public void print() {
 		IO.println("ObjectReferenceMap.print: BEGIN Print OBJECT REFERENCE TABLE:");
-		Map<Integer, SyntaxClass> map = objectReference;
-		map.forEach((key, value) -> IO.println("   " + key + "  <==>  " + value));
+		for(int key = 0; key < objectReference.length; key++) {
+			SyntaxClass value = objectReference[key];
+			if(value != null) IO.println("   " + key + "  <==>  " + value);
+		}
 		IO.println("ObjectReferenceMap.print: ENDOF Print OBJECT REFERENCE TABLE:");
 	}
 
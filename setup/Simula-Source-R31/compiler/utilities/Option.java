@@ -55,6 +55,26 @@ public final class Option {
 	/// true: Don't execute generated .jar file
 	public static boolean noExecution = false;
 	
+	/// The number of threads used to compress .jar entries, and to generate class file stack maps.
+	public static int parallelism = Runtime.getRuntime().availableProcessors();
+
+	/// Build class files without stack maps, and generate them in parallel when the .jar file
+	/// is written. This rebuilds every method body, which only pays off with several threads
+	/// and many class files. False: Stack maps are generated sequentially while coding.
+	public static boolean parallelStackMaps = false;
+	
+	/// Reuse the output of a previous compilation when nothing it depends on has changed.
+	public static boolean incremental = false;
+	
+	/// Measure the compiler phases and write a timing report. See CompilerTiming.
+	public static boolean timing = false;
+	
+	/// Create a Class Data Sharing archive for an executable .jar file. See ClassDataSharing.
+	public static boolean cds = false;
+	
+	/// Write new .jar file entries STORED, i.e. uncompressed. Faster for development builds.
+	public static boolean noCompress = false;
+	
 	/// false: Disable all language extensions. In other words,
 	/// follow the Simula Standard literally
 	public static boolean EXTENSIONS=true;
@@ -147,6 +167,12 @@ public final class Option {
 		Option.noExecution = false;
 		Option.WARNINGS=true;
 		Option.EXTENSIONS=true;
+		Option.parallelism = Runtime.getRuntime().availableProcessors();
+		Option.parallelStackMaps = false;
+		Option.incremental = false;
+		Option.timing = false;
+		Option.cds = false;
+		Option.noCompress = false;
 		
 		Option.internal.InitCompilerOptions();
 	}
@@ -10,6 +10,8 @@ import java.lang.classfile.constantpool.ConstantPoolBuilder;
 import java.lang.classfile.constantpool.FieldRefEntry;
 import java.lang.constant.ClassDesc;
 import java.lang.constant.ConstantDescs;
+import java.lang.constant.DirectMethodHandleDesc;
+import java.lang.constant.DynamicCallSiteDesc;
 import java.lang.constant.MethodTypeDesc;
 import simula.compiler.syntaxClass.Type;
 
@@ -29,6 +31,7 @@ public final class RTS {
 		/** ClassDesc */ public static final ClassDesc RTS_RTObject       = ClassDesc.of("simula.runtime.RTS_RTObject");
 		/** ClassDesc */ public static final ClassDesc RTS_ENVIRONMENT    = ClassDesc.of("simula.runtime.RTS_ENVIRONMENT"); 
 		/** ClassDesc */ public static final ClassDesc RTS_BASICIO        = ClassDesc.of("simula.runtime.RTS_BASICIO");
+		/** ClassDesc */ public static final ClassDesc RTS_Context        = ClassDesc.of("simula.runtime.RTS_Context");
 		/** ClassDesc */ public static final ClassDesc RTS_CLASS          = ClassDesc.of("simula.runtime.RTS_CLASS");  
 		/** ClassDesc */ public static final ClassDesc RTS_PROCEDURE      = ClassDesc.of("simula.runtime.RTS_PROCEDURE");
 		/** ClassDesc */ public static final ClassDesc RTS_Simulation     = ClassDesc.of("simula.runtime.RTS_Simulation");
@@ -72,19 +75,19 @@ public final class RTS {
 	/// Predefined values for Field Ref Entries. 
 	public class FRE {
 		/** Default Constructor. NOT USED */ private FRE() {} 
-		// Static
+		// Runtime Context
 		/// FieldRefEntry
 		/// @param pool the ConstantPoolBuilder to use
 		/// @return FieldRefEntry
-		public static FieldRefEntry RTObject_CTX(ConstantPoolBuilder pool) { return pool.fieldRefEntry(RTS.CD.RTS_RTObject,"_CTX",RTS.CD.RTS_BASICIO); }
+		public static FieldRefEntry RTObject_RTX(ConstantPoolBuilder pool) { return pool.fieldRefEntry(RTS.CD.RTS_RTObject,"_RTX",RTS.CD.RTS_Context); }
 		/// FieldRefEntry
 		/// @param pool the ConstantPoolBuilder to use
 		/// @return FieldRefEntry
-		public static FieldRefEntry RTObject_USR(ConstantPoolBuilder pool) { return pool.fieldRefEntry(RTS.CD.RTS_RTObject,"_USR",RTS.CD.RTS_BASICIO); }
+		public static FieldRefEntry Context_USR(ConstantPoolBuilder pool)  { return pool.fieldRefEntry(RTS.CD.RTS_Context,"_USR",RTS.CD.RTS_BASICIO); }
 		/// FieldRefEntry
 		/// @param pool the ConstantPoolBuilder to use
 		/// @return FieldRefEntry
-		public static FieldRefEntry RTObject_CUR(ConstantPoolBuilder pool) { return pool.fieldRefEntry(RTS.CD.RTS_RTObject,"_CUR",RTS.CD.RTS_RTObject); }
+		public static FieldRefEntry Context_CUR(ConstantPoolBuilder pool)  { return pool.fieldRefEntry(RTS.CD.RTS_Context,"_CUR",RTS.CD.RTS_RTObject); }
 		/// FieldRefEntry
 		/// @param pool the ConstantPoolBuilder to use
 		/// @return FieldRefEntry
@@ -303,7 +306,7 @@ public final class RTS {
 	/// @param codeBuilder the codeBuilder to use.
 	public static void invokestatic_UTIL_BPRG(CodeBuilder codeBuilder) {
 		ClassDesc owner = CD.RTS_UTIL;
-		codeBuilder.invokestatic(owner, "BPRG", MethodTypeDesc.ofDescriptor("(Ljava/lang/String;[Ljava/lang/String;)V"));
+		codeBuilder.invokestatic(owner, "BPRG", MethodTypeDesc.ofDescriptor("(Ljava/lang/String;[Ljava/lang/String;)Lsimula/runtime/RTS_BASICIO;"));
 	}
 	
 	/// Builds: invoke UTIL copy code.
@@ -544,5 +547,23 @@ public final class RTS {
 		codeBuilder.invokevirtual(owner,"detach", MethodTypeDesc.ofDescriptor("()V"));
 	}
 
+	// ********************************************************************************************
+	// *** OWNER: java.lang.runtime.SwitchBootstraps
+	// ********************************************************************************************
+
+	/// Builds: invokedynamic SwitchBootstraps.typeSwitch code.
+	/// 
+	/// Expects (Object target, int restartIndex) on the stack and leaves the index of the
+	/// first label the target is an instance of, -1 if the target is null, or labels.length
+	/// if none of the labels match.
+	/// @param labels the case labels in source order.
+	/// @param codeBuilder the codeBuilder to use.
+	public static void invokedynamic_typeSwitch(ClassDesc[] labels, CodeBuilder codeBuilder) {
+		ClassDesc owner = ClassDesc.of("java.lang.runtime.SwitchBootstraps");
+		DirectMethodHandleDesc bootstrap = ConstantDescs.ofCallsiteBootstrap(owner, "typeSwitch", ConstantDescs.CD_CallSite, ConstantDescs.CD_Object.arrayType());
+		MethodTypeDesc invocationType = MethodTypeDesc.ofDescriptor("(Ljava/lang/Object;I)I");
+		codeBuilder.invokedynamic(DynamicCallSiteDesc.of(bootstrap, "typeSwitch", invocationType, labels));
+	}
+
 	
 }
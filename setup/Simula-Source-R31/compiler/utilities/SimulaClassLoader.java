@@ -5,14 +5,33 @@
 /// page: https://creativecommons.org/licenses/by/4.0/
 package simula.compiler.utilities;
 
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.util.Enumeration;
+import java.util.HashMap;
 import java.util.Vector;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
 
 import simula.runtime.RTS_EndProgram;
 
 /// SimulaClassLoader.
 /// 
+/// Classes are defined lazily, i.e. when they are first needed. The class files are
+/// either generated by the compiler, or entries in an indexed .jar file. Until a class
+/// is defined, only its bytes, or its .jar file, are kept in an index.
+/// 
+/// The Runtime System is loaded from RTS.jar by a parent loader, see runtimeLoader.
+/// It is shared by all runs in the same JVM, e.g. repeated compile-and-run from the
+/// editor, so that the Runtime System classes are only defined once. The state of a
+/// run is held by its RTS_Context, not by static fields of the Runtime System.
+/// A new runtime loader is only created when RTS.jar has changed.
+/// 
+/// The loader of a run holds its .jar files open until the run ends, see close.
+/// 
 /// Link to GitHub: <a href=
 /// "https://github.com/portablesimula/EclipseWorkSpaces/blob/main/SimulaCompiler2/Simula/src/simula/compiler/utilities/SimulaClassLoader.java"><b>Source File</b></a>.
 /// 
@@ -21,30 +40,109 @@ public class SimulaClassLoader extends ClassLoader {
 	/// Debug utility.
 	private final static boolean TESTING = false;
 	
-	/// Default Constructor.
+	/// Generated class files not yet defined, indexed by class name.
+	private final HashMap<String, byte[]> classFiles = new HashMap<String, byte[]>();
+	
+	/// The .jar files of classes not yet defined, indexed by class name.
+	private final HashMap<String, JarFile> jarIndex = new HashMap<String, JarFile>();
+
+	/// The .jar files added to this loader.
+	private final Vector<JarFile> jarFiles = new Vector<JarFile>();
+
+	/// The shared Runtime System loader, or null.
+	private static SimulaClassLoader runtimeLoader;
+
+	/// The RTS.jar file of the shared Runtime System loader: path, modification time and size.
+	private static String runtimeKey;
+	
+	/// Default Constructor. The parent is the system class loader.
 	public SimulaClassLoader() {}
 	
-	/// Load a class
+	/// Create a new SimulaClassLoader.
+	/// @param parent the parent class loader
+	public SimulaClassLoader(final ClassLoader parent) {
+		super(parent);
+	}
+	
+	/// Returns the shared Runtime System loader.
+	/// 
+	/// Its parent is the platform class loader, i.e. the Runtime System is not taken
+	/// from the compiler's own class path. The Runtime System classes are defined when
+	/// they are first needed. A new loader replaces the shared one when RTS.jar has
+	/// changed since it was created.
+	/// @param rtsJarFile the RTS.jar file
+	/// @return the Runtime System loader
+	/// @throws IOException if the RTS.jar file can't be read
+	public static synchronized SimulaClassLoader runtimeLoader(final File rtsJarFile) throws IOException {
+		String key = rtsJarFile.getCanonicalPath() + '@' + rtsJarFile.lastModified() + ':' + rtsJarFile.length();
+		if(runtimeLoader != null && key.equals(runtimeKey)) return (runtimeLoader);
+		if(TESTING) IO.println("SimulaClassLoader.runtimeLoader: NEW " + rtsJarFile);
+		if(runtimeLoader != null) runtimeLoader.close();
+		SimulaClassLoader loader = new SimulaClassLoader(ClassLoader.getPlatformClassLoader());
+		loader.addJarFile(new JarFile(rtsJarFile), "simula/runtime/");
+		runtimeLoader = loader;
+		runtimeKey = key;
+		return (loader);
+	}
+
+	/// Close the .jar files of this loader.
+	/// Classes of the .jar files which are not yet defined can no longer be loaded.
+	public synchronized void close() {
+		for(JarFile jarFile:jarFiles) {
+			try {
+				jarFile.close();
+			} catch (IOException e) {
+				Util.warning("Can't close " + jarFile.getName() + ": " + e);
+			}
+		}
+		jarFiles.clear();
+		jarIndex.clear();
+	}
+	
+	/// Add a generated class. The class is defined when it is first needed.
 	/// @param name class name
 	/// @param bytes classFile bytes
-	public void loadClass(String name, byte[] bytes) {
-		Class<?> clazz = Global.simulaClassLoader.findLoadedClass(name);
-		if(clazz != null) {
-			if(TESTING) IO.println("SimulaClassLoader.loadClass: " + name + " FAILED: " + clazz);
+	public synchronized void loadClass(String name, byte[] bytes) {
+		if(findLoadedClass(name) != null) {
+			if(TESTING) IO.println("SimulaClassLoader.loadClass: " + name + " FAILED: Already defined");
 		} else {
-			if(TESTING) IO.println("SimulaClassLoader.loadClass: TRY " + name);
-			clazz = Global.simulaClassLoader.defineClass(name, bytes, 0, bytes.length);
-			Global.simulaClassLoader.resolveClass(clazz);
-			if(TESTING) IO.println("SimulaClassLoader.loadClass: " + name + " SUCCESS");
+			if(TESTING) IO.println("SimulaClassLoader.loadClass: " + name);
+			classFiles.put(name, bytes);
 		}
 	}
 	
-	/// Check if a named class is loaded
-	/// @param name class name
-	/// @return true: if a named class is loaded
-	public boolean isClassLoaded(String name) {
-		Class<?> clazz = Global.simulaClassLoader.findLoadedClass(name);
-		return clazz != null;
+	/// Add the class file entries of a .jar file to the index.
+	/// The classes are defined when they are first needed.
+	/// @param jarFile the .jar file
+	/// @param packetName the packet name, only entries in this packet are indexed
+	public synchronized void addJarFile(final JarFile jarFile, final String packetName) {
+		if (Option.verbose)
+			Util.println("---------  INCLUDE .jar File: " + jarFile.getName() + "  ---------");
+		if (!jarFiles.contains(jarFile)) jarFiles.add(jarFile);
+		Enumeration<JarEntry> entries = jarFile.entries();
+		while (entries.hasMoreElements()) {
+			String entryName = entries.nextElement().getName();
+			if (!entryName.startsWith(packetName))	continue;
+			if (!entryName.endsWith(".class"))		continue;
+			String name = entryName.substring(0, entryName.length() - 6).replace('/', '.');
+			jarIndex.put(name, jarFile);
+		}
+	}
+	
+	@Override
+	protected synchronized Class<?> findClass(final String name) throws ClassNotFoundException {
+		byte[] bytes = classFiles.remove(name);
+		if (bytes == null) {
+			JarFile jarFile = jarIndex.remove(name);
+			if (jarFile == null) throw new ClassNotFoundException(name);
+			try (InputStream inputStream = jarFile.getInputStream(jarFile.getEntry(name.replace('.', '/') + ".class"))) {
+				bytes = inputStream.readAllBytes();
+			} catch (IOException e) {
+				throw new ClassNotFoundException(name, e);
+			}
+		}
+		if(TESTING) IO.println("SimulaClassLoader.findClass: DEFINE " + name);
+		return (defineClass(name, bytes, 0, bytes.length));
 	}
 	
 	/// Run loaded class 'name'
@@ -53,7 +151,12 @@ public class SimulaClassLoader extends ClassLoader {
 	public void runClass(String name, final Vector<String> cmd) {
 		String[] cmds = new String[cmd.size()];
 		cmd.copyInto(cmds);
-		Class<?> clazz = Global.simulaClassLoader.findLoadedClass(name);
+		Class<?> clazz = null;
+		try {
+			clazz = loadClass(name);
+		} catch (ClassNotFoundException e) {
+			Util.IERR("SimulaClassLoader.runClass: Class not found: " + name, e);
+		}
 		Class<?> argTypes[] = { (new String[0]).getClass() };
 		Method main = null;
 		try {
@@ -72,7 +175,8 @@ public class SimulaClassLoader extends ClassLoader {
 		} catch (InvocationTargetException e) {
 			Throwable cause = e.getCause();
 			if(TESTING)	IO.println("SimulaClassLoader.runClass: EXCEPTION-2 AFTER INVOKE cause = " + cause + ", clazz = " + clazz);
-			if(cause instanceof RTS_EndProgram) ; // OK
+			// The Runtime System is defined by the Runtime System loader, compare by name
+			if(cause.getClass().getName().equals(RTS_EndProgram.class.getName())) ; // OK
 			else if(cause instanceof RuntimeException err) throw err;
 			else Util.IERR("SimulaClassLoader.runClass: EXCEPTION AFTER INVOKE cause = "+cause);
 		}
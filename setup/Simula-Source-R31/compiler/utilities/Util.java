@@ -85,6 +85,7 @@ public final class Util {
 	/// Perform FORCED EXIT.
 	private static void FORCED_EXIT() {
 		IO.println("FORCED EXIT");
+		if (Global.contextIdent != null) throw new RuntimeException("FORCED EXIT");
 		if (Global.console == null) System.exit(-1);
 	}
 
@@ -164,7 +165,8 @@ public final class Util {
 	/// Print a string.
 	/// @param s the string
 	public static void println(final String s) {
-		if (Global.console != null) {
+		if (Global.diagnostics != null) Global.diagnostics.println(s);
+		else if (Global.console != null) {
 			String u = s.replace('\r', (char) 0);
 			u = u.replace('\n', (char) 0);
 			Global.console.write(u + '\n');
@@ -176,7 +178,8 @@ public final class Util {
 	/// @param s the message
 	public static void printError(final String s) {
 		String u = s.replace('\r', (char) 0);
-		if (Global.console != null)	Global.console.writeError(u + '\n');
+		if (Global.diagnostics != null) Global.diagnostics.println(u);
+		else if (Global.console != null)	Global.console.writeError(u + '\n');
 		else System.err.println(u);
 	}  
 
@@ -184,7 +187,8 @@ public final class Util {
 	/// @param s the message
 	public static void printWarning(final String s) {
 		String u = s.replace('\r', (char) 0);
-		if (Global.console != null)	Global.console.writeWarning(u + '\n');
+		if (Global.diagnostics != null) Global.diagnostics.println(u);
+		else if (Global.console != null)	Global.console.writeWarning(u + '\n');
 		else System.err.println(u);
 	}  
 
@@ -238,6 +242,18 @@ public final class Util {
 			 return(s1.equals(s2));			
 		else return(s1.equalsIgnoreCase(s2));
 	}
+
+	/// Returns the key used for an identifier in hashed tables.
+	/// Two identifiers have the same key exactly when Util.equals considers them equal.
+	/// @param ident an identifier
+	/// @return the identifier, case folded unless Option.CaseSensitive
+	public static String lookupKey(String ident) {
+		if(Option.CaseSensitive) return(ident);
+		char[] key = ident.toCharArray();
+		for(int i=0;i<key.length;i++)
+			key[i] = Character.toLowerCase(Character.toUpperCase(key[i])); // As String.equalsIgnoreCase
+		return(new String(key));
+	}
 	
     //*******************************************************************************
     //*** IPOW - Integer Power: b ** x
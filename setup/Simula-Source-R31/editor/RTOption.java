@@ -31,6 +31,9 @@ public final class RTOption {
 	/** Runtime Option */ public static boolean GOTO_TRACING = false;
 	/** Runtime Option */ public static boolean QPS_TRACING = false;
 	/** Runtime Option */ public static boolean SML_TRACING = false;
+	/** Runtime Option */ public static boolean PROFILE = false;
+	/** Runtime Option */ public static boolean JMX = false;
+	/** Runtime Option */ public static boolean CENSUS = false;
 
 
 	/// The default constructor
@@ -44,6 +47,9 @@ public final class RTOption {
 		RTOption.GOTO_TRACING = false;
 		RTOption.QPS_TRACING = false;
 		RTOption.SML_TRACING = false;
+		RTOption.PROFILE = false;
+		RTOption.JMX = false;
+		RTOption.CENSUS = false;
 	}
 
     /// Add Runtime options to the argument vector.
@@ -54,6 +60,9 @@ public final class RTOption {
 		if(RTOption.GOTO_TRACING) args.add("-gotoTracing");
 		if(RTOption.QPS_TRACING) args.add("-qpsTracing");
 		if(RTOption.SML_TRACING) args.add("-smlTracing");
+		if(RTOption.PROFILE) args.add("-profile");
+		if(RTOption.JMX) args.add("-jmx");
+		if(RTOption.CENSUS) args.add("-census");
 	}
 	
 	/// Get Compiler options from property file.
@@ -64,6 +73,9 @@ public final class RTOption {
 		RTOption.GOTO_TRACING = properties.getProperty("simula.runtime.option.GOTO_TRACING", "false").equalsIgnoreCase("true");
 		RTOption.QPS_TRACING = properties.getProperty("simula.runtime.option.QPS_TRACING", "false").equalsIgnoreCase("true");
 		RTOption.SML_TRACING = properties.getProperty("simula.runtime.option.SML_TRACING", "false").equalsIgnoreCase("true");
+		RTOption.PROFILE = properties.getProperty("simula.runtime.option.PROFILE", "false").equalsIgnoreCase("true");
+		RTOption.JMX = properties.getProperty("simula.runtime.option.JMX", "false").equalsIgnoreCase("true");
+		RTOption.CENSUS = properties.getProperty("simula.runtime.option.CENSUS", "false").equalsIgnoreCase("true");
 	}
 	
 	/// Set Compiler options in property file.
@@ -74,6 +86,9 @@ public final class RTOption {
 		properties.setProperty("simula.runtime.option.GOTO_TRACING", ""+RTOption.GOTO_TRACING);
 		properties.setProperty("simula.runtime.option.QPS_TRACING", ""+RTOption.QPS_TRACING);
 		properties.setProperty("simula.runtime.option.SML_TRACING", ""+RTOption.SML_TRACING);
+		properties.setProperty("simula.runtime.option.PROFILE", ""+RTOption.PROFILE);
+		properties.setProperty("simula.runtime.option.JMX", ""+RTOption.JMX);
+		properties.setProperty("simula.runtime.option.CENSUS", ""+RTOption.CENSUS);
 	}
     
 	/// Editor Utility: Select Runtime Options.
@@ -85,6 +100,9 @@ public final class RTOption {
         panel.add(checkBox("GOTO_TRACING"));
         panel.add(checkBox("QPS_TRACING"));
         panel.add(checkBox("SML_TRACING"));
+        panel.add(checkBox("PROFILE"));
+        panel.add(checkBox("JMX"));
+        panel.add(checkBox("CENSUS"));
         panel.setLayout(new BoxLayout(panel, BoxLayout.Y_AXIS));
 		Util.optionDialog(panel,"Select Runtime Options",JOptionPane.OK_OPTION, JOptionPane.INFORMATION_MESSAGE,"Ok");
     	Global.storeWorkspaceProperties();
@@ -113,6 +131,9 @@ public final class RTOption {
 		if(id.equalsIgnoreCase("GOTO_TRACING")) return(GOTO_TRACING); 
 		if(id.equalsIgnoreCase("QPS_TRACING")) return(QPS_TRACING); 
 		if(id.equalsIgnoreCase("SML_TRACING")) return(SML_TRACING); 
+		if(id.equalsIgnoreCase("PROFILE")) return(PROFILE); 
+		if(id.equalsIgnoreCase("JMX")) return(JMX); 
+		if(id.equalsIgnoreCase("CENSUS")) return(CENSUS); 
 		return(false);
 	}
 
@@ -125,6 +146,9 @@ public final class RTOption {
 		if(id.equalsIgnoreCase("GOTO_TRACING")) GOTO_TRACING=val; 
 		if(id.equalsIgnoreCase("QPS_TRACING")) QPS_TRACING=val; 
 		if(id.equalsIgnoreCase("SML_TRACING")) SML_TRACING=val; 
+		if(id.equalsIgnoreCase("PROFILE")) PROFILE=val; 
+		if(id.equalsIgnoreCase("JMX")) JMX=val; 
+		if(id.equalsIgnoreCase("CENSUS")) CENSUS=val; 
 	}
 
 }
\ No newline at end of file
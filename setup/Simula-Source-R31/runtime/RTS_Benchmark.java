@@ -0,0 +1,240 @@
+/// (CC) This work is licensed under a Creative Commons
+/// Attribution 4.0 International License.
+///
+/// You find a copy of the License on the following
+/// page: https://creativecommons.org/licenses/by/4.0/
+package simula.runtime;
+
+import java.io.StringWriter;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/// Utility class Benchmark.
+///
+/// Runs a compiled Simula program's main repeatedly in one JVM, to measure its
+/// steady-state (warm JIT) execution time.
+///
+/// The program is run W warmup iterations followed by M measured iterations. Each
+/// iteration gets a fresh runtime context (see RTS_Context), which holds the state the
+/// runtime system keeps for a program, including the free lists of reusable procedure
+/// instances. Within an iteration, ENVIRONMENT.exit ends the iteration only.
+///
+/// The sysout of each iteration is captured in memory and compared with that of the
+/// first iteration. The benchmark is aborted if they differ, since the iteration was then
+/// affected by state carried over from a previous one, e.g. a static field, and its timing
+/// can't be trusted. Use -noOutputCheck for programs whose output is expected to vary,
+/// e.g. because it includes the clock time. The output of the first iteration is printed
+/// unless -discardOutput is given.
+///
+/// With the option -alloc, the number of bytes allocated by each iteration is reported
+/// as well. This is the allocation rate benchmark for recursion-heavy programs, e.g. to
+/// measure the effect of reusing procedure instances (see RTS_PROCEDURE._REUSE). The
+/// allocations of all threads in the JVM are counted, including the coroutines' virtual
+/// threads, which allocate on their carrier threads. Run the benchmark without other
+/// activity in the JVM.
+///
+/// Usage:
+/// <pre>
+///     java -cp program.jar simula.runtime.RTS_Benchmark [options] mainClass [programArgs]
+///     java -cp program.jar simula.runtime.RTS_Benchmark [options] program.jar [programArgs]
+/// </pre>
+/// See help() for the options.
+///
+/// Link to GitHub: <a href=
+/// "https://github.com/portablesimula/EclipseWorkSpaces/blob/main/SimulaCompiler2/Simula/src/simula/runtime/RTS_Benchmark.java"><b>Source File</b></a>.
+///
+/// @author Øystein Myhre Andersen
+public final class RTS_Benchmark {
+
+	/// Default Constructor. NOT USED
+	private RTS_Benchmark() {}
+
+	/// Run the program once on the current thread.
+	/// @param main the program's main method
+	/// @param argv the program arguments
+	/// @param output the writer of sysout and the runtime messages
+	/// @return the elapsed time in nanoseconds
+	/// @throws RTS_SimulaRuntimeError if the program failed or ended with a non-zero exit status
+	public static long runOnce(final Method main, final String[] argv, final Writer output) {
+		RTS_Context[] context = new RTS_Context[1];
+		RTS_Context.launcher.set((ctx) -> {
+			ctx.inProcess = true;
+			ctx.option.noPopup = true;
+			ctx.sysoutWriter = output;
+			context[0] = ctx;
+		});
+		long t0 = System.nanoTime();
+		try {
+			main.invoke(null, (Object) argv);
+		} catch (InvocationTargetException e) {
+			if (!(e.getCause() instanceof RTS_EndProgram))
+				throw new RTS_SimulaRuntimeError("Program failed", e.getCause());
+		} catch (IllegalAccessException e) {
+			throw new RTS_SimulaRuntimeError("Can't call main", e);
+		} finally {
+			RTS_Context.launcher.remove();
+			RTS_Context.unbind();
+		}
+		long elapsed = System.nanoTime() - t0;
+		if (context[0] != null && context[0].exitStatus != 0)
+			throw new RTS_SimulaRuntimeError("Program ended with exit status " + context[0].exitStatus);
+		return (elapsed);
+	}
+
+	/// Print synopsis of the benchmark options.
+	private static void help() {
+		IO.println(RTS_ENVIRONMENT.simulaReleaseID + " Benchmark\n");
+		IO.println("Usage: java -cp <program.jar> simula.runtime.RTS_Benchmark [options] <program> [programArgs]\n\n"
+				+ "program                Main class name, or a program .jar file\n"
+				+ "programArgs            Program arguments\n\n"
+				+ "possible options include:\n"
+				+ "  -help                 Print this synopsis of options\n"
+				+ "  -warmup <n>           Number of warmup iterations. Default: 5\n"
+				+ "  -iterations <n>       Number of measured iterations. Default: 10\n"
+				+ "  -discardOutput        Don't print the program's sysout\n"
+				+ "  -noOutputCheck        Don't check that each iteration's sysout equals the first\n"
+				+ "  -gc                   Request a garbage collection before each iteration\n"
+				+ "  -alloc                Report the bytes allocated by each iteration\n");
+	}
+
+	/// Print error message, help and exit.
+	/// @param msg the error message
+	private static void error(final String msg) {
+		IO.println("ERROR: " + msg);
+		help();
+		System.exit(-1);
+	}
+
+	/// Benchmark's main entry.
+	/// @param argv the arguments
+	public static void main(final String[] argv) {
+		int warmup = 5;
+		int iterations = 10;
+		boolean discardOutput = false;
+		boolean outputCheck = true;
+		boolean gc = false;
+		boolean alloc = false;
+		String program = null;
+		ArrayList<String> programArgs = new ArrayList<String>();
+		try {
+			for (int i = 0; i < argv.length; i++) {
+				String arg = argv[i];
+				if (program != null) programArgs.add(arg);
+				else if (arg.equalsIgnoreCase("-help")) { help(); return; }
+				else if (arg.equalsIgnoreCase("-warmup")) warmup = Integer.parseInt(argv[++i]);
+				else if (arg.equalsIgnoreCase("-iterations")) iterations = Integer.parseInt(argv[++i]);
+				else if (arg.equalsIgnoreCase("-discardOutput")) discardOutput = true;
+				else if (arg.equalsIgnoreCase("-noOutputCheck")) outputCheck = false;
+				else if (arg.equalsIgnoreCase("-gc")) gc = true;
+				else if (arg.equalsIgnoreCase("-alloc")) alloc = true;
+				else if (arg.charAt(0) == '-') error("Unknown option " + arg);
+				else program = arg;
+			}
+		} catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+			error("Illegal option value: " + e.getMessage());
+		}
+		if (program == null) error("No program given");
+		if (warmup < 0 || iterations < 1) error("Illegal number of iterations");
+
+		Method main = null;
+		try {
+			main = RTS_Replicator.findMain(program);
+		} catch (Exception e) {
+			error("Can't find main method of " + program + ": " + e);
+		}
+		String[] args = programArgs.toArray(new String[programArgs.size()]);
+
+		com.sun.management.ThreadMXBean threadBean = null;
+		if (alloc) {
+			if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean bean
+					&& bean.isThreadAllocatedMemorySupported()) {
+				bean.setThreadAllocatedMemoryEnabled(true);
+				threadBean = bean;
+			} else error("Allocation measurement is not supported by this JVM");
+		}
+		long[] warmupTimes = new long[warmup];
+		long[] times = new long[iterations];
+		long[] allocated = new long[iterations];
+		String firstOutput = null;
+		try {
+			for (int i = 0; i < warmup + iterations; i++) {
+				if (gc) System.gc();
+				StringWriter output = new StringWriter();
+				long bytes = (threadBean != null) ? threadBean.getTotalThreadAllocatedBytes() : 0;
+				long time = runOnce(main, args, output);
+				if (i < warmup) warmupTimes[i] = time;
+				else {
+					times[i - warmup] = time;
+					if (threadBean != null)
+						allocated[i - warmup] = threadBean.getTotalThreadAllocatedBytes() - bytes;
+				}
+				if (firstOutput == null) {
+					firstOutput = output.toString();
+					if (!discardOutput) IO.print(firstOutput);
+				} else if (outputCheck && !firstOutput.equals(output.toString()))
+					throw new RTS_SimulaRuntimeError("Iteration " + (i + 1) + " produced other output than the first");
+			}
+		} catch (RTS_SimulaRuntimeError e) {
+			IO.println("BENCHMARK ABORTED: " + e.getMessage() + ((e.getCause() != null) ? (": " + e.getCause()) : ""));
+			System.exit(1);
+		}
+		printReport(warmupTimes, times);
+		if (threadBean != null)
+			printAllocationReport(allocated, times);
+	}
+
+	/// Print the benchmark report.
+	/// @param warmupTimes the warmup times in nanoseconds
+	/// @param times the measured times in nanoseconds
+	private static void printReport(final long[] warmupTimes, final long[] times) {
+		IO.println("\nWarmup    (ms): " + edTimes(warmupTimes));
+		IO.println("Measured  (ms): " + edTimes(times));
+		int n = times.length;
+		double mean = 0;
+		for (long t : times) mean += t;
+		mean = mean / n;
+		double variance = 0;
+		for (long t : times) variance += (t - mean) * (t - mean);
+		variance = (n > 1) ? (variance / (n - 1)) : 0;
+		double stddev = Math.sqrt(variance);
+		long[] sorted = times.clone();
+		Arrays.sort(sorted);
+		double median = (n % 2 == 1) ? sorted[n / 2] : ((sorted[n / 2 - 1] + sorted[n / 2]) / 2.0);
+		IO.println(String.format("Steady state over %d iterations: mean %.3f ms, stddev %.3f ms (%.1f%%)", n,
+				mean / 1.0e6, stddev / 1.0e6, (mean > 0) ? (100 * stddev / mean) : 0.0));
+		IO.println(String.format("                               min %.3f ms, median %.3f ms, max %.3f ms",
+				sorted[0] / 1.0e6, median / 1.0e6, sorted[n - 1] / 1.0e6));
+	}
+
+	/// Print the allocation report.
+	/// @param allocated the bytes allocated by each measured iteration
+	/// @param times the measured times in nanoseconds
+	private static void printAllocationReport(final long[] allocated, final long[] times) {
+		long bytes = 0;
+		long nanos = 0;
+		for (int i = 0; i < allocated.length; i++) {
+			bytes += allocated[i];
+			nanos += times[i];
+		}
+		long[] sorted = allocated.clone();
+		Arrays.sort(sorted);
+		IO.println(String.format("Allocated per iteration: mean %.1f KB, min %.1f KB, max %.1f KB, rate %.1f MB/s",
+				bytes / 1024.0 / allocated.length, sorted[0] / 1024.0, sorted[sorted.length - 1] / 1024.0,
+				(nanos > 0) ? (bytes * 1.0e9 / nanos / (1024 * 1024)) : 0.0));
+	}
+
+	/// Edit a list of times in milliseconds.
+	/// @param times the times in nanoseconds
+	/// @return the edited list
+	private static String edTimes(final long[] times) {
+		StringBuilder sb = new StringBuilder();
+		for (long t : times)
+			sb.append(String.format(" %.3f", t / 1.0e6));
+		return (sb.toString());
+	}
+
+}
@@ -0,0 +1,53 @@
+/// (CC) This work is licensed under a Creative Commons
+/// Attribution 4.0 International License.
+///
+/// You find a copy of the License on the following
+/// page: https://creativecommons.org/licenses/by/4.0/
+package simula.runtime;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.util.Enumeration;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+
+/// Utility class CDS, used to create a class data sharing archive.
+///
+/// The Simula compiler creates the archive for an executable .jar file by a command of this form:
+///
+/// 		java -XX:ArchiveClassesAtExit=program.jsa -cp program.jar simula.runtime.RTS_CDS
+///
+/// This main program loads every class in the .jar file it is loaded from, i.e. the
+/// Runtime System and the program's classes, without initializing them and without
+/// executing the program. When the JVM exits, the loaded classes are written to the archive.
+///
+/// @author Øystein Myhre Andersen
+public final class RTS_CDS {
+
+	/// Default constructor: Not used.
+	private RTS_CDS() {}
+
+	/// Main entry.
+	/// @param args not used
+	/// @throws IOException if the .jar file can't be read
+	/// @throws URISyntaxException if the .jar file location is malformed
+	public static void main(final String[] args) throws IOException, URISyntaxException {
+		ClassLoader loader = RTS_CDS.class.getClassLoader();
+		File jarFile = new File(RTS_CDS.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+		try (JarFile jar = new JarFile(jarFile)) {
+			Enumeration<JarEntry> entries = jar.entries();
+			while (entries.hasMoreElements()) {
+				String name = entries.nextElement().getName();
+				if (!name.endsWith(".class") || name.endsWith("module-info.class")) continue;
+				String className = name.substring(0, name.length() - 6).replace('/', '.');
+				try {
+					Class.forName(className, false, loader);
+				} catch (ClassNotFoundException | LinkageError e) {
+					// Not archived, it is loaded as usual at runtime
+				}
+			}
+		}
+	}
+
+}
@@ -34,6 +34,8 @@ public abstract class RTS_CLASS extends RTS_BASICIO implements Runnable {
 	/// @param SL staticLink
 	public RTS_CLASS(final RTS_RTObject SL) {
 		super(SL);
+		if (_RTX != null && _RTX.census != null)
+			_RTX.census.created(getClass());
 	}
 
 	/// Runnable Body
@@ -55,7 +57,7 @@ public abstract class RTS_CLASS extends RTS_BASICIO implements Runnable {
 	private void beginCoroutine() {
 		// Using Thread or Virtual Thread
 		this._CORUT = new RTS_Coroutine(this);
-		if (RTS_Option.QPS_TRACING)
+		if (_RTX.option.QPS_TRACING)
 			RTS_UTIL.TRACE("START " + this.edObjectIdent());
 		swapCoroutines();
 	}
@@ -0,0 +1,199 @@
+/// (CC) This work is licensed under a Creative Commons
+/// Attribution 4.0 International License.
+///
+/// You find a copy of the License on the following
+/// page: https://creativecommons.org/licenses/by/4.0/
+package simula.runtime;
+
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/// Utility class Census: Per-class instance census of Simula objects.
+///
+/// Started by the runtime option -census. Each class object, i.e. each instance of a
+/// Simula class or prefixed block, is counted when created by RTS_CLASS' constructor,
+/// and when it terminates, see RTS_RTObject.EBLK. For each Simula class the census keeps
+/// the number of instances created, the number of live instances, i.e. created and not
+/// yet terminated, and the peak number of live instances during the run. That is all the
+/// census costs while the program runs.
+///
+/// Live instances are objects which are attached, detached or resumed. A terminated object
+/// is no longer counted, even if it is still referenced, and a detached object which is no
+/// longer referenced is counted until the program ends. Text objects, arrays and the stacks
+/// of detached objects' coroutines are not included.
+///
+/// A class histogram of the heap may be taken on request through the JMX MBean, see
+/// RTS_Metrics. It is taken by the JVM's DiagnosticCommand MBean (the same as
+/// 'jcmd &lt;pid&gt; GC.class_histogram'), which forces a full garbage collection. It gives
+/// the number of reachable instances and their shallow size in bytes for each counted
+/// class. The histogram covers the whole JVM, so concurrent programs of the same classes,
+/// e.g. under RTS_Replicator, are counted together.
+///
+/// The census is printed when the program ends.
+///
+/// Link to GitHub: <a href=
+/// "https://github.com/portablesimula/EclipseWorkSpaces/blob/main/SimulaCompiler2/Simula/src/simula/runtime/RTS_Census.java"><b>Source File</b></a>.
+///
+/// @author Øystein Myhre Andersen
+final class RTS_Census {
+
+	/// The number of classes in the census report.
+	private static final int REPORT_CLASSES = 25;
+
+	/// The program's runtime context.
+	private final RTS_Context ctx;
+
+	/// Java class to class statistics.
+	private final ConcurrentHashMap<Class<?>, Count> counts = new ConcurrentHashMap<Class<?>, Count>();
+
+	/// Statistics for one Simula class.
+	private static final class Count {
+		/// The Simula class name.
+		final String name;
+		/// The number of instances created.
+		long created;
+		/// The number of live instances.
+		long live;
+		/// The peak number of live instances.
+		long peak;
+
+		/// Create a new Count.
+		/// @param cls the Java class
+		Count(final Class<?> cls) {
+			this.name = simulaName(cls);
+		}
+	}
+
+	/// Create a new Census.
+	/// @param ctx the program's runtime context
+	private RTS_Census(final RTS_Context ctx) {
+		this.ctx = ctx;
+	}
+
+	/// Start the census of the program of the given context. Called by BPRG.
+	/// @param ctx the program's runtime context
+	static void start(final RTS_Context ctx) {
+		ctx.census = new RTS_Census(ctx);
+	}
+
+	/// Stop the census and print the report.
+	/// Nothing is done if the census is not taken, or already stopped.
+	/// @param ctx the program's runtime context
+	static void stop(final RTS_Context ctx) {
+		RTS_Census census = ctx.census;
+		if (census == null)
+			return;
+		ctx.census = null;
+		census.report();
+	}
+
+	/// Count a new class object. Called by RTS_CLASS' constructor.
+	/// @param cls the class of the new object
+	void created(final Class<?> cls) {
+		Count count = counts.get(cls);
+		if (count == null)
+			count = counts.computeIfAbsent(cls, Count::new);
+		count.created++;
+		if (++count.live > count.peak)
+			count.peak = count.live;
+	}
+
+	/// Count a terminated class object. Called by RTS_RTObject.EBLK.
+	/// @param cls the class of the terminated object
+	void terminated(final Class<?> cls) {
+		Count count = counts.get(cls);
+		if (count != null && count.live > 0)
+			count.live--;
+	}
+
+	/// Returns the number of live instances of each Simula class.
+	/// @return a map from Simula class name to the number of live instances
+	Map<String, Long> liveInstances() {
+		TreeMap<String, Long> live = new TreeMap<String, Long>();
+		for (Count count : counts.values())
+			live.merge(count.name, count.live, Long::sum);
+		return (live);
+	}
+
+	/// Take a class histogram of the heap, and return the lines of the counted classes.
+	///
+	/// Taking the histogram forces a full garbage collection. The histogram is shared by the
+	/// whole JVM: the instances of concurrent programs of the same classes are included.
+	/// @return the histogram text
+	String classHistogram() {
+		HashMap<String, String> byName = new HashMap<String, String>();
+		for (Map.Entry<Class<?>, Count> entry : counts.entrySet())
+			byName.put(entry.getKey().getName(), entry.getValue().name);
+		String histogram = heapHistogram();
+		if (histogram == null)
+			return ("Heap histogram not available");
+		StringBuilder sb = new StringBuilder();
+		sb.append("Class histogram of the whole JVM, shared by all programs in it\n");
+		sb.append(String.format("%12s %14s  %s%n", "Instances", "Bytes", "Class"));
+		// Lines are: "   num:   #instances   #bytes  class name (module)"
+		for (String line : histogram.split("\n")) {
+			String[] item = line.trim().split("\\s+");
+			if (item.length < 4 || !item[0].endsWith(":"))
+				continue;
+			String name = byName.get(item[3]);
+			if (name != null)
+				sb.append(String.format("%12s %14s  %s%n", item[1], item[2], name));
+		}
+		return (sb.toString());
+	}
+
+	/// Print the census report.
+	private void report() {
+		ArrayList<Count> list = new ArrayList<Count>(counts.values());
+		list.sort((a, b) -> Long.compare(b.peak, a.peak));
+		RTS_UTIL.println("\nInstance census of " + ctx.programIdent + ": " + list.size() + " classes");
+		RTS_UTIL.println(String.format("%12s %12s %12s  %s", "Created", "Live", "Peak", "Class"));
+		int n = Math.min(REPORT_CLASSES, list.size());
+		for (int i = 0; i < n; i++) {
+			Count count = list.get(i);
+			RTS_UTIL.println(String.format("%12d %12d %12d  %s", count.created, count.live, count.peak, count.name));
+		}
+	}
+
+	// ***************************************************************
+	// *** Utilities
+	// ***************************************************************
+
+	/// Take a class histogram of the live objects in the heap.
+	/// @return the histogram text, or null if it can't be taken
+	private static String heapHistogram() {
+		try {
+			ObjectName name = new ObjectName("com.sun.management:type=DiagnosticCommand");
+			return ((String) ManagementFactory.getPlatformMBeanServer().invoke(name, "gcClassHistogram",
+					new Object[] { new String[0] }, new String[] { String[].class.getName() }));
+		} catch (JMException e) {
+			RTS_UTIL.printWarning("Can't take heap histogram: " + e);
+			return (null);
+		}
+	}
+
+	/// Returns the Simula name of a class, i.e. the ident of its _INFO if present,
+	/// otherwise the simple class name without any RTS_ prefix.
+	/// @param cls the Java class
+	/// @return the Simula class name
+	private static String simulaName(final Class<?> cls) {
+		try {
+			Field field = cls.getField("_INFO");
+			if (field.getDeclaringClass() == cls)
+				return (((RTS_PROGINFO) field.get(null)).ident);
+		} catch (Exception e) {
+			// Generated as class files directly, or a runtime class
+		}
+		String name = cls.getSimpleName();
+		return ((name.startsWith("RTS_")) ? name.substring(4) : name);
+	}
+
+}
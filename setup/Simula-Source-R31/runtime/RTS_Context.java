@@ -0,0 +1,206 @@
+/// (CC) This work is licensed under a Creative Commons
+/// Attribution 4.0 International License.
+///
+/// You find a copy of the License on the following
+/// page: https://creativecommons.org/licenses/by/4.0/
+package simula.runtime;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
+
+/// Utility class Runtime Context.
+///
+/// A runtime context holds the global state of one execution of a Simula program:
+/// the current and outermost block instances, SYSIN and SYSOUT, the coroutine
+/// bookkeeping, the runtime options, the current lowten and decimalmark characters,
+/// the registered exception handler, the free lists of reusable procedures and a few counters.
+///
+/// A new context is created by RTS_UTIL.BPRG for each program execution. Since
+/// nothing is shared between contexts, several Simula programs, or several
+/// replications of one program, may run concurrently in separate threads of one JVM.
+///
+/// The context is reachable in two ways:
+///
+/// - From each block instance, by the field _RTX. It is inherited from the
+///   static link when the instance is created.
+/// - From the thread, by RTS_Context.current(). The thread which calls BPRG and
+///   the threads of the program's coroutines are bound to the context. This is
+///   used by the context-free standard procedures, e.g. sysout, lowten and the
+///   text editing procedures.
+///
+/// @author Øystein Myhre Andersen
+public final class RTS_Context {
+
+	/// The context bound to the current thread.
+	private static final ThreadLocal<RTS_Context> threadContext = new ThreadLocal<RTS_Context>();
+
+	/// Set by an in-process launcher, e.g. RTS_Replicator, before it calls a program's main.
+	/// BPRG passes each new context created on that thread to it, before the runtime options are set.
+	static final ThreadLocal<Consumer<RTS_Context>> launcher = new ThreadLocal<Consumer<RTS_Context>>();
+
+	/// The program ident.
+	final String programIdent;
+
+	/// The runtime options.
+	final RTS_Option option;
+
+	/// Execution start time in millis.
+	final long startTimeMs;
+
+	/// Outermost Block Instance
+	public final RTS_BASICIO _CTX;
+
+	/// Outermost user Block Instance
+	public RTS_BASICIO _USR;
+
+	/// Current Block Instance
+	public RTS_RTObject _CUR;
+
+	/// The variable SYSIN.
+	RTS_Infile _SYSIN;
+
+	/// The variable SYSOUT.
+	RTS_Printfile _SYSOUT;
+
+	/// The current Coroutine, null when the main program is running.
+	RTS_Coroutine currentCoroutine;
+
+	/// Semaphore used to suspend/resume the main Thread.
+	final Semaphore mainSemaphore = new Semaphore(0);
+
+	/// Used to propagate exceptions between coroutines.
+	RuntimeException _PENDING_EXCEPTION;
+
+	/// The current lowten character. See RTS_ENVIRONMENT.lowten.
+	char CURRENTLOWTEN = '&';
+
+	/// The current decimalmark character. See RTS_ENVIRONMENT.decimalmark.
+	char CURRENTDECIMALMARK = '.';
+
+	/// The registered EXCEPTION_HANDLER or null. See RTS_ENVIRONMENT.DEFEXCEPTION.
+	RTS_PRCQNT EXCEPTION_HANDLER;
+
+	/// The current module ident. See RTS_UTIL._LINE.
+	String currentModid;
+
+	/// The current simula source line number. See RTS_UTIL._LINE.
+	int currentSimLine;
+
+	/// Number of edit overflows.
+	int numberOfEditOverflows;
+
+	/// True: The program is run in-process by a launcher, and exit does not terminate the JVM.
+	boolean inProcess;
+
+	/// The exit status given to ENVIRONMENT.exit when running in-process.
+	int exitStatus;
+
+	/// If not null, sysout and the runtime messages are written to this writer.
+	Writer sysoutWriter;
+
+	/// The threads of the coroutines which are started and not yet terminated.
+	final Set<Thread> coroutineThreads = ConcurrentHashMap.newKeySet();
+
+	/// The profiler when the program is run with the option -profile, otherwise null.
+	RTS_Profiler profiler;
+
+	/// The registered MBean when the program is run with the option -jmx, otherwise null.
+	RTS_Metrics metrics;
+
+	/// The instance census when the program is run with the option -census, otherwise null.
+	RTS_Census census;
+
+	/// The most recently created Simulation block, or null. See RTS_Metrics.
+	RTS_Simulation simulation;
+
+	/// The number of process objects generated and not yet terminated. See RTS_Metrics.
+	int liveProcesses;
+
+	/// The number of coroutine switches, i.e. resumes of a coroutine or the main program. See RTS_Metrics.
+	long coroutineSwitches;
+
+	/// The number of text objects allocated. Only counted while RTS_Metrics is enabled.
+	long textObjects;
+
+	/// The files which are open. See RTS_File.signalOpened.
+	final Set<RTS_File> openFiles = ConcurrentHashMap.newKeySet();
+
+	/// The free lists of reusable procedures, indexed by the free list index of the procedure
+	/// class, each the first terminated instance. See RTS_PROCEDURE._POPFREE. Only used by the
+	/// thread running the program or the current coroutine, which hand over to each other.
+	RTS_PROCEDURE[] freeProcedures = new RTS_PROCEDURE[16];
+
+	/// Create a new runtime context.
+	/// @param ident the program identifier
+	/// @param args the program's arguments
+	RTS_Context(final String ident, final String[] args) {
+		this.programIdent = ident;
+		this.option = new RTS_Option(args);
+		this.startTimeMs = System.currentTimeMillis();
+		this._CTX = new RTS_BASICIO(null);
+		this._CTX._RTX = this;
+		this._CUR = _CTX;
+	}
+
+	/// Returns the context bound to the current thread.
+	///
+	/// Outside any program execution, a default context is returned.
+	/// @return the current context
+	public static RTS_Context current() {
+		RTS_Context ctx = threadContext.get();
+		return ((ctx != null) ? ctx : Default.CONTEXT);
+	}
+
+	/// Bind the current thread to this context.
+	void bind() {
+		threadContext.set(this);
+	}
+
+	/// Unbind the current thread from any context.
+	static void unbind() {
+		threadContext.remove();
+	}
+
+	/// Print a message on the captured sysout.
+	/// @param msg the message to print
+	void printCaptured(final String msg) {
+		try {
+			sysoutWriter.write(msg + '\n');
+			sysoutWriter.flush();
+		} catch (IOException e) {
+			throw new RTS_SimulaRuntimeError("Sysout failed", e);
+		}
+	}
+
+	/// Terminate the threads of all coroutines which are still suspended.
+	///
+	/// Called when the program is done. Otherwise the parked threads, and all the
+	/// objects reachable from them, would stay alive as long as the JVM.
+	void terminateCoroutines() {
+		for (Thread thread : coroutineThreads)
+			thread.interrupt();
+		coroutineThreads.clear();
+	}
+
+	/// Returns the program ident.
+	/// @return the program ident
+	public String getProgramIdent() {
+		return (programIdent);
+	}
+
+	/// The default context, created when first needed.
+	private static final class Default {
+		/// The default context.
+		static final RTS_Context CONTEXT = new RTS_Context("SimulaProgram", new String[0]);
+	}
+
+	@Override
+	public String toString() {
+		return ("RTS_Context[" + programIdent + ']');
+	}
+
+}
@@ -34,9 +34,9 @@ import java.util.concurrent.Semaphore;
 public class RTS_Coroutine implements Runnable {
 	
 	/**
-	 * The current Coroutine
+	 * The runtime context. It holds the current Coroutine and the main Thread's semaphore.
 	 */
-	private static RTS_Coroutine current;
+	private final RTS_Context ctx;
 	
 	/**
 	 * The caller
@@ -64,48 +64,31 @@ public class RTS_Coroutine implements Runnable {
 	 */
 	private Thread callerThread;
 	
-	/**
-	 * Semaphore used to suspend/resume main (platform) Thread
-	 */
-	private static Semaphore mainSemaphore;// = new Semaphore(0);
-	
 	/**
 	 * Semaphore used to suspend/resume this coroutine's Thread
 	 */
 	private Semaphore semaphore = new Semaphore(0);
 	
-	/**
-	 * Used to propagate exceptions to caller.
-	 */
-	public static RuntimeException _PENDING_EXCEPTION;// = null;
-
 	/**
 	 * The UncaughtExceptionHandler.
 	 */
 	Thread.UncaughtExceptionHandler uncaughtExceptionHandler = new Thread.UncaughtExceptionHandler() {
 		public void uncaughtException(Thread thread, Throwable e) {
+			if (e instanceof Terminated)
+				return;
 			if (e instanceof RuntimeException)
-				_PENDING_EXCEPTION = (RuntimeException) e;
+				ctx._PENDING_EXCEPTION = (RuntimeException) e;
 			else
-				_PENDING_EXCEPTION = new RuntimeException(e);
+				ctx._PENDING_EXCEPTION = new RuntimeException(e);
 			done = true;
-			if (RTS_Option.GOTO_TRACING) {
+			if (ctx.option.GOTO_TRACING) {
 				System.out.print("RTS_Coroutine.UncaughtExceptionHandler: GOT Exception ");
-				_PENDING_EXCEPTION.printStackTrace(System.out);
+				ctx._PENDING_EXCEPTION.printStackTrace(System.out);
 			}
-			detach();
+			detach(ctx);
 		}
 	};
 	
-	/**
-	 * Initiate local data.
-	 */
-	public static void INIT() {
-		current = null;
-		mainSemaphore = new Semaphore(0);
-		_PENDING_EXCEPTION = null;
-	}
-
 	/**
 	 * Create a new Coroutine with the given target.
 	 * 
@@ -114,6 +97,7 @@ public class RTS_Coroutine implements Runnable {
 //	public RTS_Coroutine(Runnable target) {
 	public RTS_Coroutine(RTS_CLASS target) {
 		this.target = target;
+		this.ctx = target._RTX;
 	}
 
 	/**
@@ -125,11 +109,12 @@ public class RTS_Coroutine implements Runnable {
 	}
 
 	/**
-	 * Returns the current Coroutine.
+	 * Returns the current Coroutine of a runtime context.
+	 * @param ctx the runtime context
 	 * @return the current Coroutine
 	 */
-	public static RTS_Coroutine getCurrentCoroutine() {
-		return current;
+	public static RTS_Coroutine getCurrentCoroutine(RTS_Context ctx) {
+		return ctx.currentCoroutine;
 	}
 
 	/**
@@ -140,58 +125,67 @@ public class RTS_Coroutine implements Runnable {
 		if (isDone())
 			throw new IllegalStateException("Coroutine terminated");
 		if (caller != null) {
-			if (caller != current)
+			if (caller != ctx.currentCoroutine)
 				throw new IllegalStateException("caller != currentCoroutine");
 		} else{
-			caller = current;
+			caller = ctx.currentCoroutine;
 		}
-		current = this;
+		ctx.currentCoroutine = this;
 		callerThread = Thread.currentThread();
 		if (targetThread == callerThread)
 			throw new IllegalStateException(this.toString() + ".run: Coroutine is already running");
 		if (targetThread == null) { // START VIRTUAL THREAD
 			Runnable runner = new Runnable() {
 				public void run() {
-					if (RTS_Option.GOTO_TRACING) {
-						try {
-							target.run();
-						} catch(Exception e) {
-							System.out.print("RTS_Coroutine.run: GOT Exception ");
-							e.printStackTrace(System.out);
-							throw e;
-						}
-					} else target.run();
+					ctx.bind();
+					try {
+						if (ctx.option.GOTO_TRACING) {
+							try {
+								target.run();
+							} catch(Exception e) {
+								System.out.print("RTS_Coroutine.run: GOT Exception ");
+								e.printStackTrace(System.out);
+								throw e;
+							}
+						} else target.run();
+					} finally {
+						ctx.coroutineThreads.remove(Thread.currentThread());
+					}
 
 					done = true;
-					detach();
+					detach(ctx);
 				}
 			};
 //			if(RTS_Option.USE_VIRTUAL_THREAD) {
-			targetThread = Thread.startVirtualThread(runner);
+			targetThread = Thread.ofVirtual().unstarted(runner);
 //			} else {
 //				targetThread=new Thread(runner);
-//				targetThread.start();
 //			}
 			
 			targetThread.setUncaughtExceptionHandler(uncaughtExceptionHandler);
+			ctx.coroutineThreads.add(targetThread);
+			if (ctx.profiler != null)
+				ctx.profiler.addThread(targetThread);
+			targetThread.start();
 		} else {
-			resume(this);
+			resume(ctx, this);
 		}
-		suspend(caller);
+		suspend(ctx, caller);
 		// Continue here after suspend
-		current = this.caller;
+		ctx.currentCoroutine = this.caller;
 	}
 
 	/**
-	 * Detach this Coroutine.
+	 * Detach the current Coroutine of a runtime context.
+	 * @param ctx the runtime context
 	 */
-	public static void detach() {
-		RTS_Coroutine cur = current;
+	public static void detach(RTS_Context ctx) {
+		RTS_Coroutine cur = ctx.currentCoroutine;
 		if (cur == null)
 			throw new IllegalStateException("Not within a Coroutine");
-		resume(cur.caller);
+		resume(ctx, cur.caller);
 		if (!cur.isDone())
-			suspend(cur);
+			suspend(ctx, cur);
 	}
 
 	// *********************************************************************
@@ -199,20 +193,22 @@ public class RTS_Coroutine implements Runnable {
 	// *********************************************************************
 	/**
 	 * Suspend the given Coroutine
-	 * @param coroutine the given Coroutine
+	 * @param ctx the runtime context
+	 * @param coroutine the given Coroutine, null for the main Thread
 	 */
-	private static void suspend(RTS_Coroutine coroutine) {
-		Semaphore semaphore = (coroutine == null) ? RTS_Coroutine.mainSemaphore : coroutine.semaphore;
+	private static void suspend(RTS_Context ctx, RTS_Coroutine coroutine) {
+		Semaphore semaphore = (coroutine == null) ? ctx.mainSemaphore : coroutine.semaphore;
 		try {
 			semaphore.acquire();
 		} catch (InterruptedException e) {
-			e.printStackTrace();
+			// The program is done, see RTS_Context.terminateCoroutines
+			throw new Terminated();
 		}
 		// Continue here when the semaphore is released by 'resume'
-		if (_PENDING_EXCEPTION != null) {
-			RuntimeException t = _PENDING_EXCEPTION;
-			_PENDING_EXCEPTION = null;
-			if (RTS_Option.GOTO_TRACING) {
+		if (ctx._PENDING_EXCEPTION != null) {
+			RuntimeException t = ctx._PENDING_EXCEPTION;
+			ctx._PENDING_EXCEPTION = null;
+			if (ctx.option.GOTO_TRACING) {
 				System.out.print("RTS_Coroutine.suspend: THROW Exception ");
 				t.printStackTrace(System.out);
 			}
@@ -229,10 +225,12 @@ public class RTS_Coroutine implements Runnable {
 	// *********************************************************************
 	/**
 	 * Resume the given Coroutine
-	 * @param coroutine the given Coroutine
+	 * @param ctx the runtime context
+	 * @param coroutine the given Coroutine, null for the main Thread
 	 */
-	private static void resume(RTS_Coroutine coroutine) {
-		Semaphore semaphore = (coroutine == null) ? RTS_Coroutine.mainSemaphore : coroutine.semaphore;
+	private static void resume(RTS_Context ctx, RTS_Coroutine coroutine) {
+		ctx.coroutineSwitches++;
+		Semaphore semaphore = (coroutine == null) ? ctx.mainSemaphore : coroutine.semaphore;
 		semaphore.release();
 	}
 
@@ -241,4 +239,19 @@ public class RTS_Coroutine implements Runnable {
 		return (target.getClass().getSimpleName());
 	}
 
+	/**
+	 * Thrown to unwind the Thread of a suspended Coroutine when the program is done.
+	 * <p>
+	 * It is an Error, so it is not caught by the Simula program's own exception handling.
+	 */
+	@SuppressWarnings("serial")
+	private static final class Terminated extends Error {
+		/**
+		 * Create a new Terminated without stack trace.
+		 */
+		Terminated() {
+			super(null, null, false, false);
+		}
+	}
+
 }
@@ -111,7 +111,7 @@ public class RTS_Directbytefile extends RTS_Bytefile {
 			long loc = randomAccessFile.getFilePointer();
 			return ((int) loc + 1);
 		} catch (IOException e) {
-			if(RTS_Option.VERBOSE) e.printStackTrace();
+			if(_RTX.option.VERBOSE) e.printStackTrace();
 			return (-1);
 		}
 	}
@@ -150,7 +150,7 @@ public class RTS_Directbytefile extends RTS_Bytefile {
 	/// 
 	/// @return true:ok, false:error
 	public boolean open() {
-		if (RTS_Option.VERBOSE)
+		if (_RTX.option.VERBOSE)
 			TRACE_OPEN("Open Directbytefile");
 		if (_OPEN)
 			return (false);
@@ -168,9 +168,10 @@ public class RTS_Directbytefile extends RTS_Bytefile {
 			randomAccessFile = new RandomAccessFile(file, mode);
 			INITIAL_LAST_LOC = (_APPEND) ? lastloc() : -1;
 		} catch (IOException e) {
-			if(RTS_Option.VERBOSE) e.printStackTrace();
+			if(_RTX.option.VERBOSE) e.printStackTrace();
 			return (false);
 		}
+		signalOpened();
 		return (true);
 	}
 
@@ -203,10 +204,11 @@ public class RTS_Directbytefile extends RTS_Bytefile {
 				randomAccessFile.close();
 			randomAccessFile = null;
 		} catch (IOException e) {
-    		if(RTS_Option.VERBOSE) e.printStackTrace();
+    		if(_RTX.option.VERBOSE) e.printStackTrace();
 			return (false);
 		}
 		_OPEN = false;
+		signalClosed();
 		return (true);
 	}
 
@@ -303,7 +305,10 @@ public class RTS_Directbytefile extends RTS_Bytefile {
 
 		try {
 			int b = randomAccessFile.read();
-			return (b == -1) ? 0 : b;
+			if (b == -1)
+				return (0);
+			_TRANSFERRED++;
+			return (b);
 		} catch (EOFException e) {
 			return (0);
 
@@ -352,6 +357,7 @@ public class RTS_Directbytefile extends RTS_Bytefile {
 		// if (_LOC > _MAXLOC) error("file overflow");
 		try {
 			randomAccessFile.write(b);
+			_TRANSFERRED++;
 		} catch (IOException e) {
 			throw new RTS_SimulaRuntimeError("I/O Error on file", e);
 		}
@@ -375,7 +381,7 @@ public class RTS_Directbytefile extends RTS_Bytefile {
 		try {
 			randomAccessFile.getChannel().force(true);
 		} catch (IOException e) {
-			if(RTS_Option.VERBOSE) e.printStackTrace();
+			if(_RTX.option.VERBOSE) e.printStackTrace();
 			return (false);
 		}
 		return (true);
@@ -459,7 +465,7 @@ public class RTS_Directbytefile extends RTS_Bytefile {
 			int size = loc2 - loc1 + 1;
 			fileLock = randomAccessFile.getChannel().lock(loc1, size, true);
 		} catch (IOException e) {
-			if(RTS_Option.VERBOSE) e.printStackTrace();
+			if(_RTX.option.VERBOSE) e.printStackTrace();
 			return (-2);
 		}
 		_LOCKED = true;
@@ -482,7 +488,7 @@ public class RTS_Directbytefile extends RTS_Bytefile {
 			try {
 				fileLock.release();
 			} catch (IOException e) {
-				if(RTS_Option.VERBOSE) e.printStackTrace();
+				if(_RTX.option.VERBOSE) e.printStackTrace();
 				result = false;
 			}
 		_LOCKED = false;
@@ -151,7 +151,7 @@ public class RTS_Directfile extends RTS_Imagefile {
 		if (_OPEN)
 			return (false);
 		File file = doCreateAction();
-		if (RTS_Option.VERBOSE)
+		if (_RTX.option.VERBOSE)
 			TRACE_OPEN("Open Directfile: " + file);
 		_LOC = 1;
 		_MAXLOC = maxint - 1;
@@ -169,11 +169,12 @@ public class RTS_Directfile extends RTS_Imagefile {
 			if (_APPEND)
 				INITIAL_LAST_LOC = lastloc();
 		} catch (IOException e) {
-			if (RTS_Option.VERBOSE)
+			if (_RTX.option.VERBOSE)
 				e.printStackTrace();
 			return (false);
 		}
 		locate(1);
+		signalOpened();
 		return (true);
 	}
 
@@ -213,12 +214,13 @@ public class RTS_Directfile extends RTS_Imagefile {
 				randomAccessFile.close();
 			randomAccessFile = null;
 		} catch (IOException e) {
-			if (RTS_Option.VERBOSE)
+			if (_RTX.option.VERBOSE)
 				e.printStackTrace();
 			return (false);
 		}
 		_OPEN = false;
 		_ENDFILE = true;
+		signalClosed();
 		return (true);
 	}
 
@@ -355,6 +357,8 @@ public class RTS_Directfile extends RTS_Imagefile {
 			try {
 				while (RTS_TXT.more(image)) {
 					int b = randomAccessFile.read();
+					if (b >= 0)
+						_TRANSFERRED++;
 					if (b < 0) {
 						_LOC = lastloc() + 1; // ENDFILE = true;
 						fill = (char) 0;
@@ -405,7 +409,9 @@ public class RTS_Directfile extends RTS_Imagefile {
 		if (!_CANWRITE)
 			throw new RTS_SimulaRuntimeError("Directfile: outimage failed - 'canwrite' is false");
 		try {
-			randomAccessFile.write(image.edText().getBytes());
+			byte[] bytes = image.edText().getBytes();
+			randomAccessFile.write(bytes);
+			_TRANSFERRED += bytes.length;
 		} catch (IOException e) {
 			throw new RTS_SimulaRuntimeError("Outimage failed", e);
 		}
@@ -453,6 +459,7 @@ public class RTS_Directfile extends RTS_Imagefile {
 		try {
 			for (int i = 0; i < _RECORDSIZE; i++)
 				randomAccessFile.write(0);
+			_TRANSFERRED += _RECORDSIZE;
 		} catch (IOException e) {
 			throw new RTS_SimulaRuntimeError("deleteimage failed", e);
 		}
@@ -477,7 +484,7 @@ public class RTS_Directfile extends RTS_Imagefile {
 		try {
 			randomAccessFile.getChannel().force(true);
 		} catch (IOException e) {
-    		if(RTS_Option.VERBOSE) e.printStackTrace();
+    		if(_RTX.option.VERBOSE) e.printStackTrace();
 			return (false);
 		}
 		return (false);
@@ -561,7 +568,7 @@ public class RTS_Directfile extends RTS_Imagefile {
 			int size = loc2 - loc1 + 1;
 			fileLock = randomAccessFile.getChannel().tryLock(loc1 - 1, size, true);
 		} catch (IOException e) {
-			if(RTS_Option.VERBOSE) e.printStackTrace();
+			if(_RTX.option.VERBOSE) e.printStackTrace();
 			return (-2);
 		}
 		_LOCKED = fileLock != null;
@@ -584,7 +591,7 @@ public class RTS_Directfile extends RTS_Imagefile {
 			try {
 				fileLock.release();
 			} catch (IOException e) {
-				if(RTS_Option.VERBOSE) e.printStackTrace();
+				if(_RTX.option.VERBOSE) e.printStackTrace();
 				result = false;
 			}
 		_LOCKED = false;
@@ -27,15 +27,6 @@ public class RTS_ENVIRONMENT extends RTS_RTObject {
 	/// NOTE: When updating release id, change version in setup.SimulaExtractor and simula.Global
 	static final String simulaReleaseID = "Simula-2.0";
 
-	/// The start time from System.currentTimeMillis
-	static long _STARTTIME = System.currentTimeMillis();
-	
-	/// The current lowten character.
-	static char CURRENTLOWTEN = '&';
-	
-	/// The current decimal mark character.
-	static char CURRENTDECIMALMARK = '.';
-	
 	/// A constant holding the maximum value a long real can have.
 	public final static double maxlongreal = Double.MAX_VALUE;
 
@@ -85,9 +76,9 @@ public class RTS_ENVIRONMENT extends RTS_RTObject {
 		String CPU = System.getProperty("os.arch");
 		String user = System.getProperty("user.name");
 		user=new String(user.getBytes(), StandardCharsets.US_ASCII);
-		String job = RTS_UTIL.progamIdent;
+		String job = RTS_Context.current().programIdent;
 		String acc = user;
-		String prog = RTS_UTIL.progamIdent;
+		String prog = job;
 		String siteid=OS+'.'+user;
 		
 		String simulaIdent = simid + "!!!" + siteid + "!!!" + OS + "!!!" + CPU + "!!!" + user + "!!!" + job + "!!!" + acc + "!!!" + prog;
@@ -374,8 +365,9 @@ public class RTS_ENVIRONMENT extends RTS_RTObject {
 	public static char lowten(final char c) {
 		if (illegalLowten(c))
 			throw new RTS_SimulaRuntimeError("Illegal LOWTEN Character: " + c + "  Code=" + (int) c);
-		char lowten = CURRENTLOWTEN;
-		CURRENTLOWTEN = Character.toUpperCase(c);
+		RTS_Context ctx = RTS_Context.current();
+		char lowten = ctx.CURRENTLOWTEN;
+		ctx.CURRENTLOWTEN = Character.toUpperCase(c);
 		return (lowten);
 	}
 
@@ -415,8 +407,9 @@ public class RTS_ENVIRONMENT extends RTS_RTObject {
 		if (c != '.' && c != ',') {
 			throw new RTS_SimulaRuntimeError("Decimalmark error: " + c);
 		} else {
-			decimalmark = CURRENTDECIMALMARK;
-			CURRENTDECIMALMARK = c;
+			RTS_Context ctx = RTS_Context.current();
+			decimalmark = ctx.CURRENTDECIMALMARK;
+			ctx.CURRENTDECIMALMARK = c;
 		}
 		return (decimalmark);
 	}
@@ -1418,7 +1411,7 @@ public class RTS_ENVIRONMENT extends RTS_RTObject {
 	/// 
 	/// @return seconds since start of program
 	public static double cputime() {
-		double cputime = System.currentTimeMillis() - _STARTTIME;
+		double cputime = System.currentTimeMillis() - RTS_Context.current().startTimeMs;
 		return (cputime / 1000);
 	}
 
@@ -1488,7 +1481,7 @@ public class RTS_ENVIRONMENT extends RTS_RTObject {
 	public static RTS_TXT argv(final int index) {
 		RTS_TXT arg = null;
 		try {
-			arg = new RTS_TXT(RTS_Option.argv[index]);
+			arg = new RTS_TXT(RTS_Context.current().option.argv[index]);
 		} catch(Exception e) {}
 		return(arg);
 	}
@@ -1501,6 +1494,15 @@ public class RTS_ENVIRONMENT extends RTS_RTObject {
 //			console.read();
 //		}
 //		IO.println("RTS_ENVIRONMENT.exit: Just before 'System.exit(status)'  status="+status);
+		RTS_Context ctx = RTS_Context.current();
+		if (ctx.inProcess) {
+			// Run by an in-process launcher: End this program only
+			ctx.exitStatus = status;
+			throw new RTS_EndProgram("Simula - exit(" + status + ")");
+		}
+		RTS_Profiler.stop(ctx);
+		RTS_Metrics.stop(ctx);
+		RTS_Census.stop(ctx);
 		System.exit(status);
 	}
 
@@ -1632,7 +1634,7 @@ public class RTS_ENVIRONMENT extends RTS_RTObject {
 	/// 
 	/// See {@link RTS_ENVIRONMENT#DEFEXCEPTION(RTS_PRCQNT)}
 	public static void printStaticChain() {
-		RTS_UTIL.printStaticChain(RTS_RTObject._CUR);
+		RTS_UTIL.printStaticChain(RTS_Context.current()._CUR);
 	}
 
 	///// *********************************************************************
@@ -1640,15 +1642,12 @@ public class RTS_ENVIRONMENT extends RTS_RTObject {
 	///// *********************************************************************
 
 
-	/// The registered EXCEPTION_HANDLER or null.
-	public static RTS_PRCQNT EXCEPTION_HANDLER = null;
-
 	/// S-PORT Extension Procedure DEFEXCEPTION.
 	///
 	/// Register an EXCEPTION_HANDLER to be used by the runtime system when a runtime error occur.
 	/// @param EXCEPTION_HANDLER the argument
 	public static void DEFEXCEPTION(final RTS_PRCQNT EXCEPTION_HANDLER) {
-		RTS_ENVIRONMENT.EXCEPTION_HANDLER = EXCEPTION_HANDLER;
+		RTS_Context.current().EXCEPTION_HANDLER = EXCEPTION_HANDLER;
 	}
 
 
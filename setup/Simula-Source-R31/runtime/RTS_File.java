@@ -47,6 +47,9 @@ public class RTS_File extends RTS_CLASS {
 	/// The OPEN indicator.
 	protected boolean _OPEN;
 
+	/// The number of characters or bytes transferred since open. See RTS_JFR.
+	protected long _TRANSFERRED;
+
 	/// CREATE: Action is performed at 'open'
 	/// 
 	/// If the value is "create", the external file associated with FILENAME must not
@@ -157,7 +160,7 @@ public class RTS_File extends RTS_CLASS {
 		if (file.exists())
 			return (file);
 		if (!file.isAbsolute()) {
-			File tryFile = new File(RTS_Option.RUNTIME_USER_DIR, fileName);
+			File tryFile = new File(_RTX.option.RUNTIME_USER_DIR, fileName);
 			if (tryFile.exists())
 				return (tryFile);
 			File dir = new File(System.getProperty("user.dir", null));
@@ -173,10 +176,10 @@ public class RTS_File extends RTS_CLASS {
 					if (tryFile.exists())
 						return (tryFile);
 				} catch (Throwable e) {
-		    		if(RTS_Option.VERBOSE) e.printStackTrace();
+		    		if(_RTX.option.VERBOSE) e.printStackTrace();
 				}
 		}
-		if(! RTS_Option.noPopup) {
+		if(! _RTX.option.noPopup) {
 			JFileChooser fileChooser = new JFileChooser(file.getParent());
 			fileChooser.setDialogTitle("Can't Open " + fileName + ", select another");
 			int answer = fileChooser.showOpenDialog(null);
@@ -292,7 +295,7 @@ public class RTS_File extends RTS_CLASS {
 		if (charset.startsWith(":")) {
 			charset = charset.substring(1).trim();
 			if (Charset.isSupported(charset)) {
-				if (RTS_Option.VERBOSE)
+				if (_RTX.option.VERBOSE)
 					RTS_UTIL.printWarning("FILE(" + FILE_NAME.edText() + ").CHARSET Changed from " + _CHARSET + " to " + charset);
 				_CHARSET = Charset.forName(charset);
 				return (true);
@@ -311,16 +314,16 @@ public class RTS_File extends RTS_CLASS {
 	protected File doCreateAction() {
 		File file = new File(FILE_NAME.edText());
 		try {
-			if (!file.isAbsolute() && RTS_Option.RUNTIME_USER_DIR.length() > 0) {
-				file = new File(RTS_Option.RUNTIME_USER_DIR + '/' + FILE_NAME.edText());
+			if (!file.isAbsolute() && _RTX.option.RUNTIME_USER_DIR.length() > 0) {
+				file = new File(_RTX.option.RUNTIME_USER_DIR + '/' + FILE_NAME.edText());
 			}
-			if(RTS_Option.VERBOSE) IO.println("FILE.doCreateAction: " + _CREATE + " on "+file+", file.exists="+file.exists());
+			if(_RTX.option.VERBOSE) IO.println("FILE.doCreateAction: " + _CREATE + " on "+file+", file.exists="+file.exists());
 			switch (_CREATE) {
 				case NA -> {
 				}
 				case noCreate -> {
 					// If the value is "nocreate", the associated file must exist at "open".
-					if(RTS_Option.VERBOSE) IO.println("FILE.doCreateAction: noCreate on "+file+", success="+file.exists());
+					if(_RTX.option.VERBOSE) IO.println("FILE.doCreateAction: noCreate on "+file+", success="+file.exists());
 					if (!file.exists())
 						throw new RTS_SimulaRuntimeError("File access mode=noCreate but File \"" + file + "\" does not exist");
 				}
@@ -331,7 +334,7 @@ public class RTS_File extends RTS_CLASS {
 					if (!file.exists()) {
 						file.getParentFile().mkdirs();
 						boolean success = file.createNewFile();
-						if(RTS_Option.VERBOSE) IO.println("FILE.doCreateAction: Create on "+file+", success="+success);
+						if(_RTX.option.VERBOSE) IO.println("FILE.doCreateAction: Create on "+file+", success="+success);
 						if (!success)
 							throw new RTS_SimulaRuntimeError(
 									"File access mode=Create but couldn't create a new empty file: " + file);
@@ -343,7 +346,7 @@ public class RTS_File extends RTS_CLASS {
 					if (!file.exists()) {
 						file.getParentFile().mkdirs();
 						boolean success = file.createNewFile();
-						if(RTS_Option.VERBOSE) IO.println("FILE.doCreateAction: anyCreate on "+file+", success="+success);
+						if(_RTX.option.VERBOSE) IO.println("FILE.doCreateAction: anyCreate on "+file+", success="+success);
 						if (!success)
 							throw new RTS_SimulaRuntimeError(
 									"File access mode=anyCreate but couldn't create a new empty file: " + file);
@@ -351,7 +354,7 @@ public class RTS_File extends RTS_CLASS {
 				}
 			}
 		} catch (IOException e) {
-    		if(RTS_Option.VERBOSE) e.printStackTrace();
+    		if(_RTX.option.VERBOSE) e.printStackTrace();
 		}
 		return (file);
 	}
@@ -367,10 +370,23 @@ public class RTS_File extends RTS_CLASS {
 				}
 			}
 		} catch (Exception e) {
-    		if(RTS_Option.VERBOSE) e.printStackTrace();
+    		if(_RTX.option.VERBOSE) e.printStackTrace();
 		}
 	}
 
+	/// Utility: Signal that the file is opened. See RTS_JFR and RTS_Metrics.
+	protected void signalOpened() {
+		_TRANSFERRED = 0;
+		_RTX.openFiles.add(this);
+		RTS_JFR.file("open", this, 0);
+	}
+
+	/// Utility: Signal that the file is closed. See RTS_JFR and RTS_Metrics.
+	protected void signalClosed() {
+		_RTX.openFiles.remove(this);
+		RTS_JFR.file("close", this, _TRANSFERRED);
+	}
+
 	/// Utility: Trace file open.
 	/// @param mss a trace message
 	protected void TRACE_OPEN(String mss) {
@@ -47,7 +47,7 @@ public class RTS_Head extends RTS_Linkage {
 	/// @param SL staticLink
 	public RTS_Head(final RTS_RTObject SL) {
 		super(SL);
-		SUC = PRED = (RTS_Linkage) _CUR;
+		SUC = PRED = (RTS_Linkage) _RTX._CUR;
 	}
 
 	@Override
@@ -82,7 +82,7 @@ public class RTS_Inbytefile extends RTS_Bytefile {
 	/// 
 	/// @return true if the file was successfully opened, otherwise false
 	public boolean open() {
-		if (RTS_Option.VERBOSE)
+		if (_RTX.option.VERBOSE)
 			TRACE_OPEN("Open InByteFile");
 		if (_OPEN)
 			return (false);
@@ -98,12 +98,13 @@ public class RTS_Inbytefile extends RTS_Bytefile {
 		} catch (FileNotFoundException e) {
 			_OPEN = false;
 			// _RT.BREAK("INBYTEFILE.OPEN: "+FILE_NAME.edText()+", Returns "+_OPEN);
-    		if(RTS_Option.VERBOSE) e.printStackTrace();
+    		if(_RTX.option.VERBOSE) e.printStackTrace();
 			return (false);
 		}
 		_OPEN = true;
 		_ENDFILE = false;
 		_BYTESIZE = _DEFAULT_BYTESIZE;
+		signalOpened();
 		// _RT.BREAK("INBYTEFILE.OPEN: "+FILE_NAME.edText()+", Returns "+_OPEN);
 		return (true);
 	}
@@ -124,6 +125,7 @@ public class RTS_Inbytefile extends RTS_Bytefile {
 			_OPEN = false;
 			_ENDFILE = true;
 			doPurgeAction();
+			signalClosed();
 			return (true);
 		}
 		return (false);
@@ -155,6 +157,7 @@ public class RTS_Inbytefile extends RTS_Bytefile {
 				_ENDFILE = true;
 				return (0);
 			}
+			_TRANSFERRED++;
 			return (b);
 		} catch (IOException e) {
 			throw new RTS_SimulaRuntimeError("Inbyte failed", e);
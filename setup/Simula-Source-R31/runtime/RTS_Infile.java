@@ -93,7 +93,7 @@ public class RTS_Infile extends RTS_Imagefile {
 	/// @param image the givent image
 	/// @return true if successful, otherwise false.
 	public boolean open(final RTS_TXT image) {
-		if (RTS_Option.VERBOSE)
+		if (_RTX.option.VERBOSE)
 			TRACE_OPEN("Open InFile");
 		if (_OPEN)
 			return (false);
@@ -115,13 +115,14 @@ public class RTS_Infile extends RTS_Imagefile {
 				Reader reader = new FileReader(file, _CHARSET);
 				lineReader = new BufferedReader(reader);
 			} catch (IOException e) {
-				if (RTS_Option.VERBOSE)
+				if (_RTX.option.VERBOSE)
 					e.printStackTrace();
 				_OPEN = false;
 				return (false);
 			}
 		}
 		_OPEN = true;
+		signalOpened();
 		return (true);
 	}
 
@@ -152,7 +153,7 @@ public class RTS_Infile extends RTS_Imagefile {
 				if (lineReader != null)
 					lineReader.close();
 			} catch (IOException e) {
-				if (RTS_Option.VERBOSE)
+				if (_RTX.option.VERBOSE)
 					e.printStackTrace();
 				return (false);
 			}
@@ -160,6 +161,7 @@ public class RTS_Infile extends RTS_Imagefile {
 		_OPEN = false;
 		_ENDFILE = true;
 		doPurgeAction();
+		signalClosed();
 		return (true);
 	}
 
@@ -228,7 +230,10 @@ public class RTS_Infile extends RTS_Imagefile {
 	/// @throws IOException if something went wrong.
 	private String readLine() throws IOException {
 		ensureSysinOpened();
-		return lineReader.readLine();
+		String line = lineReader.readLine();
+		if (line != null)
+			_TRANSFERRED += line.length() + 1;
+		return (line);
 	}
 	
 	/// Ensure that Sysin is open.
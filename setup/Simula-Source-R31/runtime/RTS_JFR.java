@@ -0,0 +1,236 @@
+/// (CC) This work is licensed under a Creative Commons
+/// Attribution 4.0 International License.
+///
+/// You find a copy of the License on the following
+/// page: https://creativecommons.org/licenses/by/4.0/
+package simula.runtime;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/// Utility class JFR: JDK Flight Recorder events emitted by the Simula runtime.
+///
+/// The events are recorded when a flight recording is started, e.g.
+/// <pre>
+/// 		java -XX:StartFlightRecording:filename=run.jfr -jar program.jar
+/// </pre>
+/// and are found under the category Simula / Runtime in JDK Mission Control.
+///
+/// The first use of an event class initializes the JVM's event infrastructure, which
+/// takes a noticeable part of a second. The event classes are therefore not touched
+/// until the Flight Recorder is initialized, i.e. until a recording is started, from
+/// the command line, by jcmd or by -profile. Until then, an instrumentation point costs
+/// a call of FlightRecorder.isInitialized. After that, it costs a check of the event
+/// type's enabled state. An event object is only created, and strings are only edited,
+/// when the event is enabled.
+///
+/// Duration events (coroutine and process operations) span the operation,
+/// i.e. their duration is the wall time until control returns to the operation's caller.
+///
+/// Link to GitHub: <a href=
+/// "https://github.com/portablesimula/EclipseWorkSpaces/blob/main/SimulaCompiler2/Simula/src/simula/runtime/RTS_JFR.java"><b>Source File</b></a>.
+///
+/// @author Øystein Myhre Andersen
+final class RTS_JFR {
+
+	/// Default Constructor. NOT USED
+	private RTS_JFR() {}
+
+	/// The event types, looked up when first needed, i.e. when the Flight Recorder is initialized.
+	private static final class Types {
+		/// The coroutine event type.
+		static final EventType COROUTINE = EventType.getEventType(CoroutineEvent.class);
+		/// The process event type.
+		static final EventType PROCESS = EventType.getEventType(ProcessEvent.class);
+		/// The file event type.
+		static final EventType FILE = EventType.getEventType(FileEvent.class);
+		/// The goto event type.
+		static final EventType GOTO = EventType.getEventType(GotoEvent.class);
+		/// The error event type.
+		static final EventType ERROR = EventType.getEventType(ErrorEvent.class);
+	}
+
+	// ***************************************************************
+	// *** Coroutine Events
+	// ***************************************************************
+
+	/// JFR event: A coroutine operation, i.e. resume, detach or call.
+	@Name("simula.runtime.Coroutine")
+	@Label("Simula Coroutine Operation")
+	@Category({ "Simula", "Runtime" })
+	@Description("A Simula resume, detach or call, lasting until control returns")
+	@StackTrace(false)
+	static final class CoroutineEvent extends Event {
+		/// The operation.
+		@Label("Operation")
+		String operation;
+
+		/// The object resumed, detached or called.
+		@Label("Object")
+		String object;
+	}
+
+	/// Begin a coroutine operation.
+	/// @param operation the operation
+	/// @param obj the object resumed, detached or called
+	/// @return the begun event, or null when the event is not enabled
+	static CoroutineEvent beginCoroutine(final String operation, final RTS_RTObject obj) {
+		if (!FlightRecorder.isInitialized() || !Types.COROUTINE.isEnabled())
+			return (null);
+		CoroutineEvent event = new CoroutineEvent();
+		event.operation = operation;
+		event.object = obj.edObjectIdent();
+		event.begin();
+		return (event);
+	}
+
+	// ***************************************************************
+	// *** Process Events
+	// ***************************************************************
+
+	/// JFR event: A Simulation process operation, i.e. activate, hold, passivate or wait.
+	@Name("simula.runtime.Process")
+	@Label("Simula Process Operation")
+	@Category({ "Simula", "Runtime" })
+	@Description("A Simulation activate, hold, passivate or wait, lasting until control returns")
+	@StackTrace(false)
+	static final class ProcessEvent extends Event {
+		/// The operation.
+		@Label("Operation")
+		String operation;
+
+		/// The process.
+		@Label("Process")
+		String process;
+
+		/// The simulated time when the operation began.
+		@Label("Simulated Time")
+		double simulatedTime;
+
+		/// The holding time, or the activation time. NaN when not applicable.
+		@Label("Argument Time")
+		double argumentTime;
+	}
+
+	/// Begin a process operation.
+	/// @param operation the operation
+	/// @param process the process, may be null
+	/// @param simulatedTime the simulated time
+	/// @param argumentTime the holding time or the activation time
+	/// @return the begun event, or null when the event is not enabled
+	static ProcessEvent beginProcess(final String operation, final RTS_Process process, final double simulatedTime,
+			final double argumentTime) {
+		if (!FlightRecorder.isInitialized() || !Types.PROCESS.isEnabled())
+			return (null);
+		ProcessEvent event = new ProcessEvent();
+		event.operation = operation;
+		event.process = (process == null) ? "none" : process.edObjectIdent();
+		event.simulatedTime = simulatedTime;
+		event.argumentTime = argumentTime;
+		event.begin();
+		return (event);
+	}
+
+	// ***************************************************************
+	// *** File Events
+	// ***************************************************************
+
+	/// JFR event: A file is opened or closed.
+	@Name("simula.runtime.File")
+	@Label("Simula File Open/Close")
+	@Category({ "Simula", "Runtime" })
+	@Description("A Simula file is opened or closed. At close: the number of characters or bytes transferred")
+	@StackTrace(false)
+	static final class FileEvent extends Event {
+		/// The operation.
+		@Label("Operation")
+		String operation;
+
+		/// The file class, e.g. Infile.
+		@Label("File Class")
+		String fileClass;
+
+		/// The file name.
+		@Label("File Name")
+		String fileName;
+
+		/// The number of characters or bytes transferred since open.
+		@Label("Transferred")
+		@DataAmount
+		long transferred;
+	}
+
+	/// Emit a file event.
+	/// @param operation the operation
+	/// @param file the file
+	/// @param transferred the number of characters or bytes transferred
+	static void file(final String operation, final RTS_File file, final long transferred) {
+		if (FlightRecorder.isInitialized() && Types.FILE.isEnabled()) {
+			FileEvent event = new FileEvent();
+			event.operation = operation;
+			event.fileClass = file.getClass().getSimpleName().replace("RTS_", "");
+			event.fileName = file.FILE_NAME.edText();
+			event.transferred = transferred;
+			event.commit();
+		}
+	}
+
+	// ***************************************************************
+	// *** Goto and Error Events
+	// ***************************************************************
+
+	/// JFR event: A label is thrown by a goto statement.
+	@Name("simula.runtime.Goto")
+	@Label("Simula Goto")
+	@Category({ "Simula", "Runtime" })
+	@Description("A goto statement throws a label")
+	static final class GotoEvent extends Event {
+		/// The label identifier.
+		@Label("Label")
+		String label;
+
+		/// The block in which the label is defined.
+		@Label("Block")
+		String block;
+	}
+
+	/// Emit a goto event.
+	/// @param q the label
+	static void gotoLabel(final RTS_LABEL q) {
+		if (FlightRecorder.isInitialized() && Types.GOTO.isEnabled()) {
+			GotoEvent event = new GotoEvent();
+			event.label = q.identifier;
+			event.block = (q._SL == null) ? null : q._SL.getClass().getSimpleName();
+			event.commit();
+		}
+	}
+
+	/// JFR event: A Simula runtime error is raised.
+	@Name("simula.runtime.Error")
+	@Label("Simula Runtime Error")
+	@Category({ "Simula", "Runtime" })
+	@Description("An RTS_SimulaRuntimeError is raised")
+	static final class ErrorEvent extends Event {
+		/// The error message.
+		@Label("Message")
+		String message;
+	}
+
+	/// Emit a runtime error event.
+	/// @param message the error message
+	static void error(final String message) {
+		if (FlightRecorder.isInitialized() && Types.ERROR.isEnabled()) {
+			ErrorEvent event = new ErrorEvent();
+			event.message = message;
+			event.commit();
+		}
+	}
+
+}
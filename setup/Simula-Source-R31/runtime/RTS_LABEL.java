@@ -34,6 +34,7 @@ public final class RTS_LABEL extends RuntimeException {
 	/// @param index label index
 	/// @param identifier label identifier
 	public RTS_LABEL(final RTS_RTObject _SL, final int _PRFX, final int index, final String identifier) {
+		super(null, null, false, false); // A label is control flow, not an error: no stack trace.
 		this._SL = _SL;
 		this._PRFX = _PRFX;
 		this.index = index;
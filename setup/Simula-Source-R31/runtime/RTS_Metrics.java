@@ -0,0 +1,183 @@
+/// (CC) This work is licensed under a Creative Commons
+/// Attribution 4.0 International License.
+///
+/// You find a copy of the License on the following
+/// page: https://creativecommons.org/licenses/by/4.0/
+package simula.runtime;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/// Utility class Metrics: Live runtime metrics of a Simula program, exposed as a JMX MBean.
+///
+/// Started by the runtime option -jmx. The MBean is registered in the platform MBean server as
+/// <pre>
+/// 		simula.runtime:type=Program,name=&lt;programIdent&gt;,id=&lt;n&gt;
+/// </pre>
+/// while the program runs, and can be watched with a local JMX client, e.g. jconsole or
+/// JDK Mission Control. See RTS_MetricsMXBean for the attributes.
+///
+/// The counters are plain fields maintained by RTS_Context, RTS_Simulation, RTS_Process,
+/// RTS_Coroutine and RTS_File, and are read unsynchronized by the JMX client's thread; the
+/// values are therefore approximate while the program runs. Text objects are only counted
+/// while some program in the JVM is run with -jmx, since RTS_TEXTOBJ has to look up the
+/// current context to count.
+///
+/// Link to GitHub: <a href=
+/// "https://github.com/portablesimula/EclipseWorkSpaces/blob/main/SimulaCompiler2/Simula/src/simula/runtime/RTS_Metrics.java"><b>Source File</b></a>.
+///
+/// @author Øystein Myhre Andersen
+final class RTS_Metrics implements RTS_MetricsMXBean {
+
+	/// True when text objects are counted. Set when the first MBean is registered.
+	static volatile boolean enabled;
+
+	/// Used to give the MBeans of concurrent programs unique names.
+	private static final AtomicInteger SEQU = new AtomicInteger();
+
+	/// The program's runtime context.
+	private final RTS_Context ctx;
+
+	/// The registered name.
+	private final ObjectName name;
+
+	/// The time of the previous call of getEventsPerSecond.
+	private long prevNanos;
+
+	/// The number of events processed at the previous call of getEventsPerSecond.
+	private long prevEvents;
+
+	/// Create a new Metrics MBean.
+	/// @param ctx the program's runtime context
+	/// @param name the name to register
+	private RTS_Metrics(final RTS_Context ctx, final ObjectName name) {
+		this.ctx = ctx;
+		this.name = name;
+		this.prevNanos = System.nanoTime();
+	}
+
+	/// Create and register the MBean of the program of the given context. Called by BPRG.
+	/// @param ctx the program's runtime context
+	static void start(final RTS_Context ctx) {
+		try {
+			ObjectName name = new ObjectName("simula.runtime:type=Program,name=" + ObjectName.quote(ctx.programIdent)
+					+ ",id=" + SEQU.incrementAndGet());
+			RTS_Metrics metrics = new RTS_Metrics(ctx, name);
+			ManagementFactory.getPlatformMBeanServer().registerMBean(metrics, name);
+			ctx.metrics = metrics;
+			enabled = true;
+			if (ctx.option.VERBOSE)
+				RTS_UTIL.println("JMX MBean registered: " + name);
+		} catch (JMException e) {
+			RTS_UTIL.printWarning("Can't register JMX MBean: " + e);
+		}
+	}
+
+	/// Unregister the MBean of the program of the given context.
+	/// Nothing is done if no MBean is registered.
+	/// @param ctx the program's runtime context
+	static void stop(final RTS_Context ctx) {
+		RTS_Metrics metrics = ctx.metrics;
+		if (metrics == null)
+			return;
+		ctx.metrics = null;
+		try {
+			ManagementFactory.getPlatformMBeanServer().unregisterMBean(metrics.name);
+		} catch (JMException e) {
+			RTS_UTIL.printWarning("Can't unregister JMX MBean: " + e);
+		}
+	}
+
+	@Override
+	public String getProgramIdent() {
+		return (ctx.programIdent);
+	}
+
+	@Override
+	public long getElapsedMillis() {
+		return (System.currentTimeMillis() - ctx.startTimeMs);
+	}
+
+	@Override
+	public double getSimulatedTime() {
+		RTS_Simulation sim = ctx.simulation;
+		if (sim != null && sim.sqs.bl instanceof RTS_EVENT_NOTICE first)
+			return (first.EVTIME());
+		return (Double.NaN);
+	}
+
+	@Override
+	public int getSQSLength() {
+		RTS_Simulation sim = ctx.simulation;
+		return ((sim == null) ? 0 : sim.sqsLength);
+	}
+
+	@Override
+	public long getEventsProcessed() {
+		RTS_Simulation sim = ctx.simulation;
+		return ((sim == null) ? 0 : sim.eventCount);
+	}
+
+	@Override
+	public synchronized double getEventsPerSecond() {
+		long now = System.nanoTime();
+		long events = getEventsProcessed();
+		double rate = (now > prevNanos) ? ((events - prevEvents) * 1.0e9 / (now - prevNanos)) : 0;
+		prevNanos = now;
+		prevEvents = events;
+		return (rate);
+	}
+
+	@Override
+	public int getLiveProcesses() {
+		return (ctx.liveProcesses);
+	}
+
+	@Override
+	public int getLiveCoroutines() {
+		return (ctx.coroutineThreads.size());
+	}
+
+	@Override
+	public long getCoroutineSwitches() {
+		return (ctx.coroutineSwitches);
+	}
+
+	@Override
+	public Map<String, Long> getOpenFiles() {
+		TreeMap<String, Long> files = new TreeMap<String, Long>();
+		for (RTS_File file : ctx.openFiles) {
+			String key = file.getClass().getSimpleName().replace("RTS_", "") + ' ' + file.FILE_NAME.edText();
+			files.merge(key, file._TRANSFERRED, Long::sum);
+		}
+		return (files);
+	}
+
+	@Override
+	public long getTextObjectsAllocated() {
+		return (ctx.textObjects);
+	}
+
+	@Override
+	public int getEditOverflows() {
+		return (ctx.numberOfEditOverflows);
+	}
+
+	@Override
+	public Map<String, Long> getLiveInstances() {
+		RTS_Census census = ctx.census;
+		return ((census == null) ? new TreeMap<String, Long>() : census.liveInstances());
+	}
+
+	@Override
+	public String takeClassHistogram() {
+		RTS_Census census = ctx.census;
+		return ((census == null) ? "No census is taken, see the option -census" : census.classHistogram());
+	}
+
+}
@@ -0,0 +1,80 @@
+/// (CC) This work is licensed under a Creative Commons
+/// Attribution 4.0 International License.
+///
+/// You find a copy of the License on the following
+/// page: https://creativecommons.org/licenses/by/4.0/
+package simula.runtime;
+
+import java.util.Map;
+
+/// Management interface of a running Simula program. See RTS_Metrics.
+///
+/// Link to GitHub: <a href=
+/// "https://github.com/portablesimula/EclipseWorkSpaces/blob/main/SimulaCompiler2/Simula/src/simula/runtime/RTS_MetricsMXBean.java"><b>Source File</b></a>.
+///
+/// @author Øystein Myhre Andersen
+public interface RTS_MetricsMXBean {
+
+	/// Returns the program ident.
+	/// @return the program ident
+	String getProgramIdent();
+
+	/// Returns the elapsed time since the program started.
+	/// @return the elapsed time in milliseconds
+	long getElapsedMillis();
+
+	/// Returns the current simulated time of the most recently created Simulation block.
+	/// @return the simulated time, or NaN if there is no Simulation block
+	double getSimulatedTime();
+
+	/// Returns the number of event notices in the sequencing set.
+	/// @return the SQS length, or 0 if there is no Simulation block
+	int getSQSLength();
+
+	/// Returns the number of events processed by the Simulation block.
+	/// @return the number of events processed
+	long getEventsProcessed();
+
+	/// Returns the rate of events processed since the previous call, or since
+	/// the program started on the first call.
+	/// @return the events processed per second
+	double getEventsPerSecond();
+
+	/// Returns the number of process objects generated and not yet terminated.
+	/// @return the number of live processes
+	int getLiveProcesses();
+
+	/// Returns the number of coroutines started and not yet terminated.
+	/// @return the number of live coroutines
+	int getLiveCoroutines();
+
+	/// Returns the number of coroutine switches.
+	/// @return the number of coroutine switches
+	long getCoroutineSwitches();
+
+	/// Returns the open files, each with the number of characters or bytes
+	/// read or written since it was opened.
+	/// @return a map from "FileClass name" to characters or bytes transferred
+	Map<String, Long> getOpenFiles();
+
+	/// Returns the number of text objects allocated.
+	/// @return the number of text objects allocated
+	long getTextObjectsAllocated();
+
+	/// Returns the number of edit overflows.
+	/// @return the number of edit overflows
+	int getEditOverflows();
+
+	/// Returns the number of live, i.e. not terminated, instances of each Simula class.
+	/// Only available when the program is run with the option -census, see RTS_Census.
+	/// @return a map from Simula class name to the number of live instances, empty if no census is taken
+	Map<String, Long> getLiveInstances();
+
+	/// Take a class histogram of the heap, and return the reachable instances and bytes of
+	/// each Simula class. This forces a full garbage collection. The histogram covers the
+	/// whole JVM, i.e. all programs running in it.
+	/// Only available when the program is run with the option -census, see RTS_Census.
+	/// @return the histogram text
+	String takeClassHistogram();
+
+}
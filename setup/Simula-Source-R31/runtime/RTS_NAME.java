@@ -87,7 +87,7 @@ public abstract class RTS_NAME<T> {
 
 	/// Construct a RTS_NAME object
 	public RTS_NAME() {
-		_CUR = RTS_RTObject._CUR;
+		_CUR = RTS_Context.current()._CUR;
 	}
 
 	/// Evaluate and get the value of a name parameter
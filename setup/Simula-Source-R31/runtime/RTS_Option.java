@@ -1,47 +1,65 @@
 package simula.runtime;
 
 /// Utility class Runtime Options.
-/// 
+///
+/// Each runtime context has its own options, set from the program's arguments.
+/// See RTS_Context.
+///
 /// Link to GitHub: <a href=
 /// "https://github.com/portablesimula/EclipseWorkSpaces/blob/main/SimulaCompiler2/Simula/src/simula/runtime/RTS_Option.java"><b>Source File</b></a>.
-/// 
+///
 /// @author Øystein Myhre Andersen
 public class RTS_Option {
-	
-	/// Default constructor.
-	RTS_Option() {}
-	
+
+	/// Create the default options.
+	/// @param argv the command line arguments
+	RTS_Option(final String[] argv) {
+		this.argv = argv;
+	}
+
 	/// Command line arguments
-	public static String[] argv;
+	public final String[] argv;
 
 	/// Output messages about what the RTS is doing.
 	/// Default: false.
-	public static boolean VERBOSE = false;
+	public boolean VERBOSE = false;
 
 	/// TRUE:Don't create popUps at runtime
-	static boolean noPopup = false;
-	
+	boolean noPopup = false;
+
 	/// Debug: Trace enter and exit of blocks, classes and procedures.
 	/// Default: false.
-	public static boolean BLOCK_TRACING = false;
-	
+	public boolean BLOCK_TRACING = false;
+
 	/// Debug: Trace goto statements.
 	/// Default: false.
-	public static boolean GOTO_TRACING = false;
-	
+	public boolean GOTO_TRACING = false;
+
 	///  Debug: Trace detach, resume and call.
 	/// Default: false.
-	public static boolean QPS_TRACING = false;
-	
+	public boolean QPS_TRACING = false;
+
 	/// Debug: Trace Simulation events.
 	/// Default: false.
-	public static boolean SML_TRACING = false;
-	
+	public boolean SML_TRACING = false;
+
+	/// Sample the program's execution and write a Simula-level profile at exit.
+	/// See RTS_Profiler. Default: false.
+	public boolean PROFILE = false;
+
+	/// Register a JMX MBean with live runtime metrics while the program runs.
+	/// See RTS_Metrics. Default: false.
+	public boolean JMX = false;
+
+	/// Count the instances of each Simula class and print a census at exit.
+	/// See RTS_Census. Default: false.
+	public boolean CENSUS = false;
+
 	/// Specify where Simula files (Outfile, Infile, ...) are written and read.
 	/// Default: User working directory. System.property("user.dir")
-	public static String RUNTIME_USER_DIR = "";
-	
+	public String RUNTIME_USER_DIR = "";
+
 	/// Selectors for conditional compilation.
-	static String Selectors = "AZ";
+	String Selectors = "AZ";
 
 }
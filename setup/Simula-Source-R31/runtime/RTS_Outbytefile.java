@@ -66,7 +66,7 @@ public class RTS_Outbytefile extends RTS_Bytefile {
 	/// </pre>
 	/// @return true:ok, false:error
 	public boolean open() {
-		if (RTS_Option.VERBOSE)
+		if (_RTX.option.VERBOSE)
 			TRACE_OPEN("open Outbytefile:");
 		if (_OPEN)
 			return (false);
@@ -74,12 +74,13 @@ public class RTS_Outbytefile extends RTS_Bytefile {
 		try {
 			outputStream = new FileOutputStream(file, _APPEND);
 		} catch (FileNotFoundException e) {
-			if (RTS_Option.VERBOSE)
+			if (_RTX.option.VERBOSE)
 				e.printStackTrace();
 			return (false);
 		}
 		_OPEN = true;
 		_BYTESIZE = _DEFAULT_BYTESIZE;
+		signalOpened();
 		return (true);
 	}
 
@@ -96,6 +97,7 @@ public class RTS_Outbytefile extends RTS_Bytefile {
 		if (_OPEN) {
 			_OPEN = false;
 			doPurgeAction();
+			signalClosed();
 			return (true);
 		}
 		return (false);
@@ -117,6 +119,7 @@ public class RTS_Outbytefile extends RTS_Bytefile {
 			throw new RTS_SimulaRuntimeError("Illegal byte value");
 		try {
 			outputStream.write(b);
+			_TRANSFERRED++;
 			if (_SYNCHRONOUS)
 				outputStream.flush();
 		} catch (IOException e) {
@@ -139,6 +142,7 @@ public class RTS_Outbytefile extends RTS_Bytefile {
 			int lo = b & 0xFF;
 			outputStream.write(hi);
 			outputStream.write(lo);
+			_TRANSFERRED += 2;
 			if (_SYNCHRONOUS)
 				outputStream.flush();
 		} catch (IOException e) {
@@ -160,6 +164,7 @@ public class RTS_Outbytefile extends RTS_Bytefile {
 		while (RTS_TXT.more(t)) {
 			try {
 				outputStream.write((int) RTS_TXT.getchar(t));
+				_TRANSFERRED++;
 				if (_SYNCHRONOUS)
 					outputStream.flush();
 			} catch (IOException e) {
@@ -180,7 +185,7 @@ public class RTS_Outbytefile extends RTS_Bytefile {
 		try {
 			outputStream.flush();
 		} catch (IOException e) {
-			if (RTS_Option.VERBOSE)
+			if (_RTX.option.VERBOSE)
 				e.printStackTrace();
 			return (false);
 		}
@@ -80,7 +80,7 @@ public class RTS_Outfile extends RTS_Imagefile {
 	/// @param image the givent image
 	/// @return true if successful, otherwise false.
 	public boolean open(final RTS_TXT image) {
-		if (RTS_Option.VERBOSE)
+		if (_RTX.option.VERBOSE)
 			TRACE_OPEN("Open OutFile");
 		if (_OPEN)
 			return (false); // File already opened
@@ -94,11 +94,12 @@ public class RTS_Outfile extends RTS_Imagefile {
 			try {
 				writer = new FileWriter(file, _CHARSET, _APPEND);
 			} catch (IOException e) {
-				if (RTS_Option.VERBOSE)
+				if (_RTX.option.VERBOSE)
 					e.printStackTrace();
 				return (false);
 			}
 		}
+		signalOpened();
 		return (true);
 	}
 
@@ -136,12 +137,13 @@ public class RTS_Outfile extends RTS_Imagefile {
 			writer.flush();
 			writer.close();
 		} catch (IOException e1) {
-			if (RTS_Option.VERBOSE)
+			if (_RTX.option.VERBOSE)
 				e1.printStackTrace();
 			return (false);
 		} // else console.close();
 		_OPEN = false;
 		doPurgeAction();
+		signalClosed();
 		return (true);
 	}
 
@@ -183,6 +185,7 @@ public class RTS_Outfile extends RTS_Imagefile {
 			throw new RTS_SimulaRuntimeError("File not opened");
 		try {
 			writer.write(img);
+			_TRANSFERRED += img.length();
 			if (_SYNCHRONOUS)
 				writer.flush();
 		} catch (IOException e) {
@@ -253,7 +256,7 @@ public class RTS_Outfile extends RTS_Imagefile {
 		try {
 			writer.flush();
 		} catch (IOException e) {
-			if (RTS_Option.VERBOSE)
+			if (_RTX.option.VERBOSE)
 				e.printStackTrace();
 			return (false);
 		}
@@ -5,6 +5,8 @@
 /// page: https://creativecommons.org/licenses/by/4.0/
 package simula.runtime;
 
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /// Utility class PROCEDURE.
 /// 
@@ -18,6 +20,23 @@ public abstract class RTS_PROCEDURE extends RTS_BASICIO {
 	/// Number of actual parameters left to be transmitted.
 	protected int _nParLeft;
 
+	/// Next instance in the free list of a reusable procedure.
+	/// 
+	/// The compiler generates a static method '_NEW' for procedures whose instances
+	/// can't escape their dynamic extent. It links a terminated instance into the free
+	/// list of its class, and reinitializes it on the next call. The free lists are kept
+	/// per runtime context, see _POPFREE and _PUSHFREE.
+	public RTS_PROCEDURE _NXTFREE;
+
+	/// The number of instances in the free list from this instance on.
+	int _NFREE;
+
+	/// The maximum length of the free list of a procedure class.
+	/// 
+	/// Instances are only reused at the depth of recursion they were created. A longer list
+	/// would only keep the frames of a past deep recursion alive until the program ends.
+	static final int MAX_FREE = 32;
+
 	/// Create a normal procedure.
 	/// @param SL staticLink
 	public RTS_PROCEDURE(final RTS_RTObject SL) {
@@ -32,6 +51,76 @@ public abstract class RTS_PROCEDURE extends RTS_BASICIO {
 		this._nParLeft = nPar;
 	}
 
+	/// Prepare a terminated instance taken from the free list to be entered again.
+	/// 
+	/// Called from the generated '_REINIT' method before the attributes and parameters
+	/// are initialized and the block is entered (BBLK). The runtime context is taken from
+	/// the new static link, as in the constructor.
+	/// @param SL staticLink
+	public void _REUSE(final RTS_RTObject SL) {
+		_SL = SL;
+		_RTX = SL._RTX;
+		_JTX = 0;
+		_NXTFREE = null;
+	}
+
+	/// Used to give each reusable procedure class an index to its free list.
+	private static final AtomicInteger FREE_INDEX = new AtomicInteger();
+
+	/// Allocate the index to the free lists of a reusable procedure class.
+	/// 
+	/// Called when the procedure class is initialized, to set its static field '_FREEX'.
+	/// The free lists of a runtime context are kept in an array indexed by '_FREEX',
+	/// which is cheaper to access than a map from the procedure class.
+	/// @return a new free list index
+	public static int _FREEINDEX() {
+		return (FREE_INDEX.getAndIncrement());
+	}
+
+	/// Take a terminated instance from the free list of a reusable procedure.
+	/// 
+	/// Called from the generated static method '_NEW'. The free lists are kept in the
+	/// runtime context of the static link, so an instance is never shared between programs
+	/// running concurrently in one JVM, nor carried over from one program run to the next.
+	/// @param SL staticLink
+	/// @param index the procedure class' free list index, see _FREEINDEX
+	/// @return a terminated instance, or null if the free list is empty
+	public static RTS_PROCEDURE _POPFREE(final RTS_RTObject SL, final int index) {
+		if (SL == null) {
+			throw new RTS_SimulaRuntimeError("NONE-CHECK FAILED: Remote Call on Procedure x.proc, x==none");
+		}
+		RTS_PROCEDURE[] freeLists = SL._RTX.freeProcedures;
+		if (index >= freeLists.length)
+			return (null);
+		RTS_PROCEDURE ins = freeLists[index];
+		if (ins != null)
+			freeLists[index] = ins._NXTFREE;
+		return (ins);
+	}
+
+	/// Link this terminated instance into the free list of its class.
+	/// 
+	/// Called from the generated static method '_NEW' when the procedure has passed
+	/// through its final end, and the parameters and local variables are cleared.
+	/// The links to the enclosing blocks are cleared here, so that an instance in the free
+	/// list keeps nothing else alive. The instance is dropped if the list is full.
+	/// @param index the procedure class' free list index, see _FREEINDEX
+	public void _PUSHFREE(final int index) {
+		_SL = null;
+		_DL = null;
+		_CORUT = null;
+		RTS_PROCEDURE[] freeLists = _RTX.freeProcedures;
+		if (index >= freeLists.length)
+			freeLists = _RTX.freeProcedures = Arrays.copyOf(freeLists, Math.max(index + 1, 2 * freeLists.length));
+		RTS_PROCEDURE next = freeLists[index];
+		int n = (next == null) ? 0 : next._NFREE;
+		if (n < MAX_FREE) {
+			_NXTFREE = next;
+			_NFREE = n + 1;
+			freeLists[index] = this;
+		}
+	}
+
 	/// Sets next procedure parameter value.
 	/// 
 	/// This method is virtual and must be redefined in all procedure blocks with parameters.
@@ -34,6 +34,20 @@ public class RTS_PROGINFO {
 		this.LINEMAP_ = lineMap;
 	}
 
+	/// Map a Java line number to the Simula source line.
+	/// 
+	/// The line map is pairs of a Java line and a Simula line, in ascending order.
+	/// The Simula line is that of the pair before the first Java line not less than javaLine.
+	/// @param javaLine the Java line number
+	/// @return the Simula source line, or 0 if javaLine is not mapped, i.e. it is before
+	/// the first or after the last Java line of the map
+	int simulaLine(final int javaLine) {
+		int x = 0;
+		while (x < LINEMAP_.length && LINEMAP_[x] < javaLine)
+			x = x + 2;
+		return ((x > 0 && x < LINEMAP_.length) ? LINEMAP_[x - 1] : 0);
+	}
+
 	@Override
 	public String toString() {
 		StringBuilder sb = new StringBuilder();
@@ -248,7 +248,7 @@ public class RTS_PageWriter extends Writer {
 				printerJob.setPrintService(printService);
 				ok = true;
 			} catch (PrinterException e) {
-				if (RTS_Option.VERBOSE)
+				if (RTS_Context.current().option.VERBOSE)
 					e.printStackTrace();
 			}
 		} else
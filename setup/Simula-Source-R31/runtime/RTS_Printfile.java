@@ -161,7 +161,7 @@ public class RTS_Printfile extends RTS_Outfile {
 	@Override
 	public boolean open(final RTS_TXT image) {
 		String fileName = FILE_NAME.edText();
-		if (RTS_Option.VERBOSE)
+		if (_RTX.option.VERBOSE)
 			TRACE_OPEN("Open PrintFile: " + fileName);
 		if (_OPEN)
 			return (false); // File already opened
@@ -182,6 +182,7 @@ public class RTS_Printfile extends RTS_Outfile {
 			writer = pageWriter;
 			eject(1);
 		}
+		signalOpened();
 		return (true);
 	}
 
@@ -219,7 +220,7 @@ public class RTS_Printfile extends RTS_Outfile {
 	/// @return true if successful, otherwise false.
 	@Override
 	public boolean close() {
-		if (RTS_Option.VERBOSE)
+		if (_RTX.option.VERBOSE)
 			TRACE_OPEN("Close PrintFile");
 		if (!_OPEN)
 			return (false); // File not opened
@@ -235,13 +236,14 @@ public class RTS_Printfile extends RTS_Outfile {
 				writer.flush();
 				writer.close();
 			} catch (IOException e1) {
-				if (RTS_Option.VERBOSE)
+				if (_RTX.option.VERBOSE)
 					e1.printStackTrace();
 				return (false);
 			}
 		}
 		_OPEN = false;
 		doPurgeAction();
+		signalClosed();
 		return (true);
 	}
 
@@ -378,6 +380,7 @@ public class RTS_Printfile extends RTS_Outfile {
 		try { // String line=(image==null)?nl:(image.edStripedText()+nl);
 			ensureSysoutOpened();
 			writer.write(img);
+			_TRANSFERRED += img.length();
 			if (_SPACING > 1) {
 				for (int i = 1; i < _SPACING; i++)
 					writer.write("\n");
@@ -396,7 +399,9 @@ public class RTS_Printfile extends RTS_Outfile {
 	private void ensureSysoutOpened() {
 		if(writer == null) {
 			if (FILE_NAME.edText().equalsIgnoreCase("#sysout")) {
-				if(RTS_Option.noPopup) {
+				if(_RTX.sysoutWriter != null) {
+					writer = _RTX.sysoutWriter;
+				} else if(_RTX.option.noPopup) {
 					writer = new PrintWriter(System.out);
 				} else {
 					if (RTS_UTIL.console == null)
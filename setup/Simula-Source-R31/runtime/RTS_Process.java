@@ -75,6 +75,7 @@ public class RTS_Process extends RTS_Link {
 	/// @param SL staticLink
 	public RTS_Process(final RTS_RTObject SL) {
 		super(SL);
+		_RTX.liveProcesses++;
 	}
 
 	@Override
@@ -89,6 +90,7 @@ public class RTS_Process extends RTS_Link {
 
 	/// Utility: Terminate this Process.
 	protected void terminate() {
+		_RTX.liveProcesses--;
 		RTS_Process nxtcur = ((RTS_Simulation) _SL).passivate1();
 		resume(nxtcur, false); // Special Case without Swap
 		// Signal special action in _RTObject.EBLK
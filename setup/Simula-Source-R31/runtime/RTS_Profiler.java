@@ -0,0 +1,270 @@
+/// (CC) This work is licensed under a Creative Commons
+/// Attribution 4.0 International License.
+///
+/// You find a copy of the License on the following
+/// page: https://creativecommons.org/licenses/by/4.0/
+package simula.runtime;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.reflect.Field;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordedThread;
+import jdk.jfr.consumer.RecordingStream;
+
+/// Utility class Profiler: A sampling profiler at the Simula level.
+///
+/// Started by the runtime option -profile. The program's main thread and coroutine
+/// threads are sampled every SAMPLE_INTERVAL milliseconds by the JDK Flight Recorder's
+/// execution sampler, consumed in-process. These samples are taken asynchronously, so
+/// unlike Thread.getStackTrace they are not biased towards safepoints, and only running
+/// threads are sampled; a coroutine which is suspended is not charged.
+///
+/// Each Java stack frame of a generated class is mapped back to its Simula block,
+/// class or procedure and to the Simula source line. When the program was compiled
+/// via Java source, the mapping uses the class' _INFO line map (see RTS_PROGINFO);
+/// when generated as class files directly, the line numbers are already Simula lines.
+/// Runtime system frames are left out, except the runtime routine called from the
+/// innermost Simula frame, e.g. RTS_Printfile.outimage.
+///
+/// When the program ends, the samples are written as collapsed stacks to the file
+/// &lt;programIdent&gt;.collapsed in the user directory. That file is input to
+/// flame graph tools, e.g. flamegraph.pl or speedscope. A table of the hottest
+/// source lines is printed.
+///
+/// Link to GitHub: <a href=
+/// "https://github.com/portablesimula/EclipseWorkSpaces/blob/main/SimulaCompiler2/Simula/src/simula/runtime/RTS_Profiler.java"><b>Source File</b></a>.
+///
+/// @author Øystein Myhre Andersen
+final class RTS_Profiler {
+
+	/// The sample interval in milliseconds.
+	private static final int SAMPLE_INTERVAL = 10;
+
+	/// The number of lines in the hot line table.
+	private static final int HOT_LINES = 25;
+
+	/// The profiled program's runtime context.
+	private final RTS_Context ctx;
+
+	/// The in-process flight recording.
+	private final RecordingStream stream;
+
+	/// The ids of the program's threads, i.e. the main thread and the coroutine threads.
+	private final Set<Long> threadIds = ConcurrentHashMap.newKeySet();
+
+	/// The number of stack samples of Simula code.
+	private int nSamples;
+
+	/// Collapsed stack to sample count.
+	private final HashMap<String, Integer> stacks = new HashMap<String, Integer>();
+
+	/// Module and line to line statistics.
+	private final HashMap<String, Line> lines = new HashMap<String, Line>();
+
+	/// Class name to line map info. Null when the class has no _INFO.
+	private final HashMap<String, RTS_PROGINFO> infoCache = new HashMap<String, RTS_PROGINFO>();
+
+	/// Statistics for one Simula source line.
+	private static final class Line {
+		/// The Simula block, class or procedure.
+		final String module;
+		/// The source position, [file:]line.
+		final String position;
+		/// Samples with this line innermost.
+		int self;
+		/// Samples with this line anywhere on the stack.
+		int total;
+
+		/// Create a new Line.
+		/// @param module the Simula block, class or procedure
+		/// @param position the source position
+		Line(final String module, final String position) {
+			this.module = module;
+			this.position = position;
+		}
+	}
+
+	/// A Java stack frame mapped to Simula.
+	/// @param module the Simula block, class or procedure
+	/// @param file the Simula source file, or null if not known
+	/// @param line the Simula source line
+	private record Frame(String module, String file, int line) {}
+
+	/// Create a new Profiler and start sampling.
+	/// @param ctx the program's runtime context
+	private RTS_Profiler(final RTS_Context ctx) {
+		this.ctx = ctx;
+		addThread(Thread.currentThread());
+		stream = new RecordingStream();
+		stream.enable("jdk.ExecutionSample").withPeriod(Duration.ofMillis(SAMPLE_INTERVAL));
+		stream.onEvent("jdk.ExecutionSample", this::sample);
+		stream.startAsync();
+	}
+
+	/// Start profiling the program of the given context. Called by BPRG on the main thread.
+	/// @param ctx the program's runtime context
+	static void start(final RTS_Context ctx) {
+		ctx.profiler = new RTS_Profiler(ctx);
+	}
+
+	/// Stop profiling, write the collapsed stacks and print the hot line table.
+	/// Nothing is done if the program is not profiled, or profiling is already stopped.
+	/// @param ctx the program's runtime context
+	static void stop(final RTS_Context ctx) {
+		RTS_Profiler profiler = ctx.profiler;
+		if (profiler == null)
+			return;
+		ctx.profiler = null;
+		// Waits until all recorded samples are consumed
+		profiler.stream.stop();
+		profiler.stream.close();
+		profiler.report();
+	}
+
+	/// Add a thread of the program to the sampled threads.
+	/// @param thread the thread
+	void addThread(final Thread thread) {
+		threadIds.add(thread.threadId());
+	}
+
+	// ***************************************************************
+	// *** Sampling
+	// ***************************************************************
+
+	/// Treat one execution sample. Called on the recording stream's thread.
+	/// @param event the jdk.ExecutionSample event
+	private void sample(final RecordedEvent event) {
+		RecordedThread thread = event.getThread("sampledThread");
+		if (thread == null || !threadIds.contains(thread.getJavaThreadId()))
+			return;
+		RecordedStackTrace trace = event.getStackTrace();
+		if (trace == null)
+			return;
+		List<RecordedFrame> frames = trace.getFrames();
+		StringBuilder stack = new StringBuilder();
+		HashSet<Line> onStack = new HashSet<Line>();
+		Line innermost = null;
+		String runtimeCall = null;
+		// Walk from the outermost frame to the innermost
+		for (int i = frames.size() - 1; i >= 0; i--) {
+			RecordedFrame recorded = frames.get(i);
+			if (!recorded.isJavaFrame())
+				continue;
+			String className = recorded.getMethod().getType().getName();
+			String methodName = recorded.getMethod().getName();
+			Frame frame = simulaFrame(className, methodName, recorded.getLineNumber());
+			if (frame != null) {
+				String key = frame.module + ':' + frame.line;
+				Line line = lines.get(key);
+				if (line == null) {
+					String position = (frame.file == null) ? ("" + frame.line) : (frame.file + ':' + frame.line);
+					line = new Line(frame.module, position);
+					lines.put(key, line);
+				}
+				onStack.add(line);
+				innermost = line;
+				runtimeCall = null;
+				if (stack.length() > 0)
+					stack.append(';');
+				stack.append(key);
+			} else if (runtimeCall == null && innermost != null && className.startsWith("simula.runtime.")) {
+				runtimeCall = className.substring(15) + '.' + methodName;
+			}
+		}
+		if (innermost == null)
+			return; // Not in Simula code, e.g. during BPRG
+		if (runtimeCall != null)
+			stack.append(';').append(runtimeCall);
+		nSamples++;
+		stacks.merge(stack.toString(), 1, Integer::sum);
+		innermost.self++;
+		for (Line line : onStack)
+			line.total++;
+	}
+
+	/// Map a Java stack frame to Simula.
+	/// @param className the frame's class name
+	/// @param methodName the frame's method name
+	/// @param javaLine the frame's line number
+	/// @return the Simula frame, or null if it is not a frame of a generated class
+	private Frame simulaFrame(final String className, final String methodName, final int javaLine) {
+		if (javaLine <= 0 || methodName.equals("main"))
+			return (null); // No line info, or the program's launcher, see RTS_UTIL.RUN_STM
+		if (className.startsWith("simula.") || className.startsWith("java.") || className.startsWith("jdk.")
+				|| className.startsWith("sun."))
+			return (null);
+		RTS_PROGINFO info = getInfo(className);
+		if (info == null) {
+			// Generated as class files directly: The line numbers are Simula lines
+			String module = className.substring(className.lastIndexOf('.') + 1);
+			return (new Frame(module, null, javaLine));
+		}
+		int line = info.simulaLine(javaLine);
+		if (line <= 0)
+			return (null);
+		return (new Frame(info.ident, info.file, line));
+	}
+
+	/// Get the line map info of a generated class.
+	/// @param className the class name
+	/// @return the class' _INFO, or null if none
+	private RTS_PROGINFO getInfo(final String className) {
+		if (infoCache.containsKey(className))
+			return (infoCache.get(className));
+		RTS_PROGINFO info = null;
+		try {
+			ClassLoader loader = (ctx._USR != null) ? ctx._USR.getClass().getClassLoader()
+					: RTS_Profiler.class.getClassLoader();
+			Class<?> cls = Class.forName(className, false, loader);
+			Field field = cls.getField("_INFO");
+			info = (RTS_PROGINFO) field.get(null);
+		} catch (Exception e) {
+			// Generated as class files directly
+		}
+		infoCache.put(className, info);
+		return (info);
+	}
+
+	// ***************************************************************
+	// *** Reporting
+	// ***************************************************************
+
+	/// Write the collapsed stacks and print the hot line table.
+	private void report() {
+		File file = new File(ctx.option.RUNTIME_USER_DIR, ctx.programIdent + ".collapsed");
+		try (Writer writer = new FileWriter(file)) {
+			for (Map.Entry<String, Integer> entry : stacks.entrySet())
+				writer.write(entry.getKey() + ' ' + entry.getValue() + '\n');
+		} catch (IOException e) {
+			RTS_UTIL.printWarning("Profiler: Can't write " + file + ": " + e);
+		}
+		RTS_UTIL.println("\nProfile of " + ctx.programIdent + ": " + nSamples + " samples at " + SAMPLE_INTERVAL
+				+ " ms intervals. Collapsed stacks written to " + file);
+		if (nSamples == 0)
+			return;
+		ArrayList<Line> hot = new ArrayList<Line>(lines.values());
+		hot.sort((a, b) -> (a.self != b.self) ? (b.self - a.self) : (b.total - a.total));
+		RTS_UTIL.println(String.format("%7s %7s %7s %7s  %-20s %s", "Self", "Self%", "Total", "Total%", "Line", "Module"));
+		int n = Math.min(HOT_LINES, hot.size());
+		for (int i = 0; i < n; i++) {
+			Line line = hot.get(i);
+			RTS_UTIL.println(String.format("%7d %6.1f%% %7d %6.1f%%  %-20s %s", line.self, 100.0 * line.self / nSamples,
+					line.total, 100.0 * line.total / nSamples, line.position, line.module));
+		}
+	}
+
+}
@@ -17,27 +17,21 @@ public abstract class RTS_RTObject {
 	/// The default output line length. I.e. BASICIO'OUTPUT_LINELENGTH
 	static final int _OUTPUT_LINELENGTH = 132;
 
-	/// The variable SYSIN. 
-	static RTS_Infile _SYSIN;
-	
-
-	/// The intenal pointer to sysout.
-	public static RTS_Printfile _SYSOUT;
-
 	/// Implementation of Simula's Procedure sysin.
-	/// @return a pointer to _SYSIN
+	/// @return a pointer to the current context's SYSIN
 	public static RTS_Infile sysin() {
-		return (_SYSIN);
+		return (RTS_Context.current()._SYSIN);
 	}
 
 	/// Implementation of Simula's Procedure sysout.
-	/// @return a pointer to _SYSOUT
+	/// @return a pointer to the current context's SYSOUT
 	public static RTS_Printfile sysout() {
-		return (_SYSOUT);
+		return (RTS_Context.current()._SYSOUT);
 	}
 
-	/// Execution stat time in millis
-	static long startTimeMs;
+	/// The runtime context of the program execution this block instance belongs to.
+	/// Inherited from the static link. See RTS_Context.
+	public RTS_Context _RTX;
 
 	/// This object's Operational State.
 	/// @see OperationalState
@@ -49,15 +43,6 @@ public abstract class RTS_RTObject {
 	/// reactivation point (call stack and the continuation point).
 	public RTS_Coroutine _CORUT;
 
-	/// Outermost Block Instance
-	public static final RTS_BASICIO _CTX = new RTS_BASICIO(null);
-
-	/// Outermost user Block Instance
-	public static RTS_BASICIO _USR;
-	
-	/// Current Block Instance
-	public static RTS_RTObject _CUR = _CTX;
-	
 	/// Jump Table Index used by _STM()
 	public int _JTX;
 
@@ -102,7 +87,8 @@ public abstract class RTS_RTObject {
 	public RTS_RTObject(final RTS_RTObject SL) {
 		if (SL != null) {
 			this._SL = SL;
-			this._CORUT = RTS_Coroutine.getCurrentCoroutine();
+			this._RTX = SL._RTX;
+			this._CORUT = RTS_Coroutine.getCurrentCoroutine(_RTX);
 		}
 	}
 
@@ -318,7 +304,7 @@ public abstract class RTS_RTObject {
 	/// @param tableSize the jumptable size
 	public static void _JUMPTABLE(final int labelIndex,final int tableSize) {
 		// Local GOTO - Needs ByteCode Engineering.
-		if (RTS_Option.GOTO_TRACING)
+		if (RTS_Context.current().option.GOTO_TRACING)
 			RTS_UTIL.TRACE("_RTObject._JUMPTABLE: labelIndex=" + labelIndex);
 		String msg = "FATAL ERROR: Local GOTO LABEL#" + labelIndex + " Needs ByteCode Engineering.";
 		RTS_UTIL.println(msg);
@@ -335,9 +321,10 @@ public abstract class RTS_RTObject {
 	/// Utility method to avoid Java-error: "Unreachable code" after GOTO
 	/// @param q the RTS_LABEL
 	public void _GOTO(final RTS_LABEL q) {
-		if (RTS_Option.GOTO_TRACING) {
+		if (_RTX.option.GOTO_TRACING) {
 			RTS_UTIL.TRACE("RTS_RTObject.GOTO: " + q);
 		}
+		RTS_JFR.gotoLabel(q);
 		throw q;
 	}
 
@@ -352,15 +339,15 @@ public abstract class RTS_RTObject {
 	/// @param _THIS current object
 	/// @param q the label quant
 	public static void _TREAT_GOTO_CATCH_BLOCK(RTS_RTObject _THIS, RTS_LABEL q) {
-        _CUR=_THIS;
-        if(q._SL!=_CUR) {
-            if(RTS_Option.GOTO_TRACING)
-            	TRACE_GOTO(_CUR.getClass().getSimpleName()+":NON-LOCAL",q);
-            _CUR._STATE=OperationalState.terminated;
+        _THIS._RTX._CUR=_THIS;
+        if(q._SL!=_THIS) {
+            if(_THIS._RTX.option.GOTO_TRACING)
+            	TRACE_GOTO(_THIS.getClass().getSimpleName()+":NON-LOCAL",q);
+            _THIS._STATE=OperationalState.terminated;
             throw q;
         }
-        if(RTS_Option.GOTO_TRACING)
-        	TRACE_GOTO(_CUR.getClass().getSimpleName()+":LOCAL",q);
+        if(_THIS._RTX.option.GOTO_TRACING)
+        	TRACE_GOTO(_THIS.getClass().getSimpleName()+":LOCAL",q);
     }
 
 	// ************************************************************
@@ -373,7 +360,7 @@ public abstract class RTS_RTObject {
 	public static void TRACE_GOTO(final String msg, final RTS_LABEL label) {
 		RTS_UTIL.TRACE(msg + " GOTO " + label);
 		
-		IO.println("\nRTS_RTObject.TRACE_GOTO: "+label.identifier + ", CUR="+_CUR);
+		IO.println("\nRTS_RTObject.TRACE_GOTO: "+label.identifier + ", CUR="+RTS_Context.current()._CUR);
         new Exception("With Operating Chain:").printStackTrace(System.out);
 		
 	}
@@ -389,15 +376,15 @@ public abstract class RTS_RTObject {
 	/// <li>Update the current instance pointer(_CUR).</li>
 	/// </ul>
 	public void BBLK() {
-		_DL = _CUR;
-		_CUR = this;
-		_CORUT = _DL._CORUT;
-		_STATE = OperationalState.attached;
-		if (RTS_Option.BLOCK_TRACING)
-		RTS_UTIL.TRACE("BEGIN " + edObjectAttributes());
 		if (_SL == null) {
 			throw new RTS_SimulaRuntimeError("NONE-CHECK FAILED: Remote Call on Procedure x.proc, x==none");
 		}
+		_DL = _RTX._CUR;
+		_RTX._CUR = this;
+		_CORUT = _DL._CORUT;
+		_STATE = OperationalState.attached;
+		if (_RTX.option.BLOCK_TRACING)
+		RTS_UTIL.TRACE("BEGIN " + edObjectAttributes());
 	}
 
 	// *********************************************************************
@@ -429,12 +416,14 @@ public abstract class RTS_RTObject {
 	/// However; If the program passes through its final end sysout.outimage is
 	/// called. The the entire program is terminated.
 	public void EBLK() {
+		if (_RTX.census != null && this instanceof RTS_CLASS)
+			_RTX.census.terminated(getClass());
 		switch (_STATE) {
 		case attached -> {
-			if (RTS_Option.BLOCK_TRACING)
+			if (_RTX.option.BLOCK_TRACING)
 				RTS_UTIL.TRACE("END ATTACHED BLOCK " + edObjectAttributes());
 			_STATE = OperationalState.terminated;
-			_CUR = _DL; // Make the dynamic enclosure the new current instance.
+			_RTX._CUR = _DL; // Make the dynamic enclosure the new current instance.
 		}
 		case resumed -> {
 			// Treat the case of a resumed and operating object.
@@ -450,15 +439,15 @@ public abstract class RTS_RTObject {
 			// The main component becomes the operating component.
 			RTS_RTObject dl = _DL;
 			_DL = null;
-			_CUR = main._DL;
+			_RTX._CUR = main._DL;
 			main._DL = dl;
-			if (RTS_Option.BLOCK_TRACING)
+			if (_RTX.option.BLOCK_TRACING)
 				RTS_UTIL.TRACE("END COMPONENT " + edObjectAttributes());
 		}
 		case terminatingProcess -> {
-			if (RTS_Option.BLOCK_TRACING)
+			if (_RTX.option.BLOCK_TRACING)
 				RTS_UTIL.TRACE("TERMINATING PROCESS " + edObjectAttributes());
-			else if(RTS_Option.SML_TRACING) {
+			else if(_RTX.option.SML_TRACING) {
 				IO.println("          TERMINATING PROCESS " + edObjectIdent());
 			}
 			
@@ -468,13 +457,13 @@ public abstract class RTS_RTObject {
 		}
 		default -> throw new RTS_SimulaRuntimeError("_RTObject.EBLK: Internal Error " + edObjectAttributes());
 		}
-		if (_CUR == null || _CUR == _CTX) {
-			if (RTS_Option.BLOCK_TRACING)
+		if (_RTX._CUR == null || _RTX._CUR == _RTX._CTX) {
+			if (_RTX.option.BLOCK_TRACING)
 				RTS_UTIL.TRACE("PROGRAM PASSES THROUGH FINAL END " + edObjectAttributes());
 			RTS_UTIL.endProgram(0);
 		} else {
 			if (this._CORUT != null && this.isDetachUsed()) {
-				RTS_Coroutine.detach();
+				RTS_Coroutine.detach(_RTX);
 			}
 		}
 	}
@@ -538,9 +527,10 @@ public abstract class RTS_RTObject {
 		// if (_RT.Option.QPS_TRACING) _RT.TRACE("BEGIN DETACH " + this.edObjectIdent() + " ==> " + _CUR.edObjectIdent());
 		if (isQPSystemBlock())
 			return; // Detach QPS System Block is no-operation.
+		RTS_JFR.CoroutineEvent event = RTS_JFR.beginCoroutine("detach", this);
 		// Make sure that this object is on the operating chain.
 		// Note that a detached or terminated object cannot be on the operating chain.
-		RTS_RTObject dl = _CUR;
+		RTS_RTObject dl = _RTX._CUR;
 		while (dl != this) {
 			dl = dl._DL;
 			if (dl == null)
@@ -555,23 +545,25 @@ public abstract class RTS_RTObject {
 			// <main._DL,this._DL,_CUR> := <this._DL,_CUR,main._DL>
 			dl = main._DL;
 			main._DL = this._DL;
-			this._DL = _CUR;
-			_CUR = dl;
+			this._DL = _RTX._CUR;
+			_RTX._CUR = dl;
 		}
 		case attached -> {
 			// Swap the contents of object's 'this._DL' and '_CUR'.
 			// <this._DL,_CUR> := <_CUR,this._DL>
 			dl = this._DL;
-			this._DL = _CUR;
-			_CUR = dl;
+			this._DL = _RTX._CUR;
+			_RTX._CUR = dl;
 		}
 		default -> throw new RTS_SimulaRuntimeError("Illegal Detach");
 		}
 		this._STATE = OperationalState.detached;
 
-		if (RTS_Option.QPS_TRACING)
-			RTS_UTIL.TRACE("DETACH " + this.edObjectIdent() + " ==> " + _CUR.edObjectIdent());
-		RTS_Coroutine.detach();
+		if (_RTX.option.QPS_TRACING)
+			RTS_UTIL.TRACE("DETACH " + this.edObjectIdent() + " ==> " + _RTX._CUR.edObjectIdent());
+		RTS_Coroutine.detach(_RTX);
+		if (event != null)
+			event.commit();
 	}
 
 
@@ -585,12 +577,12 @@ public abstract class RTS_RTObject {
 	/// See {@link RTS_RTObject#detach()}
 	/// @param sourceLine the sourceline of the call
 	public void detach(int sourceLine) {
-		if (RTS_Option.QPS_TRACING)
-			RTS_UTIL.TRACE("LINE " + sourceLine + ": BEGIN DETACH " + this.edObjectIdent() + " ==> " + _CUR.edObjectIdent());
+		if (_RTX.option.QPS_TRACING)
+			RTS_UTIL.TRACE("LINE " + sourceLine + ": BEGIN DETACH " + this.edObjectIdent() + " ==> " + _RTX._CUR.edObjectIdent());
 		detach();
-		if (RTS_Option.QPS_TRACING)
+		if (_RTX.option.QPS_TRACING)
 			RTS_UTIL.TRACE("LINE " + sourceLine + ": DETACH(" + this.edObjectIdent() + ") CONTINUE IN "
-					+ _CUR.edObjectIdent());
+					+ _RTX._CUR.edObjectIdent());
 	}
 
 
@@ -633,14 +625,17 @@ public abstract class RTS_RTObject {
 		// Swap the contents of '_CUR' and object's 'dl'.
 		// <ins._DL,_CUR>:=<_CUR,ins._DL>;
 		dl = ins._DL;
-		ins._DL = _CUR;
-		_CUR = dl;
+		ins._DL = _RTX._CUR;
+		_RTX._CUR = dl;
 		// From now on the object is in attached state.
 		// It is no longer a component head.
 		ins._STATE = OperationalState.attached;
 		// if (_RT.Option.QPS_TRACING) _RT.TRACE("CALL " + this.edObjectIdent() + " ==>
 		// " + _CUR.edObjectIdent());
+		RTS_JFR.CoroutineEvent event = RTS_JFR.beginCoroutine("call", ins);
 		swapCoroutines();
+		if (event != null)
+			event.commit();
 	}
 	
 
@@ -648,12 +643,12 @@ public abstract class RTS_RTObject {
 	/// @param ins The object to be Called (Coroutine)
 	/// @param sourceLine the sourceline of the call
 	public void call(final RTS_RTObject ins, int sourceLine) {
-		if (RTS_Option.QPS_TRACING)
-			RTS_UTIL.TRACE("LINE " + sourceLine + ": BEGIN CALL " + this.edObjectIdent() + " ==> " + _CUR.edObjectIdent());
+		if (_RTX.option.QPS_TRACING)
+			RTS_UTIL.TRACE("LINE " + sourceLine + ": BEGIN CALL " + this.edObjectIdent() + " ==> " + _RTX._CUR.edObjectIdent());
 		call(ins);
-		if (RTS_Option.QPS_TRACING)
+		if (_RTX.option.QPS_TRACING)
 			RTS_UTIL.TRACE(
-					"LINE " + sourceLine + ": CALL(" + this.edObjectIdent() + ") CONTINUE IN " + _CUR.edObjectIdent());
+					"LINE " + sourceLine + ": CALL(" + this.edObjectIdent() + ") CONTINUE IN " + _RTX._CUR.edObjectIdent());
 	}
 
 
@@ -706,8 +701,8 @@ public abstract class RTS_RTObject {
 	/// @param ins The object to be Resumed
 	/// @param sourceLine the sourceline of the call
 	public void resume(final RTS_RTObject ins, int sourceLine) {
-		if (RTS_Option.QPS_TRACING)
-			RTS_UTIL.TRACE("LINE " + sourceLine + ": BEGIN RESUME " + this.edObjectIdent() + " ==> " + _CUR.edObjectIdent());
+		if (_RTX.option.QPS_TRACING)
+			RTS_UTIL.TRACE("LINE " + sourceLine + ": BEGIN RESUME " + this.edObjectIdent() + " ==> " + _RTX._CUR.edObjectIdent());
 		resume(ins);
 	}
 
@@ -731,7 +726,7 @@ public abstract class RTS_RTObject {
 			if (ins._STATE != OperationalState.detached)
 				throw new RTS_SimulaRuntimeError("Resume(x): x is not in detached state but " + ins._STATE);
 			// Find the operating component of the quasi-parallel system.
-			comp = _CUR;
+			comp = _RTX._CUR;
 			mainSL = main._SL;
 			while (comp._DL != mainSL)
 				comp = comp._DL;
@@ -740,14 +735,18 @@ public abstract class RTS_RTObject {
 			// Rotate the contents of 'ins.dl', 'comp.dl' and '_CUR'.
 			// Invariant: comp._DL = mainSL
 			// <ins._DL,comp._DL,_CUR>=<comp._DL,_CUR,ins._DL>
-			comp._DL = _CUR;
-			_CUR = ins._DL;
+			comp._DL = _RTX._CUR;
+			_RTX._CUR = ins._DL;
 			ins._DL = mainSL;
 			ins._STATE = OperationalState.resumed;
-			if (RTS_Option.QPS_TRACING)
-				RTS_UTIL.TRACE("RESUME " + this.edObjectIdent() + " ==> " + _CUR.edObjectIdent());
-			if (doSwap)
+			if (_RTX.option.QPS_TRACING)
+				RTS_UTIL.TRACE("RESUME " + this.edObjectIdent() + " ==> " + _RTX._CUR.edObjectIdent());
+			if (doSwap) {
+				RTS_JFR.CoroutineEvent event = RTS_JFR.beginCoroutine("resume", ins);
 				swapCoroutines();
+				if (event != null)
+					event.commit();
+			}
 		}
 	}
 
@@ -765,18 +764,19 @@ public abstract class RTS_RTObject {
 	// *********************************************************************
 
 	/// Utility: Swap Coroutines.
-	static void swapCoroutines() {
-		RTS_Coroutine cont = RTS_Coroutine.getCurrentCoroutine();
+	void swapCoroutines() {
+		RTS_Context ctx = _RTX;
+		RTS_Coroutine cont = ctx.currentCoroutine;
 		if (cont == null) {
-			cont = _CUR._CORUT;
-			RTS_RTObject next = _CUR;
+			cont = ctx._CUR._CORUT;
+			RTS_RTObject next = ctx._CUR;
 			while (next._CORUT != null) {
 				next._CORUT.run();
 				// Return here when Coroutine is Detached or Done
-				next = _CUR;
+				next = ctx._CUR;
 			}
 		} else {
-			RTS_Coroutine.detach();
+			RTS_Coroutine.detach(ctx);
 		}
 	}
 
@@ -823,7 +823,7 @@ public abstract class RTS_RTObject {
 		s.append(" DL=").append((_DL == null) ? "null" : _DL.edObjectIdent());
 		s.append(" STATE=").append(_STATE);
 		s.append(" CORUT=").append(_CORUT);
-		s.append(" CUR=").append(_CUR);
+		s.append(" CUR=").append((_RTX == null) ? "null" : _RTX._CUR);
 		return (s.toString());
 	}
 
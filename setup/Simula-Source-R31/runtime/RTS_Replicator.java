@@ -0,0 +1,350 @@
+/// (CC) This work is licensed under a Creative Commons
+/// Attribution 4.0 International License.
+///
+/// You find a copy of the License on the following
+/// page: https://creativecommons.org/licenses/by/4.0/
+package simula.runtime;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.jar.JarFile;
+
+/// Utility class Replicator.
+///
+/// Runs N replications of a compiled Simula program concurrently in the threads of one JVM.
+///
+/// Each replication calls the program's main method with its own argument list. It gets
+/// its own runtime context (see RTS_Context), with sysout captured in memory, and its
+/// own seed from a seed stream. All the program state that the runtime keeps lives in that
+/// context, including the free lists of reusable procedure instances, so two replications
+/// never share a block or procedure instance. The console and the GUI frames are still
+/// shared by the whole JVM; replications should not use them. The seed is passed to the program as a program argument:
+/// each occurrence of `{seed}` in the program arguments is replaced by the seed, and each
+/// occurrence of `{rep}` by the replication number. If no argument contains `{seed}`, the
+/// seed is appended as the last argument. The program reads it with argv.
+///
+/// Within a replication, ENVIRONMENT.exit ends the replication only, and its status is
+/// recorded. Warmup and JIT compilation are shared between the replications.
+///
+/// Usage:
+/// <pre>
+///     java -cp program.jar simula.runtime.RTS_Replicator [options] mainClass [programArgs]
+///     java -cp program.jar simula.runtime.RTS_Replicator [options] program.jar [programArgs]
+/// </pre>
+/// See help() for the options.
+///
+/// Link to GitHub: <a href=
+/// "https://github.com/portablesimula/EclipseWorkSpaces/blob/main/SimulaCompiler2/Simula/src/simula/runtime/RTS_Replicator.java"><b>Source File</b></a>.
+///
+/// @author Øystein Myhre Andersen
+public final class RTS_Replicator {
+
+	/// The result of one replication.
+	public static final class Replication {
+		/// The replication number, 1..N
+		public final int index;
+
+		/// The seed given to this replication.
+		public final int seed;
+
+		/// The program arguments given to this replication.
+		public final String[] argv;
+
+		/// The exit status. Zero for a normal end.
+		public int exitStatus;
+
+		/// Elapsed time in nanoseconds.
+		public long elapsedNanos;
+
+		/// The captured sysout, or null when it is not captured.
+		public String output;
+
+		/// The exception which ended the replication, or null.
+		public Throwable failure;
+
+		/// Create a new Replication.
+		/// @param index the replication number
+		/// @param seed the seed
+		/// @param argv the program arguments
+		Replication(final int index, final int seed, final String[] argv) {
+			this.index = index;
+			this.seed = seed;
+			this.argv = argv;
+		}
+
+		@Override
+		public String toString() {
+			return ("Replication " + index + "(seed=" + seed + ", status=" + exitStatus + ", time="
+					+ String.format("%.3f", elapsedNanos / 1.0e6) + " ms)");
+		}
+	}
+
+	/// Default Constructor. NOT USED
+	private RTS_Replicator() {}
+
+	/// Run replications of a program.
+	/// @param main the program's main method
+	/// @param programArgs the program arguments, possibly containing `{seed}` and `{rep}`
+	/// @param count the number of replications
+	/// @param threads the number of worker threads
+	/// @param baseSeed the seed of the seed stream
+	/// @param capture true: capture each replication's sysout, false: discard it
+	/// @return the replications in replication order
+	public static List<Replication> replicate(final Method main, final String[] programArgs, final int count,
+			final int threads, final long baseSeed, final boolean capture) {
+		int[] seeds = seedStream(baseSeed, count);
+		List<Replication> replications = new ArrayList<Replication>(count);
+		for (int i = 0; i < count; i++)
+			replications.add(new Replication(i + 1, seeds[i], edArguments(programArgs, i + 1, seeds[i])));
+
+		ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, threads));
+		try {
+			List<Future<?>> futures = new ArrayList<Future<?>>(count);
+			for (Replication rep : replications)
+				futures.add(executor.submit(() -> runReplication(main, rep, capture)));
+			for (Future<?> future : futures) {
+				try {
+					future.get();
+				} catch (Exception e) {
+					throw new RTS_SimulaRuntimeError("Replication failed", e);
+				}
+			}
+		} finally {
+			executor.shutdown();
+		}
+		return (replications);
+	}
+
+	/// Run one replication on the current thread.
+	/// @param main the program's main method
+	/// @param rep the replication
+	/// @param capture true: capture sysout, false: discard it
+	private static void runReplication(final Method main, final Replication rep, final boolean capture) {
+		Writer output = (capture) ? new StringWriter() : Writer.nullWriter();
+		RTS_Context[] context = new RTS_Context[1];
+		RTS_Context.launcher.set((ctx) -> {
+			ctx.inProcess = true;
+			ctx.option.noPopup = true;
+			ctx.sysoutWriter = output;
+			context[0] = ctx;
+		});
+		long t0 = System.nanoTime();
+		try {
+			main.invoke(null, (Object) rep.argv);
+		} catch (InvocationTargetException e) {
+			if (!(e.getCause() instanceof RTS_EndProgram)) {
+				rep.failure = e.getCause();
+			}
+		} catch (Exception e) {
+			rep.failure = e;
+		} finally {
+			rep.elapsedNanos = System.nanoTime() - t0;
+			RTS_Context.launcher.remove();
+			RTS_Context.unbind();
+		}
+		if (context[0] != null)
+			rep.exitStatus = context[0].exitStatus;
+		if (rep.failure != null && rep.exitStatus == 0)
+			rep.exitStatus = -1;
+		if (capture)
+			rep.output = output.toString();
+	}
+
+	/// Returns a stream of distinct positive seeds.
+	/// @param baseSeed the seed of the seed stream
+	/// @param count the number of seeds
+	/// @return the seeds
+	static int[] seedStream(final long baseSeed, final int count) {
+		SplittableRandom random = new SplittableRandom(baseSeed);
+		HashSet<Integer> used = new HashSet<Integer>();
+		int[] seeds = new int[count];
+		for (int i = 0; i < count; i++) {
+			int seed;
+			do seed = random.nextInt(1, Integer.MAX_VALUE);
+			while (!used.add(seed));
+			seeds[i] = seed;
+		}
+		return (seeds);
+	}
+
+	/// Edit the program arguments of a replication.
+	/// @param programArgs the program arguments, possibly containing `{seed}` and `{rep}`
+	/// @param index the replication number
+	/// @param seed the replication's seed
+	/// @return the resulting arguments
+	static String[] edArguments(final String[] programArgs, final int index, final int seed) {
+		ArrayList<String> argv = new ArrayList<String>();
+		boolean seedGiven = false;
+		for (String arg : programArgs) {
+			if (arg.contains("{seed}"))
+				seedGiven = true;
+			argv.add(arg.replace("{seed}", Integer.toString(seed)).replace("{rep}", Integer.toString(index)));
+		}
+		if (!seedGiven)
+			argv.add(Integer.toString(seed));
+		return (argv.toArray(new String[argv.size()]));
+	}
+
+	/// Find the main method of a program.
+	/// @param program a main class name, or a program .jar file with a Main-Class attribute
+	/// @return the main method
+	/// @throws Exception if the main method can't be found
+	static Method findMain(final String program) throws Exception {
+		Class<?> mainClass;
+		if (program.toLowerCase().endsWith(".jar")) {
+			File file = new File(program);
+			String mainClassName;
+			try (JarFile jarFile = new JarFile(file)) {
+				mainClassName = jarFile.getManifest().getMainAttributes().getValue("Main-Class");
+			}
+			if (mainClassName == null)
+				throw new IllegalArgumentException("No Main-Class in " + program);
+			@SuppressWarnings("resource")
+			URLClassLoader loader = new URLClassLoader(new URL[] { file.toURI().toURL() },
+					RTS_Replicator.class.getClassLoader());
+			mainClass = Class.forName(mainClassName, true, loader);
+		} else
+			mainClass = Class.forName(program);
+		return (mainClass.getMethod("main", String[].class));
+	}
+
+	/// Print synopsis of the replicator options.
+	private static void help() {
+		IO.println(RTS_ENVIRONMENT.simulaReleaseID + " Replicator\n");
+		IO.println("Usage: java -cp <program.jar> simula.runtime.RTS_Replicator [options] <program> [programArgs]\n\n"
+				+ "program                Main class name, or a program .jar file\n"
+				+ "programArgs            Program arguments. {seed} is replaced by the replication's seed\n"
+				+ "                       and {rep} by the replication number. Without {seed}, the seed\n"
+				+ "                       is appended as the last argument.\n\n"
+				+ "possible options include:\n"
+				+ "  -help                 Print this synopsis of options\n"
+				+ "  -n <count>            Number of replications. Default: 10\n"
+				+ "  -threads <n>          Number of worker threads. Default: available processors\n"
+				+ "  -seed <n>             Seed of the seed stream. Default: 0\n"
+				+ "  -outputDir <dir>      Write each replication's sysout to <dir>/rep<i>.txt\n"
+				+ "  -echo                 Print each replication's sysout in replication order\n");
+	}
+
+	/// Print error message, help and exit.
+	/// @param msg the error message
+	private static void error(final String msg) {
+		IO.println("ERROR: " + msg);
+		help();
+		System.exit(-1);
+	}
+
+	/// Replicator's main entry.
+	/// @param argv the arguments
+	public static void main(final String[] argv) {
+		int count = 10;
+		int threads = Runtime.getRuntime().availableProcessors();
+		long baseSeed = 0;
+		File outputDir = null;
+		boolean echo = false;
+		String program = null;
+		ArrayList<String> programArgs = new ArrayList<String>();
+		try {
+			for (int i = 0; i < argv.length; i++) {
+				String arg = argv[i];
+				if (program != null) programArgs.add(arg);
+				else if (arg.equalsIgnoreCase("-help")) { help(); return; }
+				else if (arg.equalsIgnoreCase("-n")) count = Integer.parseInt(argv[++i]);
+				else if (arg.equalsIgnoreCase("-threads")) threads = Integer.parseInt(argv[++i]);
+				else if (arg.equalsIgnoreCase("-seed")) baseSeed = Long.parseLong(argv[++i]);
+				else if (arg.equalsIgnoreCase("-outputDir")) outputDir = new File(argv[++i]);
+				else if (arg.equalsIgnoreCase("-echo")) echo = true;
+				else if (arg.charAt(0) == '-') error("Unknown option " + arg);
+				else program = arg;
+			}
+		} catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+			error("Illegal option value: " + e.getMessage());
+		}
+		if (program == null) error("No program given");
+		if (count < 1) error("Illegal number of replications: " + count);
+
+		Method main = null;
+		try {
+			main = findMain(program);
+		} catch (Exception e) {
+			error("Can't find main method of " + program + ": " + e);
+		}
+
+		long t0 = System.nanoTime();
+		List<Replication> replications = replicate(main, programArgs.toArray(new String[programArgs.size()]),
+				count, threads, baseSeed, echo || outputDir != null);
+		long wallNanos = System.nanoTime() - t0;
+
+		if (outputDir != null) {
+			outputDir.mkdirs();
+			for (Replication rep : replications)
+				writeOutput(new File(outputDir, "rep" + rep.index + ".txt"), rep.output);
+		}
+		if (echo) {
+			for (Replication rep : replications) {
+				IO.println("======== Replication " + rep.index + " (seed=" + rep.seed + ") ========");
+				IO.print(rep.output);
+			}
+		}
+		int exitStatus = printSummary(replications, threads, wallNanos);
+		System.exit(exitStatus);
+	}
+
+	/// Write a replication's captured sysout to a file.
+	/// @param file the output file
+	/// @param output the captured sysout
+	private static void writeOutput(final File file, final String output) {
+		try (Writer writer = new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8)) {
+			writer.write(output);
+		} catch (IOException e) {
+			throw new RTS_SimulaRuntimeError("Write " + file + " failed", e);
+		}
+	}
+
+	/// Print per-replication timing and the aggregated exit status.
+	/// @param replications the replications
+	/// @param threads the number of worker threads
+	/// @param wallNanos the elapsed wall-clock time
+	/// @return the exit status of the replicator: 0 if all replications ended normally, otherwise 1
+	private static int printSummary(final List<Replication> replications, final int threads, final long wallNanos) {
+		IO.println("Replication       Seed   Status    Time(ms)");
+		long min = Long.MAX_VALUE, max = 0, sum = 0;
+		TreeMap<Integer, List<Integer>> byStatus = new TreeMap<Integer, List<Integer>>();
+		for (Replication rep : replications) {
+			IO.println(String.format("%11d %10d %8d %11.3f%s", rep.index, rep.seed, rep.exitStatus,
+					rep.elapsedNanos / 1.0e6, (rep.failure != null) ? ("   " + rep.failure) : ""));
+			min = Math.min(min, rep.elapsedNanos);
+			max = Math.max(max, rep.elapsedNanos);
+			sum += rep.elapsedNanos;
+			byStatus.computeIfAbsent(rep.exitStatus, (k) -> new ArrayList<Integer>()).add(rep.index);
+		}
+		int n = replications.size();
+		IO.println(String.format("%nReplications: %d, threads: %d, wall time: %.3f ms", n, threads, wallNanos / 1.0e6));
+		IO.println(String.format("Replication time: min %.3f ms, mean %.3f ms, max %.3f ms", min / 1.0e6,
+				sum / 1.0e6 / n, max / 1.0e6));
+		for (Integer status : byStatus.keySet()) {
+			List<Integer> reps = byStatus.get(status);
+			String list = (status != 0 && reps.size() <= 20) ? (" " + reps) : "";
+			IO.println("Exit status " + status + ": " + reps.size() + " replication(s)" + list);
+		}
+		return ((byStatus.keySet().equals(Set.of(0))) ? 0 : 1);
+	}
+
+}
@@ -17,6 +17,7 @@ public class RTS_SimulaRuntimeError extends RuntimeException {
 	/// @param message the detail message
 	public RTS_SimulaRuntimeError(String message) {
 		super(message);
+		RTS_JFR.error(message);
 	}
 
 	/// Constructs a new exception with the specified detail message and cause.
@@ -24,11 +25,13 @@ public class RTS_SimulaRuntimeError extends RuntimeException {
 	/// @param cause the cause
 	public RTS_SimulaRuntimeError(String message, Throwable cause) {
 		super(message, cause);
+		RTS_JFR.error(message);
 	}
 
 	/// Constructs a new exception with the specified detail cause.
 	/// @param cause the cause
 	public RTS_SimulaRuntimeError(Throwable cause) {
 		super(cause.getMessage(), cause);
+		RTS_JFR.error(cause.getMessage());
 	}
 }
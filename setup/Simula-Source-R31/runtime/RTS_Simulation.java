@@ -94,6 +94,13 @@ public class RTS_Simulation extends RTS_Simset {
 
 	/// The sequencing set.
 	final RTS_Ranking sqs;
+
+	/// The number of event notices in the sequencing set. See RTS_Metrics.
+	int sqsLength;
+
+	/// The number of events processed, i.e. active phases ended by hold, passivate, wait,
+	/// cancel, termination or a preempting activation. See RTS_Metrics.
+	long eventCount;
 	
 	/// The main program.
 	public final RTS_MAIN_PROGRAM main_1;
@@ -107,9 +114,11 @@ public class RTS_Simulation extends RTS_Simset {
 		sqs.ll = sqs;
 		sqs.rl = sqs;
 
-		main_1 = (RTS_MAIN_PROGRAM) new RTS_MAIN_PROGRAM((RTS_Simulation) _CUR)._START();
+		main_1 = (RTS_MAIN_PROGRAM) new RTS_MAIN_PROGRAM((RTS_Simulation) _RTX._CUR)._START();
 		main_1.EVENT = new RTS_EVENT_NOTICE(0, main_1);
 		RTS_Ranking.INTO(main_1.EVENT, sqs, 0);
+		sqsLength = 1;
+		_RTX.simulation = this;
 	}
 
 	@Override
@@ -163,6 +172,8 @@ public class RTS_Simulation extends RTS_Simset {
 	public void hold(double time) {
 //		SIM_TRACE("Hold " + time);
 		RTS_Process x = current();
+		RTS_JFR.ProcessEvent event = RTS_JFR.beginProcess("hold", x, x.evtime(), time);
+		eventCount++;
 		if (time > 0) {
 			time = x.evtime() + time;
 			x.EVENT.SET_EVTIME(time);
@@ -179,6 +190,8 @@ public class RTS_Simulation extends RTS_Simset {
 				resume(current());
 			}
 		}
+		if (event != null)
+			event.commit();
 	}
 
 	/// The procedure passivate. It stops the active phase of the currently active process object and deletes
@@ -194,6 +207,14 @@ public class RTS_Simulation extends RTS_Simset {
 	/// 		end passivate;
 	/// </pre>
 	public void passivate() {
+		RTS_JFR.ProcessEvent event = RTS_JFR.beginProcess("passivate", current(), time(), Double.NaN);
+		passivate0();
+		if (event != null)
+			event.commit();
+	}
+
+	/// Utility: 'passivate' without the JFR event. Used by passivate and wait.
+	private void passivate0() {
 		RTS_Process nxtcur = passivate1();
 		SIM_TRACE("END Passivate Resume[" + nxtcur.edObjectIdent() + ']');
 		resume(nxtcur);
@@ -208,7 +229,9 @@ public class RTS_Simulation extends RTS_Simset {
 		if (cur != null) {
 			RTS_Ranking.OUT(cur.EVENT);
 			cur.EVENT = null;
+			sqsLength--;
 		}
+		eventCount++;
 		SIM_TRACE("Passivate " + cur.edObjectIdent());
 		if (RTS_Ranking.EMPTY(sqs))
 			throw new RTS_SimulaRuntimeError("Cancel,Passivate or Wait empties SQS");
@@ -226,9 +249,12 @@ public class RTS_Simulation extends RTS_Simset {
 	/// @param S the head of the set
 	public void wait(final RTS_Head S) {
 //		SIM_TRACE("Wait in Queue " + S);
+		RTS_JFR.ProcessEvent event = RTS_JFR.beginProcess("wait", current(), time(), Double.NaN);
 		current().into(S);
-		passivate();
+		passivate0();
 		SIM_TRACE("Wait in Queue " + S);
+		if (event != null)
+			event.commit();
 	}
 
 	/// The Procedure cancel.
@@ -252,6 +278,7 @@ public class RTS_Simulation extends RTS_Simset {
 		else if (x != null && x.EVENT != null) {
 			RTS_Ranking.OUT(x.EVENT);
 			x.EVENT = null;
+			sqsLength--;
 			SIM_TRACE("Cancel " + x);
 		}
 	}
@@ -308,11 +335,17 @@ public class RTS_Simulation extends RTS_Simset {
 				// X.EVENT.precede(FIRSTEV());
 				RTS_Ranking.INTO(X.EVENT, sqs, X.EVENT.rnk);
 			}
+			sqsLength++;
 			
 			removeEvent(EV);
 			TRACE_ACTIVATE(REAC, X.edObjectIdent());
-			if (prevCurrent != current())
+			RTS_JFR.ProcessEvent event = RTS_JFR.beginProcess((REAC) ? "reactivate" : "activate", X, time(), time());
+			if (prevCurrent != current()) {
+				eventCount++;
 				resume(current());
+			}
+			if (event != null)
+				event.commit();
 		}
 	}
 
@@ -323,6 +356,7 @@ public class RTS_Simulation extends RTS_Simset {
 		if (EV != null) {
 			// EV.out();
 			RTS_Ranking.OUT(EV);
+			sqsLength--;
 			if (RTS_Ranking.EMPTY(sqs))
 				throw new RTS_SimulaRuntimeError("(Re)Activate empties SQS.");
 		}
@@ -364,10 +398,16 @@ public class RTS_Simulation extends RTS_Simset {
 				RTS_Ranking.INTO_PRIOR(X.EVENT, sqs, T);
 			else
 				RTS_Ranking.INTO(X.EVENT, sqs, T);
+			sqsLength++;
 			removeEvent(EV);
 			TRACE_ACTIVATE(REAC, X.edObjectIdent() + " at " + T + ((PRIO) ? "prior" : ""));
-			if (prevCurrent != current())
+			RTS_JFR.ProcessEvent event = RTS_JFR.beginProcess((REAC) ? "reactivate" : "activate", X, time(), T);
+			if (prevCurrent != current()) {
+				eventCount++;
 				resume(current());
+			}
+			if (event != null)
+				event.commit();
 		}
 	}
 
@@ -420,15 +460,21 @@ public class RTS_Simulation extends RTS_Simset {
 					RTS_Ranking.FOLLOW(X.EVENT, Y.EVENT);
 				else
 					RTS_Ranking.PRECEDE(X.EVENT, Y.EVENT);
+				sqsLength++;
 			}
 			removeEvent(EV);
 			TRACE_ACTIVATE(REAC, X.edObjectIdent() + ((BEFORE) ? " BEFORE " : " AFTER ") + Y.edObjectIdent());
+			RTS_JFR.ProcessEvent event = RTS_JFR.beginProcess((REAC) ? "reactivate" : "activate", X, time(),
+					(X.EVENT == null) ? Double.NaN : X.EVENT.EVTIME());
 			if (prevCurrent != current()) {
+				eventCount++;
 				RTS_Process nxtcur = current();
 				SIM_TRACE("END ACTIVATE3 Resume[" + nxtcur.edObjectIdent() + ']');
 				resume(nxtcur);
 			} else
 				SIM_TRACE("END ACTIVATE3 Continue[" + prevCurrent.edObjectIdent() + ']');
+			if (event != null)
+				event.commit();
 
 		}
 	}
@@ -448,7 +494,7 @@ public class RTS_Simulation extends RTS_Simset {
 	/// Utility: Trace Simulation event
 	/// @param msg the event message
 	void SIM_TRACE(final String msg) {
-		if (RTS_Option.SML_TRACING) {
+		if (_RTX.option.SML_TRACING) {
 			RTS_UTIL.println("Time=" + time() + "  " + msg + "  SQS: Current=" + ED_SQS());
 		}
 	}
@@ -69,6 +69,8 @@ public final class RTS_TEXTOBJ extends RTS_RTObject {
 	/// @param cnst true if this text object is constant
 	RTS_TEXTOBJ(final int size, final boolean cnst) {
 		super(null);
+		if (RTS_Metrics.enabled)
+			RTS_Context.current().textObjects++;
 		// Parameter assignment to locals
 		SIZE = size;
 		CONST = cnst;
@@ -81,6 +83,8 @@ public final class RTS_TEXTOBJ extends RTS_RTObject {
 	/// @param s the initial text value
 	RTS_TEXTOBJ(final String s) {
 		super(null);
+		if (RTS_Metrics.enabled)
+			RTS_Context.current().textObjects++;
 		CONST = true;
 		MAIN = s.toCharArray();
 		SIZE = MAIN.length;
@@ -428,18 +428,19 @@ public final class RTS_TXT {
 				T.POS++;
 			}
 		}
+		RTS_Context ctx = RTS_Context.current();
 		while (T.POS < T.LENGTH) { // KEEP DIGITS
 			int lastDigPos = T.POS;
 			c = T.OBJ.MAIN[T.START + T.POS];
 			if (Character.isDigit(c))
 				; // OK
-			else if (c == RTS_ENVIRONMENT.CURRENTDECIMALMARK)
+			else if (c == ctx.CURRENTDECIMALMARK)
 				c = '.'; // OK
 			else if (c == '+')
 				; // OK
 			else if (c == '-')
 				; // OK
-			else if (c == RTS_ENVIRONMENT.CURRENTLOWTEN)
+			else if (c == ctx.CURRENTLOWTEN)
 				c = 'E'; // OK
 			else {
 				T.POS = lastDigPos;
@@ -528,13 +529,14 @@ public final class RTS_TXT {
 			}
 		}
 		int lastDigPos = T.POS;
+		char decimalmark = RTS_Context.current().CURRENTDECIMALMARK;
 		while (T.POS < T.LENGTH) { // KEEP DIGITS
 			c = T.OBJ.MAIN[T.START + T.POS];
 			if (Character.isDigit(c)) {
 				sb.append(c);
 				lastDigPos = T.POS;
 			} // OK
-			else if (c == RTS_ENVIRONMENT.CURRENTDECIMALMARK)
+			else if (c == decimalmark)
 				; // OK NOTE: THIS WAS WRONG IN PC-SIMULA
 			else if (c == ' ')
 				; // OK
@@ -574,8 +576,9 @@ public final class RTS_TXT {
 	/// @param T the text reference
 	/// @param output the result of putReal
 	private static void putRealResult(final RTS_TXT T, String output) {
-		if (RTS_ENVIRONMENT.CURRENTDECIMALMARK != ',')
-			output = output.replace(',', RTS_ENVIRONMENT.CURRENTDECIMALMARK);
+		char decimalmark = RTS_Context.current().CURRENTDECIMALMARK;
+		if (decimalmark != ',')
+			output = output.replace(',', decimalmark);
 		putResult(T, output);
 	}
 
@@ -589,9 +592,10 @@ public final class RTS_TXT {
 	/// @param s the result of put... operation
 	private static void putResult(RTS_TXT T, final String s) {
 		checkAssignable(T);
+		RTS_Context ctx = RTS_Context.current();
 		char[] c = s.toCharArray();
 		if (c.length > T.LENGTH) {
-			RTS_UTIL.numberOfEditOverflows++;
+			ctx.numberOfEditOverflows++;
 			for (int j = 0; j < T.LENGTH; j = j + 1)
 				T.OBJ.MAIN[T.START + j] = '*';
 		} else {
@@ -599,7 +603,7 @@ public final class RTS_TXT {
 			for (int j = T.LENGTH - 1; j >= 0; j = j - 1) {
 				char k = (m >= 0) ? c[m--] : ' ';
 				if (Character.toUpperCase(k) == 'E')
-					k = RTS_ENVIRONMENT.CURRENTLOWTEN;
+					k = ctx.CURRENTLOWTEN;
 				if (k == 160)
 					k = ' '; // String formatted with NumberFormat
 								// may have non-breaking space
@@ -772,7 +776,7 @@ public final class RTS_TXT {
 				r = r - 1;
 				d = d + 1;
 				if (d == n)
-					item[p--] = RTS_ENVIRONMENT.CURRENTDECIMALMARK;
+					item[p--] = RTS_Context.current().CURRENTDECIMALMARK;
 			}
 			if (val < 0)
 				item[p--] = '-';
@@ -8,6 +8,7 @@ package simula.runtime;
 import java.io.File;
 import java.lang.reflect.Field;
 import java.nio.charset.Charset;
+import java.util.function.Consumer;
 import javax.swing.JOptionPane;
 
 /// Utility class containing a lot of common stuff.
@@ -22,18 +23,6 @@ public final class RTS_UTIL {
 	/// The runtime console. May be null
 	static RTS_ConsolePanel console;
 
-	/// The program ident.
-	static String progamIdent;
-	
-	/// The current module ident.
-	static String currentModid;
-	
-	/// The current simula source line number.
-	static int currentSimLine;
-	
-	/// Number of edit overflows.
-	static int numberOfEditOverflows;
-
 
 
 	// *****************************************
@@ -312,55 +301,56 @@ public final class RTS_UTIL {
 	/// @param e the Throwable Object
 	/// @param obj the RTObject which object that received the exception
 	public static void treatException(final Throwable e, final RTS_RTObject obj) {
-		String threadID = (RTS_Option.VERBOSE) ? ("Thread:" + Thread.currentThread().getName() + '[' + obj + "]: ") : "";
-		if (RTS_Option.GOTO_TRACING) {
+		RTS_Context ctx = obj._RTX;
+		String threadID = (ctx.option.VERBOSE) ? ("Thread:" + Thread.currentThread().getName() + '[' + obj + "]: ") : "";
+		if (ctx.option.GOTO_TRACING) {
 			RTS_UTIL.println("\nRTS_RTObject.treatException: In "+ threadID + e);
 			e.printStackTrace(System.out);
 		}
 		
 		if (e instanceof RTS_LABEL) {
-			if (RTS_Option.GOTO_TRACING) {
+			if (ctx.option.GOTO_TRACING) {
 				RTS_UTIL.println("POSSIBLE GOTO OUT OF COMPONENT " + obj.edObjectAttributes());
 			}
 			RTS_RTObject DL = obj._DL;
-			if (DL != null && DL != RTS_RTObject._CTX) {
-				if (RTS_Option.GOTO_TRACING) {
+			if (DL != null && DL != ctx._CTX) {
+				if (ctx.option.GOTO_TRACING) {
 					System.err.println("DL=" + DL.edObjectAttributes());
 					RTS_UTIL.println("DL=" + DL.edObjectAttributes());
 				}
-				RTS_Coroutine._PENDING_EXCEPTION = (RuntimeException) e;
+				ctx._PENDING_EXCEPTION = (RuntimeException) e;
 				DL._CORUT.run();
 			} else {
 				String msg = "Illegal GOTO " + ((RTS_LABEL) e).identifier;
-				if (RTS_ENVIRONMENT.EXCEPTION_HANDLER != null) {
-					callExceptionHandler(msg);
+				if (ctx.EXCEPTION_HANDLER != null) {
+					callExceptionHandler(ctx, msg);
 				} else {
 					RTS_UTIL.println(threadID + "SIMULA RUNTIME(1) ERROR: " + msg);
-					if (RTS_Option.VERBOSE)
+					if (ctx.option.VERBOSE)
 						e.printStackTrace();
 					
-					if (RTS_Option.GOTO_TRACING) {
+					if (ctx.option.GOTO_TRACING) {
 						IO.println("RTS_UTIL.treatException: Return after 'Illege GOTO' message");
 					}
 					RTS_ENVIRONMENT.exit(-1);
 				}
 			}
 		} else if (e instanceof RTS_EndProgram) {
-			if (RTS_Option.GOTO_TRACING) {
+			if (ctx.option.GOTO_TRACING) {
 				IO.println("RTS_UTIL.treatException: RTS_EndProgram EXIT");
 			}
 			// NOTHING
 		} else if (e instanceof RuntimeException) {
 			String msg = getErrorMessage(e);
 			msg = msg.replace("RTS_SimulaRuntimeError: ", "");
-			if (RTS_ENVIRONMENT.EXCEPTION_HANDLER != null) {
-				callExceptionHandler(msg);
+			if (ctx.EXCEPTION_HANDLER != null) {
+				callExceptionHandler(ctx, msg);
 			} else {
 				RTS_UTIL.printError(threadID + "SIMULA RUNTIME(2) ERROR: " + msg);
-				if (RTS_Option.VERBOSE)
+				if (ctx.option.VERBOSE)
 					Thread.dumpStack();
 				RTS_UTIL.printSimulaStackTrace(e, 0);
-				if(RTS_UTIL.console != null) {
+				if(RTS_UTIL.console != null && !ctx.inProcess) {
 					while(true) Thread.yield();
 				}
 				RTS_ENVIRONMENT.exit(-1);
@@ -370,7 +360,7 @@ public final class RTS_UTIL {
 			String msg = e.getClass().getSimpleName();
 			RTS_UTIL.printError(threadID + "SIMULA RUNTIME(3) ERROR: " + msg);
 			RTS_UTIL.printSimulaStackTrace(e, 0);
-			if (RTS_Option.VERBOSE)
+			if (ctx.option.VERBOSE)
 				e.printStackTrace();
 			RTS_ENVIRONMENT.exit(-1);
 		} else {
@@ -378,20 +368,21 @@ public final class RTS_UTIL {
 			e.printStackTrace();
 			RTS_ENVIRONMENT.exit(-1);
 		}
-		if (RTS_Option.GOTO_TRACING)
+		if (ctx.option.GOTO_TRACING)
 			RTS_UTIL.printThreadList();
 		
 	}
 	
 	/// Utility: Treat Runtime error
+	/// @param ctx the runtime context
 	/// @param msg the message
-	private static void callExceptionHandler(String msg) {
-		RTS_PRCQNT erh = RTS_ENVIRONMENT.EXCEPTION_HANDLER;
+	private static void callExceptionHandler(RTS_Context ctx, String msg) {
+		RTS_PRCQNT erh = ctx.EXCEPTION_HANDLER;
 		try {
-			RTS_ENVIRONMENT.EXCEPTION_HANDLER = null;
+			ctx.EXCEPTION_HANDLER = null;
 			erh.CPF().setPar(new RTS_TXT(msg))._ENT();
 		} catch (RTS_EndProgram e) {
-			if(RTS_Option.GOTO_TRACING) {
+			if(ctx.option.GOTO_TRACING) {
 				IO.println("RTS_UTIL.callExceptionHandler: callExceptionHandler returned with exception: "+e);
 			}
 			// NOTHING
@@ -424,22 +415,23 @@ public final class RTS_UTIL {
 		// _SYSOUT.close();
 		
 		// RTS_BASICIO._SYSOUT.outimage();
-		String img = RTS_BASICIO._SYSOUT.image.edStripedText();
-		if(img.length() > 0) RTS_BASICIO._SYSOUT.outimage();
+		RTS_Context ctx = RTS_Context.current();
+		String img = ctx._SYSOUT.image.edStripedText();
+		if(img.length() > 0) ctx._SYSOUT.outimage();
 		
-		long timeUsed = System.currentTimeMillis() - RTS_RTObject.startTimeMs;
-		if (RTS_Option.VERBOSE) {
-			RTS_UTIL.println("\nEnd program: " + RTS_UTIL.progamIdent);
-			if (RTS_UTIL.numberOfEditOverflows > 0)
-				RTS_UTIL.println(" -  WARNING " + RTS_UTIL.numberOfEditOverflows + " EditOverflows");
+		long timeUsed = System.currentTimeMillis() - ctx.startTimeMs;
+		if (ctx.option.VERBOSE) {
+			RTS_UTIL.println("\nEnd program: " + ctx.programIdent);
+			if (ctx.numberOfEditOverflows > 0)
+				RTS_UTIL.println(" -  WARNING " + ctx.numberOfEditOverflows + " EditOverflows");
 			Runtime runtime = Runtime.getRuntime();
 			RTS_UTIL.println(" -  Memory(used=" + runtime.totalMemory() + ",free=" + runtime.freeMemory() + ')');
 			RTS_UTIL.println(" -  nProcessors=" + runtime.availableProcessors());
 			RTS_UTIL.println(" -  Elapsed Time Approximately " + timeUsed / 1000 + " sec.");
-		} else if (RTS_UTIL.numberOfEditOverflows > 0)
-			RTS_UTIL.println("End program: WARNING " + RTS_UTIL.numberOfEditOverflows + " EditOverflows");
+		} else if (ctx.numberOfEditOverflows > 0)
+			RTS_UTIL.println("End program: WARNING " + ctx.numberOfEditOverflows + " EditOverflows");
 		if (RTS_UTIL.console == null) {
-			if(RTS_Option.GOTO_TRACING) {
+			if(ctx.option.GOTO_TRACING) {
 				IO.println("RTS_UTIL.endProgram: "+exitValue);
 			}
 
@@ -452,38 +444,55 @@ public final class RTS_UTIL {
 	// *** BPRG -- Begin Program
 	// ************************************************************
 	/// The begin program routine (BPRG) is the runtime system initialization
-	/// routine. It will initiate the global data in the runtime system.
+	/// routine. It will create a new runtime context, bind the current thread to it
+	/// and initiate the context's global data.
 	/// @param ident the program identifier
 	/// @param args the arguments
-	public static void BPRG(final String ident, final String[] args) {
-		setRuntimeOptions(args);
-		RTS_Coroutine.INIT();
-		RTS_UTIL.numberOfEditOverflows = 0;
-		RTS_RTObject.startTimeMs = System.currentTimeMillis();
-		RTS_UTIL.progamIdent = ident;
-		if (RTS_RTObject._SYSIN == null) {
-			if (RTS_Option.BLOCK_TRACING) {
-				RTS_UTIL.TRACE("Begin Execution of Simula Program: " + ident);
-			}
-			RTS_RTObject._SYSIN = new RTS_Infile(RTS_RTObject._CTX, new RTS_TXT("#sysin"));
-			RTS_RTObject._SYSOUT = new RTS_Printfile(RTS_RTObject._CTX, new RTS_TXT("#sysout"));
-			RTS_RTObject._SYSIN.open(RTS_ENVIRONMENT.blanks(RTS_RTObject._INPUT_LINELENGTH));
-			RTS_RTObject._SYSOUT.open(RTS_ENVIRONMENT.blanks(RTS_RTObject._OUTPUT_LINELENGTH));
+	/// @return the outermost block instance of the new context
+	public static RTS_BASICIO BPRG(final String ident, final String[] args) {
+		RTS_Context ctx = new RTS_Context(ident, args);
+		ctx.bind();
+		Consumer<RTS_Context> launcher = RTS_Context.launcher.get();
+		if (launcher != null)
+			launcher.accept(ctx);
+		setRuntimeOptions(ctx.option);
+		if (ctx.option.PROFILE)
+			RTS_Profiler.start(ctx);
+		if (ctx.option.JMX)
+			RTS_Metrics.start(ctx);
+		if (ctx.option.CENSUS)
+			RTS_Census.start(ctx);
+		if (ctx.option.BLOCK_TRACING) {
+			RTS_UTIL.TRACE("Begin Execution of Simula Program: " + ident);
 		}
-		RTS_RTObject._CUR = RTS_RTObject._CTX;
+		ctx._SYSIN = new RTS_Infile(ctx._CTX, new RTS_TXT("#sysin"));
+		ctx._SYSOUT = new RTS_Printfile(ctx._CTX, new RTS_TXT("#sysout"));
+		ctx._SYSIN.open(RTS_ENVIRONMENT.blanks(RTS_RTObject._INPUT_LINELENGTH));
+		ctx._SYSOUT.open(RTS_ENVIRONMENT.blanks(RTS_RTObject._OUTPUT_LINELENGTH));
+		ctx._CUR = ctx._CTX;
+		return (ctx._CTX);
 	}
 
 	// ************************************************************
 	// *** RUN_STM -- Run users statements
 	// ************************************************************
-	/// Run users statements
+	/// Run users statements.
+	///
+	/// When the program is done, the current thread is unbound from its runtime context.
 	/// @param usr user program
 	public static void RUN_STM(final RTS_RTObject usr) {
-		RTS_RTObject._USR = (RTS_BASICIO) usr;
+		RTS_Context ctx = usr._RTX;
+		ctx._USR = (RTS_BASICIO) usr;
 		try {
-			RTS_RTObject._USR._STM();
+			ctx._USR._STM();
 		} catch (Throwable e) {
-			RTS_UTIL.treatException(e, RTS_RTObject._USR);
+			RTS_UTIL.treatException(e, ctx._USR);
+		} finally {
+			RTS_Profiler.stop(ctx);
+			RTS_Metrics.stop(ctx);
+			RTS_Census.stop(ctx);
+			ctx.terminateCoroutines();
+			RTS_Context.unbind();
 		}
 	}
 
@@ -499,6 +508,9 @@ public final class RTS_UTIL {
 				+ "  -gotoTracing          Debug: Trace goto statements\n"
 				+ "  -qpsTracing           Debug: Trace detach, resume and call\n"
 				+ "  -smlTracing           Debug: Trace Simulation events\n"
+				+ "  -profile              Sample the execution and write a Simula-level profile at exit\n"
+				+ "  -jmx                  Register a JMX MBean with live runtime metrics\n"
+				+ "  -census               Count the instances of each Simula class and print a census at exit\n"
 				+ "  -sysout <file name>   Specify where a copy of Sysout is written\n"
 				+ "  -userDir <directory>  Specify where Simula files (Outfile, Infile, ...) are written and read\n"
 				+ "                        Default: User working directory. System.property(\"user.dir\")\n"
@@ -507,13 +519,13 @@ public final class RTS_UTIL {
 		RTS_ENVIRONMENT.exit(-2);
 	}
 
-	/// Set runtime options.
-	/// @param args argument array
-	public static void setRuntimeOptions(final String[] args) {
+	/// Set runtime options from the command line arguments.
+	/// @param option the runtime options to set
+	public static void setRuntimeOptions(final RTS_Option option) {
 		File sysoutFile = null;
-		RTS_Option.argv = args;
+		String[] args = option.argv;
 		// Parse command line arguments.
-		RTS_Option.RUNTIME_USER_DIR = System.getProperty("user.dir", null);
+		option.RUNTIME_USER_DIR = System.getProperty("user.dir", null);
 		for (int i = 0; i < args.length; i++) {
 			String arg = args[i];
 			if(arg == null) ; // Nothing
@@ -521,16 +533,19 @@ public final class RTS_UTIL {
 			else if (arg.charAt(0) == '-') { // command line option
 				// General RTS Options
 				if (arg.equalsIgnoreCase("-help"))					help();
-				else if (arg.equalsIgnoreCase("-verbose"))			RTS_Option.VERBOSE = true;
-				else if (arg.equalsIgnoreCase("-noPopup"))			RTS_Option.noPopup = true;
-				else if (arg.equalsIgnoreCase("-blockTracing"))		RTS_Option.BLOCK_TRACING = true;
-				else if (arg.equalsIgnoreCase("-gotoTracing"))		RTS_Option.GOTO_TRACING = true;
-				else if (arg.equalsIgnoreCase("-qpsTracing"))		RTS_Option.QPS_TRACING = true;
-				else if (arg.equalsIgnoreCase("-smlTracing"))		RTS_Option.SML_TRACING = true;
-				else if (arg.equalsIgnoreCase("-userDir"))			RTS_Option.RUNTIME_USER_DIR = args[++i];
+				else if (arg.equalsIgnoreCase("-verbose"))			option.VERBOSE = true;
+				else if (arg.equalsIgnoreCase("-noPopup"))			option.noPopup = true;
+				else if (arg.equalsIgnoreCase("-blockTracing"))		option.BLOCK_TRACING = true;
+				else if (arg.equalsIgnoreCase("-gotoTracing"))		option.GOTO_TRACING = true;
+				else if (arg.equalsIgnoreCase("-qpsTracing"))		option.QPS_TRACING = true;
+				else if (arg.equalsIgnoreCase("-smlTracing"))		option.SML_TRACING = true;
+				else if (arg.equalsIgnoreCase("-profile"))			option.PROFILE = true;
+				else if (arg.equalsIgnoreCase("-jmx"))				option.JMX = true;
+				else if (arg.equalsIgnoreCase("-census"))			option.CENSUS = true;
+				else if (arg.equalsIgnoreCase("-userDir"))			option.RUNTIME_USER_DIR = args[++i];
 			}
 		}
-		if (RTS_Option.VERBOSE) {
+		if (option.VERBOSE) {
 			RTS_UTIL.println("Begin Execution of Simula Program using " + getJavaID());
 			listRuntimeOptions();
 			IO.println("sysout Copy=" + sysoutFile);
@@ -560,20 +575,27 @@ public final class RTS_UTIL {
 
 	/// List runtime options.
 	static void listRuntimeOptions() {
+		RTS_Option option = RTS_Context.current().option;
 		IO.println("file.encoding=" + System.getProperty("file.encoding"));
 		IO.println("defaultCharset=" + Charset.defaultCharset());
-		IO.println("verbose=" + RTS_Option.VERBOSE);
-		IO.println("blockTracing=" + RTS_Option.BLOCK_TRACING);
-		IO.println("gotoTracing=" + RTS_Option.GOTO_TRACING);
-		IO.println("qpsTracing=" + RTS_Option.QPS_TRACING);
-		IO.println("smlTracing=" + RTS_Option.SML_TRACING);
-		IO.println("userDir=" + RTS_Option.RUNTIME_USER_DIR);
+		IO.println("verbose=" + option.VERBOSE);
+		IO.println("blockTracing=" + option.BLOCK_TRACING);
+		IO.println("gotoTracing=" + option.GOTO_TRACING);
+		IO.println("qpsTracing=" + option.QPS_TRACING);
+		IO.println("smlTracing=" + option.SML_TRACING);
+		IO.println("profile=" + option.PROFILE);
+		IO.println("jmx=" + option.JMX);
+		IO.println("census=" + option.CENSUS);
+		IO.println("userDir=" + option.RUNTIME_USER_DIR);
 	}
 
 	/// Print a line on the runtime console if present, otherwise on System.out
 	/// @param msg the message to print
 	static void println(final String msg) {
-		if(RTS_Option.noPopup) {
+		RTS_Context ctx = RTS_Context.current();
+		if(ctx.sysoutWriter != null) {
+			ctx.printCaptured(msg);
+		} else if(ctx.option.noPopup) {
 			IO.println(msg);
 		} else {
 			ensureOpenRuntimeConsole();
@@ -584,7 +606,10 @@ public final class RTS_UTIL {
 	/// Print an error on the runtime console if present, otherwise on System.out
 	/// @param msg the message to print
 	static void printError(final String msg) {
-		if(RTS_Option.noPopup) {
+		RTS_Context ctx = RTS_Context.current();
+		if(ctx.sysoutWriter != null) {
+			ctx.printCaptured(msg);
+		} else if(ctx.option.noPopup) {
 			IO.println(msg);
 		} else {
 			ensureOpenRuntimeConsole();
@@ -595,7 +620,10 @@ public final class RTS_UTIL {
 	/// Print a warning message on the runtime console if present, otherwise on System.out
 	/// @param msg the message to print
 	static void printWarning(final String msg) {
-		if(RTS_Option.noPopup) {
+		RTS_Context ctx = RTS_Context.current();
+		if(ctx.sysoutWriter != null) {
+			ctx.printCaptured(msg);
+		} else if(ctx.option.noPopup) {
 			IO.println(msg);
 		} else {
 			ensureOpenRuntimeConsole();
@@ -642,7 +670,7 @@ public final class RTS_UTIL {
 	/// @param sequ a sequence number
 	/// @param msg a message
 	public static void _SNAPSHOT(int sequ,String msg) {
-		String id=RTS_UTIL.progamIdent;
+		String id=RTS_Context.current().programIdent;
 		println("*** SNAPSHOT-"+id+"["+sequ+"]: "+msg);
 		StackTraceElement stackTraceElement[] = Thread.currentThread().getStackTrace();
 		int n = stackTraceElement.length;
@@ -656,7 +684,7 @@ public final class RTS_UTIL {
 	/// @param sequ a sequence number
 	/// @param msg a message
 	public static void _SNAPSHOT(Object TOS,int sequ,String msg) {
-		String id=RTS_UTIL.progamIdent;
+		String id=RTS_Context.current().programIdent;
 		println("*** SNAPSHOT-"+id+"["+sequ+"]: "+msg+", TOS="+TOS.getClass().getSimpleName()+"  "+TOS);
 		StackTraceElement stackTraceElement[] = Thread.currentThread().getStackTrace();
 		int n = stackTraceElement.length;
@@ -667,7 +695,7 @@ public final class RTS_UTIL {
 
 	/// Print static chain starting with the current instance.
 	static void printStaticChain() {
-		RTS_UTIL.printStaticChain(RTS_RTObject._CUR);
+		RTS_UTIL.printStaticChain(RTS_Context.current()._CUR);
 	}
 
 	/// Print static chain starting with 'ins'
@@ -702,8 +730,9 @@ public final class RTS_UTIL {
 	/// @param stackTraceElement Java stackTrace
 	/// @param start start index in Java stackTrace
 	private static void printSimulaStackTrace(final StackTraceElement stackTraceElement[], final int start) {
-		if (currentModid != null) {
-			RTS_UTIL.println("In " + currentModid + " at line " + currentSimLine);
+		RTS_Context ctx = RTS_Context.current();
+		if (ctx.currentModid != null) {
+			RTS_UTIL.println("In " + ctx.currentModid + " at line " + ctx.currentSimLine);
 		} else {
 			int n = stackTraceElement.length;
 			LOOP: for (int i = start; i < (n - 1); i++) {
@@ -711,7 +740,7 @@ public final class RTS_UTIL {
 					break LOOP;
 			}
 		}
-		if (RTS_Option.VERBOSE) {
+		if (ctx.option.VERBOSE) {
 			RTS_UTIL.println("*** DYNAMIC CHAIN:");
 			int n = stackTraceElement.length;
 			for (int i = start; i < (n - 1); i++) {
@@ -737,21 +766,15 @@ public final class RTS_UTIL {
 			Class<?> cls = Class.forName(elt.getClassName());
 			Field field = cls.getField("_INFO");
 			RTS_PROGINFO info = (RTS_PROGINFO) field.get(null);
-			int[] lineMap = info.LINEMAP_;
-			int x = 0;
-			int javaLineNumber = elt.getLineNumber();
-			try {
-				while (lineMap[x] < javaLineNumber)
-					x = x + 2;
+			int simulaLine = info.simulaLine(elt.getLineNumber());
+			if (simulaLine > 0) {
 				StringBuilder sb = new StringBuilder();
 				sb.append(lead + info.ident);
-				if (RTS_Option.VERBOSE)
+				if (RTS_Context.current().option.VERBOSE)
 					sb.append("(" + elt.getFileName() + ':' + elt.getLineNumber() + " " + elt.getMethodName() + ")");
-				sb.append(" at Simula Source Line " + lineMap[x - 1] + "[" + info.file + "]");
+				sb.append(" at Simula Source Line " + simulaLine + "[" + info.file + "]");
 				RTS_UTIL.println(sb.toString());
 				return (true);
-			} catch (Throwable t) {
-				t.printStackTrace();
 			}
 		} catch (Exception e) {
 //			if (Option.VERBOSE)   // TODO:
@@ -793,8 +816,9 @@ public final class RTS_UTIL {
 	/// @param modid new current modid
 	/// @param simLine new Simula source line number
 	public static void _LINE(String modid, int simLine) {
-		currentModid = modid;
-		currentSimLine = simLine;
+		RTS_Context ctx = RTS_Context.current();
+		ctx.currentModid = modid;
+		ctx.currentSimLine = simLine;
 	}
 
 }